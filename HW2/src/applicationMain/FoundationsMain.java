@@ -1,8 +1,11 @@
 package applicationMain;
 	
 import java.sql.SQLException;
+import database.AsyncDatabase;
 import database.Database;
+import guiTools.FxThreadWatchdog;
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.stage.Stage;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Alert.AlertType;
@@ -77,6 +80,17 @@ public class FoundationsMain extends Application {
 	 */
 	public static Database database = new Database();
 	
+	/**
+	 * Runs database calls off the JavaFX Application Thread. GUI handlers use it for anything that
+	 * may wait on the database; the futures it returns complete on the JavaFX Application Thread.
+	 */
+	public static AsyncDatabase asyncDatabase = new AsyncDatabase(database, Platform::runLater);
+	
+	/**
+	 * How long the JavaFX Application Thread may be busy before the watchdog reports a stall.
+	 */
+	public final static long FX_STALL_THRESHOLD_MILLIS = 250;
+	
 	private Alert databaseInUse = new Alert(AlertType.INFORMATION);
 
 	/**
@@ -107,6 +121,9 @@ public class FoundationsMain extends Application {
 			System.exit(0);
 		}
 		
+		// Report any handler that keeps the JavaFX Application Thread busy for too long
+		FxThreadWatchdog.start(FX_STALL_THRESHOLD_MILLIS);
+		
 		// If the database is empty, no users have been established, so this user must be an admin
 		// user doing initial system startup activities and we need to set that admin's username
 		// and password using a special start you page.
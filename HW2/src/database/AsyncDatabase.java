@@ -0,0 +1,124 @@
+package database;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * <p> Title: AsyncDatabase Class. </p>
+ *
+ * <p> Description: Runs Database calls off the caller's thread. A GUI handler passes the call as a
+ * lambda, gets a CompletableFuture back straight away, and attaches what to do with the answer;
+ * the JavaFX Application Thread never waits on JDBC, so a slow query no longer freezes the
+ * window. </p>
+ *
+ * <p> Each call runs on its own virtual thread, and a semaphore lets at most maxConcurrent of
+ * them use the database at once (by default the connection pool size), so a burst of clicks
+ * queues here instead of holding threads blocked in the pool. The futures are completed through
+ * the callback executor given to the constructor; the application passes Platform::runLater, so
+ * every stage attached to a future runs on the JavaFX Application Thread and may touch widgets.
+ * This class itself does not depend on JavaFX. </p>
+ *
+ * @author Amairani Caballero
+ */
+public final class AsyncDatabase implements AutoCloseable {
+
+	private final Database database;
+
+	private final Executor callbackExecutor;
+
+	private final Semaphore permits;
+
+	private final ExecutorService executor =
+			Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("database-", 0).factory());
+
+	/**
+	 * <p> Description: Creates a facade that runs as many calls at once as the connection pool
+	 * has connections. </p>
+	 *
+	 * @param database the database the calls run against
+	 * @param callbackExecutor the executor that completes the returned futures
+	 */
+	public AsyncDatabase(Database database, Executor callbackExecutor) {
+		this(database, Database.POOL_MAX_SIZE, callbackExecutor);
+	}
+
+	/**
+	 * @param database the database the calls run against
+	 * @param maxConcurrent the most calls that may run at once
+	 * @param callbackExecutor the executor that completes the returned futures
+	 */
+	public AsyncDatabase(Database database, int maxConcurrent, Executor callbackExecutor) {
+		if (maxConcurrent < 1) throw new IllegalArgumentException("maxConcurrent must be at least 1");
+		this.database = database;
+		this.permits = new Semaphore(maxConcurrent, true);
+		this.callbackExecutor = callbackExecutor;
+	}
+
+	/**
+	 * <p> Description: Runs a query in the background. </p>
+	 *
+	 * @param <T> the type of the answer
+	 * @param query the call to make, e.g. {@code db -> db.authenticate(username, password)}
+	 * @return a future completed, on the callback executor, with the answer or with the exception
+	 * the call threw
+	 */
+	public <T> CompletableFuture<T> call(Function<Database, ? extends T> query) {
+		CompletableFuture<T> result = new CompletableFuture<>();
+		try {
+			executor.execute(() -> {
+				try {
+					permits.acquire();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					callbackExecutor.execute(() -> result.completeExceptionally(e));
+					return;
+				}
+				try {
+					T answer = query.apply(database);
+					callbackExecutor.execute(() -> result.complete(answer));
+				} catch (Throwable t) {
+					callbackExecutor.execute(() -> result.completeExceptionally(t));
+				} finally {
+					permits.release();
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			result.completeExceptionally(e);
+		}
+		return result;
+	}
+
+	/**
+	 * <p> Description: Runs an update that has no answer in the background. </p>
+	 *
+	 * @param update the call to make, e.g. {@code db -> db.removeInvitationAfterUse(code)}
+	 * @return a future completed, on the callback executor, when the call is done
+	 */
+	public CompletableFuture<Void> run(Consumer<Database> update) {
+		return call(db -> {
+			update.accept(db);
+			return null;
+		});
+	}
+
+	/**
+	 * @return the number of calls waiting for a turn at the database
+	 */
+	public int getQueuedCalls() {
+		return permits.getQueueLength();
+	}
+
+	/**
+	 * <p> Description: Stops accepting calls; calls already submitted still run. </p>
+	 */
+	@Override
+	public void close() {
+		executor.shutdown();
+	}
+}
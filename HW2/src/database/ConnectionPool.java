@@ -0,0 +1,338 @@
+package database;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p> Title: ConnectionPool Class. </p>
+ *
+ * <p> Description: A small pool of JDBC connections to the H2 database, used by the Database class
+ * so that several threads (GUI sessions, background tasks) can run queries at the same time instead
+ * of sharing one Connection and one Statement. </p>
+ *
+ * <p> A caller borrows a connection with {@link #borrow()} and gives it back by closing the returned
+ * {@link PooledConnection}, normally with try-with-resources. The pool opens minSize connections up
+ * front and never has more than maxSize connections out at once; a caller that finds all of them in
+ * use waits up to the acquire timeout and then gets an SQLException. Idle connections are reused
+ * most-recently-returned first, and a connection that has been idle longer than the validation
+ * interval is checked with Connection.isValid before it is handed out. Broken connections are
+ * dropped, and whenever that leaves fewer than minSize connections open the pool opens new idle
+ * ones right away, so the minimum holds for the pool's whole life. </p>
+ *
+ * <p> Each connection keeps a {@link StatementCache} of up to statementCacheSize prepared
+ * statements, so a query that was prepared on a connection before is not parsed again. The pool
+ * counts the cache hits and misses of all its connections. </p>
+ *
+ * @author Amairani Caballero
+ */
+public class ConnectionPool implements AutoCloseable {
+
+	/** Seconds allowed for the isValid check on an idle connection. */
+	private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+	// Connection settings
+	private final String url;
+	private final String user;
+	private final String password;
+
+	// Pool settings
+	private final int minSize;
+	private final int maxSize;
+	private final long acquireTimeoutMillis;
+	private final long validationIntervalNanos;
+	private final int statementCacheSize;
+
+	/** One permit per connection that may be borrowed, so at most maxSize are out at once. */
+	private final Semaphore permits;
+
+	/** Connections waiting to be borrowed, most recently returned first. */
+	private final LinkedBlockingDeque<IdleConnection> idle = new LinkedBlockingDeque<>();
+
+	/** Number of physical connections currently open (idle or borrowed). */
+	private final AtomicInteger openCount = new AtomicInteger();
+
+	// Prepared statement cache counters, shared by every connection's cache
+	private final LongAdder statementHits = new LongAdder();
+	private final LongAdder statementMisses = new LongAdder();
+
+	private volatile boolean closed;
+
+	/**
+	 * <p> Description: Creates a pool without prepared statement caching and opens its first
+	 * minSize connections. </p>
+	 *
+	 * @param url JDBC url of the database
+	 * @param user database user
+	 * @param password database password
+	 * @param minSize connections opened up front (0 or more)
+	 * @param maxSize most connections that may be borrowed at once (at least 1, not below minSize)
+	 * @param acquireTimeoutMillis how long borrow() waits for a free connection
+	 * @param validationIntervalMillis idle time after which a connection is validated before reuse
+	 * @throws SQLException if one of the initial connections cannot be opened
+	 */
+	public ConnectionPool(String url, String user, String password, int minSize, int maxSize,
+			long acquireTimeoutMillis, long validationIntervalMillis) throws SQLException {
+		this(url, user, password, minSize, maxSize, acquireTimeoutMillis, validationIntervalMillis, 0);
+	}
+
+	/**
+	 * <p> Description: Creates the pool and opens its first minSize connections. </p>
+	 *
+	 * @param url JDBC url of the database
+	 * @param user database user
+	 * @param password database password
+	 * @param minSize connections opened up front (0 or more)
+	 * @param maxSize most connections that may be borrowed at once (at least 1, not below minSize)
+	 * @param acquireTimeoutMillis how long borrow() waits for a free connection
+	 * @param validationIntervalMillis idle time after which a connection is validated before reuse
+	 * @param statementCacheSize prepared statements kept per connection (0 turns caching off)
+	 * @throws SQLException if one of the initial connections cannot be opened
+	 */
+	public ConnectionPool(String url, String user, String password, int minSize, int maxSize,
+			long acquireTimeoutMillis, long validationIntervalMillis, int statementCacheSize)
+			throws SQLException {
+		if (minSize < 0 || maxSize < 1 || minSize > maxSize) {
+			throw new IllegalArgumentException("Invalid pool size: min=" + minSize + ", max=" + maxSize);
+		}
+		if (acquireTimeoutMillis < 0 || validationIntervalMillis < 0) {
+			throw new IllegalArgumentException("Pool timeouts must not be negative.");
+		}
+		if (statementCacheSize < 0) {
+			throw new IllegalArgumentException("Invalid statement cache size: " + statementCacheSize);
+		}
+		this.url = url;
+		this.user = user;
+		this.password = password;
+		this.minSize = minSize;
+		this.maxSize = maxSize;
+		this.acquireTimeoutMillis = acquireTimeoutMillis;
+		this.validationIntervalNanos = TimeUnit.MILLISECONDS.toNanos(validationIntervalMillis);
+		this.statementCacheSize = statementCacheSize;
+		this.permits = new Semaphore(maxSize, true);
+
+		try {
+			for (int i = 0; i < minSize; i++) {
+				Connection connection = open();
+				idle.offerLast(new IdleConnection(connection, newStatementCache(connection)));
+			}
+		} catch (SQLException e) {
+			// Not close(): a subclass could override it, and it must not see a half built pool
+			closed = true;
+			closeIdle();
+			throw e;
+		}
+	}
+
+	/**
+	 * <p> Description: Borrows a connection. Close the returned object to give it back. </p>
+	 *
+	 * @return a connection that only the caller uses until it is closed
+	 * @throws SQLException if the pool is closed, no connection frees up within the acquire
+	 * timeout, or a new connection cannot be opened
+	 */
+	public PooledConnection borrow() throws SQLException {
+		if (closed) throw new SQLException("The connection pool is closed.");
+
+		boolean acquired;
+		try {
+			acquired = permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new SQLException("Interrupted while waiting for a database connection.", e);
+		}
+		if (!acquired) {
+			throw new SQLTransientConnectionException(
+					"No database connection became free within " + acquireTimeoutMillis + " ms.");
+		}
+
+		try {
+			IdleConnection candidate;
+			while ((candidate = idle.pollFirst()) != null) {
+				if (isUsable(candidate)) {
+					return new PooledConnection(this, candidate.connection, candidate.statements);
+				}
+				discard(candidate.connection, candidate.statements);
+			}
+			Connection connection = open();
+			return new PooledConnection(this, connection, newStatementCache(connection));
+		} catch (SQLException | RuntimeException e) {
+			permits.release();
+			throw e;
+		}
+	}
+
+	/**
+	 * <p> Description: Takes a connection back from a PooledConnection. A connection left in a
+	 * transaction is rolled back and returned to auto-commit, and a connection that is closed or
+	 * fails to reset is dropped. </p>
+	 *
+	 * @param connection the physical connection being returned
+	 * @param statements the connection's prepared statement cache
+	 */
+	void release(Connection connection, StatementCache statements) {
+		try {
+			if (closed || connection.isClosed()) {
+				discard(connection, statements);
+				return;
+			}
+			if (!connection.getAutoCommit()) {
+				connection.rollback();
+				connection.setAutoCommit(true);
+			}
+			idle.offerFirst(new IdleConnection(connection, statements));
+			// close() may have drained the idle list while this connection was out
+			if (closed) closeIdle();
+		} catch (SQLException e) {
+			discard(connection, statements);
+		} finally {
+			permits.release();
+		}
+	}
+
+	/**
+	 * @return the smallest number of connections the pool keeps open
+	 */
+	public int getMinSize() {
+		return minSize;
+	}
+
+	/**
+	 * @return the largest number of connections that may be borrowed at once
+	 */
+	public int getMaxSize() {
+		return maxSize;
+	}
+
+	/**
+	 * @return number of physical connections currently open, idle or borrowed
+	 */
+	public int getOpenCount() {
+		return openCount.get();
+	}
+
+	/**
+	 * @return number of open connections waiting to be borrowed
+	 */
+	public int getIdleCount() {
+		return idle.size();
+	}
+
+	/**
+	 * @return number of connections currently borrowed
+	 */
+	public int getBorrowedCount() {
+		return maxSize - permits.availablePermits();
+	}
+
+	/**
+	 * @return number of prepared statements that were reused from a connection's cache
+	 */
+	public long getStatementCacheHits() {
+		return statementHits.sum();
+	}
+
+	/**
+	 * @return number of prepared statements that had to be prepared on the connection
+	 */
+	public long getStatementCacheMisses() {
+		return statementMisses.sum();
+	}
+
+	/**
+	 * <p> Description: Closes every idle connection and stops lending new ones. Connections that are
+	 * still borrowed are closed when they are returned. </p>
+	 */
+	@Override
+	public void close() {
+		closed = true;
+		closeIdle();
+	}
+
+	private boolean isUsable(IdleConnection candidate) {
+		try {
+			if (candidate.connection.isClosed()) return false;
+			if (System.nanoTime() - candidate.idleSince < validationIntervalNanos) return true;
+			return candidate.connection.isValid(VALIDATION_TIMEOUT_SECONDS);
+		} catch (SQLException e) {
+			return false;
+		}
+	}
+
+	private Connection open() throws SQLException {
+		Connection connection = DriverManager.getConnection(url, user, password);
+		openCount.incrementAndGet();
+		return connection;
+	}
+
+	private StatementCache newStatementCache(Connection connection) {
+		return new StatementCache(connection, statementCacheSize, statementHits, statementMisses);
+	}
+
+	private void discard(Connection connection, StatementCache statements) {
+		statements.clear();
+		openCount.decrementAndGet();
+		try {
+			connection.close();
+		} catch (SQLException e) {
+			e.printStackTrace();
+		}
+		if (!closed) topUp();
+	}
+
+	/**
+	 * Opens idle connections until minSize are open. A slot is reserved in openCount before
+	 * connecting, so threads that discard at the same time do not open more than needed. If the
+	 * database cannot be reached, the next discard tries again.
+	 */
+	private void topUp() {
+		while (true) {
+			int open = openCount.get();
+			if (open >= minSize) return;
+			if (!openCount.compareAndSet(open, open + 1)) continue;
+			Connection connection;
+			try {
+				connection = DriverManager.getConnection(url, user, password);
+			} catch (SQLException e) {
+				openCount.decrementAndGet();
+				return;
+			}
+			idle.offerLast(new IdleConnection(connection, newStatementCache(connection)));
+			// close() may have drained the idle list while this connection was opening
+			if (closed) {
+				closeIdle();
+				return;
+			}
+		}
+	}
+
+	private void closeIdle() {
+		IdleConnection candidate;
+		while ((candidate = idle.pollFirst()) != null) {
+			discard(candidate.connection, candidate.statements);
+		}
+	}
+
+	/**
+	 * An idle connection, its statement cache and the time it was returned to the pool.
+	 */
+	private static final class IdleConnection {
+
+		private final Connection connection;
+
+		private final StatementCache statements;
+
+		private final long idleSince = System.nanoTime();
+
+		private IdleConnection(Connection connection, StatementCache statements) {
+			this.connection = connection;
+			this.statements = statements;
+		}
+	}
+}
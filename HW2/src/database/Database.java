@@ -1,14 +1,37 @@
 package database;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
-import java.util.UUID;
+import java.util.Optional;
 import java.time.*;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import entityClasses.AuthenticationResult;
+import entityClasses.ImportReport;
+import entityClasses.InputRecognizer;
+import entityClasses.InvitationBatchResult;
 import entityClasses.InvitationCode;
+import entityClasses.InvitationRequest;
+import entityClasses.ProfileField;
+import entityClasses.Role;
+import entityClasses.RosterValidationReport;
+import entityClasses.RosterValidator;
 import entityClasses.User;
+import entityClasses.UserPage;
+import entityClasses.UserRecord;
+import entityClasses.UserSummary;
+import entityClasses.ValidationResult;
 
 /**
  * <p> Title: Database Class. </p>
@@ -34,22 +57,51 @@ public class Database {
 	static final String USER = "sa"; 
 	static final String PASS = ""; 
 
+	// Connection pool settings
+	static final int POOL_MIN_SIZE = 2;
+	static final int POOL_MAX_SIZE = 8;
+	static final long POOL_ACQUIRE_TIMEOUT_MILLIS = 5000;
+	static final long POOL_VALIDATION_INTERVAL_MILLIS = 30000;
+	static final int POOL_STATEMENT_CACHE_SIZE = 32;	// Prepared statements kept per connection
+
+	// Query instrumentation; see QueryMetrics
+	static final long SLOW_QUERY_THRESHOLD_MILLIS = 200;	// Slower calls are logged
+	static final String QUERY_METRICS_MBEAN_NAME = "database:type=QueryMetrics";
+
+	// Roster import and export settings
+	static final int IMPORT_BATCH_SIZE = 500;		// Accounts inserted and committed together
+	static final int EXPORT_FETCH_SIZE = 500;		// Rows the driver fetches at a time
+
+	// The columns read into a UserRecord.
+	private static final String USER_RECORD_COLUMNS = "userName, password, firstName, middleName, "
+			+ "lastName, preferredFirstName, emailAddress, adminRole, newRole1, newRole2";
+
+	// The columns of a roster, in export order. Passwords are never exported.
+	private static final String[] ROSTER_COLUMNS = {"userName", "firstName", "middleName", "lastName",
+			"preferredFirstName", "emailAddress", "adminRole", "newRole1", "newRole2"};
+
+	private static final String INSERT_USER = "INSERT INTO userDB (userName, password, firstName, "
+			+ "middleName, lastName, preferredFirstName, emailAddress, adminRole, newRole1, newRole2) "
+			+ "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+	// Expired invitation codes are deleted in the background; see InvitationSweeper
+	static final long INVITATION_SWEEP_INTERVAL_MILLIS = 60000;
+	static final int INVITATION_SWEEP_BATCH_SIZE = 100;
+
+	// Invitation codes
+	static final Duration INVITATION_LIFETIME = Duration.ofMinutes(15);
+	static final int INVITATION_CODE_ATTEMPTS = 5;	// New codes tried when a code is already taken
+
+	private static final String INSERT_INVITATION = "INSERT INTO InvitationCodes "
+			+ "(code, emailAddress, role, expiresAt, usedAt) VALUES (?, ?, ?, ?, NULL)";
+
 	// Shared variables used within this class
-	private Connection connection = null;		// Singleton to access the database 
-	private Statement statement = null;			// The H2 Statement is used to construct queries
-	
-	// These are the easily accessible attributes of the currently logged-in user
-	// This is only useful for single user applications
-	private String currentUsername;
-	private String currentPassword;
-	private String currentFirstName;
-	private String currentMiddleName;
-	private String currentLastName;
-	private String currentPreferredFirstName;
-	private String currentEmailAddress;
-	private boolean currentAdminRole;
-	private boolean currentNewRole1;
-	private boolean currentNewRole2;
+	private ConnectionPool pool = null;			// Every method borrows its connection from this pool
+	private InvitationSweeper invitationSweeper = null;
+	private long invitationSweepIntervalMillis = INVITATION_SWEEP_INTERVAL_MILLIS;
+	private int invitationSweepBatchSize = INVITATION_SWEEP_BATCH_SIZE;
+	private final QueryMetrics queryMetrics = new QueryMetrics(SLOW_QUERY_THRESHOLD_MILLIS);
+	private ObjectName queryMetricsName = null;		// Set while the metrics are published over JMX
 
 	/**
 	 * <p> Description: The default constructor used to establish this singleton object.</p>
@@ -60,56 +112,51 @@ public class Database {
 	
 	/**
 	 * <p> Description: Used to establish the in-memory instance of the H2 database from secondary
-	 * storage.</p>
+	 * storage. A pool of connections is opened so that several threads can use the database at
+	 * the same time; each method below borrows a connection and gives it back when done.</p>
 	 *
 	 * @throws SQLException when the DriverManager is unable to establish a connection
 	 */
 	public void connectToDatabase() throws SQLException {
+		queryMetrics.measure("Database.connectToDatabase", () -> {
+			connectToDatabase(DB_URL);
+		});
+	}
+
+	/**
+	 * <p> Description: Connects to the H2 database at the given url, used by benchmarks to run
+	 * against a private in-memory database.</p>
+	 *
+	 * @param url the JDBC url of the database
+	 * @throws SQLException when the DriverManager is unable to establish a connection
+	 */
+	void connectToDatabase(String url) throws SQLException {
 		try {
 			Class.forName(JDBC_DRIVER); // Load the JDBC driver
-			connection = DriverManager.getConnection(DB_URL, USER, PASS);
-			statement = connection.createStatement(); 
-			// You can use this command to clear the database and restart from fresh.
-			//statement.execute("DROP ALL OBJECTS");
+			pool = new ConnectionPool(url, USER, PASS, POOL_MIN_SIZE, POOL_MAX_SIZE,
+					POOL_ACQUIRE_TIMEOUT_MILLIS, POOL_VALIDATION_INTERVAL_MILLIS, POOL_STATEMENT_CACHE_SIZE);
+			registerQueryMetrics();
 
 			createTables();  // Create the necessary tables if they don't exist
+			invitationSweeper = InvitationSweeper.start(pool, invitationSweepIntervalMillis,
+					invitationSweepBatchSize);
 		} catch (ClassNotFoundException e) {
 			System.err.println("JDBC Driver not found: " + e.getMessage());
 		}
 	}
 
 	/**
-	 * <p> Description: Used to create new instances of the two database tables used by this class.</p>
+	 * <p> Description: Used to create the database tables used by this class, or bring an existing
+	 * database up to the current schema. See SchemaMigrator; when the schema is already current
+	 * no DDL is run.</p>
 	 *
-	 * @throws SQLException if there is an error executing the table creation statements
+	 * @throws SQLException if there is an error reading the schema version or running a migration
 	 */
 	private void createTables() throws SQLException {
-		// Create the user database
-		String userTable = "CREATE TABLE IF NOT EXISTS userDB ("
-				+ "id INT AUTO_INCREMENT PRIMARY KEY, "
-				+ "userName VARCHAR(255) UNIQUE, "
-				+ "password VARCHAR(255), "
-				+ "firstName VARCHAR(255), "
-				+ "middleName VARCHAR(255), "
-				+ "lastName VARCHAR (255), "
-				+ "preferredFirstName VARCHAR(255), "
-				+ "emailAddress VARCHAR(255), "
-				+ "adminRole BOOL DEFAULT FALSE, "
-				+ "newRole1 BOOL DEFAULT FALSE, "
-				+ "newRole2 BOOL DEFAULT FALSE)";
-		statement.execute(userTable);
-		
-		//create tmp_pass column for storage
-		statement.execute("ALTER TABLE userDB ADD COLUMN IF NOT EXISTS tmp_password VARCHAR(255)");
-		
-		// Create the invitation codes table
-		String invitationCodesTable = "CREATE TABLE IF NOT EXISTS InvitationCodes ("
-				+ "code VARCHAR(10) PRIMARY KEY, "
-				+ "emailAddress VARCHAR(255), "
-				+ "role VARCHAR(10),"
-				+ "expiresAt TIMESTAMP, "
-				+ "usedAt TIMESTAMP)";
-		statement.execute(invitationCodesTable);
+		try (PooledConnection conn = pool.borrow()) {
+			// You can use the command "DROP ALL OBJECTS" to clear the database and restart from fresh.
+			SchemaMigrator.migrate(conn);
+		}
 	}
 
 	/**
@@ -118,16 +165,20 @@ public class Database {
 	 * @return true if the database is empty, else it returns false
 	 */
 	public boolean isDatabaseEmpty() {
-		String query = "SELECT COUNT(*) AS count FROM userDB";
-		try {
-			ResultSet resultSet = statement.executeQuery(query);
-			if (resultSet.next()) {
-				return resultSet.getInt("count") == 0;
+		return queryMetrics.measure("Database.isDatabaseEmpty", () -> {
+			String query = "SELECT COUNT(*) AS count FROM userDB";
+			try (PooledConnection conn = pool.borrow();
+				 Statement statement = conn.createStatement()) {
+				ResultSet resultSet = statement.executeQuery(query);
+				if (resultSet.next()) {
+					return resultSet.getInt("count") == 0;
+				}
+			}  catch (SQLException e) {
+				queryFailed(e);
+				return false;
 			}
-		}  catch (SQLException e) {
-			return false;
-		}
-		return true;
+			return true;
+		});
 	}
 	
 	/**
@@ -136,16 +187,20 @@ public class Database {
 	 * @return the number of user records in the database.
 	 */
 	public int getNumberOfUsers() {
-		String query = "SELECT COUNT(*) AS count FROM userDB";
-		try {
-			ResultSet resultSet = statement.executeQuery(query);
-			if (resultSet.next()) {
-				return resultSet.getInt("count");
+		return queryMetrics.measure("Database.getNumberOfUsers", () -> {
+			String query = "SELECT COUNT(*) AS count FROM userDB";
+			try (PooledConnection conn = pool.borrow();
+				 Statement statement = conn.createStatement()) {
+				ResultSet resultSet = statement.executeQuery(query);
+				if (resultSet.next()) {
+					return resultSet.getInt("count");
+				}
+			} catch (SQLException e) {
+				queryFailed(e);
+				return 0;
 			}
-		} catch (SQLException e) {
 			return 0;
-		}
-		return 0;
+		});
 	}
 
 	/**
@@ -155,41 +210,236 @@ public class Database {
 	 * @throws SQLException when there is an issue creating the SQL command or executing it.
 	 */
 	public void register(User user) throws SQLException {
-		String insertUser = "INSERT INTO userDB (userName, password, firstName, middleName, "
-				+ "lastName, preferredFirstName, emailAddress, adminRole, newRole1, newRole2) "
-				+ "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
-		try (PreparedStatement pstmt = connection.prepareStatement(insertUser)) {
-			currentUsername = user.getUserName();
-			pstmt.setString(1, currentUsername);
-			
-			currentPassword = user.getPassword();
-			pstmt.setString(2, currentPassword);
-			
-			currentFirstName = user.getFirstName();
-			pstmt.setString(3, currentFirstName);
-			
-			currentMiddleName = user.getMiddleName();			
-			pstmt.setString(4, currentMiddleName);
-			
-			currentLastName = user.getLastName();
-			pstmt.setString(5, currentLastName);
-			
-			currentPreferredFirstName = user.getPreferredFirstName();
-			pstmt.setString(6, currentPreferredFirstName);
-			
-			currentEmailAddress = user.getEmailAddress();
-			pstmt.setString(7, currentEmailAddress);
-			
-			currentAdminRole = user.getAdminRole();
-			pstmt.setBoolean(8, currentAdminRole);
-			
-			currentNewRole1 = user.getNewRole1();
-			pstmt.setBoolean(9, currentNewRole1);
-			
-			currentNewRole2 = user.getNewRole2();
-			pstmt.setBoolean(10, currentNewRole2);
-			
-			pstmt.executeUpdate();
+		queryMetrics.measure("Database.register", () -> {
+			try (PooledConnection conn = pool.borrow();
+				 PreparedStatement pstmt = conn.prepareStatement(INSERT_USER)) {
+				bindUser(pstmt, user);
+				pstmt.executeUpdate();
+			}
+		});
+	}
+
+	/*
+	 * Sets the ten parameters of INSERT_USER from a user.
+	 */
+	private static void bindUser(PreparedStatement pstmt, User user) throws SQLException {
+		pstmt.setString(1, user.getUserName());
+		pstmt.setString(2, user.getPassword());
+		pstmt.setString(3, user.getFirstName());
+		pstmt.setString(4, user.getMiddleName());
+		pstmt.setString(5, user.getLastName());
+		pstmt.setString(6, user.getPreferredFirstName());
+		pstmt.setString(7, user.getEmailAddress());
+		pstmt.setBoolean(8, user.getAdminRole());
+		pstmt.setBoolean(9, user.getNewRole1());
+		pstmt.setBoolean(10, user.getNewRole2());
+	}
+
+	/**
+	 * <p> Description: Creates the accounts listed in a roster, e.g. a whole course at the start of
+	 * a term. The roster is read a line at a time and the accounts are inserted with JDBC batches of
+	 * IMPORT_BATCH_SIZE, each committed on its own, so the roster is never held in memory and a
+	 * failure only affects its own batch. </p>
+	 *
+	 * <p> Each account needs a userName, a password and at least one role; the role columns
+	 * (adminRole, newRole1, newRole2) take true/false, yes/no or 1/0, and the other columns of
+	 * {@link #exportUsers} are optional. A line that is malformed, fails the checks of the account
+	 * pages (see RosterValidator: the userName and password, and the email address and names when
+	 * given), or is refused by the database (e.g. a userName that is taken) is reported and
+	 * skipped; the rest of the roster is still imported. </p>
+	 *
+	 * @param roster the roster text
+	 * @param format the roster's format
+	 * @return how many accounts were created and which lines were not
+	 * @throws IOException if the roster cannot be read
+	 */
+	public ImportReport importUsers(Reader roster, RosterFormat format) throws IOException {
+		return queryMetrics.measure("Database.importUsers", () -> {
+			RosterReader reader = new RosterReader(roster, format);
+			List<ImportReport.RowFailure> failures = new ArrayList<>();
+			List<RosterAccount> batch = new ArrayList<>(IMPORT_BATCH_SIZE);
+			int imported = 0;
+
+			try (PooledConnection conn = pool.borrow();
+				 PreparedStatement pstmt = conn.prepareStatement(INSERT_USER)) {
+				// The pool rolls back and restores auto-commit when the connection is returned
+				conn.get().setAutoCommit(false);
+				while (true) {
+					Map<String, String> row;
+					try {
+						row = reader.next();
+					} catch (IllegalArgumentException e) {
+						failures.add(new ImportReport.RowFailure(reader.getLineNumber(), null, e.getMessage()));
+						continue;
+					}
+					if (row == null) break;
+
+					RosterAccount account = new RosterAccount(reader.getLineNumber(), row.get("userName"));
+					String error = account.read(row);
+					if (error != null) {
+						failures.add(new ImportReport.RowFailure(account.lineNumber, account.userName, error));
+						continue;
+					}
+					batch.add(account);
+					if (batch.size() == IMPORT_BATCH_SIZE) {
+						imported += insertBatch(conn, pstmt, batch, failures);
+						batch.clear();
+					}
+				}
+				imported += insertBatch(conn, pstmt, batch, failures);
+			} catch (SQLException e) {
+				queryFailed(e);
+				for (RosterAccount account : batch) {
+					failures.add(new ImportReport.RowFailure(account.lineNumber, account.userName,
+							"The database is not available: " + e.getMessage()));
+				}
+			}
+			return new ImportReport(imported, failures);
+		});
+	}
+
+	/*
+	 * Inserts and commits one batch. If the database refuses any account, the batch is rolled back
+	 * and its accounts are inserted one at a time, so that only the refused ones are reported.
+	 * Returns the number of accounts created.
+	 */
+	private int insertBatch(PooledConnection conn, PreparedStatement pstmt, List<RosterAccount> batch,
+			List<ImportReport.RowFailure> failures) throws SQLException {
+		if (batch.isEmpty()) return 0;
+		try {
+			for (RosterAccount account : batch) {
+				bindUser(pstmt, account.user);
+				pstmt.addBatch();
+			}
+			pstmt.executeBatch();
+			conn.get().commit();
+			return batch.size();
+		} catch (BatchUpdateException e) {
+			conn.get().rollback();
+			pstmt.clearBatch();
+		}
+
+		int inserted = 0;
+		for (RosterAccount account : batch) {
+			try {
+				bindUser(pstmt, account.user);
+				pstmt.executeUpdate();
+				conn.get().commit();
+				inserted++;
+			} catch (SQLException e) {
+				conn.get().rollback();
+				failures.add(new ImportReport.RowFailure(account.lineNumber, account.userName,
+						e instanceof SQLIntegrityConstraintViolationException
+								? "The userName is already taken." : e.getMessage()));
+			}
+		}
+		return inserted;
+	}
+
+	/**
+	 * <p> Description: Writes every account to a roster in userName order, without passwords. The
+	 * rows are read through a forward-only cursor, EXPORT_FETCH_SIZE at a time, and written as they
+	 * arrive, so the user table is never held in memory. The output can be read back by
+	 * {@link #importUsers} once a password column is added. </p>
+	 *
+	 * @param out where the roster is written; it is not closed
+	 * @param format the roster's format
+	 * @return the number of accounts written
+	 * @throws IOException if the roster cannot be written or the users cannot be read
+	 */
+	public int exportUsers(Writer out, RosterFormat format) throws IOException {
+		return queryMetrics.measure("Database.exportUsers", () -> {
+			String query = "SELECT " + String.join(", ", ROSTER_COLUMNS) + " FROM userDB ORDER BY userName";
+			RosterWriter writer = new RosterWriter(out, format, ROSTER_COLUMNS);
+			int exported = 0;
+			try (PooledConnection conn = pool.borrow()) {
+				// Embedded H2 builds the whole result before returning it unless queries run lazily
+				try (Statement statement = conn.createStatement()) {
+					statement.execute("SET LAZY_QUERY_EXECUTION TRUE");
+				}
+				try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+					pstmt.setFetchSize(EXPORT_FETCH_SIZE);
+					try (ResultSet rs = pstmt.executeQuery()) {
+						writer.writeHeader();
+						Object[] values = new Object[ROSTER_COLUMNS.length];
+						while (rs.next()) {
+							for (int i = 0; i < values.length; i++) {
+								// The last three columns are the roles
+								values[i] = i < values.length - 3 ? rs.getString(i + 1) : (Object) rs.getBoolean(i + 1);
+							}
+							writer.writeRow(values);
+							exported++;
+						}
+					}
+				} finally {
+					try (Statement statement = conn.createStatement()) {
+						statement.execute("SET LAZY_QUERY_EXECUTION FALSE");
+					}
+				}
+			} catch (SQLException e) {
+				queryFailed(e);
+				throw new IOException("The users could not be read after " + exported + " rows.", e);
+			}
+			out.flush();
+			return exported;
+		});
+	}
+
+	/*
+	 * One account read from a roster and the line it came from.
+	 */
+	private static final class RosterAccount {
+
+		private final int lineNumber;
+
+		private final String userName;
+
+		private User user;
+
+		private RosterAccount(int lineNumber, String userName) {
+			this.lineNumber = lineNumber;
+			this.userName = userName;
+		}
+
+		/*
+		 * Builds the User from the line's values. Returns null if they are valid, else the reason
+		 * they are not.
+		 */
+		private String read(Map<String, String> row) {
+			if (userName == null || userName.isEmpty()) return "The userName is missing.";
+			String password = row.get("password");
+			if (password == null || password.isEmpty()) return "The password is missing.";
+
+			Boolean admin = role(row, "adminRole");
+			Boolean role1 = role(row, "newRole1");
+			Boolean role2 = role(row, "newRole2");
+			User candidate = new User(userName, password, value(row, "firstName"), value(row, "middleName"),
+					value(row, "lastName"), value(row, "preferredFirstName"), value(row, "emailAddress"),
+					Boolean.TRUE.equals(admin), Boolean.TRUE.equals(role1), Boolean.TRUE.equals(role2));
+
+			RosterValidationReport.RecordFailure failure = RosterValidator.check(lineNumber, candidate);
+			if (failure != null) return failure.getMessage();
+			if (admin == null || role1 == null || role2 == null) {
+				return "The role columns must be true or false.";
+			}
+			if (!admin && !role1 && !role2) return "The account has no role.";
+
+			user = candidate;
+			return null;
+		}
+
+		private static String value(Map<String, String> row, String column) {
+			String value = row.get(column);
+			return value == null ? "" : value.trim();
+		}
+
+		/* A missing or empty role column means false; anything unrecognised gives null. */
+		private static Boolean role(Map<String, String> row, String column) {
+			switch (value(row, column).toLowerCase()) {
+			case "": case "false": case "no": case "0": return false;
+			case "true": case "yes": case "1": return true;
+			default: return null;
+			}
 		}
 	}
 	
@@ -200,18 +450,22 @@ public class Database {
 	 * @return a list of userNames found in the database.
 	 */
 	public List<String> getUserList () {
-		List<String> userList = new ArrayList<String>();
-		userList.add("<Select a User>");
-		String query = "SELECT userName FROM userDB";
-		try (PreparedStatement pstmt = connection.prepareStatement(query)) {
-			ResultSet rs = pstmt.executeQuery();
-			while (rs.next()) {
-				userList.add(rs.getString("userName"));
+		return queryMetrics.measure("Database.getUserList", () -> {
+			List<String> userList = new ArrayList<String>();
+			userList.add("<Select a User>");
+			String query = "SELECT userName FROM userDB";
+			try (PooledConnection conn = pool.borrow();
+				 PreparedStatement pstmt = conn.prepareStatement(query)) {
+				ResultSet rs = pstmt.executeQuery();
+				while (rs.next()) {
+					userList.add(rs.getString("userName"));
+				}
+			} catch (SQLException e) {
+				queryFailed(e);
+				return null;
 			}
-		} catch (SQLException e) {
-			return null;
-		}
-		return userList;
+			return userList;
+		});
 	}
 
 	/**
@@ -221,35 +475,126 @@ public class Database {
 	 * @return a list of userNames and emailAddress found in the database.
 	 */
 	public List<String> getAllUsers(){
-		List<String> userList = new ArrayList<>();
-		String query = "SELECT userName, emailAddress, firstName, lastName, adminRole, newRole1, newRole2 FROM userDB";
+		return queryMetrics.measure("Database.getAllUsers", () -> {
+			List<String> userList = new ArrayList<>();
+			String query = "SELECT userName, emailAddress, firstName, lastName, adminRole, newRole1, newRole2 FROM userDB";
 		
-		try(PreparedStatement pstmt = connection.prepareStatement(query)){
-			ResultSet rs = pstmt.executeQuery();
-			while(rs.next()){
-				List<String> activeRoles = new ArrayList<>();
+			try (PooledConnection conn = pool.borrow();
+				 PreparedStatement pstmt = conn.prepareStatement(query)){
+				ResultSet rs = pstmt.executeQuery();
+				while(rs.next()){
+					List<String> activeRoles = new ArrayList<>();
 				
-				//add roles to list when true
-				if(rs.getString("adminRole").equalsIgnoreCase("true")) {activeRoles.add("Admin");};
-				if(rs.getString("newRole1").equalsIgnoreCase("true")) {activeRoles.add("Role1");};
-				if(rs.getString("newRole2").equalsIgnoreCase("true")) {activeRoles.add("Role2");};
+					//add roles to list when true
+					if(rs.getString("adminRole").equalsIgnoreCase("true")) {activeRoles.add("Admin");};
+					if(rs.getString("newRole1").equalsIgnoreCase("true")) {activeRoles.add("Role1");};
+					if(rs.getString("newRole2").equalsIgnoreCase("true")) {activeRoles.add("Role2");};
 			    
-			    String roles = String.join(", ", activeRoles);
+				    String roles = String.join(", ", activeRoles);
 			    
-				String list = String.format("\nUser: %s (%s %s), Email: %s\nRoles: %s\n", 
-					rs.getString("userName"),
-					rs.getString("firstName"),
-					rs.getString("lastName"),
-					rs.getString("emailAddress"),
-					roles);
-				userList.add(list);
+					String list = String.format("\nUser: %s (%s %s), Email: %s\nRoles: %s\n", 
+						rs.getString("userName"),
+						rs.getString("firstName"),
+						rs.getString("lastName"),
+						rs.getString("emailAddress"),
+						roles);
+					userList.add(list);
+				}
+			} catch (SQLException e) {
+				queryFailed(e);
+				return null;
 			}
-		} catch (SQLException e) {
-			return null;
-		}
-		return userList;
+			return userList;
+		});
+	}
+	
+	/**
+	 * <p> Description: Returns one page of users in userName order, for the Admin lists. Pages are
+	 * found by keyset: the cursor is the last userName of the previous page and the query starts
+	 * right after it on the userName index, so every page costs the same however many users there
+	 * are. The filters are optional and can be combined. </p>
+	 *
+	 * @param afterUserName the cursor from the previous page, or null for the first page
+	 * @param pageSize the most users to return (at least 1)
+	 * @param role only users who play this role, or null for every role
+	 * @param namePrefix only userNames starting with this text, or null or empty for every name
+	 * @return the page; an empty page if the query fails
+	 */
+	public UserPage listUsers(String afterUserName, int pageSize, Role role, String namePrefix) {
+		return queryMetrics.measure("Database.listUsers", () -> {
+			if (pageSize < 1) throw new IllegalArgumentException("Invalid page size: " + pageSize);
+
+			StringBuilder query = new StringBuilder(
+					"SELECT userName, firstName, lastName, emailAddress, roleMask FROM userDB WHERE TRUE");
+			if (afterUserName != null) query.append(" AND userName > ?");
+			if (role != null) query.append(" AND roleMask IN (").append(masksWith(role)).append(")");
+			boolean byName = namePrefix != null && !namePrefix.isEmpty();
+			if (byName) query.append(" AND userName LIKE ? ESCAPE '\\'");
+			// One row more than the page shows whether there is a next page
+			query.append(" ORDER BY userName LIMIT ?");
+
+			List<UserSummary> users = new ArrayList<>();
+			try (PooledConnection conn = pool.borrow();
+				 PreparedStatement pstmt = conn.prepareStatement(query.toString())) {
+				int index = 1;
+				if (afterUserName != null) pstmt.setString(index++, afterUserName);
+				if (byName) pstmt.setString(index++, namePrefix.replaceAll("([\\\\%_])", "\\\\$1") + "%");
+				pstmt.setInt(index, pageSize + 1);
+				try (ResultSet rs = pstmt.executeQuery()) {
+					while (rs.next()) {
+						users.add(new UserSummary(
+								rs.getString("userName"),
+								rs.getString("firstName"),
+								rs.getString("lastName"),
+								rs.getString("emailAddress"),
+								rs.getInt("roleMask")));
+					}
+				}
+			} catch (SQLException e) {
+				queryFailed(e);
+				return UserPage.empty();
+			}
+
+			if (users.size() <= pageSize) return new UserPage(users, null);
+			users.remove(pageSize);
+			return new UserPage(users, users.get(pageSize - 1).getUserName());
+		});
 	}
 	
+	/**
+	 * <p> Description: Signs a user in with one query. The username/password pair, the account's
+	 * details and roles, and the number of users are all read in a single round trip that uses the
+	 * unique index on userName. If the account has an outstanding one-time password, the original
+	 * password is restored in the same borrowed connection, as loginAdmin/loginRole1/loginRole2
+	 * always did. </p>
+	 *
+	 * @param username the username typed by the user
+	 * @param password the password typed by the user
+	 * @return the outcome, with the account snapshot when the pair matched
+	 */
+	public AuthenticationResult authenticate(String username, String password) {
+		return queryMetrics.measure("Database.authenticate", () -> {
+			String query = "SELECT " + USER_RECORD_COLUMNS + ", tmp_password IS NOT NULL AS hasOTP, "
+					+ "(SELECT COUNT(*) FROM userDB) AS numberOfUsers "
+					+ "FROM userDB WHERE userName = ? AND password = ?";
+			try (PooledConnection conn = pool.borrow();
+				 PreparedStatement pstmt = conn.prepareStatement(query)) {
+				pstmt.setString(1, username);
+				pstmt.setString(2, password);
+				try (ResultSet rs = pstmt.executeQuery()) {
+					if (!rs.next()) return AuthenticationResult.invalidCredentials();
+
+					UserRecord user = readUserRecord(rs);
+					if (rs.getBoolean("hasOTP")) restorePassword(conn, username);
+					return AuthenticationResult.authenticated(user, rs.getInt("numberOfUsers"));
+				}
+			} catch (SQLException e) {
+				queryFailed(e);
+				return AuthenticationResult.unavailable();
+			}
+		});
+	}
+
 	/**
 	 * <p> Description: Check to see that a user with the specified username, password, and role
 	 * is the same as a row in the table for the username, password, and role. </p>
@@ -258,19 +603,11 @@ public class Database {
 	 * @return true if the specified user has been logged in as an Admin else false.
 	 */
 	public boolean loginAdmin(User user){
-		// Validates an admin user's login credentials so the user can login in as an Admin.
-		String query = "SELECT * FROM userDB WHERE userName = ? AND password = ? AND "
-				+ "adminRole = TRUE";
-		try (PreparedStatement pstmt = connection.prepareStatement(query)) {
-			pstmt.setString(1, user.getUserName());
-			pstmt.setString(2, user.getPassword());
-			ResultSet rs = pstmt.executeQuery();
-			restorePassword(user.getUserName());
-			return rs.next();	// If a row is returned, rs.next() will return true		
-		} catch  (SQLException e) {
-			e.printStackTrace();
-		}
-		return false;
+		return queryMetrics.measure("Database.loginAdmin", () -> {
+			// Validates an admin user's login credentials so the user can login in as an Admin.
+			AuthenticationResult result = authenticate(user.getUserName(), user.getPassword());
+			return result.isAuthenticated() && result.getUser().getAdminRole();
+		});
 	}
 	
 	/**
@@ -281,19 +618,11 @@ public class Database {
 	 * @return true if the specified user has been logged in as an Student else false.
 	 */
 	public boolean loginRole1(User user) {
-		// Validates a student user's login credentials.
-		String query = "SELECT * FROM userDB WHERE userName = ? AND password = ? AND "
-				+ "newRole1 = TRUE";
-		try (PreparedStatement pstmt = connection.prepareStatement(query)) {
-			pstmt.setString(1, user.getUserName());
-			pstmt.setString(2, user.getPassword());
-			ResultSet rs = pstmt.executeQuery();
-			restorePassword(user.getUserName());
-			return rs.next();
-		} catch  (SQLException e) {
-		       e.printStackTrace();
-		}
-		return false;
+		return queryMetrics.measure("Database.loginRole1", () -> {
+			// Validates a student user's login credentials.
+			AuthenticationResult result = authenticate(user.getUserName(), user.getPassword());
+			return result.isAuthenticated() && result.getUser().getNewRole1();
+		});
 	}
 
 	/**
@@ -304,18 +633,10 @@ public class Database {
 	 * @return true if the specified user has been logged in as an Student else false.
 	 */
 	public boolean loginRole2(User user) {
-		String query = "SELECT * FROM userDB WHERE userName = ? AND password = ? AND "
-				+ "newRole2 = TRUE";
-		try (PreparedStatement pstmt = connection.prepareStatement(query)) {
-			pstmt.setString(1, user.getUserName());
-			pstmt.setString(2, user.getPassword());
-			ResultSet rs = pstmt.executeQuery();
-			restorePassword(user.getUserName());
-			return rs.next();
-		} catch  (SQLException e) {
-		       e.printStackTrace();
-		}
-		return false;
+		return queryMetrics.measure("Database.loginRole2", () -> {
+			AuthenticationResult result = authenticate(user.getUserName(), user.getPassword());
+			return result.isAuthenticated() && result.getUser().getNewRole2();
+		});
 	}
 	
 	/**
@@ -325,19 +646,22 @@ public class Database {
 	 * @return true if the specified user is in the table else false.
 	 */
 	public boolean doesUserExist(String userName) {
-		String query = "SELECT COUNT(*) FROM userDB WHERE userName = ?";
-		try (PreparedStatement pstmt = connection.prepareStatement(query)) {
-			pstmt.setString(1, userName);
-			ResultSet rs = pstmt.executeQuery();
+		return queryMetrics.measure("Database.doesUserExist", () -> {
+			String query = "SELECT COUNT(*) FROM userDB WHERE userName = ?";
+			try (PooledConnection conn = pool.borrow();
+				 PreparedStatement pstmt = conn.prepareStatement(query)) {
+				pstmt.setString(1, userName);
+				ResultSet rs = pstmt.executeQuery();
 			
-			if (rs.next()) {
-				// If the count is greater than 0, the user exists
-				return rs.getInt(1) > 0;
+				if (rs.next()) {
+					// If the count is greater than 0, the user exists
+					return rs.getInt(1) > 0;
+				}
+			} catch (SQLException e) {
+				queryFailed(e);
 			}
-		} catch (SQLException e) {
-			e.printStackTrace();
-		}
-		return false; // If an error occurs, assume user doesn't exist
+			return false; // If an error occurs, assume user doesn't exist
+		});
 	}
 	
 	/**
@@ -347,12 +671,98 @@ public class Database {
 	 * @return the number of roles this user plays (0 - 5).
 	 */	
 	public int getNumberOfRoles (User user) {
-		int numberOfRoles = 0;
-		if (user.getAdminRole()) numberOfRoles++;
-		if (user.getNewRole1()) numberOfRoles++;
-		if (user.getNewRole2()) numberOfRoles++;
-		return numberOfRoles;
-	}	
+		return queryMetrics.measure("Database.getNumberOfRoles", () -> {
+			int numberOfRoles = 0;
+			if (user.getAdminRole()) numberOfRoles++;
+			if (user.getNewRole1()) numberOfRoles++;
+			if (user.getNewRole2()) numberOfRoles++;
+			return numberOfRoles;
+		});
+	}
+
+	/**
+	 * <p> Description: Counts the users who play a role, with one indexed query. </p>
+	 *
+	 * @param role the role to look for
+	 * @return the number of users playing the role, or 0 if the query fails
+	 */
+	public int countUsersWithRole(Role role) {
+		return queryMetrics.measure("Database.countUsersWithRole", () -> {
+			String query = "SELECT COUNT(*) AS count FROM userDB WHERE roleMask IN (" + masksWith(role) + ")";
+			try (PooledConnection conn = pool.borrow();
+				 PreparedStatement pstmt = conn.prepareStatement(query);
+				 ResultSet rs = pstmt.executeQuery()) {
+				if (rs.next()) return rs.getInt("count");
+			} catch (SQLException e) {
+				queryFailed(e);
+			}
+			return 0;
+		});
+	}
+
+	/**
+	 * <p> Description: Lists the userNames of the users who play a role, in alphabetical order,
+	 * with one indexed query. </p>
+	 *
+	 * @param role the role to look for
+	 * @return the userNames, empty if there are none or the query fails
+	 */
+	public List<String> listUsersWithRole(Role role) {
+		return queryMetrics.measure("Database.listUsersWithRole", () -> {
+			List<String> userNames = new ArrayList<>();
+			String query = "SELECT userName FROM userDB WHERE roleMask IN (" + masksWith(role) + ") "
+					+ "ORDER BY userName";
+			try (PooledConnection conn = pool.borrow();
+				 PreparedStatement pstmt = conn.prepareStatement(query);
+				 ResultSet rs = pstmt.executeQuery()) {
+				while (rs.next()) {
+					userNames.add(rs.getString("userName"));
+				}
+			} catch (SQLException e) {
+				queryFailed(e);
+			}
+			return userNames;
+		});
+	}
+
+	/**
+	 * <p> Description: Checks whether any user other than the given one plays a role, e.g. to make
+	 * sure the last Admin does not lose the Admin role. The query stops at the first match. </p>
+	 *
+	 * @param role the role to look for
+	 * @param userName the user to leave out
+	 * @return true if another user plays the role; false if none does or the query fails
+	 */
+	public boolean hasOtherUserWithRole(Role role, String userName) {
+		return queryMetrics.measure("Database.hasOtherUserWithRole", () -> {
+			String query = "SELECT 1 FROM userDB WHERE roleMask IN (" + masksWith(role) + ") "
+					+ "AND userName <> ? LIMIT 1";
+			try (PooledConnection conn = pool.borrow();
+				 PreparedStatement pstmt = conn.prepareStatement(query)) {
+				pstmt.setString(1, userName);
+				try (ResultSet rs = pstmt.executeQuery()) {
+					return rs.next();
+				}
+			} catch (SQLException e) {
+				queryFailed(e);
+			}
+			return false;
+		});
+	}
+
+	/*
+	 * The roleMask values that include a role, as an SQL list such as "1, 3, 5, 7". Testing them
+	 * with IN lets the index on roleMask answer the query, which a bitwise test would not.
+	 */
+	private static String masksWith(Role role) {
+		StringBuilder masks = new StringBuilder();
+		for (int mask = 1; mask <= Role.ALL_ROLES; mask++) {
+			if (!role.isIn(mask)) continue;
+			if (masks.length() > 0) masks.append(", ");
+			masks.append(mask);
+		}
+		return masks.toString();
+	}
 
 	/**
 	 * <p> Description: Generate a one time password for a user.</p>
@@ -362,17 +772,20 @@ public class Database {
 	 * @return the generated code
 	 */
 	public String generateOTP(String tmp_pass, String User) {
-		String code = tmp_pass; 
-		String query = "UPDATE userDB SET tmp_password = password, password = ? WHERE username = ?";
+		return queryMetrics.measure("Database.generateOTP", () -> {
+			String code = tmp_pass; 
+			String query = "UPDATE userDB SET tmp_password = password, password = ? WHERE username = ?";
 		
-		try (PreparedStatement pstmt = connection.prepareStatement(query)) {
-			pstmt.setString(1, code);
-			pstmt.setString(2, User);
-			pstmt.executeUpdate();
-		} catch (SQLException e) {
-			e.printStackTrace();
-		}
-		return code;
+			try (PooledConnection conn = pool.borrow();
+				 PreparedStatement pstmt = conn.prepareStatement(query)) {
+				pstmt.setString(1, code);
+				pstmt.setString(2, User);
+				pstmt.executeUpdate();
+			} catch (SQLException e) {
+				queryFailed(e);
+			}
+			return code;
+		});
 	}
 	
 	/**
@@ -381,13 +794,24 @@ public class Database {
 	 * @param username the username for the user whose password will change.
 	 */
 	public void restorePassword(String username) {
+		queryMetrics.measure("Database.restorePassword", () -> {
+			try (PooledConnection conn = pool.borrow()) {
+				restorePassword(conn, username);
+			} catch (SQLException e) {
+				queryFailed(e);
+			}
+		});
+	}
+
+	// Restores the password on a connection the caller already borrowed
+	private void restorePassword(PooledConnection conn, String username) {
 		String query = "UPDATE userDB SET password = tmp_password, tmp_password = NULL WHERE username = ? AND tmp_password IS NOT NULL";
 		
-		try (PreparedStatement pstmt = connection.prepareStatement(query)) {
+		try (PreparedStatement pstmt = conn.prepareStatement(query)) {
 			pstmt.setString(1, username);
 			pstmt.executeUpdate();
 		} catch (SQLException e) {
-			e.printStackTrace();
+			queryFailed(e);
 		}
 	}
 
@@ -395,27 +819,119 @@ public class Database {
 	 * <p> Description: Given an email address and a role, this method establishes an invitation
 	 * code and adds a record to the InvitationCodes table. When the invitation code is used, the
 	 * stored email address is used to establish the new user and the record is removed from the
-	 * table.</p>
+	 * table. The address is stored in lower case, so it can be compared ignoring case through the
+	 * email index.</p>
 	 *
 	 * @param emailAddress specifies the email address for this new user.
 	 * @param role specified the role that this new user will play.
-	 * @return the code of six characters so the new user can use it to securely setup an account.
+	 * @return the code of ten characters so the new user can use it to securely setup an account.
 	 */
 	public String generateInvitationCode(String emailAddress, String role) {
-		String code = UUID.randomUUID().toString().substring(0, 6); // Generate a random 6-character code
-		Instant expires = Instant.now().plus(Duration.ofMinutes(15));
-		String query = "INSERT INTO InvitationCodes (code, emailAddress, role, expiresAt, usedAt) VALUES (?, ?, ?, ?, NULL)";
-	
-		try (PreparedStatement pstmt = connection.prepareStatement(query)) {
-			pstmt.setString(1, code);
-			pstmt.setString(2, emailAddress);
-			pstmt.setString(3, role);
-			pstmt.setTimestamp(4, Timestamp.from(expires));
-			pstmt.executeUpdate();
-		} catch (SQLException e) {
-			e.printStackTrace();
-		}
-		return code;
+		return queryMetrics.measure("Database.generateInvitationCode", () -> {
+			String storedAddress = emailAddress == null ? null : emailAddress.toLowerCase(Locale.ROOT);
+			Timestamp expires = Timestamp.from(Instant.now().plus(INVITATION_LIFETIME));
+			try (PooledConnection conn = pool.borrow();
+				 PreparedStatement pstmt = conn.prepareStatement(INSERT_INVITATION)) {
+				for (int attempt = 1; ; attempt++) {
+					String code = InvitationCodeGenerator.next();
+					pstmt.setString(1, code);
+					pstmt.setString(2, storedAddress);
+					pstmt.setString(3, role);
+					pstmt.setTimestamp(4, expires);
+					try {
+						pstmt.executeUpdate();
+						return code;
+					} catch (SQLIntegrityConstraintViolationException e) {
+						// The code is taken; try a new one
+						if (attempt == INVITATION_CODE_ATTEMPTS) throw e;
+					}
+				}
+			} catch (SQLException e) {
+				queryFailed(e);
+				return null;
+			}
+		});
+	}
+
+	/**
+	 * <p> Description: Invites a list of people at once, e.g. a whole class. Addresses that already
+	 * have an outstanding invitation are found with one query for the whole list, and the new
+	 * invitations are inserted as one JDBC batch in one transaction. If a generated code turns out
+	 * to be taken, the batch is rolled back and tried again with new codes. Addresses that are
+	 * invalid, already invited, or listed more than once are left out and reported; the rest are
+	 * invited. Addresses are compared ignoring case, as validateInviteCode compares them, and are
+	 * stored in lower case. </p>
+	 *
+	 * @param requests the email address and role of each person to invite
+	 * @return the invitations created and the addresses left out
+	 */
+	public InvitationBatchResult generateInvitationCodes(List<InvitationRequest> requests) {
+		return queryMetrics.measure("Database.generateInvitationCodes", () -> {
+			Map<String, String> skipped = new LinkedHashMap<>();
+			// Keyed by the lower case address, so "A@x.edu" and "a@x.edu" are one person
+			Map<String, InvitationRequest> wanted = new LinkedHashMap<>();
+			for (InvitationRequest request : requests) {
+				String email = request.getEmailAddress() == null ? "" : request.getEmailAddress().trim();
+				ValidationResult check = InputRecognizer.validateEmailAddress(email);
+				if (!check.isValid()) skipped.put(email, check.getMessage().trim());
+				else if (Role.fromName(request.getRole()) == null) skipped.put(email, "Unknown role " + request.getRole() + ".");
+				else if (wanted.containsKey(email.toLowerCase(Locale.ROOT))) skipped.put(email, "The address is listed more than once.");
+				else wanted.put(email.toLowerCase(Locale.ROOT), new InvitationRequest(email, request.getRole()));
+			}
+			if (wanted.isEmpty()) return new InvitationBatchResult(List.of(), skipped);
+
+			String invited = "SELECT emailAddress FROM InvitationCodes "
+					+ "WHERE emailAddress = ANY(?) AND expiresAt > CURRENT_TIMESTAMP";
+			List<InvitationCode> issued = new ArrayList<>();
+			try (PooledConnection conn = pool.borrow()) {
+				// One query for the whole list instead of emailaddressHasBeenUsed for each address
+				try (PreparedStatement pstmt = conn.prepareStatement(invited)) {
+					pstmt.setArray(1, conn.get().createArrayOf("VARCHAR", wanted.keySet().toArray()));
+					try (ResultSet rs = pstmt.executeQuery()) {
+						while (rs.next()) {
+							InvitationRequest request = wanted.remove(rs.getString("emailAddress"));
+							if (request != null) {
+								skipped.put(request.getEmailAddress(), "An invitation has already been sent to this email address.");
+							}
+						}
+					}
+				}
+
+				Timestamp expires = Timestamp.from(Instant.now().plus(INVITATION_LIFETIME));
+				conn.get().setAutoCommit(false);
+				try (PreparedStatement pstmt = conn.prepareStatement(INSERT_INVITATION)) {
+					for (int attempt = 1; !wanted.isEmpty(); attempt++) {
+						issued.clear();
+						for (Map.Entry<String, InvitationRequest> request : wanted.entrySet()) {
+							String code = InvitationCodeGenerator.next();
+							pstmt.setString(1, code);
+							pstmt.setString(2, request.getKey());
+							pstmt.setString(3, request.getValue().getRole());
+							pstmt.setTimestamp(4, expires);
+							pstmt.addBatch();
+							issued.add(new InvitationCode(code, expires, request.getKey()));
+						}
+						try {
+							pstmt.executeBatch();
+							conn.get().commit();
+							break;
+						} catch (BatchUpdateException e) {
+							// A code was taken (or repeated within the batch); start over with new codes
+							conn.get().rollback();
+							pstmt.clearBatch();
+							if (attempt == INVITATION_CODE_ATTEMPTS) throw e;
+						}
+					}
+				}
+			} catch (SQLException e) {
+				queryFailed(e);
+				for (InvitationRequest request : wanted.values()) {
+					skipped.putIfAbsent(request.getEmailAddress(), "The database is not available.");
+				}
+				return new InvitationBatchResult(List.of(), skipped);
+			}
+			return new InvitationBatchResult(issued, skipped);
+		});
 	}
 
 	/**
@@ -424,48 +940,71 @@ public class Database {
 	 * @return Map of invite codes. Key is the code, value is the details about said code.
 	 */
 	public Map<String, InvitationCode> getAllInvitationCodes() {
-		clearInvalidInviteCodes();
-		Map<String, InvitationCode> codes = new HashMap<>();
+		return queryMetrics.measure("Database.getAllInvitationCodes", () -> {
+			Map<String, InvitationCode> codes = new HashMap<>();
 
-		String query = "SELECT code, expiresAt, emailAddress FROM InvitationCodes";
+			// Expired codes may not have been swept yet
+			String query = "SELECT code, expiresAt, emailAddress FROM InvitationCodes "
+					+ "WHERE expiresAt > CURRENT_TIMESTAMP";
 
-		try (PreparedStatement pstmt = connection.prepareStatement(query);
-			 ResultSet rs = pstmt.executeQuery()) {
+			try (PooledConnection conn = pool.borrow();
+				 PreparedStatement pstmt = conn.prepareStatement(query);
+				 ResultSet rs = pstmt.executeQuery()) {
 
-			while (rs.next()) {
-				String code = rs.getString("code");
-				Timestamp expiresAt = rs.getTimestamp("expiresAt");
-				String email = rs.getString("emailAddress");
+				while (rs.next()) {
+					String code = rs.getString("code");
+					Timestamp expiresAt = rs.getTimestamp("expiresAt");
+					String email = rs.getString("emailAddress");
 
-				InvitationCode invite = new InvitationCode(code, expiresAt, email);
-				codes.put(code, invite);
-			}
+					InvitationCode invite = new InvitationCode(code, expiresAt, email);
+					codes.put(code, invite);
+				}
 
-		} catch (SQLException e) {
-			e.printStackTrace();
-		}
+			} catch (SQLException e) {
+				queryFailed(e);
+			}
 
-		return codes;
+			return codes;
+		});
 	}
 
 	/**
-	 * <p>Description: Clears any invite code that is no longer current.</p>
+	 * <p>Description: Clears any invite code that is no longer current, right away. The
+	 * InvitationSweeper already does this in the background, so reads never need to call it.</p>
 	 */
 	public void clearInvalidInviteCodes() {
-		 String query = "DELETE FROM InvitationCodes " +
-				 "WHERE expiresAt <= CURRENT_TIMESTAMP";
+		queryMetrics.measure("Database.clearInvalidInviteCodes", () -> {
+			try {
+				invitationSweeper.sweep();
+			} catch (SQLException e) {
+				queryFailed(e);
+			}
+		});
+	}
 
-		  try (PreparedStatement pstmt = connection.prepareStatement(query)) {
-			  int rowsDeleted = pstmt.executeUpdate();
-			  System.out.println("Removed " + rowsDeleted + " expired invite codes.");
-		  } catch (SQLException e) {
-			  e.printStackTrace();
-		  }
+	/**
+	 * <p>Description: Changes how often expired invite codes are swept and how many are deleted
+	 * per statement. Takes effect right away if the database is connected.</p>
+	 *
+	 * @param intervalMillis time between sweeps in milliseconds
+	 * @param batchSize most codes deleted by one statement
+	 */
+	public void configureInvitationSweeper(long intervalMillis, int batchSize) {
+		queryMetrics.measure("Database.configureInvitationSweeper", () -> {
+			InvitationSweeper replacement = pool == null ? null
+					: InvitationSweeper.start(pool, intervalMillis, batchSize);
+			invitationSweepIntervalMillis = intervalMillis;
+			invitationSweepBatchSize = batchSize;
+			if (invitationSweeper != null) invitationSweeper.close();
+			invitationSweeper = replacement;
+		});
 	}
 
 	/**
 	 * <p> Description: Given code, email address and role, this method checks the database to see if the code
-	 * is valid. If it is valid it will return True and for invalid it returns False. </p>
+	 * is valid. If it is valid it will return True and for invalid it returns False. A valid code is
+	 * marked as used by the same statement, so of several sign-ups racing on one code exactly one
+	 * gets True. </p>
 	 *
 	 * @param code specifies the code for this new user.
 	 * @param emailAddress specifies the email address for this new user.
@@ -473,34 +1012,25 @@ public class Database {
 	 * @return True if code is valid or False if code is invalid
 	 */
 	public boolean validateInviteCode(String code, String emailAddress, String role) {
-		String query = "SELECT expiresAT, usedAt, emailAddress, role FROM InvitationCodes WHERE code = ?";
-		try (PreparedStatement pstmt = connection.prepareStatement(query)) {
-			pstmt.setString(1, code);
-			
-			try(ResultSet rs = pstmt.executeQuery()){
-				if(!rs.next()) return false;
-				
-				Timestamp expiresAt = rs.getTimestamp("expiresAt");
-				Timestamp usedAt = rs.getTimestamp("usedAt");
-				String dbEmailAddress = rs.getString("emailAddress");
-				String dbRole= rs.getString("role");
-				
-				if(usedAt != null) return false;
-				if(expiresAt != null && expiresAt.before(new Timestamp(System.currentTimeMillis()))) return false;
-				if (dbEmailAddress != null && !dbEmailAddress.equalsIgnoreCase(emailAddress)) return false;
-				if (dbRole != null && !dbRole.equals(role)) return false;
-				
-				String update = "UPDATE InvitationCodes SET usedAt = CURRENT_TIMESTAMP WHERE code = ?";
-				try(PreparedStatement upstmt = connection.prepareStatement(update)){
-					upstmt.setString(1, code);
-					return upstmt.executeUpdate() == 1;
-				}
+		return queryMetrics.measure("Database.validateInviteCode", () -> {
+			// Every check is in the WHERE clause, so the row is tested and claimed in one atomic step
+			String update = "UPDATE InvitationCodes SET usedAt = CURRENT_TIMESTAMP "
+					+ "WHERE code = ? AND usedAt IS NULL "
+					+ "AND (expiresAt IS NULL OR expiresAt > CURRENT_TIMESTAMP) "
+					+ "AND (emailAddress IS NULL OR emailAddress = LOWER(?)) "
+					+ "AND (role IS NULL OR role = ?)";
+			try (PooledConnection conn = pool.borrow();
+				 PreparedStatement pstmt = conn.prepareStatement(update)) {
+				pstmt.setString(1, code);
+				pstmt.setString(2, emailAddress);
+				pstmt.setString(3, role);
+				return pstmt.executeUpdate() == 1;
+			} 
+			catch (SQLException e) {
+				queryFailed(e);
+				return false;
 			}
-		} 
-		catch (SQLException e) {
-			e.printStackTrace();
-			return false;
-		}
+		});
 	}
 	
 	/**
@@ -509,18 +1039,19 @@ public class Database {
 	 * @return the number of invitations in the table.
 	 */
 	public int getNumberOfInvitations() {
-		String query = "SELECT COUNT(*) AS count FROM InvitationCodes";
-		try {
-			ResultSet resultSet = statement.executeQuery(query);
-			if (resultSet.next()) {
-				System.out.print(resultSet);
-				System.out.print(resultSet.getInt("count"));
-				return resultSet.getInt("count");
+		return queryMetrics.measure("Database.getNumberOfInvitations", () -> {
+			String query = "SELECT COUNT(*) AS count FROM InvitationCodes WHERE expiresAt > CURRENT_TIMESTAMP";
+			try (PooledConnection conn = pool.borrow();
+				 Statement statement = conn.createStatement()) {
+				ResultSet resultSet = statement.executeQuery(query);
+				if (resultSet.next()) {
+					return resultSet.getInt("count");
+				}
+			} catch  (SQLException e) {
+				queryFailed(e);
 			}
-		} catch  (SQLException e) {
-			e.printStackTrace();
-		}
-		return 0;
+			return 0;
+		});
 	}
 	
 	/**
@@ -530,90 +1061,103 @@ public class Database {
 	 * @return true if the email address is in the table, else return false.
 	 */
 	public boolean emailaddressHasBeenUsed(String emailAddress) {
-		String query = "SELECT COUNT(*) AS count FROM InvitationCodes WHERE emailAddress = ?";
-		try (PreparedStatement pstmt = connection.prepareStatement(query)) {
-			pstmt.setString(1, emailAddress);
-			ResultSet rs = pstmt.executeQuery();
-			if (rs.next()) {
-				return rs.getInt("count")>0;
+		return queryMetrics.measure("Database.emailaddressHasBeenUsed", () -> {
+			String query = "SELECT COUNT(*) AS count FROM InvitationCodes WHERE emailAddress = LOWER(?) "
+					+ "AND expiresAt > CURRENT_TIMESTAMP";
+			try (PooledConnection conn = pool.borrow();
+				 PreparedStatement pstmt = conn.prepareStatement(query)) {
+				pstmt.setString(1, emailAddress);
+				ResultSet rs = pstmt.executeQuery();
+				if (rs.next()) {
+					return rs.getInt("count")>0;
+				}
+			} catch (SQLException e) {
+				queryFailed(e);
 			}
-		} catch (SQLException e) {
-			e.printStackTrace();
-		}
-		return false;
+			return false;
+		});
 	}
 	
 	/**
 	 * <p> Description: Get the role associated with an invitation code.</p>
 	 *
-	 * @param code is the 6 character String invitation code
+	 * @param code is the 10 character String invitation code
 	 * @return the role for the code or an empty string.
 	 */
 	public String getRoleGivenAnInvitationCode(String code) {
-		String query = "SELECT * FROM InvitationCodes WHERE code = ?";
-		try (PreparedStatement pstmt = connection.prepareStatement(query)) {
-			pstmt.setString(1, code);
-			ResultSet rs = pstmt.executeQuery();
-			if (rs.next()) {
-				return rs.getString("role");
+		return queryMetrics.measure("Database.getRoleGivenAnInvitationCode", () -> {
+			String query = "SELECT * FROM InvitationCodes WHERE code = ?";
+			try (PooledConnection conn = pool.borrow();
+				 PreparedStatement pstmt = conn.prepareStatement(query)) {
+				pstmt.setString(1, code);
+				ResultSet rs = pstmt.executeQuery();
+				if (rs.next()) {
+					return rs.getString("role");
+				}
+			} catch (SQLException e) {
+				queryFailed(e);
 			}
-		} catch (SQLException e) {
-			e.printStackTrace();
-		}
-		return "";
+			return "";
+		});
 	}
 	
 	/**
 	 * <p> Description: Get the email addressed associated with an invitation code.</p>
 	 *
-	 * @param code is the 6 character String invitation code
+	 * @param code is the 10 character String invitation code
 	 * @return the email address for the code or an empty string.
 	 */
 	public String getEmailAddressUsingCode (String code ) {
-		String query = "SELECT emailAddress FROM InvitationCodes WHERE code = ?";
-		try (PreparedStatement pstmt = connection.prepareStatement(query)) {
-			pstmt.setString(1, code);
-			ResultSet rs = pstmt.executeQuery();
-			if (rs.next()) {
-				return rs.getString("emailAddress");
+		return queryMetrics.measure("Database.getEmailAddressUsingCode", () -> {
+			String query = "SELECT emailAddress FROM InvitationCodes WHERE code = ?";
+			try (PooledConnection conn = pool.borrow();
+				 PreparedStatement pstmt = conn.prepareStatement(query)) {
+				pstmt.setString(1, code);
+				ResultSet rs = pstmt.executeQuery();
+				if (rs.next()) {
+					return rs.getString("emailAddress");
+				}
+			} catch (SQLException e) {
+				queryFailed(e);
 			}
-		} catch (SQLException e) {
-			e.printStackTrace();
-		}
-		return "";
+			return "";
+		});
 	}
 	
 	/**
 	 * <p> Description: Remove an invitation record once it is used.</p>
 	 *
-	 * @param code is the 6 character String invitation code
+	 * @param code is the 10 character String invitation code
 	 */
 	public void removeInvitationAfterUse(String code) {
-		String query = "SELECT COUNT(*) AS count FROM InvitationCodes WHERE code = ?";
-		try (PreparedStatement pstmt = connection.prepareStatement(query)) {
-			pstmt.setString(1, code);
-			ResultSet rs = pstmt.executeQuery();
-			while (rs.next()) {
-				int counter = rs.getInt(1);
-				// Only do the remove if the code is still in the invitation table
-				if (counter >= 0) {
-					System.out.println("TEST 1");
-					query = "DELETE FROM InvitationCodes WHERE code = ?";
-					try (PreparedStatement pstmt2 = connection.prepareStatement(query)) {
-						System.out.println("TEST 2");
-						pstmt2.setString(1, code);
-						System.out.println(pstmt2);
-						pstmt2.executeUpdate();
-					} catch (SQLException e) {
-						System.out.println("TEST 3");
-						e.printStackTrace();
+		queryMetrics.measure("Database.removeInvitationAfterUse", () -> {
+			String query = "SELECT COUNT(*) AS count FROM InvitationCodes WHERE code = ?";
+			try (PooledConnection conn = pool.borrow();
+				 PreparedStatement pstmt = conn.prepareStatement(query)) {
+				pstmt.setString(1, code);
+				ResultSet rs = pstmt.executeQuery();
+				while (rs.next()) {
+					int counter = rs.getInt(1);
+					// Only do the remove if the code is still in the invitation table
+					if (counter >= 0) {
+						System.out.println("TEST 1");
+						query = "DELETE FROM InvitationCodes WHERE code = ?";
+						try (PreparedStatement pstmt2 = conn.prepareStatement(query)) {
+							System.out.println("TEST 2");
+							pstmt2.setString(1, code);
+							System.out.println(pstmt2);
+							pstmt2.executeUpdate();
+						} catch (SQLException e) {
+							System.out.println("TEST 3");
+							queryFailed(e);
+						}
 					}
 				}
+			} catch (SQLException e) {
+				queryFailed(e);
 			}
-		} catch (SQLException e) {
-			e.printStackTrace();
-		}
-		return;
+			return;
+		});
 	}
 
 	/**
@@ -623,15 +1167,17 @@ public class Database {
 	 * @param password the new password string to be stored
 	 */
 	public void updatePassword(String username, String password) {
-		String query = "UPDATE userDB SET password = ? WHERE username = ?";
-		try (PreparedStatement pstmt = connection.prepareStatement(query)) {
-			pstmt.setString(1, password);
-			pstmt.setString(2, username);
-			pstmt.executeUpdate();
-			currentPassword = password;
-		} catch (SQLException e) {
-			e.printStackTrace();
-		}
+		queryMetrics.measure("Database.updatePassword", () -> {
+			String query = "UPDATE userDB SET password = ? WHERE username = ?";
+			try (PooledConnection conn = pool.borrow();
+				 PreparedStatement pstmt = conn.prepareStatement(query)) {
+				pstmt.setString(1, password);
+				pstmt.setString(2, username);
+				pstmt.executeUpdate();
+			} catch (SQLException e) {
+				queryFailed(e);
+			}
+		});
 	}
 	
 	/**
@@ -641,19 +1187,22 @@ public class Database {
 	 * @return the first name of a user given that user's username 
 	 */
 	public String getFirstName(String username) {
-		String query = "SELECT firstName FROM userDB WHERE userName = ?";
-		try (PreparedStatement pstmt = connection.prepareStatement(query)) {
-			pstmt.setString(1, username);
-			ResultSet rs = pstmt.executeQuery();
+		return queryMetrics.measure("Database.getFirstName", () -> {
+			String query = "SELECT firstName FROM userDB WHERE userName = ?";
+			try (PooledConnection conn = pool.borrow();
+				 PreparedStatement pstmt = conn.prepareStatement(query)) {
+				pstmt.setString(1, username);
+				ResultSet rs = pstmt.executeQuery();
 			
-			if (rs.next()) {
-				return rs.getString("firstName"); // Return the first name if user exists
-			}
+				if (rs.next()) {
+					return rs.getString("firstName"); // Return the first name if user exists
+				}
 			
-		} catch (SQLException e) {
-			e.printStackTrace();
-		}
-		return null;
+			} catch (SQLException e) {
+				queryFailed(e);
+			}
+			return null;
+		});
 	}
 	
 	/**
@@ -664,15 +1213,17 @@ public class Database {
 	 * @param firstName is the new first name for the user
 	 */
 	public void updateFirstName(String username, String firstName) {
-		String query = "UPDATE userDB SET firstName = ? WHERE username = ?";
-		try (PreparedStatement pstmt = connection.prepareStatement(query)) {
-			pstmt.setString(1, firstName);
-			pstmt.setString(2, username);
-			pstmt.executeUpdate();
-			currentFirstName = firstName;
-		} catch (SQLException e) {
-			e.printStackTrace();
-		}
+		queryMetrics.measure("Database.updateFirstName", () -> {
+			String query = "UPDATE userDB SET firstName = ? WHERE username = ?";
+			try (PooledConnection conn = pool.borrow();
+				 PreparedStatement pstmt = conn.prepareStatement(query)) {
+				pstmt.setString(1, firstName);
+				pstmt.setString(2, username);
+				pstmt.executeUpdate();
+			} catch (SQLException e) {
+				queryFailed(e);
+			}
+		});
 	}
 
 	/**
@@ -682,18 +1233,21 @@ public class Database {
 	 * @return the middle name of a user given that user's username 
 	 */
 	public String getMiddleName(String username) {
-		String query = "SELECT MiddleName FROM userDB WHERE userName = ?";
-		try (PreparedStatement pstmt = connection.prepareStatement(query)) {
-			pstmt.setString(1, username);
-			ResultSet rs = pstmt.executeQuery();
+		return queryMetrics.measure("Database.getMiddleName", () -> {
+			String query = "SELECT MiddleName FROM userDB WHERE userName = ?";
+			try (PooledConnection conn = pool.borrow();
+				 PreparedStatement pstmt = conn.prepareStatement(query)) {
+				pstmt.setString(1, username);
+				ResultSet rs = pstmt.executeQuery();
 			
-			if (rs.next()) {
-				return rs.getString("middleName"); // Return the middle name if user exists
+				if (rs.next()) {
+					return rs.getString("middleName"); // Return the middle name if user exists
+				}
+			} catch (SQLException e) {
+				queryFailed(e);
 			}
-		} catch (SQLException e) {
-			e.printStackTrace();
-		}
-		return null;
+			return null;
+		});
 	}
 
 	/**
@@ -704,15 +1258,17 @@ public class Database {
 	 * @param middleName is the new middle name for the user
 	 */
 	public void updateMiddleName(String username, String middleName) {
-		String query = "UPDATE userDB SET middleName = ? WHERE username = ?";
-		try (PreparedStatement pstmt = connection.prepareStatement(query)) {
-			pstmt.setString(1, middleName);
-			pstmt.setString(2, username);
-			pstmt.executeUpdate();
-			currentMiddleName = middleName;
-		} catch (SQLException e) {
-			e.printStackTrace();
-		}
+		queryMetrics.measure("Database.updateMiddleName", () -> {
+			String query = "UPDATE userDB SET middleName = ? WHERE username = ?";
+			try (PooledConnection conn = pool.borrow();
+				 PreparedStatement pstmt = conn.prepareStatement(query)) {
+				pstmt.setString(1, middleName);
+				pstmt.setString(2, username);
+				pstmt.executeUpdate();
+			} catch (SQLException e) {
+				queryFailed(e);
+			}
+		});
 	}
 	
 	/**
@@ -722,18 +1278,21 @@ public class Database {
 	 * @return the last name of a user given that user's username 
 	 */
 	public String getLastName(String username) {
-		String query = "SELECT LastName FROM userDB WHERE userName = ?";
-		try (PreparedStatement pstmt = connection.prepareStatement(query)) {
-			pstmt.setString(1, username);
-			ResultSet rs = pstmt.executeQuery();
+		return queryMetrics.measure("Database.getLastName", () -> {
+			String query = "SELECT LastName FROM userDB WHERE userName = ?";
+			try (PooledConnection conn = pool.borrow();
+				 PreparedStatement pstmt = conn.prepareStatement(query)) {
+				pstmt.setString(1, username);
+				ResultSet rs = pstmt.executeQuery();
 			
-			if (rs.next()) {
-				return rs.getString("lastName"); // Return last name role if user exists
+				if (rs.next()) {
+					return rs.getString("lastName"); // Return last name role if user exists
+				}
+			} catch (SQLException e) {
+				queryFailed(e);
 			}
-		} catch (SQLException e) {
-			e.printStackTrace();
-		}
-		return null;
+			return null;
+		});
 	}
 	
 	/**
@@ -744,15 +1303,17 @@ public class Database {
 	 * @param lastName is the new last name for the user
 	 */
 	public void updateLastName(String username, String lastName) {
-		String query = "UPDATE userDB SET lastName = ? WHERE username = ?";
-		try (PreparedStatement pstmt = connection.prepareStatement(query)) {
-			pstmt.setString(1, lastName);
-			pstmt.setString(2, username);
-			pstmt.executeUpdate();
-			currentLastName = lastName;
-		} catch (SQLException e) {
-			e.printStackTrace();
-		}
+		queryMetrics.measure("Database.updateLastName", () -> {
+			String query = "UPDATE userDB SET lastName = ? WHERE username = ?";
+			try (PooledConnection conn = pool.borrow();
+				 PreparedStatement pstmt = conn.prepareStatement(query)) {
+				pstmt.setString(1, lastName);
+				pstmt.setString(2, username);
+				pstmt.executeUpdate();
+			} catch (SQLException e) {
+				queryFailed(e);
+			}
+		});
 	}
 	
 	/**
@@ -762,19 +1323,22 @@ public class Database {
 	 * @return the preferred first name of a user given that user's username 
 	 */
 	public String getPreferredFirstName(String username) {
-		String query = "SELECT preferredFirstName FROM userDB WHERE userName = ?";
-		try (PreparedStatement pstmt = connection.prepareStatement(query)) {
-			pstmt.setString(1, username);
-			ResultSet rs = pstmt.executeQuery();
+		return queryMetrics.measure("Database.getPreferredFirstName", () -> {
+			String query = "SELECT preferredFirstName FROM userDB WHERE userName = ?";
+			try (PooledConnection conn = pool.borrow();
+				 PreparedStatement pstmt = conn.prepareStatement(query)) {
+				pstmt.setString(1, username);
+				ResultSet rs = pstmt.executeQuery();
 			
-			if (rs.next()) {
-				return rs.getString("firstName"); // Return the preferred first name if user exists
-			}
+				if (rs.next()) {
+					return rs.getString("firstName"); // Return the preferred first name if user exists
+				}
 			
-		} catch (SQLException e) {
-			e.printStackTrace();
-		}
-		return null;
+			} catch (SQLException e) {
+				queryFailed(e);
+			}
+			return null;
+		});
 	}
 	
 	/**
@@ -785,15 +1349,17 @@ public class Database {
 	 * @param preferredFirstName is the new preferred first name for the user
 	 */
 	public void updatePreferredFirstName(String username, String preferredFirstName) {
-		String query = "UPDATE userDB SET preferredFirstName = ? WHERE username = ?";
-		try (PreparedStatement pstmt = connection.prepareStatement(query)) {
-			pstmt.setString(1, preferredFirstName);
-			pstmt.setString(2, username);
-			pstmt.executeUpdate();
-			currentPreferredFirstName = preferredFirstName;
-		} catch (SQLException e) {
-			e.printStackTrace();
-		}
+		queryMetrics.measure("Database.updatePreferredFirstName", () -> {
+			String query = "UPDATE userDB SET preferredFirstName = ? WHERE username = ?";
+			try (PooledConnection conn = pool.borrow();
+				 PreparedStatement pstmt = conn.prepareStatement(query)) {
+				pstmt.setString(1, preferredFirstName);
+				pstmt.setString(2, username);
+				pstmt.executeUpdate();
+			} catch (SQLException e) {
+				queryFailed(e);
+			}
+		});
 	}
 	
 	/**
@@ -803,19 +1369,22 @@ public class Database {
 	 * @return the email address of a user given that user's username 
 	 */
 	public String getEmailAddress(String username) {
-		String query = "SELECT emailAddress FROM userDB WHERE userName = ?";
-		try (PreparedStatement pstmt = connection.prepareStatement(query)) {
-			pstmt.setString(1, username);
-			ResultSet rs = pstmt.executeQuery();
+		return queryMetrics.measure("Database.getEmailAddress", () -> {
+			String query = "SELECT emailAddress FROM userDB WHERE userName = ?";
+			try (PooledConnection conn = pool.borrow();
+				 PreparedStatement pstmt = conn.prepareStatement(query)) {
+				pstmt.setString(1, username);
+				ResultSet rs = pstmt.executeQuery();
 			
-			if (rs.next()) {
-				return rs.getString("emailAddress"); // Return the email address if user exists
-			}
+				if (rs.next()) {
+					return rs.getString("emailAddress"); // Return the email address if user exists
+				}
 			
-		} catch (SQLException e) {
-			e.printStackTrace();
-		}
-		return null;
+			} catch (SQLException e) {
+				queryFailed(e);
+			}
+			return null;
+		});
 	}
 	
 	/**
@@ -826,48 +1395,104 @@ public class Database {
 	 * @param emailAddress is the new email address for the user
 	 */
 	public void updateEmailAddress(String username, String emailAddress) {
-		String query = "UPDATE userDB SET emailAddress = ? WHERE username = ?";
-		try (PreparedStatement pstmt = connection.prepareStatement(query)) {
-			pstmt.setString(1, emailAddress);
-			pstmt.setString(2, username);
-			pstmt.executeUpdate();
-			currentEmailAddress = emailAddress;
-		} catch (SQLException e) {
-			e.printStackTrace();
-		}
+		queryMetrics.measure("Database.updateEmailAddress", () -> {
+			String query = "UPDATE userDB SET emailAddress = ? WHERE username = ?";
+			try (PooledConnection conn = pool.borrow();
+				 PreparedStatement pstmt = conn.prepareStatement(query)) {
+				pstmt.setString(1, emailAddress);
+				pstmt.setString(2, username);
+				pstmt.executeUpdate();
+			} catch (SQLException e) {
+				queryFailed(e);
+			}
+		});
 	}
 	
 	/**
-	 * <p> Description: Get all the attributes of a user given that user's username.</p>
+	 * <p> Description: Get all the attributes of a user given that user's username. The result is
+	 * an immutable snapshot, so it may be kept, cached or passed to another thread.</p>
 	 *
 	 * @param username is the username of the user
-	 * @return true if the get is successful, else false
+	 * @return the user's record, or an empty Optional if there is no such user or the query fails
 	 */
-	public boolean getUserAccountDetails(String username) {
-		String query = "SELECT * FROM userDB WHERE username = ?";
-		try (PreparedStatement pstmt = connection.prepareStatement(query)) {
-			pstmt.setString(1, username);
-			ResultSet rs = pstmt.executeQuery();			
-			rs.next();
-			currentUsername = rs.getString(2);
-			currentPassword = rs.getString(3);
-			currentFirstName = rs.getString(4);
-			currentMiddleName = rs.getString(5);
-			currentLastName = rs.getString(6);
-			currentPreferredFirstName = rs.getString(7);
-			currentEmailAddress = rs.getString(8);
-			currentAdminRole = rs.getBoolean(9);
-			currentNewRole1 = rs.getBoolean(10);
-			currentNewRole2 = rs.getBoolean(11);
-			return true;
-		} catch (SQLException e) {
-			return false;
-		}
+	public Optional<UserRecord> findUser(String username) {
+		return queryMetrics.measure("Database.findUser", () -> {
+			String query = "SELECT " + USER_RECORD_COLUMNS + " FROM userDB WHERE userName = ?";
+			try (PooledConnection conn = pool.borrow();
+				 PreparedStatement pstmt = conn.prepareStatement(query)) {
+				pstmt.setString(1, username);
+				try (ResultSet rs = pstmt.executeQuery()) {
+					if (!rs.next()) return Optional.empty();
+					return Optional.of(readUserRecord(rs));
+				}
+			} catch (SQLException e) {
+				queryFailed(e);
+				return Optional.empty();
+			}
+		});
+	}
+	
+	/**
+	 * <p> Description: Saves any number of changes to a user's account in one statement and
+	 * returns the row as it is after the update. The UPDATE runs inside H2's FINAL TABLE, so the
+	 * new row comes back from the same round trip and the caller does not read it again. The
+	 * columns are always set in ProfileField order, so the same set of fields gives the same SQL
+	 * and reuses the cached statement.</p>
+	 *
+	 * @param username is the username of the user
+	 * @param changes the new value of each field to change; fields not in the map are kept
+	 * @return the user's record after the update, or an empty Optional if there is no such user or
+	 * the update fails
+	 */
+	public Optional<UserRecord> updateProfile(String username, Map<ProfileField, String> changes) {
+		return queryMetrics.measure("Database.updateProfile", () -> {
+			if (changes.isEmpty()) return findUser(username);
+			Map<ProfileField, String> ordered = new EnumMap<>(changes);
+
+			StringBuilder query = new StringBuilder("SELECT ").append(USER_RECORD_COLUMNS)
+					.append(" FROM FINAL TABLE (UPDATE userDB SET ");
+			String separator = "";
+			for (ProfileField field : ordered.keySet()) {
+				query.append(separator).append(field.getColumn()).append(" = ?");
+				separator = ", ";
+			}
+			query.append(" WHERE userName = ?)");
+
+			try (PooledConnection conn = pool.borrow();
+				 PreparedStatement pstmt = conn.prepareStatement(query.toString())) {
+				int index = 1;
+				for (String value : ordered.values()) pstmt.setString(index++, value);
+				pstmt.setString(index, username);
+				try (ResultSet rs = pstmt.executeQuery()) {
+					if (!rs.next()) return Optional.empty();
+					return Optional.of(readUserRecord(rs));
+				}
+			} catch (SQLException e) {
+				queryFailed(e);
+				return Optional.empty();
+			}
+		});
+	}
+
+	/*
+	 * Reads a UserRecord from the current row of a result set that selected USER_RECORD_COLUMNS.
+	 */
+	private static UserRecord readUserRecord(ResultSet rs) throws SQLException {
+		return new UserRecord(
+				rs.getString("userName"),
+				rs.getString("password"),
+				rs.getString("firstName"),
+				rs.getString("middleName"),
+				rs.getString("lastName"),
+				rs.getString("preferredFirstName"),
+				rs.getString("emailAddress"),
+				rs.getBoolean("adminRole"),
+				rs.getBoolean("newRole1"),
+				rs.getBoolean("newRole2"));
 	}
 	
 	/**
-	 * <p> Description: Update a specified role for a specified user's and set and update all the
-	 * current user attributes.</p>
+	 * <p> Description: Update a specified role for a specified user.</p>
 	 *
 	 * @param username is the username of the user
 	 * @param role is string that specifies the role to update
@@ -875,52 +1500,48 @@ public class Database {
 	 * @return true if the update was successful, else false
 	 */
 	public boolean updateUserRole(String username, String role, String value) {
-		if (role.compareTo("Admin") == 0) {
-			String query = "UPDATE userDB SET adminRole = ? WHERE username = ?";
-			try (PreparedStatement pstmt = connection.prepareStatement(query)) {
-				pstmt.setString(1, value);
-				pstmt.setString(2, username);
-				pstmt.executeUpdate();
-				if (value.compareTo("true") == 0)
-					currentAdminRole = true;
-				else
-					currentAdminRole = false;
-				return true;
-			} catch (SQLException e) {
-				return false;
+		return queryMetrics.measure("Database.updateUserRole", () -> {
+			if (role.compareTo("Admin") == 0) {
+				String query = "UPDATE userDB SET adminRole = ? WHERE username = ?";
+				try (PooledConnection conn = pool.borrow();
+					 PreparedStatement pstmt = conn.prepareStatement(query)) {
+					pstmt.setString(1, value);
+					pstmt.setString(2, username);
+					pstmt.executeUpdate();
+					return true;
+				} catch (SQLException e) {
+					queryFailed(e);
+					return false;
+				}
 			}
-		}
-		if (role.compareTo("Role1") == 0) {
-			String query = "UPDATE userDB SET newRole1 = ? WHERE username = ?";
-			try (PreparedStatement pstmt = connection.prepareStatement(query)) {
-				pstmt.setString(1, value);
-				pstmt.setString(2, username);
-				pstmt.executeUpdate();
-				if (value.compareTo("true") == 0)
-					currentNewRole1 = true;
-				else
-					currentNewRole1 = false;
-				return true;
-			} catch (SQLException e) {
-				return false;
+			if (role.compareTo("Role1") == 0) {
+				String query = "UPDATE userDB SET newRole1 = ? WHERE username = ?";
+				try (PooledConnection conn = pool.borrow();
+					 PreparedStatement pstmt = conn.prepareStatement(query)) {
+					pstmt.setString(1, value);
+					pstmt.setString(2, username);
+					pstmt.executeUpdate();
+					return true;
+				} catch (SQLException e) {
+					queryFailed(e);
+					return false;
+				}
 			}
-		}
-		if (role.compareTo("Role2") == 0) {
-			String query = "UPDATE userDB SET newRole2 = ? WHERE username = ?";
-			try (PreparedStatement pstmt = connection.prepareStatement(query)) {
-				pstmt.setString(1, value);
-				pstmt.setString(2, username);
-				pstmt.executeUpdate();
-				if (value.compareTo("true") == 0)
-					currentNewRole2 = true;
-				else
-					currentNewRole2 = false;
-				return true;
-			} catch (SQLException e) {
-				return false;
+			if (role.compareTo("Role2") == 0) {
+				String query = "UPDATE userDB SET newRole2 = ? WHERE username = ?";
+				try (PooledConnection conn = pool.borrow();
+					 PreparedStatement pstmt = conn.prepareStatement(query)) {
+					pstmt.setString(1, value);
+					pstmt.setString(2, username);
+					pstmt.executeUpdate();
+					return true;
+				} catch (SQLException e) {
+					queryFailed(e);
+					return false;
+				}
 			}
-		}
-		return false;
+			return false;
+		});
 	}
 	
 	/**
@@ -930,123 +1551,130 @@ public class Database {
 	 * @return true if deletion was successful, false otherwise
 	 */
 	public boolean deleteUserByUsername(String username) {
-		String query = "DELETE FROM userDB WHERE userName = ?";
-		try (PreparedStatement pstmt = connection.prepareStatement(query)) {
-			pstmt.setString(1, username);
-			int rowsAffected = pstmt.executeUpdate();
-			// If at least one row was deleted, return true
-			return rowsAffected > 0;
-		} catch (SQLException e) {
-			System.err.println("Error deleting user: " + e.getMessage());
-			e.printStackTrace();
-			return false;
-		}
+		return queryMetrics.measure("Database.deleteUserByUsername", () -> {
+			String query = "DELETE FROM userDB WHERE userName = ?";
+			try (PooledConnection conn = pool.borrow();
+				 PreparedStatement pstmt = conn.prepareStatement(query)) {
+				pstmt.setString(1, username);
+				int rowsAffected = pstmt.executeUpdate();
+				// If at least one row was deleted, return true
+				return rowsAffected > 0;
+			} catch (SQLException e) {
+				queryFailed(e);
+				return false;
+			}
+		});
 	}
 	
-	// Attribute getters for the current user
-	
-	/**
-	 * <p> Description: Get the current user's username.</p>
-	 *
-	 * @return the username value is returned
-	 */
-	public String getCurrentUsername() { return currentUsername;}
-
-	/**
-	 * <p> Description: Get the current user's password.</p>
-	 *
-	 * @return the password value is returned
-	 */
-	public String getCurrentPassword() { return currentPassword;}
-
 	/**
-	 * <p> Description: Get the current user's first name.</p>
-	 *
-	 * @return the first name value is returned
-	 */
-	public String getCurrentFirstName() { return currentFirstName;}
-
-	/**
-	 * <p> Description: Get the current user's middle name.</p>
+	 * <p> Description: Debugging method that dumps the database of the console.</p>
 	 *
-	 * @return the middle name value is returned
+	 * @throws SQLException if there is an issue accessing the database.
 	 */
-	public String getCurrentMiddleName() { return currentMiddleName;}
+	// Dumps the database.
+	public void dump() throws SQLException {
+		queryMetrics.measure("Database.dump", () -> {
+			String query = "SELECT * FROM userDB";
+			try (PooledConnection conn = pool.borrow();
+				 Statement statement = conn.createStatement();
+				 ResultSet resultSet = statement.executeQuery(query)) {
+				ResultSetMetaData meta = resultSet.getMetaData();
+				while (resultSet.next()) {
+					for (int i = 0; i < meta.getColumnCount(); i++) {
+						System.out.println(meta.getColumnLabel(i + 1) + ": " + resultSet.getString(i + 1));
+					}
+					System.out.println();
+				}
+			}
+		});
+	}
 
 	/**
-	 * <p> Description: Get the current user's last name.</p>
-	 *
-	 * @return the last name value is returned
+	 * <p> Description: Closes the connection pool and every idle connection in it.</p>
 	 */
-	public String getCurrentLastName() { return currentLastName;}
+	public void closeConnection() {
+		queryMetrics.measure("Database.closeConnection", () -> {
+			if (invitationSweeper != null) invitationSweeper.close();
+			if (pool != null) pool.close();
+			unregisterQueryMetrics();
+		});
+	}
 
 	/**
-	 * <p> Description: Get the current user's preferred first name.</p>
+	 * <p> Description: The call counts, error counts and latencies of every method of this class
+	 * since the database was connected. The same numbers are published over JMX as
+	 * database:type=QueryMetrics. </p>
 	 *
-	 * @return the preferred first name value is returned
+	 * @return the live query metrics
 	 */
-	public String getCurrentPreferredFirstName() { return currentPreferredFirstName;}
+	public QueryMetrics getQueryMetrics() {
+		return queryMetrics;
+	}
 
 	/**
-	 * <p> Description: Get the current user's email address name.</p>
+	 * <p> Description: A text report of the query metrics, one line per method with its calls,
+	 * errors and p50/p95/p99/max latency. </p>
 	 *
-	 * @return the email address value is returned
+	 * @return the report
 	 */
-	public String getCurrentEmailAddress() { return currentEmailAddress;}
+	public String getQueryReport() {
+		return queryMetrics.report();
+	}
 
-	/**
-	 * <p> Description: Get the current user's Admin role attribute.</p>
-	 *
-	 * @return true if this user plays an Admin role, else false
+	/*
+	 * Publishes the query metrics over JMX. Only the first connected Database is published; the
+	 * metrics of another one are still available through getQueryMetrics().
 	 */
-	public boolean getCurrentAdminRole() { return currentAdminRole;}
+	private void registerQueryMetrics() {
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		try {
+			ObjectName name = new ObjectName(QUERY_METRICS_MBEAN_NAME);
+			if (server.isRegistered(name)) return;
+			server.registerMBean(queryMetrics, name);
+			queryMetricsName = name;
+		} catch (JMException e) {
+			System.out.println("*** WARNING ***: The query metrics could not be published over JMX: "
+					+ e.getMessage());
+		}
+	}
 
-	/**
-	 * <p> Description: Get the current user's Student role attribute.</p>
-	 *
-	 * @return true if this user plays a Student role, else false
-	 */
-	public boolean getCurrentNewRole1() { return currentNewRole1;}
+	private void unregisterQueryMetrics() {
+		if (queryMetricsName == null) return;
+		try {
+			ManagementFactory.getPlatformMBeanServer().unregisterMBean(queryMetricsName);
+		} catch (JMException e) {
+			// Already gone
+		}
+		queryMetricsName = null;
+	}
 
-	/**
-	 * <p> Description: Get the current user's Reviewer role attribute.</p>
-	 *
-	 * @return true if this user plays a Reviewer role, else false
+	/*
+	 * Reports an SQLException caught by one of the methods of this class: prints it as before,
+	 * and counts an error against that method, and the methods of this class that called it, in
+	 * the query metrics.
 	 */
-	public boolean getCurrentNewRole2() { return currentNewRole2;}
+	private void queryFailed(SQLException e) {
+		queryMetrics.recordError();
+		e.printStackTrace();
+	}
 
 	/**
-	 * <p> Description: Debugging method that dumps the database of the console.</p>
+	 * <p> Description: The number of queries that reused a prepared statement cached on their
+	 * connection, since the database was connected. </p>
 	 *
-	 * @throws SQLException if there is an issue accessing the database.
+	 * @return the number of prepared statement cache hits
 	 */
-	// Dumps the database.
-	public void dump() throws SQLException {
-		String query = "SELECT * FROM userDB";
-		ResultSet resultSet = statement.executeQuery(query);
-		ResultSetMetaData meta = resultSet.getMetaData();
-		while (resultSet.next()) {
-			for (int i = 0; i < meta.getColumnCount(); i++) {
-				System.out.println(meta.getColumnLabel(i + 1) + ": " + resultSet.getString(i + 1));
-			}
-			System.out.println();
-		}
-		resultSet.close();
+	public long getStatementCacheHits() {
+		return pool == null ? 0 : pool.getStatementCacheHits();
 	}
 
 	/**
-	 * <p> Description: Closes the database statement and connection.</p>
+	 * <p> Description: The number of queries that had to prepare their statement, since the
+	 * database was connected. </p>
+	 *
+	 * @return the number of prepared statement cache misses
 	 */
-	public void closeConnection() {
-		try { 
-			if(statement!=null) statement.close(); 
-		} catch(SQLException se2) { 
-			se2.printStackTrace();
-		} 
-		try { 
-			if(connection!=null) connection.close(); 
-		} catch(SQLException se){ 
-			se.printStackTrace(); 
-		} 
+	public long getStatementCacheMisses() {
+		return pool == null ? 0 : pool.getStatementCacheMisses();
 	}
 }
\ No newline at end of file
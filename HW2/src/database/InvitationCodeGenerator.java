@@ -0,0 +1,36 @@
+package database;
+
+import java.security.SecureRandom;
+
+/**
+ * <p> Title: InvitationCodeGenerator Class. </p>
+ *
+ * <p> Description: Makes invitation codes from a SecureRandom. A code is CODE_LENGTH characters
+ * from an alphabet without look-alike characters (no 0/O, 1/I/L), which gives about 49 bits per
+ * code: a collision with the few thousand codes a course ever holds is very unlikely, unlike the
+ * six hex characters used before, and hard to guess. The primary key still has the last word, so
+ * callers retry with a new code when an insert conflicts. Thread safe. </p>
+ *
+ * @author Amairani Caballero
+ */
+final class InvitationCodeGenerator {
+
+	/** Length of a code; the code column is VARCHAR(10). */
+	static final int CODE_LENGTH = 10;
+
+	private static final char[] ALPHABET = "ABCDEFGHJKMNPQRSTUVWXYZ23456789".toCharArray();
+
+	private static final SecureRandom RANDOM = new SecureRandom();
+
+	private InvitationCodeGenerator() {
+	}
+
+	/**
+	 * @return a new random code
+	 */
+	static String next() {
+		char[] code = new char[CODE_LENGTH];
+		for (int i = 0; i < code.length; i++) code[i] = ALPHABET[RANDOM.nextInt(ALPHABET.length)];
+		return new String(code);
+	}
+}
@@ -0,0 +1,208 @@
+package database;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import entityClasses.InvitationBatchResult;
+import entityClasses.InvitationCode;
+import entityClasses.InvitationRequest;
+
+/**
+ * <p> Title: InvitationRedemptionTestingAutomation </p>
+ *
+ * <p> Description: Console-based tests for redeeming invitation codes with
+ * Database.validateInviteCode, run against a private in-memory H2 database. The first cases check
+ * the conditions a code must meet; the next ones release many threads at once on the same code and
+ * check that exactly one of them redeems it, and the last ones invite a list of addresses at once. Prints PASS/FAIL lines in the same format as the
+ * other TestingAutomation classes. </p>
+ *
+ * @author Amairani Caballero
+ */
+public class InvitationRedemptionTestingAutomation {
+
+	/** Counter of the number of passed tests. */
+	static int numPassed = 0;
+
+	/** Counter of the number of failed tests. */
+	static int numFailed = 0;
+
+	/** Number of sign-ups racing on one code. */
+	static final int THREADS = 32;
+
+	/** Number of races run. */
+	static final int ROUNDS = 20;
+
+	public static void main(String[] args) throws Exception {
+		System.out.println("*** Invitation Redemption TestingAutomation Begins ***\n");
+
+		Database database = new Database();
+		database.connectToDatabase("jdbc:h2:mem:redemption;DB_CLOSE_DELAY=-1");
+		try {
+			runTests(database);
+		} finally {
+			database.closeConnection();
+		}
+
+		// Summary info
+		System.out.println("\n---------- SUMMARY ----------");
+		System.out.println("Passed: " + numPassed);
+		System.out.println("Failed: " + numFailed);
+	}
+
+	private static void runTests(Database database) throws Exception {
+		System.out.println("---------- SINGLE REDEMPTION TEST CASES ----------\n");
+
+		// TC01
+		String code = database.generateInvitationCode("student@asu.edu", "Role1");
+		expectBoolean(1, "Valid code is redeemed", "matching email and role", true,
+				database.validateInviteCode(code, "student@asu.edu", "Role1"), "code=" + code);
+
+		// TC02
+		expectBoolean(2, "Code cannot be redeemed twice", "same code again", false,
+				database.validateInviteCode(code, "student@asu.edu", "Role1"), "code=" + code);
+
+		// TC03
+		code = database.generateInvitationCode("student2@asu.edu", "Role1");
+		expectBoolean(3, "Wrong email is refused", "other@asu.edu", false,
+				database.validateInviteCode(code, "other@asu.edu", "Role1"), "code=" + code);
+
+		// TC04
+		expectBoolean(4, "Refused attempt leaves the code usable, email ignores case",
+				"STUDENT2@asu.edu", true,
+				database.validateInviteCode(code, "STUDENT2@asu.edu", "Role1"), "code=" + code);
+
+		// TC05
+		code = database.generateInvitationCode("student3@asu.edu", "Role1");
+		expectBoolean(5, "Wrong role is refused", "Admin instead of Role1", false,
+				database.validateInviteCode(code, "student3@asu.edu", "Admin"), "code=" + code);
+
+		// TC06
+		expectBoolean(6, "Unknown code is refused", "code=nosuch", false,
+				database.validateInviteCode("nosuch", "student3@asu.edu", "Role1"), "");
+
+		System.out.println("---------- CONCURRENT REDEMPTION TEST CASES ----------\n");
+
+		ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+		try {
+			// TC07
+			int winners = race(database, pool, database.generateInvitationCode("race@asu.edu", "Role2"));
+			expectBoolean(7, "Exactly one of " + THREADS + " parallel redemptions wins",
+					THREADS + " threads, one code", true, winners == 1, "winners=" + winners);
+
+			// TC08
+			int roundsWithOneWinner = 0;
+			for (int round = 0; round < ROUNDS; round++) {
+				String roundCode = database.generateInvitationCode("race" + round + "@asu.edu", "Role2");
+				if (race(database, pool, roundCode) == 1) roundsWithOneWinner++;
+			}
+			expectBoolean(8, "Every race has exactly one winner", ROUNDS + " rounds", true,
+					roundsWithOneWinner == ROUNDS, "roundsWithOneWinner=" + roundsWithOneWinner);
+		} finally {
+			pool.shutdown();
+			pool.awaitTermination(1, TimeUnit.MINUTES);
+		}
+
+		System.out.println("---------- BATCH INVITATION TEST CASES ----------\n");
+
+		List<InvitationRequest> requests = List.of(
+				new InvitationRequest("class1@asu.edu", "Role1"),
+				new InvitationRequest("class2@asu.edu", "Role1"),
+				new InvitationRequest("class1@asu.edu", "Role1"),
+				new InvitationRequest("race@asu.edu", "Role1"),
+				new InvitationRequest("not-an-address", "Role1"));
+		InvitationBatchResult batch = database.generateInvitationCodes(requests);
+
+		// TC09
+		expectBoolean(9, "New addresses are invited", requests.toString(), true,
+				batch.getIssued().size() == 2, "issued=" + batch.getIssued().size());
+
+		// TC10
+		expectBoolean(10, "Repeated, already invited and invalid addresses are left out",
+				requests.toString(), true,
+				batch.getSkipped().keySet().equals(Set.of("class1@asu.edu", "race@asu.edu", "not-an-address")),
+				"skipped=" + batch.getSkipped());
+
+		// TC11
+		boolean redeemable = true;
+		for (InvitationCode invite : batch.getIssued()) {
+			if (invite.getCode().length() != 10) redeemable = false;
+			if (!database.validateInviteCode(invite.getCode(), invite.getEmail(), "Role1")) redeemable = false;
+		}
+		expectBoolean(11, "Batch codes are ten characters and redeemable", "issued codes", true,
+				redeemable, "codes=" + batch.getIssued().stream().map(InvitationCode::getCode).toList());
+
+		// TC12
+		InvitationBatchResult mixedCase = database.generateInvitationCodes(List.of(
+				new InvitationRequest("Case@asu.edu", "Role1"),
+				new InvitationRequest("case@ASU.edu", "Role1")));
+		InvitationBatchResult again = database.generateInvitationCodes(List.of(
+				new InvitationRequest("CASE@asu.edu", "Role1")));
+		expectBoolean(12, "Addresses that differ only in case are one person",
+				"Case@asu.edu, case@ASU.edu, then CASE@asu.edu and CASE@ASU.EDU", true,
+				mixedCase.getIssued().size() == 1
+						&& mixedCase.getSkipped().keySet().equals(Set.of("case@ASU.edu"))
+						&& again.getIssued().isEmpty()
+						&& again.getSkipped().keySet().equals(Set.of("CASE@asu.edu"))
+						&& database.emailaddressHasBeenUsed("CASE@ASU.EDU"),
+				"first skipped=" + mixedCase.getSkipped() + ", second skipped=" + again.getSkipped());
+	}
+
+	/**
+	 * Releases THREADS redemptions of the same code at once and returns how many succeeded.
+	 */
+	private static int race(Database database, ExecutorService pool, String code) throws Exception {
+		String email = database.getEmailAddressUsingCode(code);
+		CountDownLatch ready = new CountDownLatch(THREADS);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<Boolean>> attempts = new ArrayList<>();
+		for (int t = 0; t < THREADS; t++) {
+			attempts.add(pool.submit(() -> {
+				ready.countDown();
+				start.await();
+				return database.validateInviteCode(code, email, "Role2");
+			}));
+		}
+		ready.await();
+		start.countDown();
+
+		int winners = 0;
+		for (Future<Boolean> attempt : attempts) {
+			if (attempt.get()) winners++;
+		}
+		return winners;
+	}
+
+	// Output helpers
+	private static void expectBoolean(
+			int testId,
+			String testName,
+			String input,
+			boolean expected,
+			boolean actual,
+			String details) {
+
+		boolean pass = (expected == actual);
+
+		System.out.println("TC" + ((testId < 10) ? ("0" + testId) : String.valueOf(testId)) + " - " + testName);
+		System.out.println("Input:    " + input);
+		System.out.println("Expected: " + expected);
+		System.out.println("Actual:   " + actual);
+		System.out.println("Details:  " + details);
+
+		if (pass) {
+			numPassed++;
+			System.out.println("Result:   PASS");
+		} else {
+			numFailed++;
+			System.out.println("Result:   FAIL");
+		}
+
+		System.out.println();
+	}
+}
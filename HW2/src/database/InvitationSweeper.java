@@ -0,0 +1,96 @@
+package database;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p> Title: InvitationSweeper Class. </p>
+ *
+ * <p> Description: Deletes expired invitation codes on a background thread, so that showing the
+ * invitations never has to write to the database. Every interval the sweeper deletes the codes
+ * whose expiresAt has passed, at most batchSize rows per statement, until none are left; small
+ * batches keep each delete short so it does not hold up the pages using the table. </p>
+ *
+ * <p> Expired codes live on until the next sweep, so every read of the InvitationCodes table that
+ * cares about expiry must still filter on expiresAt > CURRENT_TIMESTAMP. </p>
+ *
+ * @author Amairani Caballero
+ */
+public class InvitationSweeper implements AutoCloseable {
+
+	private static final String DELETE_EXPIRED = "DELETE FROM InvitationCodes WHERE code IN ("
+			+ "SELECT code FROM InvitationCodes WHERE expiresAt <= CURRENT_TIMESTAMP LIMIT ?)";
+
+	private final ConnectionPool pool;
+
+	private final int batchSize;
+
+	private final ScheduledExecutorService scheduler;
+
+	/**
+	 * <p> Description: Creates a sweeper and starts sweeping. The first sweep runs right away. </p>
+	 *
+	 * @param pool where the sweeper borrows its connection
+	 * @param intervalMillis time between the end of one sweep and the start of the next
+	 * @param batchSize most codes deleted by one statement (at least 1)
+	 * @return the running sweeper; close it to stop sweeping
+	 */
+	public static InvitationSweeper start(ConnectionPool pool, long intervalMillis, int batchSize) {
+		if (intervalMillis <= 0) throw new IllegalArgumentException("Invalid interval: " + intervalMillis);
+		InvitationSweeper sweeper = new InvitationSweeper(pool, batchSize);
+		// Scheduled only once the sweeper is fully built, so the first sweep never sees it half done
+		sweeper.scheduler.scheduleWithFixedDelay(sweeper::sweepQuietly, 0, intervalMillis, TimeUnit.MILLISECONDS);
+		return sweeper;
+	}
+
+	private InvitationSweeper(ConnectionPool pool, int batchSize) {
+		if (batchSize < 1) throw new IllegalArgumentException("Invalid batch size: " + batchSize);
+		this.pool = pool;
+		this.batchSize = batchSize;
+		this.scheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+			Thread thread = new Thread(task, "invitation-sweeper");
+			thread.setDaemon(true);		// Never keeps the application from quitting
+			return thread;
+		});
+	}
+
+	/**
+	 * <p> Description: Deletes every expired code now, on the calling thread. </p>
+	 *
+	 * @return the number of codes deleted
+	 * @throws SQLException if the database cannot be reached
+	 */
+	public int sweep() throws SQLException {
+		int deleted = 0;
+		try (PooledConnection conn = pool.borrow();
+			 PreparedStatement pstmt = conn.prepareStatement(DELETE_EXPIRED)) {
+			pstmt.setInt(1, batchSize);
+			int batch;
+			do {
+				batch = pstmt.executeUpdate();
+				deleted += batch;
+			} while (batch == batchSize);
+		}
+		return deleted;
+	}
+
+	/**
+	 * <p> Description: Stops sweeping. A sweep that is running is allowed to finish. </p>
+	 */
+	@Override
+	public void close() {
+		scheduler.shutdown();
+	}
+
+	private void sweepQuietly() {
+		try {
+			sweep();
+		} catch (SQLException | RuntimeException e) {
+			// Try again at the next interval; an exception thrown here would cancel the schedule
+			e.printStackTrace();
+		}
+	}
+}
@@ -0,0 +1,74 @@
+package database;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * <p> Title: LatencyHistogram Class. </p>
+ *
+ * <p> Description: Counts latencies in fixed buckets so that percentiles can be read at any time
+ * without keeping every sample. Buckets are log-linear in microseconds: each power of two is split
+ * into SUB_BUCKETS equal parts, so a reported percentile is at most 25% above the true value, from
+ * one microsecond up to hours. Recording is one array increment and is thread safe; reads while
+ * others record see a value that is close, not a snapshot. </p>
+ *
+ * @author Amairani Caballero
+ */
+final class LatencyHistogram {
+
+	/** Parts each power of two is split into (a power of two itself). */
+	private static final int SUB_BUCKETS = 4;
+
+	private static final int SUB_BITS = Integer.numberOfTrailingZeros(SUB_BUCKETS);
+
+	private final AtomicLongArray counts = new AtomicLongArray(64 * SUB_BUCKETS);
+
+	/**
+	 * @param nanos a latency in nanoseconds
+	 */
+	void record(long nanos) {
+		counts.incrementAndGet(bucketOf(Math.max(1, nanos / 1000)));
+	}
+
+	/**
+	 * <p> Description: Reads a percentile. </p>
+	 *
+	 * @param percentile between 0 and 100, e.g. 95 for p95
+	 * @return the upper bound of the bucket holding that percentile, in nanoseconds, or 0 if
+	 * nothing was recorded
+	 */
+	long percentileNanos(double percentile) {
+		long total = 0;
+		for (int i = 0; i < counts.length(); i++) total += counts.get(i);
+		if (total == 0) return 0;
+
+		long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * total));
+		long seen = 0;
+		for (int i = 0; i < counts.length(); i++) {
+			seen += counts.get(i);
+			if (seen >= rank) return upperBoundMicros(i) * 1000;
+		}
+		return upperBoundMicros(counts.length() - 1) * 1000;
+	}
+
+	/**
+	 * <p> Description: Forgets everything recorded. </p>
+	 */
+	void reset() {
+		for (int i = 0; i < counts.length(); i++) counts.set(i, 0);
+	}
+
+	private static int bucketOf(long micros) {
+		int exponent = 63 - Long.numberOfLeadingZeros(micros);
+		long sub = exponent >= SUB_BITS
+				? (micros >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1)
+				: (micros << (SUB_BITS - exponent)) & (SUB_BUCKETS - 1);
+		return exponent * SUB_BUCKETS + (int) sub;
+	}
+
+	private static long upperBoundMicros(int bucket) {
+		int exponent = bucket / SUB_BUCKETS;
+		long sub = bucket % SUB_BUCKETS;
+		if (exponent >= SUB_BITS) return ((SUB_BUCKETS + sub + 1) << (exponent - SUB_BITS)) - 1;
+		return (SUB_BUCKETS + sub) >> (SUB_BITS - exponent);	// Below 4 us each bucket is one value
+	}
+}
@@ -0,0 +1,176 @@
+package database;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import entityClasses.AuthenticationResult;
+import entityClasses.User;
+
+/**
+ * <p> Title: LoginBenchmark </p>
+ *
+ * <p> Description: Console program that measures sign-in latency the way it looks at the start of
+ * a class, when every student signs in within the same minute. A private in-memory H2 database is
+ * filled with one account per student, and a group of threads, released together by a latch,
+ * signs all of them in. </p>
+ *
+ * <p> The old sign-in is replayed query for query: fetch the account by username, check the
+ * password and role, restore a one-time password, and count the users for the Admin home page,
+ * each on its own borrowed connection. The new sign-in is one call to Database.authenticate. The
+ * program prints the median, 95th and 99th percentile latency and the sign-ins per second after a
+ * warm-up round. The numbers vary with the machine and the JVM, so they are meant for comparison
+ * only. </p>
+ *
+ * @author Amairani Caballero
+ */
+public class LoginBenchmark {
+
+	private static final String BENCH_URL = "jdbc:h2:mem:loginbench;DB_CLOSE_DELAY=-1";
+
+	private static final String PASSWORD = "Passw0rd!";
+
+	public static void main(String[] args) throws Exception {
+		System.out.println("*** Login Benchmark ***\n");
+
+		Database database = new Database();
+		database.connectToDatabase(BENCH_URL);
+		ConnectionPool legacyPool = new ConnectionPool(BENCH_URL, Database.USER, Database.PASS,
+				Database.POOL_MIN_SIZE, Database.POOL_MAX_SIZE,
+				Database.POOL_ACQUIRE_TIMEOUT_MILLIS, Database.POOL_VALIDATION_INTERVAL_MILLIS);
+		try {
+			int students = 400;
+			for (int s = 0; s < students; s++) {
+				database.register(new User("student" + s, PASSWORD, "First" + s, "", "Last" + s,
+						"", "student" + s + "@asu.edu", false, true, false));
+			}
+
+			System.out.printf("%-10s %-8s %-8s %-10s %-10s %-10s %-12s%n",
+					"path", "threads", "logins", "p50 (us)", "p95 (us)", "p99 (us)", "logins/s");
+			for (int threads : new int[] { 1, 8, 32 }) {
+				// Warm-up round so both paths run compiled code against a warm database
+				run(database, legacyPool, students, threads, true);
+				run(database, legacyPool, students, threads, false);
+				report("legacy", threads, run(database, legacyPool, students, threads, true));
+				report("single", threads, run(database, legacyPool, students, threads, false));
+			}
+		} finally {
+			legacyPool.close();
+			database.closeConnection();
+		}
+	}
+
+	/**
+	 * Signs every student in once, spread over the given number of threads that all start
+	 * together, and returns the latency of each sign-in in nanoseconds plus the wall time.
+	 */
+	private static Result run(Database database, ConnectionPool legacyPool, int students,
+			int threads, boolean legacy) throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		CountDownLatch ready = new CountDownLatch(threads);
+		CountDownLatch start = new CountDownLatch(1);
+		long[] latencies = new long[students];
+		Future<?>[] workers = new Future<?>[threads];
+		try {
+			for (int t = 0; t < threads; t++) {
+				int first = t;
+				workers[t] = executor.submit(() -> {
+					ready.countDown();
+					start.await();
+					for (int s = first; s < students; s += threads) {
+						String username = "student" + s;
+						long began = System.nanoTime();
+						boolean signedIn = legacy
+								? legacySignIn(legacyPool, username, PASSWORD)
+								: database.authenticate(username, PASSWORD).isAuthenticated();
+						latencies[s] = System.nanoTime() - began;
+						if (!signedIn) throw new IllegalStateException("Sign-in failed for " + username);
+					}
+					return null;
+				});
+			}
+			ready.await();
+			long began = System.nanoTime();
+			start.countDown();
+			for (Future<?> worker : workers) worker.get();
+			return new Result(latencies, System.nanoTime() - began);
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	/**
+	 * The queries the login page used to issue for a student with one role.
+	 */
+	private static boolean legacySignIn(ConnectionPool pool, String username, String password)
+			throws SQLException {
+		// Fetch the account and compare the password
+		try (PooledConnection conn = pool.borrow();
+			 PreparedStatement pstmt = conn.prepareStatement("SELECT * FROM userDB WHERE userName = ?")) {
+			pstmt.setString(1, username);
+			try (ResultSet rs = pstmt.executeQuery()) {
+				if (!rs.next() || !password.equals(rs.getString("password"))) return false;
+			}
+		}
+
+		// loginRole1: check the pair and role again, then restore a one-time password
+		try (PooledConnection conn = pool.borrow()) {
+			try (PreparedStatement pstmt = conn.prepareStatement(
+					"SELECT * FROM userDB WHERE userName = ? AND password = ? AND newRole1 = TRUE")) {
+				pstmt.setString(1, username);
+				pstmt.setString(2, password);
+				try (ResultSet rs = pstmt.executeQuery()) {
+					if (!rs.next()) return false;
+				}
+			}
+			try (PreparedStatement pstmt = conn.prepareStatement("UPDATE userDB SET password = tmp_password, "
+					+ "tmp_password = NULL WHERE username = ? AND tmp_password IS NOT NULL")) {
+				pstmt.setString(1, username);
+				pstmt.executeUpdate();
+			}
+		}
+
+		// Number of users for the Admin home page
+		try (PooledConnection conn = pool.borrow();
+			 Statement statement = conn.createStatement();
+			 ResultSet rs = statement.executeQuery("SELECT COUNT(*) AS count FROM userDB")) {
+			return rs.next();
+		}
+	}
+
+	private static void report(String path, int threads, Result result) {
+		long[] sorted = result.latencies.clone();
+		Arrays.sort(sorted);
+		double perSecond = sorted.length / (result.wallNanos / 1e9);
+		System.out.printf("%-10s %-8d %-8d %-10d %-10d %-10d %-12.0f%n",
+				path, threads, sorted.length,
+				percentile(sorted, 0.50) / 1000, percentile(sorted, 0.95) / 1000,
+				percentile(sorted, 0.99) / 1000, perSecond);
+	}
+
+	private static long percentile(long[] sorted, double fraction) {
+		int index = (int) Math.ceil(fraction * sorted.length) - 1;
+		return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+	}
+
+	/**
+	 * The latencies of one round and how long the whole round took.
+	 */
+	private static final class Result {
+
+		private final long[] latencies;
+
+		private final long wallNanos;
+
+		private Result(long[] latencies, long wallNanos) {
+			this.latencies = latencies;
+			this.wallNanos = wallNanos;
+		}
+	}
+}
@@ -0,0 +1,80 @@
+package database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * <p> Title: PooledConnection Class. </p>
+ *
+ * <p> Description: A connection borrowed from a {@link ConnectionPool}. Closing it gives the
+ * connection back to the pool rather than closing it, so it is meant to be opened in a
+ * try-with-resources block around the statements that use it. Statements created through it
+ * must still be closed by the caller; a prepared statement goes back to the connection's
+ * statement cache when it is closed. After close() the object must not be used again. </p>
+ *
+ * @author Amairani Caballero
+ */
+public final class PooledConnection implements AutoCloseable {
+
+	private final ConnectionPool pool;
+
+	/** The prepared statements of the borrowed connection. */
+	private final StatementCache statements;
+
+	/** The borrowed connection, null once it was given back. */
+	private Connection connection;
+
+	PooledConnection(ConnectionPool pool, Connection connection, StatementCache statements) {
+		this.pool = pool;
+		this.connection = connection;
+		this.statements = statements;
+	}
+
+	/**
+	 * <p> Description: Prepares a statement on the borrowed connection, reusing the connection's
+	 * cached statement for the same SQL when there is one. </p>
+	 *
+	 * @param sql SQL with ? placeholders
+	 * @return a PreparedStatement that the caller must close
+	 * @throws SQLException if the statement cannot be prepared or the connection was given back
+	 */
+	public PreparedStatement prepareStatement(String sql) throws SQLException {
+		get();
+		return statements.prepare(sql);
+	}
+
+	/**
+	 * <p> Description: Creates a plain statement on the borrowed connection. </p>
+	 *
+	 * @return a new Statement that the caller must close
+	 * @throws SQLException if the statement cannot be created or the connection was given back
+	 */
+	public Statement createStatement() throws SQLException {
+		return get().createStatement();
+	}
+
+	/**
+	 * <p> Description: Gives access to the underlying connection, e.g. for transactions. The
+	 * caller must not close it. </p>
+	 *
+	 * @return the borrowed connection
+	 * @throws SQLException if the connection was already given back
+	 */
+	public Connection get() throws SQLException {
+		if (connection == null) throw new SQLException("The connection was already returned to the pool.");
+		return connection;
+	}
+
+	/**
+	 * <p> Description: Returns the connection to the pool. Calling it again has no effect. </p>
+	 */
+	@Override
+	public void close() {
+		if (connection == null) return;
+		Connection returned = connection;
+		connection = null;
+		pool.release(returned, statements);
+	}
+}
@@ -0,0 +1,279 @@
+package database;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p> Title: QueryMetrics Class. </p>
+ *
+ * <p> Description: Call counts, error counts and latency percentiles for each database method,
+ * plus a log of slow calls. Each public Database method runs its body through
+ * {@link #measure(String, Body)} under its own name, e.g. "Database.authenticate", so a method
+ * that calls another (loginAdmin calls authenticate) is listed under both names, and a method
+ * that never touches the database is still counted. </p>
+ *
+ * <p> A call counts as failed when an exception escapes it, or when the method catches an
+ * SQLException and reports it with {@link #recordError()}. That marks every measured call in
+ * progress on the thread, so loginAdmin fails along with the authenticate call it made. </p>
+ *
+ * <p> A call slower than the threshold is printed as a SLOW QUERY line when it ends. The numbers
+ * can be read with {@link #report()} or over JMX; see {@link QueryMetricsMBean}. Thread safe. </p>
+ *
+ * @author Amairani Caballero
+ */
+public final class QueryMetrics implements QueryMetricsMBean {
+
+	private final Map<String, MethodStats> methods = new ConcurrentHashMap<>();
+
+	/** The innermost measured call in progress on each thread. */
+	private final ThreadLocal<Call> current = new ThreadLocal<>();
+
+	private volatile long slowThresholdNanos;
+
+	/**
+	 * @param slowQueryThresholdMillis calls slower than this are logged, in milliseconds
+	 */
+	public QueryMetrics(long slowQueryThresholdMillis) {
+		setSlowQueryThresholdMillis(slowQueryThresholdMillis);
+	}
+
+	/**
+	 * A method body that returns a value.
+	 *
+	 * @param <T> the type of the value
+	 * @param <E> the checked exception the body may throw
+	 */
+	@FunctionalInterface
+	public interface Body<T, E extends Exception> {
+		T run() throws E;
+	}
+
+	/**
+	 * A method body that returns nothing.
+	 *
+	 * @param <E> the checked exception the body may throw
+	 */
+	@FunctionalInterface
+	public interface VoidBody<E extends Exception> {
+		void run() throws E;
+	}
+
+	/**
+	 * <p> Description: Runs a method body and records it as one call of the method: its
+	 * latency, and an error if it throws or reports one with recordError(). </p>
+	 *
+	 * @param method the name the call is recorded under, e.g. "Database.findUser"
+	 * @param body the method body
+	 * @param <T> the type of the value the body returns
+	 * @param <E> the checked exception the body may throw
+	 * @return what the body returned
+	 * @throws E what the body threw
+	 */
+	public <T, E extends Exception> T measure(String method, Body<T, E> body) throws E {
+		Call call = begin(method);
+		try {
+			return body.run();
+		} catch (Throwable t) {
+			call.failed = true;
+			throw t;
+		} finally {
+			end(call);
+		}
+	}
+
+	/**
+	 * <p> Description: Runs a method body that returns nothing and records it as one call of the
+	 * method; see {@link #measure(String, Body)}. </p>
+	 *
+	 * @param method the name the call is recorded under, e.g. "Database.updatePassword"
+	 * @param body the method body
+	 * @param <E> the checked exception the body may throw
+	 * @throws E what the body threw
+	 */
+	public <E extends Exception> void measure(String method, VoidBody<E> body) throws E {
+		Call call = begin(method);
+		try {
+			body.run();
+		} catch (Throwable t) {
+			call.failed = true;
+			throw t;
+		} finally {
+			end(call);
+		}
+	}
+
+	/**
+	 * <p> Description: Records that the calls in progress on this thread failed, e.g. because the
+	 * method caught an SQLException. Does nothing outside a measured call. </p>
+	 */
+	void recordError() {
+		for (Call call = current.get(); call != null; call = call.outer) call.failed = true;
+	}
+
+	private Call begin(String method) {
+		Call call = new Call(method, current.get());
+		current.set(call);
+		return call;
+	}
+
+	private void end(Call call) {
+		long elapsedNanos = System.nanoTime() - call.startNanos;
+		if (call.outer == null) current.remove();
+		else current.set(call.outer);
+
+		MethodStats stats = stats(call.method);
+		stats.record(elapsedNanos);
+		if (call.failed) stats.errors.increment();
+		if (elapsedNanos >= slowThresholdNanos) {
+			System.out.println("*** SLOW QUERY ***: " + call.method + " took "
+					+ formatMillis(elapsedNanos) + " ms");
+		}
+	}
+
+	private MethodStats stats(String method) {
+		return methods.computeIfAbsent(method, name -> new MethodStats());
+	}
+
+	/**
+	 * <p> Description: Lists the statistics of every method measured so far, one line each,
+	 * sorted by name. Latencies are in milliseconds. </p>
+	 *
+	 * @return the report
+	 */
+	public String report() {
+		StringBuilder report = new StringBuilder();
+		report.append(String.format("%-40s %8s %7s %9s %9s %9s %9s%n",
+				"Method", "Calls", "Errors", "p50 ms", "p95 ms", "p99 ms", "max ms"));
+		for (Map.Entry<String, MethodStats> entry : new TreeMap<>(methods).entrySet()) {
+			MethodStats stats = entry.getValue();
+			report.append(String.format("%-40s %8d %7d %9s %9s %9s %9s%n", entry.getKey(),
+					stats.calls.sum(), stats.errors.sum(),
+					formatMillis(stats.percentileNanos(50)),
+					formatMillis(stats.percentileNanos(95)),
+					formatMillis(stats.percentileNanos(99)),
+					formatMillis(stats.maxNanos.get())));
+		}
+		report.append("Slow query threshold: ").append(getSlowQueryThresholdMillis()).append(" ms");
+		return report.toString();
+	}
+
+	/**
+	 * @param method a method name as listed by getMethodNames()
+	 * @param percentile between 0 and 100
+	 * @return that percentile of the method's latency in nanoseconds, 0 if it was never called
+	 */
+	public long getPercentileNanos(String method, double percentile) {
+		MethodStats stats = methods.get(method);
+		return stats == null ? 0 : stats.percentileNanos(percentile);
+	}
+
+	/**
+	 * @param method a method name as listed by getMethodNames()
+	 * @return the number of calls measured for that method
+	 */
+	public long getCalls(String method) {
+		MethodStats stats = methods.get(method);
+		return stats == null ? 0 : stats.calls.sum();
+	}
+
+	/**
+	 * @param method a method name as listed by getMethodNames()
+	 * @return the number of failed calls of that method
+	 */
+	public long getErrors(String method) {
+		MethodStats stats = methods.get(method);
+		return stats == null ? 0 : stats.errors.sum();
+	}
+
+	@Override
+	public String getReport() {
+		return report();
+	}
+
+	@Override
+	public String[] getMethodNames() {
+		return new TreeMap<>(methods).keySet().toArray(new String[0]);
+	}
+
+	@Override
+	public long getTotalCalls() {
+		long total = 0;
+		for (MethodStats stats : methods.values()) total += stats.calls.sum();
+		return total;
+	}
+
+	@Override
+	public long getTotalErrors() {
+		long total = 0;
+		for (MethodStats stats : methods.values()) total += stats.errors.sum();
+		return total;
+	}
+
+	@Override
+	public long getSlowQueryThresholdMillis() {
+		return TimeUnit.NANOSECONDS.toMillis(slowThresholdNanos);
+	}
+
+	@Override
+	public void setSlowQueryThresholdMillis(long thresholdMillis) {
+		if (thresholdMillis < 0) throw new IllegalArgumentException("The threshold cannot be negative");
+		slowThresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+	}
+
+	@Override
+	public void reset() {
+		methods.clear();
+	}
+
+	private static String formatMillis(long nanos) {
+		return String.format("%.2f", nanos / 1_000_000.0);
+	}
+
+	/**
+	 * One measured call in progress, and the call it was made from on the same thread.
+	 */
+	private static final class Call {
+
+		private final String method;
+
+		private final Call outer;
+
+		private final long startNanos = System.nanoTime();
+
+		private boolean failed;
+
+		private Call(String method, Call outer) {
+			this.method = method;
+			this.outer = outer;
+		}
+	}
+
+	/**
+	 * The numbers kept for one method.
+	 */
+	private static final class MethodStats {
+
+		private final LongAdder calls = new LongAdder();
+
+		private final LongAdder errors = new LongAdder();
+
+		private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+		private final LatencyHistogram histogram = new LatencyHistogram();
+
+		private void record(long elapsedNanos) {
+			calls.increment();
+			maxNanos.accumulate(elapsedNanos);
+			histogram.record(elapsedNanos);
+		}
+
+		// A bucket's upper bound can be above the slowest call in it
+		private long percentileNanos(double percentile) {
+			return Math.min(histogram.percentileNanos(percentile), maxNanos.get());
+		}
+	}
+}
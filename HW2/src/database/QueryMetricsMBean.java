@@ -0,0 +1,48 @@
+package database;
+
+/**
+ * <p> Title: QueryMetricsMBean Interface. </p>
+ *
+ * <p> Description: The management interface of {@link QueryMetrics}, published over JMX as
+ * database:type=QueryMetrics so the query statistics can be watched from JConsole or VisualVM
+ * while the application runs. </p>
+ *
+ * @author Amairani Caballero
+ */
+public interface QueryMetricsMBean {
+
+	/**
+	 * @return one line per database method: calls, errors, p50/p95/p99/max latency
+	 */
+	String getReport();
+
+	/**
+	 * @return the names of the methods that have been measured, sorted
+	 */
+	String[] getMethodNames();
+
+	/**
+	 * @return the number of calls measured, all methods together
+	 */
+	long getTotalCalls();
+
+	/**
+	 * @return the number of failed calls, all methods together
+	 */
+	long getTotalErrors();
+
+	/**
+	 * @return calls slower than this are logged, in milliseconds
+	 */
+	long getSlowQueryThresholdMillis();
+
+	/**
+	 * @param thresholdMillis calls slower than this are logged, in milliseconds
+	 */
+	void setSlowQueryThresholdMillis(long thresholdMillis);
+
+	/**
+	 * Forgets everything measured so far.
+	 */
+	void reset();
+}
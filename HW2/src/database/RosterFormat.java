@@ -0,0 +1,19 @@
+package database;
+
+/**
+ * <p> Title: RosterFormat </p>
+ *
+ * <p> Description: The file formats a roster of user accounts can be imported from and exported
+ * to by the Database class. Both hold one account per line, so a roster can be read and written as
+ * a stream however long it is. </p>
+ *
+ * @author Amairani Caballero
+ */
+public enum RosterFormat {
+
+	/** Comma separated values, with a header line naming the columns. */
+	CSV,
+
+	/** Newline delimited JSON: one flat JSON object per line. */
+	NDJSON
+}
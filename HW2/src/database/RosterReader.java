@@ -0,0 +1,219 @@
+package database;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p> Title: RosterReader Class. </p>
+ *
+ * <p> Description: Reads a roster one line at a time and returns each account as a map from column
+ * name to text, so only the current line is held in memory. A CSV roster starts with a header line
+ * naming the columns; quoted fields may hold commas and doubled quotes but not line breaks. An
+ * NDJSON roster has one flat JSON object per line whose values are strings, numbers, booleans or
+ * null. Blank lines are skipped. </p>
+ *
+ * <p> A line that cannot be read makes {@link #next()} throw IllegalArgumentException; the line is
+ * consumed, so the caller can record the failure and carry on with the next one. </p>
+ *
+ * @author Amairani Caballero
+ */
+final class RosterReader {
+
+	private final BufferedReader in;
+
+	private final RosterFormat format;
+
+	/** The CSV column names, null until the header line has been read. */
+	private String[] header;
+
+	/** Number of the line read last, counting from 1. */
+	private int lineNumber;
+
+	/**
+	 * @param in the roster text
+	 * @param format the roster's format
+	 */
+	RosterReader(Reader in, RosterFormat format) {
+		this.in = in instanceof BufferedReader ? (BufferedReader) in : new BufferedReader(in);
+		this.format = format;
+	}
+
+	/**
+	 * <p> Description: Reads the next account. </p>
+	 *
+	 * @return the account's values by column name, or null at the end of the roster
+	 * @throws IOException if the roster cannot be read
+	 * @throws IllegalArgumentException if the line is not valid for the format
+	 */
+	Map<String, String> next() throws IOException {
+		String line;
+		do {
+			line = in.readLine();
+			if (line == null) return null;
+			lineNumber++;
+		} while (line.isBlank());
+
+		if (format == RosterFormat.NDJSON) return parseJsonObject(line);
+
+		if (header == null) {
+			// Spreadsheet programs often start the file with a byte order mark
+			header = parseCsvLine(line.startsWith("\uFEFF") ? line.substring(1) : line);
+			for (int i = 0; i < header.length; i++) header[i] = header[i].trim();
+			return next();
+		}
+		String[] fields = parseCsvLine(line);
+		if (fields.length != header.length) {
+			throw new IllegalArgumentException(
+					"Expected " + header.length + " fields but found " + fields.length + ".");
+		}
+		Map<String, String> row = new LinkedHashMap<>();
+		for (int i = 0; i < fields.length; i++) row.put(header[i], fields[i]);
+		return row;
+	}
+
+	/**
+	 * @return the number of the line read last, counting from 1
+	 */
+	int getLineNumber() {
+		return lineNumber;
+	}
+
+	private static String[] parseCsvLine(String line) {
+		List<String> fields = new ArrayList<>();
+		StringBuilder field = new StringBuilder();
+		boolean quoted = false;
+		int i = 0;
+		while (i < line.length()) {
+			char c = line.charAt(i++);
+			if (quoted) {
+				if (c != '"') {
+					field.append(c);
+				} else if (i < line.length() && line.charAt(i) == '"') {
+					field.append('"');		// A doubled quote inside a quoted field
+					i++;
+				} else {
+					quoted = false;
+				}
+			} else if (c == '"' && field.length() == 0) {
+				quoted = true;
+			} else if (c == ',') {
+				fields.add(field.toString());
+				field.setLength(0);
+			} else {
+				field.append(c);
+			}
+		}
+		if (quoted) throw new IllegalArgumentException("A quoted field is not closed.");
+		fields.add(field.toString());
+		return fields.toArray(new String[0]);
+	}
+
+	private static Map<String, String> parseJsonObject(String line) {
+		JsonCursor cursor = new JsonCursor(line);
+		Map<String, String> row = new LinkedHashMap<>();
+		cursor.expect('{');
+		if (!cursor.consume('}')) {
+			do {
+				String name = cursor.readString();
+				cursor.expect(':');
+				row.put(name, cursor.readValue());
+			} while (cursor.consume(','));
+			cursor.expect('}');
+		}
+		cursor.expectEnd();
+		return row;
+	}
+
+	/**
+	 * Reads the parts of one flat JSON object from a line.
+	 */
+	private static final class JsonCursor {
+
+		private final String text;
+
+		private int position;
+
+		private JsonCursor(String text) {
+			this.text = text;
+		}
+
+		private void skipSpace() {
+			while (position < text.length() && Character.isWhitespace(text.charAt(position))) position++;
+		}
+
+		private boolean consume(char c) {
+			skipSpace();
+			if (position < text.length() && text.charAt(position) == c) {
+				position++;
+				return true;
+			}
+			return false;
+		}
+
+		private void expect(char c) {
+			if (!consume(c)) throw error("Expected '" + c + "'");
+		}
+
+		private void expectEnd() {
+			skipSpace();
+			if (position < text.length()) throw error("Unexpected text after the object");
+		}
+
+		/** Reads a string, number, boolean or null; null comes back as null, the rest as text. */
+		private String readValue() {
+			skipSpace();
+			if (position < text.length() && text.charAt(position) == '"') return readString();
+			int start = position;
+			while (position < text.length() && ",} \t".indexOf(text.charAt(position)) < 0) position++;
+			String literal = text.substring(start, position);
+			if (literal.equals("null")) return null;
+			if (literal.equals("true") || literal.equals("false")) return literal;
+			if (literal.matches("-?\\d+(\\.\\d+)?([eE][+-]?\\d+)?")) return literal;
+			throw error("Expected a string, number, boolean or null");
+		}
+
+		private String readString() {
+			expect('"');
+			StringBuilder value = new StringBuilder();
+			while (position < text.length()) {
+				char c = text.charAt(position++);
+				if (c == '"') return value.toString();
+				if (c != '\\') {
+					value.append(c);
+					continue;
+				}
+				if (position >= text.length()) break;
+				char escaped = text.charAt(position++);
+				switch (escaped) {
+				case '"': case '\\': case '/': value.append(escaped); break;
+				case 'b': value.append('\b'); break;
+				case 'f': value.append('\f'); break;
+				case 'n': value.append('\n'); break;
+				case 'r': value.append('\r'); break;
+				case 't': value.append('\t'); break;
+				case 'u':
+					if (position + 4 > text.length()) throw error("Incomplete \\u escape");
+					try {
+						value.append((char) Integer.parseInt(text.substring(position, position + 4), 16));
+					} catch (NumberFormatException e) {
+						throw error("Invalid \\u escape");
+					}
+					position += 4;
+					break;
+				default:
+					throw error("Invalid escape \\" + escaped);
+				}
+			}
+			throw error("A string is not closed");
+		}
+
+		private IllegalArgumentException error(String message) {
+			return new IllegalArgumentException(message + " at column " + (position + 1) + ".");
+		}
+	}
+}
@@ -0,0 +1,108 @@
+package database;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * <p> Title: RosterWriter Class. </p>
+ *
+ * <p> Description: Writes accounts to a roster one line at a time, in the layout RosterReader
+ * reads. A CSV roster gets a header line and quotes the fields that need it; an NDJSON roster gets
+ * one JSON object per line, with the role columns as booleans. </p>
+ *
+ * @author Amairani Caballero
+ */
+final class RosterWriter {
+
+	private final Writer out;
+
+	private final RosterFormat format;
+
+	private final String[] columns;
+
+	/**
+	 * @param out where the roster is written
+	 * @param format the roster's format
+	 * @param columns the column names, in the order values are given to writeRow
+	 */
+	RosterWriter(Writer out, RosterFormat format, String[] columns) {
+		this.out = out;
+		this.format = format;
+		this.columns = columns.clone();
+	}
+
+	/**
+	 * <p> Description: Writes the header line. Does nothing for NDJSON, whose lines name their
+	 * own columns. </p>
+	 *
+	 * @throws IOException if the roster cannot be written
+	 */
+	void writeHeader() throws IOException {
+		if (format != RosterFormat.CSV) return;
+		for (int i = 0; i < columns.length; i++) {
+			if (i > 0) out.write(',');
+			writeCsvField(columns[i]);
+		}
+		out.write('\n');
+	}
+
+	/**
+	 * <p> Description: Writes one account. </p>
+	 *
+	 * @param values one value per column, each a String, a Boolean or null
+	 * @throws IOException if the roster cannot be written
+	 */
+	void writeRow(Object[] values) throws IOException {
+		if (values.length != columns.length) {
+			throw new IllegalArgumentException("Expected " + columns.length + " values.");
+		}
+		if (format == RosterFormat.CSV) {
+			for (int i = 0; i < values.length; i++) {
+				if (i > 0) out.write(',');
+				if (values[i] != null) writeCsvField(values[i].toString());
+			}
+		} else {
+			out.write('{');
+			for (int i = 0; i < values.length; i++) {
+				if (i > 0) out.write(',');
+				writeJsonString(columns[i]);
+				out.write(':');
+				if (values[i] == null || values[i] instanceof Boolean) out.write(String.valueOf(values[i]));
+				else writeJsonString(values[i].toString());
+			}
+			out.write('}');
+		}
+		out.write('\n');
+	}
+
+	private void writeCsvField(String value) throws IOException {
+		boolean quote = !value.isEmpty() && (value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+				|| value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0
+				|| value.charAt(0) == ' ' || value.charAt(value.length() - 1) == ' ');
+		if (!quote) {
+			out.write(value);
+			return;
+		}
+		out.write('"');
+		out.write(value.replace("\"", "\"\""));
+		out.write('"');
+	}
+
+	private void writeJsonString(String value) throws IOException {
+		out.write('"');
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			switch (c) {
+			case '"': out.write("\\\""); break;
+			case '\\': out.write("\\\\"); break;
+			case '\n': out.write("\\n"); break;
+			case '\r': out.write("\\r"); break;
+			case '\t': out.write("\\t"); break;
+			default:
+				if (c < 0x20) out.write(String.format("\\u%04x", (int) c));
+				else out.write(c);
+			}
+		}
+		out.write('"');
+	}
+}
@@ -0,0 +1,171 @@
+package database;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * <p> Title: SchemaMigrator Class. </p>
+ *
+ * <p> Description: Brings the database schema up to date. The schema is built by an ordered list
+ * of migrations, each with a version number, and the schema_version table records which versions
+ * a database already has. At startup the migrator reads the current version with two small
+ * queries; if it matches the last migration, nothing else runs, so a current database sees no DDL
+ * at all. Otherwise each missing migration runs once, in order, and its version is recorded. </p>
+ *
+ * <p> H2 commits DDL as it goes, so a migration cannot be rolled back as a whole. Every migration
+ * is therefore written to be safe to run again (IF NOT EXISTS / IF EXISTS): if the application
+ * stops between a migration and its record, the next start simply repeats it. Databases created
+ * before schema_version existed are handled the same way. </p>
+ *
+ * <p> To change the schema, add a migration at the end of MIGRATIONS with the next version.
+ * Never edit a migration that has been released. </p>
+ *
+ * @author Amairani Caballero
+ */
+final class SchemaMigrator {
+
+	/** The migrations, in version order. */
+	static final List<Migration> MIGRATIONS = List.of(
+			new Migration(1, "Create the userDB and InvitationCodes tables",
+					"CREATE TABLE IF NOT EXISTS userDB ("
+							+ "id INT AUTO_INCREMENT PRIMARY KEY, "
+							+ "userName VARCHAR(255) UNIQUE, "
+							+ "password VARCHAR(255), "
+							+ "firstName VARCHAR(255), "
+							+ "middleName VARCHAR(255), "
+							+ "lastName VARCHAR (255), "
+							+ "preferredFirstName VARCHAR(255), "
+							+ "emailAddress VARCHAR(255), "
+							+ "adminRole BOOL DEFAULT FALSE, "
+							+ "newRole1 BOOL DEFAULT FALSE, "
+							+ "newRole2 BOOL DEFAULT FALSE)",
+					"CREATE TABLE IF NOT EXISTS InvitationCodes ("
+							+ "code VARCHAR(10) PRIMARY KEY, "
+							+ "emailAddress VARCHAR(255), "
+							+ "role VARCHAR(10),"
+							+ "expiresAt TIMESTAMP, "
+							+ "usedAt TIMESTAMP)"),
+			new Migration(2, "Add the one-time password column",
+					"ALTER TABLE userDB ADD COLUMN IF NOT EXISTS tmp_password VARCHAR(255)"),
+			// The roles as one indexed int (see entityClasses.Role). The database computes it from
+			// the three role columns, so it can never disagree with them.
+			new Migration(3, "Add the indexed roleMask column",
+					"ALTER TABLE userDB ADD COLUMN IF NOT EXISTS roleMask INT GENERATED ALWAYS AS ("
+							+ "(CASE WHEN adminRole THEN 1 ELSE 0 END) + "
+							+ "(CASE WHEN newRole1 THEN 2 ELSE 0 END) + "
+							+ "(CASE WHEN newRole2 THEN 4 ELSE 0 END))",
+					"CREATE INDEX IF NOT EXISTS idx_userDB_roleMask ON userDB(roleMask)"),
+			// expiresAt serves the sweeper and the unexpired-invitation reads; (emailAddress,
+			// expiresAt) serves "is there an outstanding invitation for this address", and makes
+			// the single-column emailAddress index redundant.
+			new Migration(4, "Index the invitation expiry and email predicates",
+					"CREATE INDEX IF NOT EXISTS idx_InvitationCodes_expiresAt "
+							+ "ON InvitationCodes(expiresAt)",
+					"CREATE INDEX IF NOT EXISTS idx_InvitationCodes_email_expiresAt "
+							+ "ON InvitationCodes(emailAddress, expiresAt)",
+					"DROP INDEX IF EXISTS idx_InvitationCodes_emailAddress"),
+			// Invitation addresses are stored in lower case so that case-blind lookups can compare
+			// the plain column and use idx_InvitationCodes_email_expiresAt.
+			new Migration(5, "Store invitation email addresses in lower case",
+					"UPDATE InvitationCodes SET emailAddress = LOWER(emailAddress) "
+							+ "WHERE emailAddress <> LOWER(emailAddress)"));
+
+	private SchemaMigrator() {
+	}
+
+	/**
+	 * @return the version of the last migration
+	 */
+	static int latestVersion() {
+		return MIGRATIONS.get(MIGRATIONS.size() - 1).version;
+	}
+
+	/**
+	 * <p> Description: Runs every migration the database does not have yet. </p>
+	 *
+	 * @param conn a borrowed connection
+	 * @return the number of migrations run, 0 if the schema was current
+	 * @throws SQLException if the version cannot be read or a migration fails
+	 */
+	static int migrate(PooledConnection conn) throws SQLException {
+		int current = currentVersion(conn);
+		if (current >= latestVersion()) {
+			if (current > latestVersion()) {
+				System.out.println("*** WARNING ***: The database schema (version " + current
+						+ ") is newer than this application (version " + latestVersion() + ").");
+			}
+			return 0;
+		}
+
+		try (Statement statement = conn.createStatement()) {
+			statement.execute("CREATE TABLE IF NOT EXISTS schema_version ("
+					+ "version INT PRIMARY KEY, "
+					+ "description VARCHAR(255), "
+					+ "appliedAt TIMESTAMP DEFAULT CURRENT_TIMESTAMP)");
+		}
+
+		int applied = 0;
+		for (Migration migration : MIGRATIONS) {
+			if (migration.version <= current) continue;
+			try (Statement statement = conn.createStatement()) {
+				for (String sql : migration.statements) statement.execute(sql);
+			}
+			try (PreparedStatement pstmt = conn.prepareStatement(
+					"INSERT INTO schema_version (version, description) VALUES (?, ?)")) {
+				pstmt.setInt(1, migration.version);
+				pstmt.setString(2, migration.description);
+				pstmt.executeUpdate();
+			}
+			System.out.println("*** INFO ***: Applied schema migration " + migration.version + ": "
+					+ migration.description);
+			applied++;
+		}
+		return applied;
+	}
+
+	/**
+	 * <p> Description: Reads the schema version without running any DDL. </p>
+	 *
+	 * @param conn a borrowed connection
+	 * @return the highest version recorded, or 0 if the database has no schema_version table
+	 * @throws SQLException if the version cannot be read
+	 */
+	static int currentVersion(PooledConnection conn) throws SQLException {
+		try (PreparedStatement pstmt = conn.prepareStatement("SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES "
+				+ "WHERE TABLE_SCHEMA = 'PUBLIC' AND TABLE_NAME = 'SCHEMA_VERSION'");
+			 ResultSet rs = pstmt.executeQuery()) {
+			if (!rs.next() || rs.getInt(1) == 0) return 0;
+		}
+		try (PreparedStatement pstmt = conn.prepareStatement("SELECT MAX(version) FROM schema_version");
+			 ResultSet rs = pstmt.executeQuery()) {
+			return rs.next() ? rs.getInt(1) : 0;
+		}
+	}
+
+	/**
+	 * One step of the schema: a version number, what it does, and its SQL statements.
+	 */
+	static final class Migration {
+
+		private final int version;
+
+		private final String description;
+
+		private final List<String> statements;
+
+		private Migration(int version, String description, String... statements) {
+			this.version = version;
+			this.description = description;
+			this.statements = List.of(statements);
+		}
+
+		/** @return the version this migration brings the schema to */
+		int getVersion() { return version; }
+
+		/** @return what this migration does */
+		String getDescription() { return description; }
+	}
+}
@@ -0,0 +1,243 @@
+package database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p> Title: StatementCache Class. </p>
+ *
+ * <p> Description: The prepared statements of one pooled connection, kept by SQL text so that a
+ * query the Database class runs over and over is parsed and planned once per connection instead of
+ * on every call. The cache belongs to the physical connection and lives as long as it does, across
+ * borrows. </p>
+ *
+ * <p> A statement handed out by {@link #prepare(String)} is a handle on the cached one: closing it
+ * closes its open result set, clears its parameters, puts back the fetch size, max rows and query
+ * timeout it was prepared with if the caller changed them, and returns it to the cache, so callers
+ * keep closing statements with try-with-resources as before. If the same SQL is prepared again while the
+ * cached statement is still open, the caller gets an ordinary statement of its own. The cache keeps
+ * at most capacity statements and closes the least recently used one when it is full. </p>
+ *
+ * <p> Only the borrower of the connection uses the cache, so it is not thread safe. </p>
+ *
+ * @author Amairani Caballero
+ */
+final class StatementCache {
+
+	private final Connection connection;
+
+	private final int capacity;
+
+	/** Counters shared by all the caches of one pool. */
+	private final LongAdder hits;
+	private final LongAdder misses;
+
+	/** Cached statements by SQL text, least recently used first. */
+	private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+	/**
+	 * @param connection the physical connection the statements are prepared on
+	 * @param capacity most statements kept (0 turns caching off)
+	 * @param hits incremented when a cached statement is reused
+	 * @param misses incremented when a statement has to be prepared
+	 */
+	StatementCache(Connection connection, int capacity, LongAdder hits, LongAdder misses) {
+		this.connection = connection;
+		this.capacity = capacity;
+		this.hits = hits;
+		this.misses = misses;
+	}
+
+	/**
+	 * <p> Description: Returns a prepared statement for the SQL, reusing the cached one if it is
+	 * free. </p>
+	 *
+	 * @param sql SQL with ? placeholders
+	 * @return a statement the caller must close
+	 * @throws SQLException if the statement cannot be prepared
+	 */
+	PreparedStatement prepare(String sql) throws SQLException {
+		Entry entry = capacity == 0 ? null : entries.get(sql);
+		if (entry != null && !entry.inUse) {
+			hits.increment();
+			return entry.checkOut();
+		}
+
+		misses.increment();
+		PreparedStatement statement = connection.prepareStatement(sql);
+		// Not cached when caching is off, or the cached statement for this SQL is still open
+		if (capacity == 0 || entry != null) return statement;
+
+		try {
+			entry = new Entry(sql, statement);
+		} catch (SQLException e) {
+			closeQuietly(statement);
+			throw e;
+		}
+		entries.put(sql, entry);
+		evictOverCapacity();
+		return entry.checkOut();
+	}
+
+	/**
+	 * @return number of statements in the cache
+	 */
+	int size() {
+		return entries.size();
+	}
+
+	/**
+	 * <p> Description: Forgets every cached statement. Used when the connection is closed, which
+	 * closes its statements. </p>
+	 */
+	void clear() {
+		entries.clear();
+	}
+
+	private void evictOverCapacity() {
+		Iterator<Entry> eldestFirst = entries.values().iterator();
+		while (entries.size() > capacity && eldestFirst.hasNext()) {
+			Entry eldest = eldestFirst.next();
+			// A statement that is open stays; it is evicted on a later call once it is closed
+			if (eldest.inUse) continue;
+			eldestFirst.remove();
+			closeQuietly(eldest.statement);
+		}
+	}
+
+	private void returned(Entry entry) {
+		entry.inUse = false;
+		try {
+			entry.statement.clearParameters();
+			entry.statement.clearBatch();
+			if (entry.propertiesChanged) {
+				entry.statement.setFetchSize(entry.fetchSize);
+				entry.statement.setMaxRows(entry.maxRows);
+				entry.statement.setQueryTimeout(entry.queryTimeout);
+				entry.propertiesChanged = false;
+			}
+		} catch (SQLException e) {
+			// A statement that cannot be reset is not reused
+			entries.remove(entry.sql, entry);
+			closeQuietly(entry.statement);
+			return;
+		}
+		evictOverCapacity();
+	}
+
+	private static void closeQuietly(AutoCloseable closeable) {
+		try {
+			closeable.close();
+		} catch (Exception e) {
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * A cached statement and whether a caller has it open.
+	 */
+	private final class Entry {
+
+		private final String sql;
+
+		private final PreparedStatement statement;
+
+		private boolean inUse;
+
+		// The properties the statement was prepared with, put back when a caller changed them
+		private final int fetchSize;
+		private final int maxRows;
+		private final int queryTimeout;
+		private boolean propertiesChanged;
+
+		private Entry(String sql, PreparedStatement statement) throws SQLException {
+			this.sql = sql;
+			this.statement = statement;
+			this.fetchSize = statement.getFetchSize();
+			this.maxRows = statement.getMaxRows();
+			this.queryTimeout = statement.getQueryTimeout();
+		}
+
+		private PreparedStatement checkOut() {
+			inUse = true;
+			return new Handle(this);
+		}
+	}
+
+	/**
+	 * One caller's use of a cached statement. Every call goes to the statement except close,
+	 * which gives it back to the cache; after that the handle behaves like a closed statement.
+	 */
+	private final class Handle extends DelegatingPreparedStatement {
+
+		private final Entry entry;
+
+		private boolean closed;
+
+		/** The result set of the last query, closed when the handle is. */
+		private ResultSet lastResult;
+
+		private Handle(Entry entry) {
+			super(entry.statement);
+			this.entry = entry;
+		}
+
+		@Override
+		protected void checkOpen() throws SQLException {
+			if (closed) throw new SQLException("The statement is closed.");
+		}
+
+		@Override
+		protected ResultSet opened(ResultSet resultSet) {
+			if (resultSet != null) lastResult = resultSet;
+			return resultSet;
+		}
+
+		@Override
+		public void close() {
+			if (closed) return;
+			closed = true;
+			if (lastResult != null) closeQuietly(lastResult);
+			returned(entry);
+		}
+
+		@Override
+		public boolean isClosed() throws SQLException {
+			return closed || statement.isClosed();
+		}
+
+		@Override
+		public void setFetchSize(int rows) throws SQLException {
+			super.setFetchSize(rows);
+			entry.propertiesChanged = true;
+		}
+
+		@Override
+		public void setMaxRows(int max) throws SQLException {
+			super.setMaxRows(max);
+			entry.propertiesChanged = true;
+		}
+
+		@Override
+		public void setLargeMaxRows(long max) throws SQLException {
+			super.setLargeMaxRows(max);
+			entry.propertiesChanged = true;
+		}
+
+		@Override
+		public void setQueryTimeout(int seconds) throws SQLException {
+			super.setQueryTimeout(seconds);
+			entry.propertiesChanged = true;
+		}
+
+		@Override
+		public String toString() {
+			return "cached " + statement;
+		}
+	}
+}
@@ -0,0 +1,96 @@
+package entityClasses;
+
+/**
+ * <p> Title: AuthenticationResult </p>
+ *
+ * <p> Description: The outcome of Database.authenticate. On success it carries the snapshot of
+ * the signed-in account (including its roles) and the number of users, which the Admin home page
+ * shows, so the login page needs no further queries. A failed sign-in says whether the
+ * credentials were wrong or the database could not be reached, so the page can word its message
+ * without revealing which part of the username/password pair was wrong. </p>
+ *
+ * @author Amairani Caballero
+ */
+public final class AuthenticationResult {
+
+	/**
+	 * The possible outcomes of a sign-in attempt.
+	 */
+	public enum Status {
+		/** The username/password pair matched an account. */
+		AUTHENTICATED,
+		/** No account has this username/password pair. */
+		INVALID_CREDENTIALS,
+		/** The database could not answer. */
+		UNAVAILABLE
+	}
+
+	private static final AuthenticationResult INVALID = new AuthenticationResult(Status.INVALID_CREDENTIALS, null, 0);
+
+	private static final AuthenticationResult UNAVAILABLE = new AuthenticationResult(Status.UNAVAILABLE, null, 0);
+
+	private final Status status;
+
+	/** The signed-in account, null unless authenticated. */
+	private final UserRecord user;
+
+	/** Number of users in the database when the sign-in ran, 0 unless authenticated. */
+	private final int numberOfUsers;
+
+	private AuthenticationResult(Status status, UserRecord user, int numberOfUsers) {
+		this.status = status;
+		this.user = user;
+		this.numberOfUsers = numberOfUsers;
+	}
+
+	/**
+	 * @param user the signed-in account
+	 * @param numberOfUsers number of users in the database
+	 * @return a successful result
+	 */
+	public static AuthenticationResult authenticated(UserRecord user, int numberOfUsers) {
+		return new AuthenticationResult(Status.AUTHENTICATED, user, numberOfUsers);
+	}
+
+	/**
+	 * @return the result for a username/password pair that matched no account
+	 */
+	public static AuthenticationResult invalidCredentials() {
+		return INVALID;
+	}
+
+	/**
+	 * @return the result for a sign-in the database could not answer
+	 */
+	public static AuthenticationResult unavailable() {
+		return UNAVAILABLE;
+	}
+
+	/**
+	 * @return true if the credentials matched an account
+	 */
+	public boolean isAuthenticated() {
+		return status == Status.AUTHENTICATED;
+	}
+
+	/**
+	 * @return the outcome of the sign-in
+	 */
+	public Status getStatus() {
+		return status;
+	}
+
+	/**
+	 * @return the signed-in account, or null if the sign-in failed
+	 */
+	public UserRecord getUser() {
+		return user;
+	}
+
+	/**
+	 * @return the number of users in the database, or 0 if the sign-in failed
+	 */
+	public int getNumberOfUsers() {
+		return numberOfUsers;
+	}
+}
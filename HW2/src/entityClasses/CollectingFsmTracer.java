@@ -0,0 +1,54 @@
+package entityClasses;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * <p> Title: CollectingFsmTracer </p>
+ *
+ * <p> Description: Keeps the lines ConsoleFsmTracer would print, plus the sequence of states the
+ * machine visited, so a test or a debugging session can look at them afterwards. Not thread safe:
+ * give each validation its own tracer, e.g. InputRecognizer.validateEmailAddress(input, tracer). </p>
+ *
+ * @author Amairani Caballero
+ */
+public class CollectingFsmTracer extends ConsoleFsmTracer {
+
+	private final List<String> lines = new ArrayList<>();
+
+	private final List<Integer> states = new ArrayList<>();
+
+	@Override
+	public void step(int state, boolean finalState, String input, int charIndex, int nextState, int size) {
+		states.add(state);
+		super.step(state, finalState, input, charIndex, nextState, size);
+	}
+
+	@Override
+	protected void print(String line) {
+		lines.add(line);
+	}
+
+	/**
+	 * @return the trace lines collected so far
+	 */
+	public List<String> getLines() {
+		return Collections.unmodifiableList(lines);
+	}
+
+	/**
+	 * @return the states visited so far, in order, one per step
+	 */
+	public List<Integer> getStates() {
+		return Collections.unmodifiableList(states);
+	}
+
+	/**
+	 * Forgets everything collected.
+	 */
+	public void clear() {
+		lines.clear();
+		states.clear();
+	}
+}
@@ -0,0 +1,185 @@
+package entityClasses;
+
+import java.util.Arrays;
+
+/**
+ * <p> Title: CompactBitmap Class </p>
+ *
+ * <p> Description: A compressed set of non-negative ints, used by ReadTracker to store which
+ * items a user has read. Values are split by their high 16 bits into chunks of 65536. A chunk
+ * with few values keeps them as a sorted char array (2 bytes per value). Once it passes 4096
+ * values it switches to a plain 8 KB bitmap (1 bit per possible value). A user who read a handful
+ * of posts costs a few bytes, and a user who read nearly everything costs one bit per post. This
+ * follows the layout of "Roaring" bitmaps. </p>
+ *
+ * <p> All methods are synchronized, since one user's bitmap may be updated from several threads. </p>
+ * @author Amairani Caballero
+ */
+final class CompactBitmap {
+
+	/** A chunk switches from a sorted array to a bitmap above this many values. */
+	private static final int ARRAY_LIMIT = 4096;
+
+	/** High 16 bits of each chunk, sorted. */
+	private char[] keys = new char[1];
+
+	/** Chunk for each key, parallel to keys. */
+	private Chunk[] chunks = new Chunk[1];
+
+	/** Number of chunks in use. */
+	private int chunkCount;
+
+	/** Total number of values in the set. */
+	private int cardinality;
+
+	/**
+	 * Adds a value.
+	 *
+	 * @param value non-negative value
+	 * @return true if the value was not already present
+	 */
+	synchronized boolean add(int value) {
+		char high = (char) (value >>> 16);
+		int pos = findChunk(high);
+		Chunk chunk;
+		if (pos >= 0) {
+			chunk = chunks[pos];
+		} else {
+			chunk = new Chunk();
+			insertChunk(-pos - 1, high, chunk);
+		}
+		boolean added = chunk.add((char) value);
+		if (added) cardinality++;
+		return added;
+	}
+
+	/**
+	 * Removes a value.
+	 *
+	 * @param value non-negative value
+	 * @return true if the value was present
+	 */
+	synchronized boolean remove(int value) {
+		int pos = findChunk((char) (value >>> 16));
+		if (pos < 0) return false;
+		boolean removed = chunks[pos].remove((char) value);
+		if (removed) cardinality--;
+		return removed;
+	}
+
+	/**
+	 * @param value non-negative value
+	 * @return true if the value is in the set
+	 */
+	synchronized boolean contains(int value) {
+		int pos = findChunk((char) (value >>> 16));
+		return pos >= 0 && chunks[pos].contains((char) value);
+	}
+
+	/**
+	 * @return number of values in the set
+	 */
+	synchronized int cardinality() {
+		return cardinality;
+	}
+
+	/**
+	 * @return approximate heap size of this bitmap in bytes, used for footprint reports
+	 */
+	synchronized long estimatedBytes() {
+		long bytes = 32 + 16 + 2L * keys.length + 16 + 4L * chunks.length;
+		for (int i = 0; i < chunkCount; i++) {
+			bytes += chunks[i].estimatedBytes();
+		}
+		return bytes;
+	}
+
+	private int findChunk(char high) {
+		return Arrays.binarySearch(keys, 0, chunkCount, high);
+	}
+
+	private void insertChunk(int pos, char high, Chunk chunk) {
+		if (chunkCount == keys.length) {
+			keys = Arrays.copyOf(keys, chunkCount * 2);
+			chunks = Arrays.copyOf(chunks, chunkCount * 2);
+		}
+		System.arraycopy(keys, pos, keys, pos + 1, chunkCount - pos);
+		System.arraycopy(chunks, pos, chunks, pos + 1, chunkCount - pos);
+		keys[pos] = high;
+		chunks[pos] = chunk;
+		chunkCount++;
+	}
+
+	/**
+	 * The low 16 bits of the values sharing one high 16-bit key. Exactly one of values/bits is
+	 * in use at a time.
+	 */
+	private static final class Chunk {
+
+		/** Sorted low bits while the chunk is sparse, null once it became a bitmap. */
+		private char[] values = new char[4];
+
+		/** Bitmap of the low bits once the chunk is dense, otherwise null. */
+		private long[] bits;
+
+		/** Number of values in this chunk. */
+		private int size;
+
+		private boolean add(char low) {
+			if (bits != null) {
+				long mask = 1L << low;
+				if ((bits[low >>> 6] & mask) != 0) return false;
+				bits[low >>> 6] |= mask;
+				size++;
+				return true;
+			}
+
+			int pos = Arrays.binarySearch(values, 0, size, low);
+			if (pos >= 0) return false;
+			if (size == ARRAY_LIMIT) {
+				toBitmap();
+				return add(low);
+			}
+			pos = -pos - 1;
+			if (size == values.length) values = Arrays.copyOf(values, Math.min(size * 2, ARRAY_LIMIT));
+			System.arraycopy(values, pos, values, pos + 1, size - pos);
+			values[pos] = low;
+			size++;
+			return true;
+		}
+
+		private boolean remove(char low) {
+			if (bits != null) {
+				long mask = 1L << low;
+				if ((bits[low >>> 6] & mask) == 0) return false;
+				bits[low >>> 6] &= ~mask;
+				size--;
+				return true;
+			}
+
+			int pos = Arrays.binarySearch(values, 0, size, low);
+			if (pos < 0) return false;
+			System.arraycopy(values, pos + 1, values, pos, size - pos - 1);
+			size--;
+			return true;
+		}
+
+		private boolean contains(char low) {
+			if (bits != null) return (bits[low >>> 6] & (1L << low)) != 0;
+			return Arrays.binarySearch(values, 0, size, low) >= 0;
+		}
+
+		private void toBitmap() {
+			bits = new long[1024];
+			for (int i = 0; i < size; i++) {
+				char low = values[i];
+				bits[low >>> 6] |= 1L << low;
+			}
+			values = null;
+		}
+
+		private long estimatedBytes() {
+			return 24 + ((bits != null) ? 16 + 8L * bits.length : 16 + 2L * values.length);
+		}
+	}
+}
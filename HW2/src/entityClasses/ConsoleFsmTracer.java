@@ -0,0 +1,55 @@
+package entityClasses;
+
+/**
+ * <p> Title: ConsoleFsmTracer </p>
+ *
+ * <p> Description: Prints the trace of an InputRecognizer run to the console in the table the
+ * recognizers have always printed: current state, whether it is final, the input character, the
+ * next state and the size counter. Meant for debugging an FSM diagram; every line is formatted
+ * and printed through the synchronized System.out, which costs far more than the recognition
+ * itself. </p>
+ *
+ * @author Amairani Caballero
+ */
+public class ConsoleFsmTracer implements FsmTracer {
+
+	private static final String TRACE_HEADER = "\nCurrent Final Input  Next  Date\nState   State Char  State  Size";
+
+	@Override
+	public void start(String input) {
+		print(TRACE_HEADER);
+	}
+
+	@Override
+	public void step(int state, boolean finalState, String input, int charIndex, int nextState, int size) {
+		// Display the current state of the FSM as part of an execution trace
+		if (charIndex >= input.length())
+			// display the line with the current state numbers aligned
+			print(((state > 99) ? " " : (state > 9) ? "  " : "   ") + state + 
+					((finalState) ? "       F   " : "           ") + "None");
+		else
+			print(((state > 99) ? " " : (state > 9) ? "  " : "   ") + state + 
+					((finalState) ? "       F   " : "           ") + "  " + input.charAt(charIndex) + " " + 
+					((nextState > 99) ? "" : (nextState > 9) || (nextState == -1) ? "   " : "    ") + 
+					nextState + "     " + size);
+	}
+
+	@Override
+	public void endOfInput() {
+		print("End of input was found!");
+	}
+
+	@Override
+	public void halted() {
+		print("The loop has ended.");
+	}
+
+	/**
+	 * Writes one line of the trace.
+	 *
+	 * @param line the line, without a line terminator
+	 */
+	protected void print(String line) {
+		System.out.println(line);
+	}
+}
@@ -0,0 +1,227 @@
+package entityClasses;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * <p> Title: DfaEngine Class </p>
+ *
+ * <p> Description: A small table-driven engine for the InputRecognizer Finite State Machines. A
+ * recognizer is declared with a Builder as states, character classes and transitions. The Builder
+ * keeps a 128-entry table giving the class of each ASCII character, and build() expands the
+ * transitions through it into one dense table indexed by state and character, so each input
+ * character costs a single array read and no range checks. A character outside ASCII, or in no
+ * declared class, has no transition. </p>
+ *
+ * <p> A transition may also count: the engine keeps up to two counters (e.g. the length of the
+ * local part and of the domain part of an email address). Which counters a transition adds one
+ * to is stored in the same table entry as its next state, so counting needs no branch. Limits on
+ * the counters are guards checked when the machine halts, by the recognizer's Decision, together
+ * with the state the machine halted in and the index of the character it stopped at. </p>
+ *
+ * <p> A compiled engine is immutable and may be shared by any number of threads. </p>
+ * @author Amairani Caballero
+ */
+final class DfaEngine {
+
+	/** The most counters a machine may declare. */
+	static final int MAX_COUNTERS = 2;
+
+	/** Marks "no transition" in the transition table. */
+	private static final int HALT = -1;
+
+	/** The class of characters no class was declared for; it has no transitions. */
+	private static final byte NO_CLASS = 0;
+
+	/** Characters per state in the transition table: the ASCII set. */
+	private static final int CHARS_BITS = 7;
+
+	// The parts of a transition table entry
+	private static final int STATE_MASK = 0xFF;			// The next state
+	private static final int COUNT0_SHIFT = 8;			// Set if the transition counts in counter 0
+	private static final int COUNT1_SHIFT = 9;			// Set if the transition counts in counter 1
+	private static final int FROM_FINAL = 1 << 10;		// Set if the current state is final, for the trace
+
+	/** Transition entry, indexed by (state << CHARS_BITS) | character; HALT if there is none. */
+	private final int[] table;
+
+	/** Which states are final, for the trace. */
+	private final boolean[] finalStates;
+
+	/** Turns the halting state into the result. */
+	private final Decision decision;
+
+	/**
+	 * Decides the result once the machine has halted.
+	 */
+	@FunctionalInterface
+	interface Decision {
+
+		/**
+		 * @param input the input line
+		 * @param state the state the machine halted in
+		 * @param index the index of the character it stopped at, input.length() if it consumed it all
+		 * @param count0 the value of counter 0
+		 * @param count1 the value of counter 1
+		 * @return the result of the validation
+		 */
+		ValidationResult decide(String input, int state, int index, int count0, int count1);
+	}
+
+	private DfaEngine(Builder builder, Decision decision) {
+		this.finalStates = builder.finalStates.clone();
+		this.decision = decision;
+
+		// Each transition is declared for a class; enter it for every character of that class
+		this.table = new int[builder.states << CHARS_BITS];
+		Arrays.fill(table, HALT);
+		for (int[] t : builder.transitions) {
+			int entry = t[2];
+			if (t[3] == 0) entry |= 1 << COUNT0_SHIFT;
+			if (t[3] == 1) entry |= 1 << COUNT1_SHIFT;
+			if (finalStates[t[0]]) entry |= FROM_FINAL;
+			for (int c = 0; c < 128; c++) {
+				if (builder.classOf[c] == t[1]) table[(t[0] << CHARS_BITS) | c] = entry;
+			}
+		}
+	}
+
+	/**
+	 * <p> Description: Runs the machine over the input from state 0 until a character has no
+	 * transition or the input ends, then asks the Decision for the result. </p>
+	 *
+	 * @param input the input line
+	 * @param tracer receives the execution trace
+	 * @return the result of the validation
+	 */
+	ValidationResult run(String input, FsmTracer tracer) {
+		tracer.start(input);
+		int length = input.length();
+		int state = 0;
+		int count0 = 0;
+		int count1 = 0;
+		int index = 0;
+		for (; index < length; index++) {
+			char c = input.charAt(index);
+			if (c >= 128) break;							// Only ASCII characters have a class
+			int entry = table[(state << CHARS_BITS) | c];
+			if (entry < 0) break;
+			tracer.step(state, (entry & FROM_FINAL) != 0, input, index, entry & STATE_MASK, count0);
+			count0 += (entry >>> COUNT0_SHIFT) & 1;
+			count1 += (entry >>> COUNT1_SHIFT) & 1;
+			state = entry & STATE_MASK;
+		}
+		if (index == length) tracer.endOfInput();
+		tracer.step(state, finalStates[state], input, index, HALT, count0);
+		tracer.halted();
+		return decision.decide(input, state, index, count0, count1);
+	}
+
+	/**
+	 * @param first the first character of the range
+	 * @param last the last character of the range
+	 * @return every character from first to last, to declare a character class with
+	 */
+	static String range(char first, char last) {
+		StringBuilder chars = new StringBuilder();
+		for (char c = first; c <= last; c++) chars.append(c);
+		return chars.toString();
+	}
+
+	/**
+	 * <p> Title: Builder </p>
+	 *
+	 * <p> Description: Declares the states, character classes and transitions of a machine.
+	 * State 0 is the start state. </p>
+	 */
+	static final class Builder {
+
+		private final int states;
+
+		private final byte[] classOf = new byte[128];
+
+		private int classes = 1;					// NO_CLASS is always there
+
+		private final boolean[] finalStates;
+
+		private final List<int[]> transitions = new ArrayList<>();
+
+		/**
+		 * @param states the number of states, at most 127
+		 */
+		Builder(int states) {
+			if (states < 1 || states > Byte.MAX_VALUE) throw new IllegalArgumentException("A machine has 1 to 127 states");
+			this.states = states;
+			this.finalStates = new boolean[states];
+		}
+
+		/**
+		 * <p> Description: Declares a character class. A character may be in one class only. </p>
+		 *
+		 * @param members the ASCII characters of the class
+		 * @return the class, to use in transitions
+		 */
+		int charClass(String members) {
+			if (classes > Byte.MAX_VALUE) throw new IllegalStateException("Too many character classes");
+			int newClass = classes++;
+			for (int i = 0; i < members.length(); i++) {
+				char c = members.charAt(i);
+				if (c >= 128) throw new IllegalArgumentException("Only ASCII characters can be classified: " + c);
+				if (classOf[c] != NO_CLASS) throw new IllegalArgumentException("'" + c + "' is already in a class");
+				classOf[c] = (byte) newClass;
+			}
+			return newClass;
+		}
+
+		/**
+		 * @param state a state the machine may halt in with a valid input
+		 * @return this builder
+		 */
+		Builder finalState(int state) {
+			finalStates[checkState(state)] = true;
+			return this;
+		}
+
+		/**
+		 * @param from the current state
+		 * @param charClass the class of the current character
+		 * @param to the next state
+		 * @return this builder
+		 */
+		Builder transition(int from, int charClass, int to) {
+			return add(from, charClass, to, -1);
+		}
+
+		/**
+		 * @param from the current state
+		 * @param charClass the class of the current character
+		 * @param to the next state
+		 * @param counter the counter (0 or 1) the transition adds one to
+		 * @return this builder
+		 */
+		Builder transition(int from, int charClass, int to, int counter) {
+			if (counter < 0 || counter >= MAX_COUNTERS) throw new IllegalArgumentException("No counter " + counter);
+			return add(from, charClass, to, counter);
+		}
+
+		private Builder add(int from, int charClass, int to, int counter) {
+			if (charClass <= NO_CLASS || charClass >= classes) throw new IllegalArgumentException("No class " + charClass);
+			transitions.add(new int[] {checkState(from), charClass, checkState(to), counter});
+			return this;
+		}
+
+		private int checkState(int state) {
+			if (state < 0 || state >= states) throw new IllegalArgumentException("No state " + state);
+			return state;
+		}
+
+		/**
+		 * @param decision turns the halting state into the result
+		 * @return the compiled machine
+		 */
+		DfaEngine build(Decision decision) {
+			return new DfaEngine(this, decision);
+		}
+	}
+}
@@ -0,0 +1,226 @@
+package entityClasses;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p> Title: DiscussionConcurrencyTestingAutomation </p>
+ *
+ * <p> Description: Console-based stress test for PostStore and ReplyStore when they are shared by
+ * many threads. Worker threads hammer create, update, search and mark-read at the same time and
+ * the test then checks that no post or reply was lost, that ids are unique, that read marks and
+ * counters add up, and that each thread only ever sees its own search subset. Prints PASS/FAIL
+ * lines in the same format as DiscussionInputValidatorTestingAutomation. </p>
+ *
+ * @author Amairani Caballero
+ */
+public class DiscussionConcurrencyTestingAutomation {
+
+	/** Counter of the number of passed tests. */
+	static int numPassed = 0;
+
+	/** Counter of the number of failed tests. */
+	static int numFailed = 0;
+
+	/** Number of worker threads. */
+	static final int THREADS = 8;
+
+	/** Number of posts each worker creates. */
+	static final int POSTS_PER_THREAD = 2000;
+
+	public static void main(String[] args) throws Exception {
+		System.out.println("*** Discussion Concurrency TestingAutomation Begins ***\n");
+		System.out.println("Testing: " + THREADS + " threads x " + POSTS_PER_THREAD
+				+ " posts, concurrent create/update/search/mark-read\n");
+
+		PostStore postStore = new PostStore();
+		ReplyStore replyStore = new ReplyStore();
+		ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+		ConcurrentLinkedQueue<String> problems = new ConcurrentLinkedQueue<>();
+
+		// Phase 1: every worker creates posts and replies, and searches for its own posts meanwhile
+		List<Future<?>> work = new ArrayList<>();
+		CountDownLatch start = new CountDownLatch(1);
+		for (int t = 0; t < THREADS; t++) {
+			final int worker = t;
+			work.add(pool.submit(() -> {
+				await(start);
+				String tag = "worker" + worker + "tag";
+				for (int i = 0; i < POSTS_PER_THREAD; i++) {
+					OperationResult<Post> created = postStore.createPost("user" + worker,
+							"Thread" + (i % 4), "Title " + tag + " " + i, "Body number " + i);
+					if (!created.isSuccess()) problems.add("create failed: " + created.getErrors());
+					replyStore.createReply(created.getValue().getPostId(), "user" + worker, "Reply " + tag);
+
+					if (i % 50 == 0) {
+						postStore.refreshSubsetBySearch(tag, null);
+						for (Post p : postStore.getSubsetPosts()) {
+							if (!p.getTitle().contains(tag)) problems.add("subset leak: " + p);
+						}
+					}
+				}
+			}));
+		}
+		start.countDown();
+		waitFor(work);
+
+		System.out.println("---------- CONCURRENT CREATE TEST CASES ----------\n");
+
+		List<Post> all = postStore.getAllPosts();
+		int expectedPosts = THREADS * POSTS_PER_THREAD;
+		expectBoolean(1, "No post lost under concurrent create",
+				"expected=" + expectedPosts, true, all.size() == expectedPosts, "actual=" + all.size());
+
+		boolean[] seen = new boolean[expectedPosts + 1];
+		boolean idsUnique = true;
+		for (Post p : all) {
+			int id = p.getPostId();
+			if (id < 1 || id > expectedPosts || seen[id]) idsUnique = false;
+			else seen[id] = true;
+		}
+		expectBoolean(2, "Post ids unique and dense", "ids 1.." + expectedPosts, true, idsUnique,
+				"idsUnique=" + idsUnique);
+
+		boolean lookupsOk = true;
+		for (Post p : all) {
+			if (postStore.getPostById(p.getPostId()) != p) lookupsOk = false;
+		}
+		expectBoolean(3, "Every post reachable by id", "getPostById for all posts", true, lookupsOk,
+				"lookupsOk=" + lookupsOk);
+
+		List<Reply> replies = replyStore.getAllReplies();
+		int replyTotal = replies.size();
+		int countedReplies = 0;
+		for (Post p : all) countedReplies += replyStore.countRepliesForPost(p.getPostId());
+		boolean repliesInOrder = true;
+		for (int i = 0; i < replyTotal; i++) {
+			if (replies.get(i).getReplyId() != i + 1) repliesInOrder = false;
+		}
+		expectBoolean(4, "No reply lost, per-post counters add up and replies in id order",
+				"expected=" + expectedPosts, true,
+				replyTotal == expectedPosts && countedReplies == expectedPosts && repliesInOrder,
+				"replies=" + replyTotal + ", counted=" + countedReplies + ", inOrder=" + repliesInOrder);
+
+		expectBoolean(5, "Search subsets are per thread", "subset checks during phase 1", true,
+				problems.isEmpty(), "problems=" + firstFew(problems));
+
+		// Phase 2: edits, searches and read marks all at once
+		problems.clear();
+		work.clear();
+		CountDownLatch start2 = new CountDownLatch(1);
+		for (int t = 0; t < THREADS; t++) {
+			final int worker = t;
+			work.add(pool.submit(() -> {
+				await(start2);
+				String reader = "reader" + worker;
+				for (Post p : all) {
+					int id = p.getPostId();
+					postStore.markPostRead(id, reader);
+					if (id % THREADS == worker) {
+						OperationResult<Post> updated = postStore.updatePost(id, "Edited by " + worker, "Edited body " + id);
+						if (!updated.isSuccess()) problems.add("update failed: " + updated.getErrors());
+					}
+					if (id % 500 == worker) {
+						List<Post> found = postStore.searchPosts("Edited by " + worker, null);
+						for (Post f : found) {
+							if (!f.getTitle().equals("Edited by " + worker)) problems.add("wrong match: " + f);
+						}
+					}
+				}
+			}));
+		}
+		start2.countDown();
+		waitFor(work);
+		pool.shutdown();
+		pool.awaitTermination(1, TimeUnit.MINUTES);
+
+		System.out.println("---------- CONCURRENT UPDATE/SEARCH/READ TEST CASES ----------\n");
+
+		expectBoolean(6, "Concurrent updates and searches report no errors",
+				"updates by owner thread, searches by keyword", true, problems.isEmpty(),
+				"problems=" + firstFew(problems));
+
+		boolean allRead = true;
+		for (int t = 0; t < THREADS; t++) {
+			if (postStore.countUnreadPosts("reader" + t) != 0) allRead = false;
+			for (int k = 0; k < 4; k++) {
+				if (postStore.countUnreadPosts("reader" + t, "Thread" + k) != 0) allRead = false;
+			}
+		}
+		allRead = allRead && postStore.countUnreadPosts("nobody", "Thread0") == expectedPosts / 4;
+		expectBoolean(7, "Every read mark recorded", "countUnreadPosts overall and per thread", true, allRead,
+				"allRead=" + allRead);
+
+		boolean indexConsistent = true;
+		for (int t = 0; t < THREADS; t++) {
+			int found = postStore.searchPosts("Edited by " + t, null).size();
+			if (found != expectedPosts / THREADS) indexConsistent = false;
+		}
+		List<Post> stale = postStore.searchPosts("worker0tag", null);
+		expectBoolean(8, "Search index consistent after concurrent edits",
+				"each worker's edits found, old titles gone", true,
+				indexConsistent && stale.isEmpty(),
+				"indexConsistent=" + indexConsistent + ", stale=" + stale.size());
+
+		// Summary info
+		System.out.println("\n---------- SUMMARY ----------");
+		System.out.println("Passed: " + numPassed);
+		System.out.println("Failed: " + numFailed);
+	}
+
+	// Concurrency helpers
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static void waitFor(List<Future<?>> work) throws Exception {
+		for (Future<?> f : work) f.get();
+	}
+
+	private static String firstFew(ConcurrentLinkedQueue<String> problems) {
+		List<String> few = new ArrayList<>();
+		for (String p : problems) {
+			if (few.size() == 3) break;
+			few.add(p);
+		}
+		return few.isEmpty() ? "(none)" : few.toString();
+	}
+
+	// Output helpers
+	private static void expectBoolean(
+			int testId,
+			String testName,
+			String input,
+			boolean expected,
+			boolean actual,
+			String details) {
+
+		boolean pass = (expected == actual);
+
+		System.out.println("TC" + ((testId < 10) ? ("0" + testId) : String.valueOf(testId)) + " - " + testName);
+		System.out.println("Input:    " + input);
+		System.out.println("Expected: " + expected);
+		System.out.println("Actual:   " + actual);
+		System.out.println("Details:  " + details);
+
+		if (pass) {
+			numPassed++;
+			System.out.println("Result:   PASS");
+		} else {
+			numFailed++;
+			System.out.println("Result:   FAIL");
+		}
+
+		System.out.println();
+	}
+}
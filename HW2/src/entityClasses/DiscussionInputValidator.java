@@ -1,6 +1,7 @@
 package entityClasses;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -27,6 +28,10 @@ import java.util.List;
  *   <li>Body too long: “The body is too long. It must be 5000 characters or less.”</li>
  * </ul>
  * </p>
+ *
+ * <p> The check methods return the errors as bits and allocate nothing, and blank input is found
+ * by scanning it in place, so valid input creates no garbage. The validate methods build the
+ * list of messages from those bits for callers that want it. </p>
  * @author Amairani Caballero
  */
 public class DiscussionInputValidator {
@@ -46,46 +51,110 @@ public class DiscussionInputValidator {
 	public static final String ERR_BODY_EMPTY = "The body cannot be empty.";
 	public static final String ERR_BODY_TOO_LONG = "The body is too long. It must be 5000 characters or less.";
 
+	// Error bits returned by the check methods; 0 means valid
+	/** No error. */
+	public static final int VALID = 0;
+	/** Bit set when the title is null or blank. */
+	public static final int TITLE_EMPTY = 1;
+	/** Bit set when the title is longer than TITLE_MAX. */
+	public static final int TITLE_TOO_LONG = 1 << 1;
+	/** Bit set when the body is null or blank. */
+	public static final int BODY_EMPTY = 1 << 2;
+	/** Bit set when the body is longer than BODY_MAX. */
+	public static final int BODY_TOO_LONG = 1 << 3;
+
 	/**
-	 * Validates a post title.
+	 * Checks a post title without allocating.
 	 *
 	 * @param title input title
-	 * @return list of errors; empty if valid
+	 * @return VALID, TITLE_EMPTY or TITLE_TOO_LONG
 	 */
-	public List<String> validatePostTitle(String title) {
-		List<String> errors = new ArrayList<>();
+	public int checkPostTitle(String title) {
+		if (isBlank(title)) return TITLE_EMPTY;	// if empty, no need to check length further
+		return (title.length() > TITLE_MAX) ? TITLE_TOO_LONG : VALID;
+	}
 
-		if (title == null || title.trim().isEmpty()) {
-			errors.add(ERR_TITLE_EMPTY);
-			return errors; // if empty, no need to check length further
-		}
+	/**
+	 * Checks a post or reply body without allocating.
+	 *
+	 * @param body input body
+	 * @return VALID, BODY_EMPTY or BODY_TOO_LONG
+	 */
+	public int checkBody(String body) {
+		if (isBlank(body)) return BODY_EMPTY;
+		return (body.length() > BODY_MAX) ? BODY_TOO_LONG : VALID;
+	}
+
+	/**
+	 * Checks an entire post (title and body) without allocating.
+	 *
+	 * @param title title input
+	 * @param body body input
+	 * @return the error bits of the title and the body; VALID if both are valid
+	 */
+	public int checkPost(String title, String body) {
+		return checkPostTitle(title) | checkBody(body);
+	}
+
+	/**
+	 * Checks a reply (body only) without allocating.
+	 *
+	 * @param body reply body input
+	 * @return VALID, BODY_EMPTY or BODY_TOO_LONG
+	 */
+	public int checkReply(String body) {
+		return checkBody(body);
+	}
 
-		if (title.length() > TITLE_MAX) {
-			errors.add(ERR_TITLE_TOO_LONG);
+	/**
+	 * Tests for blankness the way trim().isEmpty() does, i.e. every char is a space or a control
+	 * char, but scans the string in place instead of copying it.
+	 *
+	 * @param text input text
+	 * @return true if text is null, empty or only whitespace
+	 */
+	public static boolean isBlank(String text) {
+		if (text == null) return true;
+		for (int i = 0; i < text.length(); i++) {
+			if (text.charAt(i) > ' ') return false;
 		}
+		return true;
+	}
+
+	/**
+	 * Turns the error bits of a check method into the error messages, title errors first.
+	 *
+	 * @param errorBits bits returned by a check method
+	 * @return unmodifiable list of errors; the shared empty list if errorBits is VALID
+	 */
+	public static List<String> errorMessages(int errorBits) {
+		if (errorBits == VALID) return Collections.emptyList();
+		List<String> errors = new ArrayList<>(2);
+		if ((errorBits & TITLE_EMPTY) != 0) errors.add(ERR_TITLE_EMPTY);
+		if ((errorBits & TITLE_TOO_LONG) != 0) errors.add(ERR_TITLE_TOO_LONG);
+		if ((errorBits & BODY_EMPTY) != 0) errors.add(ERR_BODY_EMPTY);
+		if ((errorBits & BODY_TOO_LONG) != 0) errors.add(ERR_BODY_TOO_LONG);
+		return Collections.unmodifiableList(errors);
+	}
 
-		return errors;
+	/**
+	 * Validates a post title.
+	 *
+	 * @param title input title
+	 * @return unmodifiable list of errors; empty if valid
+	 */
+	public List<String> validatePostTitle(String title) {
+		return errorMessages(checkPostTitle(title));
 	}
 
 	/**
 	 * Validates a post or reply body.
 	 *
 	 * @param body input body
-	 * @return list of errors, empty if valid
+	 * @return unmodifiable list of errors, empty if valid
 	 */
 	public List<String> validateBody(String body) {
-		List<String> errors = new ArrayList<>();
-
-		if (body == null || body.trim().isEmpty()) {
-			errors.add(ERR_BODY_EMPTY);
-			return errors;
-		}
-
-		if (body.length() > BODY_MAX) {
-			errors.add(ERR_BODY_TOO_LONG);
-		}
-
-		return errors;
+		return errorMessages(checkBody(body));
 	}
 
 	/**
@@ -93,20 +162,17 @@ public class DiscussionInputValidator {
 	 *
 	 * @param title title input
 	 * @param body body input
-	 * @return list of errors; empty if valid
+	 * @return unmodifiable list of errors; empty if valid
 	 */
 	public List<String> validatePost(String title, String body) {
-		List<String> errors = new ArrayList<>();
-		errors.addAll(validatePostTitle(title));
-		errors.addAll(validateBody(body));
-		return errors;
+		return errorMessages(checkPost(title, body));
 	}
 
 	/**
 	 * Validates a reply (body only).
 	 *
 	 * @param body reply body input
-	 * @return list of errors; empty if valid
+	 * @return unmodifiable list of errors; empty if valid
 	 */
 	public List<String> validateReply(String body) {
 		return validateBody(body);
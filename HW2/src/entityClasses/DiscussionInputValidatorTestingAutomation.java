@@ -220,6 +220,155 @@ public class DiscussionInputValidatorTestingAutomation {
 				onlyStudyGroup,
 				"subset=" + postStore.getSubsetPosts());
 
+		// Reply index/count test cases
+		System.out.println("\n---------- REPLY COUNT TESTS CASES ----------\n");
+
+		// TC20 (Positive): per-post counters track create and delete
+		replyStore.createReply(replyPostId, bob, "Second reply");
+		int liveCount = replyStore.countRepliesForPost(replyPostId);
+		int allCount = replyStore.countAllRepliesForPost(replyPostId);
+		expectBoolean(
+				20,
+				"Reply counts for post (one deleted, one live)",
+				"postId=" + replyPostId,
+				true,
+				liveCount == 1 && allCount == 2
+				&& replyStore.getRepliesForPost(replyPostId).size() == liveCount,
+				"live=" + liveCount + ", all=" + allCount);
+
+		// TC21 (Positive): a post without replies reports zero
+		int noReplies = replyStore.countRepliesForPost(postId);
+		expectBoolean(
+				21,
+				"Reply count for post without replies",
+				"postId=" + postId,
+				true,
+				noReplies == 0 && replyStore.getRepliesForPost(postId).isEmpty(),
+				"count=" + noReplies);
+
+		// Search index test cases
+		System.out.println("\n---------- SEARCH INDEX TESTS CASES ----------\n");
+
+		// TC22 (Positive): search follows edits (old keyword gone, new keyword found)
+		OperationResult<Post> searchTarget = postStore.createPost(bob, "StudyGroup", "Midterm review", "Chapter one notes");
+		int searchPostId = searchTarget.getValue().getPostId();
+		postStore.updatePost(searchPostId, "Final review", "Chapter two notes");
+		postStore.refreshSubsetBySearch("midterm", null);
+		boolean oldKeywordGone = postStore.getSubsetPosts().isEmpty();
+		postStore.refreshSubsetBySearch("TWO NOTES", "StudyGroup");
+		boolean newKeywordFound = postStore.getSubsetPosts().size() == 1
+				&& postStore.getSubsetPosts().get(0).getPostId() == searchPostId;
+		expectBoolean(
+				22,
+				"Search Posts subset after update",
+				"old keyword='midterm', new keyword='TWO NOTES', thread='StudyGroup'",
+				true,
+				oldKeywordGone && newKeywordFound,
+				"subset=" + postStore.getSubsetPosts());
+
+		// Read tracking test cases
+		System.out.println("\n---------- READ TRACKING TESTS CASES ----------\n");
+
+		// TC23 (Positive): a read mark belongs to one viewer and one post
+		int unreadBefore = postStore.countUnreadPosts(amy);
+		postStore.markPostRead(searchPostId, amy);
+		postStore.markPostRead(searchPostId, amy);
+		Post readPost = postStore.getPostById(searchPostId);
+		expectBoolean(
+				23,
+				"Mark Post read (per viewer, per post)",
+				"postId=" + searchPostId + ", viewer=" + amy + " (marked twice)",
+				true,
+				!readPost.isUnreadBy(amy) && readPost.isUnreadBy(bob)
+				&& postStore.getPostById(replyPostId).isUnreadBy(amy)
+				&& postStore.countUnreadPosts(amy) == unreadBefore - 1
+				&& postStore.countUnreadPosts(null) == postStore.getAllPosts().size(),
+				"unreadBefore=" + unreadBefore + ", unreadAfter=" + postStore.countUnreadPosts(amy));
+
+		// TC24 (Positive): unread post counters per thread follow create, read and delete
+		int threadUnread = postStore.countUnreadPosts(bob, "Announcements");
+		OperationResult<Post> first = postStore.createPost(amy, "Announcements", "Exam date", "Friday");
+		OperationResult<Post> second = postStore.createPost(amy, "Announcements", "Room change", "B12");
+		postStore.markPostRead(first.getValue().getPostId(), bob);
+		int afterRead = postStore.countUnreadPosts(bob, "Announcements");
+		postStore.deletePost(first.getValue().getPostId(), true);
+		postStore.deletePost(second.getValue().getPostId(), true);
+		int afterDelete = postStore.countUnreadPosts(bob, "Announcements");
+		expectBoolean(
+				24,
+				"Unread Posts per thread (create, read, delete)",
+				"thread='Announcements', viewer=" + bob,
+				true,
+				threadUnread == 0 && afterRead == 1 && afterDelete == 1
+				&& postStore.countUnreadPosts(bob, " ") == postStore.countUnreadPosts(bob),
+				"before=" + threadUnread + ", afterRead=" + afterRead + ", afterDelete=" + afterDelete);
+
+		// TC25 (Positive): unread reply counter for a post follows create, read and delete
+		OperationResult<Reply> unreadA = replyStore.createReply(searchPostId, amy, "First answer");
+		OperationResult<Reply> unreadB = replyStore.createReply(searchPostId, amy, "Second answer");
+		replyStore.markReplyRead(unreadA.getValue().getReplyId(), bob);
+		int repliesAfterRead = replyStore.countUnreadRepliesForPost(searchPostId, bob);
+		replyStore.deleteReply(unreadA.getValue().getReplyId(), true);
+		int repliesAfterDelete = replyStore.countUnreadRepliesForPost(searchPostId, bob);
+		expectBoolean(
+				25,
+				"Unread Replies for post (create, read, delete)",
+				"postId=" + searchPostId + ", viewer=" + bob,
+				true,
+				repliesAfterRead == 1 && repliesAfterDelete == 1
+				&& replyStore.getUnreadRepliesForPost(searchPostId, bob).size() == 1
+				&& replyStore.getUnreadRepliesForPost(searchPostId, bob).get(0) == unreadB.getValue()
+				&& replyStore.countUnreadRepliesForPost(searchPostId, amy) == 1,
+				"afterRead=" + repliesAfterRead + ", afterDelete=" + repliesAfterDelete);
+
+		// Allocation-free validation test cases
+		System.out.println("---------- ERROR BITS AND SHARED RESULTS TEST CASES: ----------\n");
+		DiscussionInputValidator validator = new DiscussionInputValidator();
+
+		// TC26 (Positive): check methods return error bits that map to the same messages
+		int bits = validator.checkPost(" \t ", longBody);
+		expectBoolean(
+				26,
+				"Error bits for a post (blank title, long body)",
+				"title=' \\t ', body='B' repeated 5001",
+				true,
+				bits == (DiscussionInputValidator.TITLE_EMPTY | DiscussionInputValidator.BODY_TOO_LONG)
+				&& validator.validatePost(" \t ", longBody).equals(List.of(
+						DiscussionInputValidator.ERR_TITLE_EMPTY, DiscussionInputValidator.ERR_BODY_TOO_LONG))
+				&& validator.checkPost("Title ok", "Body ok") == DiscussionInputValidator.VALID
+				&& validator.validatePost("Title ok", "Body ok").isEmpty()
+				&& validator.checkReply(null) == DiscussionInputValidator.BODY_EMPTY,
+				"bits=" + bits);
+
+		// TC27 (Positive): the in-place blank scan agrees with trim().isEmpty()
+		String[] blankInputs = { "", " ", "\t\r\n ", "\u0000\u001F", " x ", "\u00A0", "\u2003", "A".repeat(5000) };
+		boolean sameAsTrim = DiscussionInputValidator.isBlank(null);
+		for (String in : blankInputs) {
+			sameAsTrim &= DiscussionInputValidator.isBlank(in) == in.trim().isEmpty();
+		}
+		expectBoolean(
+				27,
+				"Blank scan agrees with trim().isEmpty()",
+				"null, empty, whitespace, control chars, non-breaking and em spaces, text",
+				true,
+				sameAsTrim,
+				"inputs=" + blankInputs.length + " plus null");
+
+		// TC28 (Positive): successes without a value or with a Boolean are shared
+		OperationResult<Boolean> deleted = postStore.deletePost(
+				postStore.createPost(amy, null, "To delete", "Soon gone").getValue().getPostId(), true);
+		expectBoolean(
+				28,
+				"Shared success results",
+				"success(null), success(true), deletePost(true)",
+				true,
+				deleted.isSuccess() && deleted.getValue()
+				&& deleted == OperationResult.success(Boolean.TRUE)
+				&& OperationResult.success(null) == OperationResult.success(null)
+				&& !OperationResult.success(false).getValue()
+				&& OperationResult.success("a") != OperationResult.success("a"),
+				"deleted=" + deleted.getValue());
+
 		// Summary info
 		System.out.println("\n---------- SUMMARY ----------");
 		System.out.println("Passed: " + numPassed);
@@ -0,0 +1,64 @@
+package entityClasses;
+
+/**
+ * <p> Title: FsmTracer </p>
+ *
+ * <p> Description: Receives the execution trace of an InputRecognizer Finite State Machine: one
+ * call when a run starts, one for every state visited, and one when the machine halts. The
+ * recognizers pass only primitives and references they already hold, so with {@link #NONE}, the
+ * default, the calls are empty and the JIT removes them; nothing is formatted or printed. Use
+ * {@link ConsoleFsmTracer} to print the trace as the recognizers used to, or
+ * {@link CollectingFsmTracer} to keep it for a test. </p>
+ *
+ * @author Amairani Caballero
+ */
+public interface FsmTracer {
+
+	/** The tracer that does nothing. */
+	FsmTracer NONE = new FsmTracer() {
+		@Override
+		public void start(String input) {
+		}
+
+		@Override
+		public void step(int state, boolean finalState, String input, int charIndex, int nextState, int size) {
+		}
+
+		@Override
+		public void endOfInput() {
+		}
+
+		@Override
+		public void halted() {
+		}
+	};
+
+	/**
+	 * A run of the machine begins.
+	 *
+	 * @param input the input line being recognized
+	 */
+	void start(String input);
+
+	/**
+	 * The machine is in a state, about to take a transition or halt.
+	 *
+	 * @param state the current state
+	 * @param finalState true if the current state is a final state
+	 * @param input the input line being recognized
+	 * @param charIndex the index of the current character; input.length() or more at the end of input
+	 * @param nextState the state the current character leads to, -1 if none
+	 * @param size the size counter of the machine, e.g. the domain part length
+	 */
+	void step(int state, boolean finalState, String input, int charIndex, int nextState, int size);
+
+	/**
+	 * The machine moved past the last character.
+	 */
+	void endOfInput();
+
+	/**
+	 * The machine halted; the recognizer is about to decide the result.
+	 */
+	void halted();
+}
@@ -0,0 +1,91 @@
+package entityClasses;
+
+import java.util.List;
+
+/**
+ * <p> Title: ImportReport </p>
+ *
+ * <p> Description: The outcome of importing a roster with Database.importUsers: how many accounts
+ * were created, and for every line that was not imported, the line number, the userName if it
+ * could be read, and why. A bad line does not stop the import, so a report can hold both. </p>
+ *
+ * @author Amairani Caballero
+ */
+public final class ImportReport {
+
+	private final int imported;
+
+	private final List<RowFailure> failures;
+
+	/**
+	 * @param imported number of accounts created
+	 * @param failures the lines that were not imported, in roster order
+	 */
+	public ImportReport(int imported, List<RowFailure> failures) {
+		this.imported = imported;
+		this.failures = List.copyOf(failures);
+	}
+
+	/**
+	 * @return number of accounts created
+	 */
+	public int getImported() {
+		return imported;
+	}
+
+	/**
+	 * @return the lines that were not imported, in roster order (unmodifiable)
+	 */
+	public List<RowFailure> getFailures() {
+		return failures;
+	}
+
+	/**
+	 * @return true if every line was imported
+	 */
+	public boolean isComplete() {
+		return failures.isEmpty();
+	}
+
+	@Override
+	public String toString() {
+		return "ImportReport{imported=" + imported + ", failed=" + failures.size() + "}";
+	}
+
+	/**
+	 * One roster line that was not imported.
+	 */
+	public static final class RowFailure {
+
+		private final int lineNumber;
+
+		private final String userName;
+
+		private final String message;
+
+		/**
+		 * @param lineNumber the line in the roster, counting from 1
+		 * @param userName the line's userName, or null if it could not be read
+		 * @param message why the line was not imported
+		 */
+		public RowFailure(int lineNumber, String userName, String message) {
+			this.lineNumber = lineNumber;
+			this.userName = userName;
+			this.message = message;
+		}
+
+		/** @return the line in the roster, counting from 1 */
+		public int getLineNumber() { return lineNumber; }
+
+		/** @return the line's userName, or null if it could not be read */
+		public String getUserName() { return userName; }
+
+		/** @return why the line was not imported */
+		public String getMessage() { return message; }
+
+		@Override
+		public String toString() {
+			return "Line " + lineNumber + (userName == null ? "" : " (" + userName + ")") + ": " + message;
+		}
+	}
+}
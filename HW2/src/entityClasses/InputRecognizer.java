@@ -1,11 +1,13 @@
 package entityClasses;
 
+import entityClasses.ValidationResult.Code;
+
 /**
  * <p> Title: InputRecognizer Class </p>
  * <p> Description: A demonstration of the mechanical translation of a Finite State Machine 
  * diagram into an executable Java program using the Input Recognizer. The class has functions 
- * for validating the input for emails, passwords, usernames, and names. The code detailed 
- * design is based on a while loop with a select list.</p>
+ * for validating the input for emails, passwords, usernames, and names. Each FSM is declared 
+ * as states, character classes and transitions and is run by a table-driven DfaEngine.</p>
  * @author Nicholas Hamilton
  @author Jarod DeFilippo
  @version 0.00 2018-02-04 Initial baseline 
@@ -14,12 +16,18 @@ package entityClasses;
  @version 3.00 2022-03-22 Adjusted to clean up the code and resolving alignment issues with 
                           the design and to correct the issue with an empty email address
  @version 3.01 2026-02-10 Updated implementation to follow FSM diagrams
+ @version 3.02 2026-10-17 The FSM state is kept per call, so validations may run on several
+                          threads at once; the validate methods return a ValidationResult
+ @version 3.03 2026-10-17 The execution trace goes to a pluggable FsmTracer, silent by default
+ @version 4.00 2026-10-17 The FSMs are declared as tables run by DfaEngine instead of switch loops
  */ 
 public class InputRecognizer {
 
 	/**********************************************************************************************
 	 * Result attributes to be used for GUI applications where a detailed error message and a 
-	 * pointer to the character of the error will enhance the user experience.
+	 * pointer to the character of the error will enhance the user experience. They hold the 
+	 * outcome of the latest check method call and are shared by every thread; code that may run 
+	 * off the JavaFX Application Thread should use the ValidationResult of a validate method.
 	 **********************************************************************************************/
 
 	/** The error message text for email validation. */
@@ -57,18 +65,23 @@ public class InputRecognizer {
 	
 	/** The index where the name error was located. */
 	public static int nameIndexOfError = -1;	
+
+	/** The tracer used when a call does not give one; FsmTracer.NONE unless set for debugging. */
+	private static volatile FsmTracer defaultTracer = FsmTracer.NONE;
 	
-	private static int state = 0;						// The current state value
-	private static int nextState = 0;					// The next state value
-	private static boolean finalState = false;			// Is this state a final state?
-	private static String inputLine = "";				// The input line
-	private static char currentChar;					// The current character in the line
-	private static int currentCharNdx;					// The index of the current character
-	private static boolean running;						// The flag that specifies if the FSM is running
-	private static int domainPartCounter = 0;			// A domain name may not exceed 63 characters
-	
+	private static final String LETTERS = DfaEngine.range('A', 'Z') + DfaEngine.range('a', 'z');
+	private static final String DIGITS = DfaEngine.range('0', '9');
 	private static final String SPECIALCHARS = "~`!@#$%^&*()_-+{}[]|:,.?/"; // Set containing special characters allowed in password
-	private static final String TRACE_HEADER = "\nCurrent Final Input  Next  Date\nState   State Char  State  Size";
+	
+	private static final int LP_CHARS = 0;				// Email counter: LPChars and periods before the '@'
+	private static final int DP_CHARS = 1;				// Email counter: characters after the '@'
+	private static final int SIZE = 0;					// Password and name counter: characters accepted
+	
+	// The compiled Finite State Machines, shared by every call
+	private static final DfaEngine EMAIL_ADDRESS = emailAddressMachine();
+	private static final DfaEngine USERNAME = usernameMachine();
+	private static final DfaEngine PASSWORD = passwordMachine();
+	private static final DfaEngine NAME = nameMachine();
 	
 	/**
 	 * Default constructor for the InputRecognizer class.
@@ -78,15 +91,126 @@ public class InputRecognizer {
 	}
 
 	/**
-	 * This private method checks if a char c is in the set defined as a string SPECIALCHARS. This is a helper method that currently 
-	 * is only used to check if a character in a password belongs to the set of SPECIALCHARS
-	 * @param c     The input character
-	 @return      True or False if c is in the string SPECIALCHARS
+	 * Sets the tracer used by the calls that do not give one, e.g. a ConsoleFsmTracer to print
+	 * every run the way the recognizers used to.
+	 * @param tracer The tracer, FsmTracer.NONE for no trace
 	 */
-	private static boolean isSpecial(char c) {
-		return SPECIALCHARS.indexOf(c) >= 0;
+	public static void setTracer(FsmTracer tracer) {
+		defaultTracer = (tracer == null) ? FsmTracer.NONE : tracer;
 	}
-	
+
+	/**
+	 * @return The tracer used by the calls that do not give one
+	 */
+	public static FsmTracer getTracer() {
+		return defaultTracer;
+	}
+
+	/**
+	 * Validates an email address; see checkEmailAddress for the rules. Safe to call from any thread.
+	 * @param input The input string for the Finite State Machine
+	 @return      The outcome of this call
+	 */
+	public static ValidationResult validateEmailAddress(String input) {
+		return validateEmailAddress(input, defaultTracer);
+	}
+
+	/**
+	 * Validates an email address, reporting the execution trace to the given tracer.
+	 * @param input  The input string for the Finite State Machine
+	 @param tracer The tracer for this call only
+	 @return       The outcome of this call
+	 */
+	public static ValidationResult validateEmailAddress(String input, FsmTracer tracer) {
+		// Let's ensure there is input
+		if (input.length() <= 0) {
+			return ValidationResult.invalid(Code.EMPTY,
+					"Email address cannot be empty." + displayInput(input, 0), 0);
+		}
+
+		// Let's ensure the address is not too long
+		if (input.length() > 320) {
+			return ValidationResult.invalid(Code.TOO_LONG,
+					"A valid email address must be no more than 320 characters.\n" + displayInput(input, 320), 320);
+		}
+		return EMAIL_ADDRESS.run(input, tracer);
+	}
+
+	/**
+	 * Validates a username; see checkUsername for the rules. Safe to call from any thread.
+	 * @param input The input string for the Finite State Machine
+	 @return      The outcome of this call
+	 */
+	public static ValidationResult validateUsername(String input) {
+		return validateUsername(input, defaultTracer);
+	}
+
+	/**
+	 * Validates a username, reporting the execution trace to the given tracer.
+	 * @param input  The input string for the Finite State Machine
+	 @param tracer The tracer for this call only
+	 @return       The outcome of this call
+	 */
+	public static ValidationResult validateUsername(String input, FsmTracer tracer) {
+		// Let's ensure there is enough input
+		if (input.length() < 4) {
+			return ValidationResult.invalid(input.isEmpty() ? Code.EMPTY : Code.TOO_SHORT,
+					"Username must be at least 4 characters.\n", input.length());
+		}
+
+		// Let's ensure the username is not too long
+		if (input.length() > 16) {
+			return ValidationResult.invalid(Code.TOO_LONG, "Username cannot be more than 16 characters.\n", 16);
+		}
+		return USERNAME.run(input, tracer);
+	}
+
+	/**
+	 * Validates a password; see checkPassword for the rules. Safe to call from any thread.
+	 * @param input The input string for the Finite State Machine
+	 @return      The outcome of this call
+	 */
+	public static ValidationResult validatePassword(String input) {
+		return validatePassword(input, defaultTracer);
+	}
+
+	/**
+	 * Validates a password, reporting the execution trace to the given tracer.
+	 * @param input  The input string for the Finite State Machine
+	 @param tracer The tracer for this call only
+	 @return       The outcome of this call
+	 */
+	public static ValidationResult validatePassword(String input, FsmTracer tracer) {
+		// Check to ensure that there is input to process
+		if (input.length() <= 0) {
+			return ValidationResult.invalid(Code.EMPTY, "The password cannot be empty", 0);	// Error at first character
+		}
+		return PASSWORD.run(input, tracer);
+	}
+
+	/**
+	 * Validates a name; see checkName for the rules. Safe to call from any thread.
+	 * @param input The input string for the Finite State Machine
+	 @return      The outcome of this call
+	 */
+	public static ValidationResult validateName(String input) {
+		return validateName(input, defaultTracer);
+	}
+
+	/**
+	 * Validates a name, reporting the execution trace to the given tracer.
+	 * @param input  The input string for the Finite State Machine
+	 @param tracer The tracer for this call only
+	 @return       The outcome of this call
+	 */
+	public static ValidationResult validateName(String input, FsmTracer tracer) {
+		// Let's ensure there is input
+		if (input.length() <= 0) {
+			return ValidationResult.invalid(Code.EMPTY, "Input cannot be empty\n" + displayInput(input, input.length()), 0);
+		}
+		return NAME.run(input, tracer);
+	}
+
 	/**
 	 * This private method displays the input line and then on a line under it displays an up arrow
 	 * at the point where an error should one be detected. This method is designed to be used to 
@@ -101,32 +225,6 @@ public class InputRecognizer {
 		return result;
 	}
 
-	// Private method to display debugging data
-	private static void displayDebuggingInfo() {
-		// Display the current state of the FSM as part of an execution trace
-		if (currentCharNdx >= inputLine.length())
-			// display the line with the current state numbers aligned
-			System.out.println(((state > 99) ? " " : (state > 9) ? "  " : "   ") + state + 
-					((finalState) ? "       F   " : "           ") + "None");
-		else
-			System.out.println(((state > 99) ? " " : (state > 9) ? "  " : "   ") + state + 
-					((finalState) ? "       F   " : "           ") + "  " + currentChar + " " + 
-					((nextState > 99) ? "" : (nextState > 9) || (nextState == -1) ? "   " : "    ") + 
-					nextState + "     " + domainPartCounter);
-	}
-	
-	// Private method to move to the next character within the limits of the input line
-	private static void moveToNextCharacter() {
-		currentCharNdx++;
-		if (currentCharNdx < inputLine.length())
-			currentChar = inputLine.charAt(currentCharNdx);
-		else {
-			System.out.println("End of input was found!");
-			currentChar = ' ';
-			running = false;
-		}
-	}
-
 	/**
 	 * This method is a mechanical transformation of a Finite State Machine diagram into a Java
 	 * method. This method is updated for Email Address Validator FSM. 
@@ -144,275 +242,100 @@ public class InputRecognizer {
 	              point where the error was found.
 	 */
 	public static String checkEmailAddress(String input) {
-		// The following are the local variable used to perform the Finite State Machine simulation
-		state = 0;							// This is the FSM state number
-		inputLine = input;					// Save the reference to the input line as a global
-		currentCharNdx = 0;					// The index of the current character
-		int LPCharCounter = 0;
-		int DPCharCounter = 0;
-
+		ValidationResult result = validateEmailAddress(input);
 		emailAddressInput = input;			// Save a copy of the input
+		emailAddressErrorMessage = result.getMessage();
+		emailAddressIndexofError = result.getIndex();
+		return result.getMessage();
+	}
 
-		// Let's ensure there is input
-		if (input.length() <= 0) {
-			emailAddressErrorMessage = "Email address cannot be empty.";
-			return emailAddressErrorMessage + displayInput(input, 0);
-		}
-		currentChar = input.charAt(0);		// The current character from the above indexed position
-
-		// Let's ensure the address is not too long
-		if (input.length() > 320) {
-			emailAddressErrorMessage = "A valid email address must be no more than 320 characters.\n";
-			return emailAddressErrorMessage + displayInput(input, 320);
-		}
-		running = true;						// Start the loop
-		System.out.println(TRACE_HEADER);
-
-		// The Finite State Machines continues until the end of the input is reached or at some 
-		// state the current character does not match any valid transition to a next state
-		while (running) {
-			// The switch statement takes the execution to the code for the current state, where
-			// that code sees whether or not the current character is valid to transition to a
-			// next state
-			nextState = -1;						// Default to there is no next state		
-			
-			switch (state) {
-			case 0: 
-				// State 0 has 3 valid transitions.
-
-				if ((currentChar >= 'A' && currentChar <= 'Z')|| 		// Upper case
-						(currentChar >= 'a' && currentChar <= 'z') ||	// Lower case
-						(currentChar >= '0' && currentChar <= '9')) {	// Digit
-					nextState = 1;
-					LPCharCounter++;
-				}
-				// If it is none of those characters, the FSM halts
-				else { 
-					running = false;
-				}
-				
-				break;				
-				// The execution of this state is finished
-			
-			case 1: 
-				// State 1 has three valid transitions.  
-				if ((currentChar >= 'A' && currentChar <= 'Z')|| 		// Upper case
-						(currentChar >= 'a' && currentChar <= 'z') ||	// Lower case
-						(currentChar >= '0' && currentChar <= '9')) {	// Digit
-					nextState = 1;
-					LPCharCounter++;
-				
-				}
-				else if(currentChar == '.') {
-					nextState = 0;
-					LPCharCounter++;
-				}
-				else if(currentChar == '@') {
-					nextState = 2;
-				}
-				else {
-					running = false;
-				}
-
-				break;
-				// The execution of this state is finished
-			case 2: 
-				// State 1 has three valid transitions.  
-				if ((currentChar >= 'A' && currentChar <= 'Z')|| 		// Upper case
-						(currentChar >= 'a' && currentChar <= 'z') ||	// Lower case
-						(currentChar >= '0' && currentChar <= '9')) {	// Digit
-					nextState = 3;
-					DPCharCounter++;
-				}
-				
-				else {
-					running = false;
-				}
-
-				break;
-				// The execution of this state is finished
-							
-			case 3: 
-				if ((currentChar >= 'A' && currentChar <= 'Z')|| 		// Upper case
-						(currentChar >= 'a' && currentChar <= 'z') ||	// Lower case
-						(currentChar >= '0' && currentChar <= '9')){	// Digit
-					nextState = 3;
-					DPCharCounter++;
-				}
-				else if(currentChar == '.'){
-					nextState = 5;
-					DPCharCounter++;
-				}
-				else if(currentChar == '-'){
-					nextState = 4;
-					DPCharCounter++;
-				}
-				else {
-					running = false;
-				}
-				
-				break;
-	
-			case 4:
-				if ((currentChar >= 'A' && currentChar <= 'Z')|| 		// Upper case
-						(currentChar >= 'a' && currentChar <= 'z') ||	// Lower case
-						(currentChar >= '0' && currentChar <= '9')){	// Digit
-					nextState = 3;
-					DPCharCounter++;
-				}
-				
-				else {
-					running = false;
-				}
-				break;
-				
-			case 5:
-				if ((currentChar >= 'A' && currentChar <= 'Z')|| 		// Upper case
-						(currentChar >= 'a' && currentChar <= 'z') ||	// Lower case
-						(currentChar >= '0' && currentChar <= '9')){	// Digit
-					nextState = 6;
-					DPCharCounter++;
-				}
-				else {
-					running = false;
-				}
-				break;
-				
-			case 6:
-				if ((currentChar >= 'A' && currentChar <= 'Z')|| 		// Upper case
-						(currentChar >= 'a' && currentChar <= 'z') ||	// Lower case
-						(currentChar >= '0' && currentChar <= '9')){	// Digit
-					nextState = 6;
-					DPCharCounter++;
-				}
-				else if(currentChar == '-'){
-					nextState = 7;
-					DPCharCounter++;
-				}
-				else {
-					running = false;
-				}
-				break;
-				
-			case 7:
-				if ((currentChar >= 'A' && currentChar <= 'Z')|| 		// Upper case
-						(currentChar >= 'a' && currentChar <= 'z') ||	// Lower case
-						(currentChar >= '0' && currentChar <= '9')){	// Digit
-					nextState = 6;
-					DPCharCounter++;
-				}
-				else {
-					running = false;
-				}
-				break;
-			}
-			
-			if (running) {
-				displayDebuggingInfo();
-				// When the processing of a state has finished, the FSM proceeds to the next character
-				// in the input and if there is one, it fetches that character and updates the 
-				// currentChar.  If there is no next character the currentChar is set to a blank.
-				
-				moveToNextCharacter();
-				
-				// Move to the next state
-				state = nextState;
-				nextState = -1;
-			}
-			// Should the FSM get here, the loop starts again
+	// The Email Address Validator FSM
+	private static DfaEngine emailAddressMachine() {
+		DfaEngine.Builder fsm = new DfaEngine.Builder(8);
+		int alnum = fsm.charClass(LETTERS + DIGITS);		// LPChar or DPChar
+		int period = fsm.charClass(".");
+		int hyphen = fsm.charClass("-");
+		int at = fsm.charClass("@");
+		return fsm
+				.transition(0, alnum, 1, LP_CHARS)			// State 0: an LPChar must come first
+				.transition(1, alnum, 1, LP_CHARS)			// State 1: more LPChars, a period or the '@'
+				.transition(1, period, 0, LP_CHARS)
+				.transition(1, at, 2)
+				.transition(2, alnum, 3, DP_CHARS)			// State 2: a DPChar must follow the '@'
+				.transition(3, alnum, 3, DP_CHARS)			// State 3: more DPChars, a hyphen or a period
+				.transition(3, period, 5, DP_CHARS)
+				.transition(3, hyphen, 4, DP_CHARS)
+				.transition(4, alnum, 3, DP_CHARS)			// State 4: a DPChar must follow the hyphen
+				.transition(5, alnum, 6, DP_CHARS)			// State 5: a DPChar must follow the period
+				.transition(6, alnum, 6, DP_CHARS)			// State 6: more DPChars or a hyphen
+				.transition(6, hyphen, 7, DP_CHARS)
+				.transition(7, alnum, 6, DP_CHARS)			// State 7: a DPChar must follow the hyphen
+				.finalState(6)
+				.build(InputRecognizer::decideEmailAddress);
+	}
 
-		}
-		displayDebuggingInfo();
-		
-		System.out.println("The loop has ended.");
-
-		emailAddressIndexofError = currentCharNdx;		// Copy the index of the current character;
-		
-		// When the FSM halts, we must determine if the situation is an error or not.  That depends
-		// of the current state of the FSM and whether or not the whole string has been consumed.
-		// This switch directs the execution to separate code for each of the FSM states and that
-		// makes it possible for this code to display a very specific error message to improve the
-		// user experience.
+	// When the FSM halts, we must determine if the situation is an error or not. That depends on
+	// the state the FSM halted in and on the counters, so that a very specific error message can
+	// be returned to improve the user experience.
+	private static ValidationResult decideEmailAddress(String input, int state, int index, int lpChars, int dpChars) {
 		switch (state) {
 		case 0:
 			// State 0 is not a final state, so we can return a very specific error message
-			emailAddressIndexofError = currentCharNdx;		// Copy the index of the current character;
-			if(currentCharNdx <= 0) {
-				emailAddressErrorMessage = "Email may only start with alphanumeric characters.\n";
-			}
-			else {
-				emailAddressErrorMessage = "Local part of email can only contain a period between two alphanumeric characters.\n";
+			if(index <= 0) {
+				return ValidationResult.invalid(Code.INVALID_START,
+						"Email may only start with alphanumeric characters.\n", index);
 			}
-			return emailAddressErrorMessage;
+			return ValidationResult.invalid(Code.MISPLACED_SEPARATOR,
+					"Local part of email can only contain a period between two alphanumeric characters.\n", index);
 
 		case 1:
 			// State 1 is not a final state, so we can return a very specific error message
-			emailAddressIndexofError = currentCharNdx;		// Copy the index of the current character;
-			emailAddressErrorMessage = "Email requires only alphanumeric characters followed by '@'.\n";
-			return emailAddressErrorMessage;
+			return ValidationResult.invalid(Code.INVALID_CHARACTER,
+					"Email requires only alphanumeric characters followed by '@'.\n", index);
 
 		case 2:
 			// State 2 is not a final state, so we can return a very specific error message
-			emailAddressIndexofError = currentCharNdx;		// Copy the index of the current character;
-			emailAddressErrorMessage = "Domain part of email requires alphanumeric characters following '@' and can contain '.' between two alphanumeric characters.\n";
-			return emailAddressErrorMessage;
-			// Replace this with the required code
+			return ValidationResult.invalid(Code.INVALID_CHARACTER,
+					"Domain part of email requires alphanumeric characters following '@' and can contain '.' between two alphanumeric characters.\n", index);
 
 		case 3:
-			// State 3 is a Final State, so this is not an error if the input is empty, otherwise
-			// we can return a very specific error message.
-			
-			emailAddressIndexofError = currentCharNdx;		// Copy the index of the current character
-			emailAddressErrorMessage = "Domain part can only be alphanumeric characters and must have a '.' after at least one alphanumeric character.\n";
-			return emailAddressErrorMessage;
-		
+			// State 3 is not a final state: the domain part needs a '.'
+			return ValidationResult.invalid(Code.INVALID_CHARACTER,
+					"Domain part can only be alphanumeric characters and must have a '.' after at least one alphanumeric character.\n", index);
 
 		case 4:
-			// State 4 is not a final state, so we can return a very specific error message. 
-			emailAddressIndexofError = currentCharNdx;		// Copy the index of the current character;
-			emailAddressErrorMessage = "Domain part of email can contain '-' between two alphanumeric characters.\n";
-			return emailAddressErrorMessage;
-			
-		case 5:
-			// State 4 is not a final state, so we can return a very specific error message. 
-			emailAddressIndexofError = currentCharNdx;		// Copy the index of the current character;
-			emailAddressErrorMessage = "Domain part after the '.' must be contain at least one alphanumeric character.\n";
-			return emailAddressErrorMessage;
-		case 6:
-			// State 6 is a final state, so we can return a very specific error message or pass. 
-			if(LPCharCounter < 1) {
-				emailAddressErrorMessage = "Local part of email must contain at least one alphanumeric character.\n";
-				return emailAddressErrorMessage;
+		case 7:
+			// States 4 and 7 are not final states, so we can return a very specific error message
+			return ValidationResult.invalid(Code.MISPLACED_SEPARATOR,
+					"Domain part of email can contain '-' between two alphanumeric characters.\n", index);
 
-			}
-			else if(DPCharCounter < 2) {
-				emailAddressErrorMessage = "Domain part of email must contain at least two alphanumeric characters.\n";
-				return emailAddressErrorMessage;
+		case 5:
+			// State 5 is not a final state, so we can return a very specific error message
+			return ValidationResult.invalid(Code.MISPLACED_SEPARATOR,
+					"Domain part after the '.' must be contain at least one alphanumeric character.\n", index);
 
+		case 6:
+			// State 6 is a final state, the input passes if the counters are within their limits
+			if(lpChars < 1) {
+				return ValidationResult.invalid(Code.TOO_SHORT,
+						"Local part of email must contain at least one alphanumeric character.\n", index);
 			}
-			else if(DPCharCounter > 63) {
-				emailAddressErrorMessage = "Domain part of email must contain at most 63 characters.\n";
-				return emailAddressErrorMessage;
-
+			else if(dpChars < 2) {
+				return ValidationResult.invalid(Code.TOO_SHORT,
+						"Domain part of email must contain at least two alphanumeric characters.\n", index);
 			}
-			else {
-				// Valid input
-				emailAddressErrorMessage = "";
-				return emailAddressErrorMessage;
+			else if(dpChars > 63) {
+				return ValidationResult.invalid(Code.TOO_LONG,
+						"Domain part of email must contain at most 63 characters.\n", index);
 			}
-			
-		case 7:
-			// State 7 is not a final state, so we can return a very specific error message. 
-			emailAddressIndexofError = currentCharNdx;		// Copy the index of the current character;
-			emailAddressErrorMessage = "Domain part of email can contain '-' between two alphanumeric characters.\n";
-			return emailAddressErrorMessage;
-			
-		// default case should be reached
+			return ValidationResult.valid();
+
+		// Default case should not be reached
 		default:
-			return "";
+			return ValidationResult.valid();
 		}
 	}
-	
+
 	/**
 	 * This method is a mechanical transformation of a Finite State Machine diagram into a Java
 	 * method.  This method is now updated for the NewUsernameRecognizer Finite State Machine diagram 
@@ -423,147 +346,56 @@ public class InputRecognizer {
 	              with a helpful description of the error
 	 */
 	public static String checkUsername(String input) {
-		// The following are the local variable used to perform the Finite State Machine simulation
-		state = 0;							// This is the FSM state number
-		inputLine = input;					// Save the reference to the input line as a global
-		currentCharNdx = 0;					// The index of the current character
-
+		ValidationResult result = validateUsername(input);
 		usernameInput = input;			// Save a copy of the input
+		usernameErrorMessage = result.getMessage();
+		usernameIndexOfError = result.getIndex();
+		return result.getMessage();
+	}
 
-		// Let's ensure there is input
-		if (input.length() < 4) {
-			usernameErrorMessage = "Username must be at least 4 characters.\n";
-			return usernameErrorMessage;
-		}
-		currentChar = input.charAt(0);		// The current character from the above indexed position
-
-		// Let's ensure the address is not too long
-		if (input.length() > 16) {
-			usernameErrorMessage = "Username cannot be more than 16 characters.\n";
-			return usernameErrorMessage;
-		}
-		running = true;						// Start the loop
-		System.out.println(TRACE_HEADER);
-
-		// The Finite State Machines continues until the end of the input is reached or at some 
-		// state the current character does not match any valid transition to a next state
-		while (running) {
-			// The switch statement takes the execution to the code for the current state, where
-			// that code sees whether or not the current character is valid to transition to a
-			// next state
-			nextState = -1;						// Default to there is no next state		
-			
-			switch (state) {
-			case 0: 
-				// State 0 has just 1 valid transition.
-				// The current character is must be checked against 62 options. If any are matched
-				// the FSM must go to state 1
-				// The first and the second check for an alphabet character the third a numeric
-				if ((currentChar >= 'A' && currentChar <= 'Z')|| 		// Upper case
-						(currentChar >= 'a' && currentChar <= 'z')) {	// Digit
-					nextState = 1;
-				}
-				// If it is none of those characters, the FSM halts
-				else { 
-					running = false;
-				}
-				
-				break;				
-				// The execution of this state is finished
-			
-			case 1: 
-				// State 1 has three valid transitions.  
-				if ((currentChar >= 'A' && currentChar <= 'Z')|| 		// Upper case
-						(currentChar >= 'a' && currentChar <= 'z') ||	// Lower case
-						(currentChar >= '0' && currentChar <= '9')) {	// Digit 	
-					nextState = 1;
-				
-				}
-				else if((currentChar == '-') ||(currentChar == '_') || (currentChar == '.')) {
-					nextState = 2;
-				}
-				else {
-					running = false;
-				}
-
-				break;
-				// The execution of this state is finished
-				
-				
-			case 2: 
-				// State 1 has three valid transitions.  
-				if ((currentChar >= 'A' && currentChar <= 'Z')|| 		// Upper case
-						(currentChar >= 'a' && currentChar <= 'z') ||	// Lower case
-						(currentChar >= '0' && currentChar <= '9')) {	// Digit 	
-					nextState = 1;
-				
-				}
-				else {
-					running = false;
-				}
-
-				break;
-			}
-			
-			if (running) {
-				displayDebuggingInfo();
-				// When the processing of a state has finished, the FSM proceeds to the next character
-				// in the input and if there is one, it fetches that character and updates the 
-				// currentChar.  If there is no next character the currentChar is set to a blank.
-				
-				moveToNextCharacter();
-				
-				// Move to the next state
-				state = nextState;
-				nextState = -1;
-			}
-			// Should the FSM get here, the loop starts again
+	// The NewUsernameRecognizer FSM
+	private static DfaEngine usernameMachine() {
+		DfaEngine.Builder fsm = new DfaEngine.Builder(3);
+		int letter = fsm.charClass(LETTERS);
+		int digit = fsm.charClass(DIGITS);
+		int separator = fsm.charClass("-_.");
+		return fsm
+				.transition(0, letter, 1)					// State 0: a letter must come first
+				.transition(1, letter, 1)					// State 1: more alphanumerics or a separator
+				.transition(1, digit, 1)
+				.transition(1, separator, 2)
+				.transition(2, letter, 1)					// State 2: an alphanumeric must follow the separator
+				.transition(2, digit, 1)
+				.finalState(1)
+				.build(InputRecognizer::decideUsername);
+	}
 
-		}
-		displayDebuggingInfo();
-		
-		System.out.println("The loop has ended.");
-
-		usernameIndexOfError = currentCharNdx;		// Copy the index of the current character;
-		
-		// When the FSM halts, we must determine if the situation is an error or not.  That depends
-		// of the current state of the FSM and whether or not the whole string has been consumed.
-		// This switch directs the execution to separate code for each of the FSM states and that
-		// makes it possible for this code to display a very specific error message to improve the
-		// user experience.
+	// When the FSM halts, the state it halted in gives a very specific error message
+	private static ValidationResult decideUsername(String input, int state, int index, int unused0, int unused1) {
 		switch (state) {
 		case 0:
 			// State 0 is not a final state, so we can return a very specific error message
-			usernameIndexOfError = currentCharNdx;		// Copy the index of the current character;
-			usernameErrorMessage = "Username must start with a letter.\n";
-			return usernameErrorMessage;
-			
+			return ValidationResult.invalid(Code.INVALID_START, "Username must start with a letter.\n", index);
+
 		case 1:
 			// State 1 is a final state only when the whole input has been consumed.
-			usernameIndexOfError = currentCharNdx;		// Copy the index of the current character;
-			if (currentCharNdx == input.length()) {
-				usernameErrorMessage = "";
-				return usernameErrorMessage;
+			if (index == input.length()) {
+				return ValidationResult.valid();
 			}
+			return ValidationResult.invalid(Code.INVALID_CHARACTER,
+					"Username can only contain letters, numbers, and '-', '_', '.'.\n", index);
 
-			usernameErrorMessage =
-					"Username can only contain letters, numbers, and '-', '_', '.'.\n";
-			return usernameErrorMessage;
-			 
 		case 2:
 			// State 2 is not a final state, so we can return a very specific error message
-			usernameIndexOfError = currentCharNdx;		// Copy the index of the current character;
-			usernameErrorMessage = "Username can only contain '-', '_', '.' between two alphanumeric characters.\n";
-			return usernameErrorMessage;
+			return ValidationResult.invalid(Code.MISPLACED_SEPARATOR,
+					"Username can only contain '-', '_', '.' between two alphanumeric characters.\n", index);
 
 		// Default case should not be reached
 		default:
-			return "";
+			return ValidationResult.valid();
 		}
-		
-		
 	}
-	
+
 	/**
 	 * This method is a mechanical transformation of a Finite State Machine diagram into a Java
 	 * method. This method is now updated for the passwordRecognizer Finite State Machine diagram 
@@ -577,118 +409,38 @@ public class InputRecognizer {
 	              point where the error was found.
 	 */
 	public static String checkPassword(String input) {
-		// Check to ensure that there is input to process
-		if(input.length() <= 0) {
-			passwordIndexOfError = 0;	// Error at first character;
-			return "The password cannot be empty";
-		}
-		// The following are the local variable used to perform the Finite State Machine simulation
-		state = 0;							// This is the FSM state number
-		inputLine = input;					// Save the reference to the input line as a global
-		currentCharNdx = 0;					// The index of the current character
-		currentChar = input.charAt(0);		// The current character from above indexed position
-
+		ValidationResult result = validatePassword(input);
+		passwordInput = input;			// Save a copy of the input
+		passwordErrorMessage = result.getMessage();
+		passwordIndexOfError = result.getIndex();
+		return result.getMessage();
+	}
 
-		// The Finite State Machines continues until the end of the input is reached or at some 
-		// state the current character does not match any valid transition to a next state
+	// The passwordRecognizer FSM
+	private static DfaEngine passwordMachine() {
+		DfaEngine.Builder fsm = new DfaEngine.Builder(1);
+		int allowed = fsm.charClass(LETTERS + DIGITS + SPECIALCHARS);
+		return fsm
+				.transition(0, allowed, 0, SIZE)			// State 0: any allowed character
+				.finalState(0)
+				.build(InputRecognizer::decidePassword);
+	}
 
-		passwordInput = input;			// Save a copy of the input
-		running = true;						// Start the loop
-		nextState = -1;						// There is no next state
-		System.out.println(TRACE_HEADER);
-		
-		// This is the place where semantic actions for a transition to the initial state occur
-		
-		int passwordSize = 0;					// Initialize the password size
-		
-		// The Finite State Machines continues until the end of the input is reached or at some 
-		// state the current character does not match any valid transition to a next state
-		while (running) {
-			// The switch statement takes the execution to the code for the current state, where
-			// that code sees whether or not the current character is valid to transition to a
-			// next state
-			switch (state) {
-				case 0:
-					// State 0 has 6 valid transition that is addressed by if statements.
-					if ((currentChar >= 'A' && currentChar <= 'Z' ) ||		// Check for A-Z
-							(currentChar >= 'a' && currentChar <= 'z' ) ||		// Check for a-z
-							(currentChar >= '0' && currentChar <= '9' ) ||		// check for 0-9
-							(isSpecial(currentChar) == true)) {					// Check for special chars
-						nextState = 0;
-						passwordSize++;
-						// Check if input was fully consumed
-						if(passwordSize == input.length()) {
-							nextState = 1;
-						}
-					}
-					else {
-						running = false;
-					}
-					break;
-				
-				case 1:
-					running = false;
-					break;
-					
-			}
-			if (running) {
-				displayDebuggingInfo();
-				// When the processing of a state has finished, the FSM proceeds to the next
-				// character in the input and if there is one, it fetches that character and
-				// updates the currentChar.  If there is no next character the currentChar is
-				// set to a blank.
-				moveToNextCharacter();
-
-				// Move to the next state
-				state = nextState;
-				
-				// Is the new state a final state?  If so, signal this fact.
-				if (state == 1) finalState = true;
-
-				// Ensure that one of the cases sets this to a valid value
-				nextState = -1;
-			}
-			// Should the FSM get here, the loop starts again
+	// The only state is final, so the FSM fails by halting early or by the size of the input
+	private static ValidationResult decidePassword(String input, int state, int index, int size, int unused) {
+		if (index < input.length()) {
+			return ValidationResult.invalid(Code.INVALID_CHARACTER,
+					"Password can only contain alphanumerics and the special characters '~`!@#$%^&*()_-+{}[]|:,.?/'\n", index);
 		}
-		displayDebuggingInfo();
-		
-		System.out.println("The loop has ended.");
-		
-		// When the FSM halts, we must determine if the situation is an error or not.  That depends
-		// of the current state of the FSM and whether or not the whole string has been consumed.
-		// This switch directs the execution to separate code for each of the FSM states and that
-		// makes it possible for this code to display a very specific error message to improve the
-		// user experience.
-			
-		passwordIndexOfError = currentCharNdx; // Set index of a possible error;
-		passwordErrorMessage = "";
-		
-		switch (state) {
-		case 0:
-			// State 0 is not a final state, so we can return a very specific error message
-			passwordErrorMessage += "Password can only contain alphanumerics and the special characters '~`!@#$%^&*()_-+{}[]|:,.?/'\n";
-			return passwordErrorMessage;
-		case 1:
-			//State 1 is a final state
-			if(passwordSize < 8) {
-				passwordErrorMessage = "Password must be at least 8 characters";
-				return passwordErrorMessage;
-			}
-			else if(passwordSize > 64) {
-				passwordErrorMessage = "Password must be at most 64 characters";
-				return passwordErrorMessage;
-			}
-			else {
-				passwordErrorMessage = "";
-				return passwordErrorMessage;
-			}
-		default:
-			// This is for the case where we have a state that is outside of the valid range.
-			// This should not happen
-			return "";
+		else if(size < 8) {
+			return ValidationResult.invalid(Code.TOO_SHORT, "Password must be at least 8 characters", index);
+		}
+		else if(size > 64) {
+			return ValidationResult.invalid(Code.TOO_LONG, "Password must be at most 64 characters", index);
+		}
+		return ValidationResult.valid();
 	}
-}
-	
+
 	/**
 	 * This method is a mechanical transformation of a Finite State Machine diagram into a Java
 	 * method.  This method is now updated for the NameRecognizer Finite State Machine diagram 
@@ -700,112 +452,34 @@ public class InputRecognizer {
 	              point where the error was found.
 	 */
 	public static String checkName(String input) {
-		// Let's ensure there is input
-		if (input.length() <= 0) {
-			nameErrorMessage = "Input cannot be empty\n";
-			nameIndexOfError = 0;
-			return nameErrorMessage + displayInput(input, input.length());
-		}
-		
-		// The following are the local variable used to perform the Finite State Machine simulation
-		state = 0;							// This is the FSM state number
-		inputLine = input;					// Save the reference to the input line as a global
-		currentCharNdx = 0;					// The index of the current character
-		currentChar = input.charAt(0);		// The current character from above indexed position
-
+		ValidationResult result = validateName(input);
 		nameInput = input;			// Save a copy of the input
-		running = true;						// Start the loop
-		nextState = -1;						// There is no next state
-		System.out.println(TRACE_HEADER);
-		// This is the place where semantic actions for a transition to the initial state occur
-
-		int nameSize = 0;					// Initialize the password size
-		
-		// The Finite State Machines continues until the end of the input is reached or at some 
-		// state the current character does not match any valid transition to a next state
-		while (running) {
-			// The switch statement takes the execution to the code for the current state, where
-			// that code sees whether or not the current character is valid to transition to a
-			// next state
-			switch (state) {
-				case 0:
-					// State 0 has 2 valid transition that is addressed by if statements.
-					if ((currentChar >= 'A' && currentChar <= 'Z' ) ||		// Check for A-Z
-						(currentChar >= 'a' && currentChar <= 'z' )){		// Check for a-z		
-							nextState = 0;
-							nameSize++;
-						// Check if input was fully consumed
-						if(nameSize == input.length()) {
-							nextState = 1;
-						}
-					}
-					else {
-						running = false;
-					}
-					break;
-				
-				case 1:
-					running = false;
-					break;
-					
-			}
-			
-			if (running) {
-				displayDebuggingInfo();
-				// When the processing of a state has finished, the FSM proceeds to the next
-				// character in the input and if there is one, it fetches that character and
-				// updates the currentChar.  If there is no next character the currentChar is
-				// set to a blank.
-				moveToNextCharacter();
-
-				// Move to the next state
-				state = nextState;
-				
-				// Is the new state a final state?  If so, signal this fact.
-				if (state == 1) finalState = true;
-
-				// Ensure that one of the cases sets this to a valid value
-				nextState = -1;
-			}
-			// Should the FSM get here, the loop starts again
-	
+		nameErrorMessage = result.getMessage();
+		nameIndexOfError = result.getIndex();
+		return result.getMessage();
+	}
+
+	// The NameRecognizer FSM
+	private static DfaEngine nameMachine() {
+		DfaEngine.Builder fsm = new DfaEngine.Builder(1);
+		int letter = fsm.charClass(LETTERS);
+		return fsm
+				.transition(0, letter, 0, SIZE)				// State 0: any letter
+				.finalState(0)
+				.build(InputRecognizer::decideName);
+	}
+
+	// The only state is final, so the FSM fails by halting early or by the size of the input
+	private static ValidationResult decideName(String input, int state, int index, int size, int unused) {
+		if (index < input.length()) {
+			return ValidationResult.invalid(Code.INVALID_CHARACTER, "Name can only contain alphabetic characters.\n", index);
 		}
-		displayDebuggingInfo();
-		
-		System.out.println("The loop has ended.");
-		
-		// When the FSM halts, we must determine if the situation is an error or not.  That depends
-		// of the current state of the FSM and whether or not the whole string has been consumed.
-		// This switch directs the execution to separate code for each of the FSM states and that
-		// makes it possible for this code to display a very specific error message to improve the
-		// user experience.
-		
-		nameIndexOfError = currentCharNdx; // Set index of a possible error;
-		nameErrorMessage = "";
-		
-		switch (state) {
-		case 0:
-			// State 0 is not a final state, so we can return a very specific error message
-			nameErrorMessage += "Name can only contain alphabetic characters.\n";
-			return nameErrorMessage;
-		case 1:
-			//State 1 is a final state
-			if(nameSize < 3) {
-				nameErrorMessage = "Name must be at least 3 characters";
-				return nameErrorMessage;
-			}
-			else if(nameSize > 32) {
-				nameErrorMessage = "Name must be at most 32 characters";
-				return nameErrorMessage;
-			}
-			else {
-				nameErrorMessage = "";
-				return nameErrorMessage;
-			}
-		default:
-			// This is for the case where we have a state that is outside of the valid range.
-			// This should not happen
-			return "";
+		else if(size < 3) {
+			return ValidationResult.invalid(Code.TOO_SHORT, "Name must be at least 3 characters", index);
 		}
+		else if(size > 32) {
+			return ValidationResult.invalid(Code.TOO_LONG, "Name must be at most 32 characters", index);
+		}
+		return ValidationResult.valid();
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,278 @@
+package entityClasses;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * <p> Title: InputRecognizerConcurrencyTestingAutomation </p>
+ *
+ * <p> Description: Console-based stress test for InputRecognizer when it is called from many
+ * threads at once. The expected result of every input is first computed on one thread; worker
+ * threads then validate the same inputs, each starting at a different place in the list so that
+ * different recognizers and inputs run side by side, and every answer (code, message and index)
+ * must equal the expected one. Also checks the error codes and indexes of a few inputs, that
+ * the static check methods still return the same text, and that per-call tracers only see their
+ * own run. Prints PASS/FAIL lines in the same format
+ * as DiscussionConcurrencyTestingAutomation. </p>
+ *
+ * @author Amairani Caballero
+ */
+public class InputRecognizerConcurrencyTestingAutomation {
+
+	/** Counter of the number of passed tests. */
+	static int numPassed = 0;
+
+	/** Counter of the number of failed tests. */
+	static int numFailed = 0;
+
+	/** Number of worker threads. */
+	static final int THREADS = 8;
+
+	/** Number of times each worker validates the whole list. */
+	static final int ROUNDS = 2000;
+
+	/** One input and the recognizer that checks it. */
+	private record Case(String validator, String input) {
+
+		ValidationResult run() {
+			return recognizer(validator).apply(input);
+		}
+	}
+
+	public static void main(String[] args) throws Exception {
+		System.out.println("*** InputRecognizer Concurrency TestingAutomation Begins ***\n");
+
+		List<Case> cases = cases();
+		System.out.println("Testing: " + THREADS + " threads x " + ROUNDS + " rounds x "
+				+ cases.size() + " inputs, all four recognizers at once\n");
+
+		List<ValidationResult> expected = new ArrayList<>();
+		for (Case c : cases) expected.add(c.run());
+
+		System.out.println("---------- RESULT OBJECT TEST CASES ----------\n");
+
+		ValidationResult email = InputRecognizer.validateEmailAddress("user@example@com");
+		expectBoolean(1, "Email error carries its code and index", "user@example@com", true,
+				email.getCode() == ValidationResult.Code.INVALID_CHARACTER && email.getIndex() == 12,
+				"result=" + email);
+
+		ValidationResult name = InputRecognizer.validateName("Alice1");
+		ValidationResult username = InputRecognizer.validateUsername("ab");
+		ValidationResult password = InputRecognizer.validatePassword("");
+		expectBoolean(2, "Name, username and password errors carry their codes and indexes",
+				"Alice1 / ab / (empty)", true,
+				name.getCode() == ValidationResult.Code.INVALID_CHARACTER && name.getIndex() == 5
+						&& username.getCode() == ValidationResult.Code.TOO_SHORT
+						&& password.getCode() == ValidationResult.Code.EMPTY && password.getIndex() == 0,
+				"name=" + name + ", username=" + username + ", password=" + password);
+
+		ValidationResult valid = InputRecognizer.validateEmailAddress("user@example.com");
+		expectBoolean(3, "Valid input gives the shared VALID result", "user@example.com", true,
+				valid.isValid() && valid == ValidationResult.valid() && valid.getMessage().isEmpty()
+						&& valid.getIndex() == -1,
+				"result=" + valid);
+
+		boolean wrappersAgree = true;
+		for (int i = 0; i < cases.size(); i++) {
+			Case c = cases.get(i);
+			if (!legacy(c.validator).apply(c.input).equals(expected.get(i).getMessage())) wrappersAgree = false;
+		}
+		expectBoolean(4, "Static check methods return the message of the result",
+				cases.size() + " inputs", true, wrappersAgree, "wrappersAgree=" + wrappersAgree);
+
+		// Every worker validates the whole list, starting at its own offset
+		ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+		ConcurrentLinkedQueue<String> problems = new ConcurrentLinkedQueue<>();
+		List<Future<?>> work = new ArrayList<>();
+		CountDownLatch start = new CountDownLatch(1);
+		for (int t = 0; t < THREADS; t++) {
+			final int worker = t;
+			work.add(pool.submit(() -> {
+				await(start);
+				for (int round = 0; round < ROUNDS; round++) {
+					for (int k = 0; k < cases.size(); k++) {
+						int i = (k + worker * 7 + round) % cases.size();
+						ValidationResult actual = cases.get(i).run();
+						if (!same(actual, expected.get(i))) {
+							problems.add(cases.get(i) + " gave " + actual + ", expected " + expected.get(i));
+						}
+					}
+				}
+			}));
+		}
+		start.countDown();
+		waitFor(work);
+
+		// The static check methods share their result fields, but each call must still return
+		// its own answer
+		ConcurrentLinkedQueue<String> wrapperProblems = new ConcurrentLinkedQueue<>();
+		work.clear();
+		CountDownLatch start2 = new CountDownLatch(1);
+		for (int t = 0; t < THREADS; t++) {
+			final int worker = t;
+			work.add(pool.submit(() -> {
+				await(start2);
+				for (int round = 0; round < ROUNDS / 4; round++) {
+					for (int k = 0; k < cases.size(); k++) {
+						int i = (k + worker * 7 + round) % cases.size();
+						Case c = cases.get(i);
+						String actual = legacy(c.validator).apply(c.input);
+						if (!actual.equals(expected.get(i).getMessage())) {
+							wrapperProblems.add(c + " gave \"" + actual.trim() + "\"");
+						}
+					}
+				}
+			}));
+		}
+		start2.countDown();
+		waitFor(work);
+
+		// Every worker traces its own runs with its own collecting tracer
+		ConcurrentLinkedQueue<String> traceProblems = new ConcurrentLinkedQueue<>();
+		work.clear();
+		CountDownLatch start3 = new CountDownLatch(1);
+		for (int t = 0; t < THREADS; t++) {
+			final int worker = t;
+			work.add(pool.submit(() -> {
+				await(start3);
+				CollectingFsmTracer tracer = new CollectingFsmTracer();
+				String input = "user" + worker + "@example.com";
+				for (int round = 0; round < ROUNDS / 20; round++) {
+					tracer.clear();
+					InputRecognizer.validateEmailAddress(input, tracer);
+					List<String> lines = tracer.getLines();
+					// A header, one step per character, end of input, the halted state and the end
+					if (lines.size() != input.length() + 4 || !lines.get(5).contains("  " + worker + " ")) {
+						traceProblems.add("worker " + worker + " collected " + lines.size() + " lines");
+					}
+				}
+			}));
+		}
+		start3.countDown();
+		waitFor(work);
+		pool.shutdown();
+		pool.awaitTermination(1, TimeUnit.MINUTES);
+
+		System.out.println("---------- CONCURRENT VALIDATION TEST CASES ----------\n");
+
+		expectBoolean(5, "No cross-talk between concurrent validations",
+				"every result equals the single-threaded one", true, problems.isEmpty(),
+				"problems=" + problems.size() + " " + firstFew(problems));
+
+		expectBoolean(6, "Static check methods return their own answer under concurrency",
+				"every returned message equals the single-threaded one", true, wrapperProblems.isEmpty(),
+				"problems=" + wrapperProblems.size() + " " + firstFew(wrapperProblems));
+
+		expectBoolean(7, "Per-call tracers collect only their own run",
+				"each worker traces its own email address", true, traceProblems.isEmpty(),
+				"problems=" + traceProblems.size() + " " + firstFew(traceProblems));
+
+		// Summary info
+		System.out.println("\n---------- SUMMARY ----------");
+		System.out.println("Passed: " + numPassed);
+		System.out.println("Failed: " + numFailed);
+	}
+
+	// The inputs of InputRecognizerTestingAutomation plus a few longer ones
+	private static List<Case> cases() {
+		List<Case> cases = new ArrayList<>();
+		for (String s : new String[] {"Username1", "ab", "1username", "@User", "UserName@", "Us-er_Na.me",
+				"User--Name", "Abcd1234Efgh5678", "Abcd1234Efgh56789", "", "abc", "Ab.c-d_e"}) {
+			cases.add(new Case("username", s));
+		}
+		for (String s : new String[] {"Pass1234", "Pass123", "Passw8rd", "password1", "1234567890",
+				"Pass8~`!@#$%^&*()_-+{}[]|:,.?/", "", "Pass word", "x".repeat(65), "y".repeat(64)}) {
+			cases.add(new Case("password", s));
+		}
+		for (String s : new String[] {"user@example.com", "user.name123@example.com", "user@ex-ample.com",
+				"user@example@com", "user @example.com", ".user@example.com", "user.@example.com",
+				"user..name@example.com", "user@-example.com", "user@example-.com", "", "@",
+				"a@" + "b".repeat(70) + ".com", "a".repeat(321)}) {
+			cases.add(new Case("email", s));
+		}
+		for (String s : new String[] {"Johnny", "Al", "Bob", "Alice1", "Mary-Ann", "Mary Ann", "",
+				"AABBCCDDEEFFGGHHIIJJKKLLMMNNOOPP", "AABBCCDDEEFFGGHHIIJJKKLLMMNNOOPPP"}) {
+			cases.add(new Case("name", s));
+		}
+		return cases;
+	}
+
+	private static Function<String, ValidationResult> recognizer(String validator) {
+		switch (validator) {
+			case "username": return InputRecognizer::validateUsername;
+			case "password": return InputRecognizer::validatePassword;
+			case "email": return InputRecognizer::validateEmailAddress;
+			default: return InputRecognizer::validateName;
+		}
+	}
+
+	private static Function<String, String> legacy(String validator) {
+		switch (validator) {
+			case "username": return InputRecognizer::checkUsername;
+			case "password": return InputRecognizer::checkPassword;
+			case "email": return InputRecognizer::checkEmailAddress;
+			default: return InputRecognizer::checkName;
+		}
+	}
+
+	private static boolean same(ValidationResult a, ValidationResult b) {
+		return a.getCode() == b.getCode() && a.getIndex() == b.getIndex() && a.getMessage().equals(b.getMessage());
+	}
+
+	// Concurrency helpers
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static void waitFor(List<Future<?>> work) throws Exception {
+		for (Future<?> f : work) f.get();
+	}
+
+	private static String firstFew(ConcurrentLinkedQueue<String> problems) {
+		List<String> few = new ArrayList<>();
+		for (String p : problems) {
+			if (few.size() == 3) break;
+			few.add(p);
+		}
+		return few.isEmpty() ? "(none)" : few.toString();
+	}
+
+	// Output helpers
+	private static void expectBoolean(
+			int testId,
+			String testName,
+			String input,
+			boolean expected,
+			boolean actual,
+			String details) {
+
+		boolean pass = (expected == actual);
+
+		System.out.println("TC" + ((testId < 10) ? ("0" + testId) : String.valueOf(testId)) + " - " + testName);
+		System.out.println("Input:    " + input);
+		System.out.println("Expected: " + expected);
+		System.out.println("Actual:   " + actual);
+		System.out.println("Details:  " + details);
+
+		if (pass) {
+			numPassed++;
+			System.out.println("Result:   PASS");
+		} else {
+			numFailed++;
+			System.out.println("Result:   FAIL");
+		}
+
+		System.out.println();
+	}
+}
@@ -0,0 +1,86 @@
+package entityClasses;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * <p> Title: InputRecognizerTracingBenchmark </p>
+ *
+ * <p> Description: Console program that measures how many validations per second the four
+ * InputRecognizer FSMs manage with the silent default tracer and with the console trace they
+ * used to print for every character. The console tracer writes to a PrintStream that discards
+ * its output, so the numbers show the cost of formatting and of the synchronized stream without
+ * the terminal; a real console is slower still. Each case is warmed up first and the best of a
+ * few timed rounds is kept. The numbers vary with the machine and JVM, so they are meant for
+ * comparison only. </p>
+ *
+ * @author Amairani Caballero
+ */
+public class InputRecognizerTracingBenchmark {
+
+	/** Validations per timed round. */
+	static final int VALIDATIONS = 200_000;
+
+	/** Timed rounds per case; the best is reported. */
+	static final int ROUNDS = 5;
+
+	/** Consumes the results so the JIT cannot drop the validations. */
+	private static long sink;
+
+	public static void main(String[] args) {
+		System.out.println("*** InputRecognizer Tracing Benchmark ***\n");
+		System.out.printf("%-10s %-16s %-16s %-8s%n", "FSM", "no-op tracer", "console tracer", "speedup");
+
+		compare("username", "Us-er_Na.me", InputRecognizer::validateUsername, InputRecognizer::validateUsername);
+		compare("password", "Pass8~`!@#$%^&*()_-+{}", InputRecognizer::validatePassword, InputRecognizer::validatePassword);
+		compare("email", "user.name123@example-dp.com", InputRecognizer::validateEmailAddress, InputRecognizer::validateEmailAddress);
+		compare("name", "AABBCCDDEEFFGGHH", InputRecognizer::validateName, InputRecognizer::validateName);
+
+		System.out.println("\n(checksum " + sink + ")");
+	}
+
+	/** A validate method that takes a tracer. */
+	private interface Traced {
+		ValidationResult validate(String input, FsmTracer tracer);
+	}
+
+	private static void compare(String fsm, String input, Function<String, ValidationResult> untraced, Traced traced) {
+		double silent = best(() -> untraced.apply(input));
+
+		PrintStream console = System.out;
+		System.setOut(new PrintStream(OutputStream.nullOutputStream(), false));
+		ConsoleFsmTracer tracer = new ConsoleFsmTracer();
+		double printing;
+		try {
+			printing = best(() -> traced.validate(input, tracer));
+		} finally {
+			System.setOut(console);
+		}
+
+		System.out.printf("%-10s %-16s %-16s %-8s%n", fsm, perSecond(silent), perSecond(printing),
+				String.format("%.1fx", silent / printing));
+	}
+
+	// Returns the best rate of the timed rounds, in validations per second
+	private static double best(Supplier<ValidationResult> validation) {
+		run(validation, VALIDATIONS);						// Warm up
+		double best = 0;
+		for (int r = 0; r < ROUNDS; r++) {
+			long start = System.nanoTime();
+			run(validation, VALIDATIONS);
+			long elapsed = System.nanoTime() - start;
+			best = Math.max(best, VALIDATIONS / (elapsed / 1e9));
+		}
+		return best;
+	}
+
+	private static void run(Supplier<ValidationResult> validation, int times) {
+		for (int i = 0; i < times; i++) sink += validation.get().getIndex();
+	}
+
+	private static String perSecond(double rate) {
+		return String.format("%,.0f/s", rate);
+	}
+}
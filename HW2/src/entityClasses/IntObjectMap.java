@@ -0,0 +1,168 @@
+package entityClasses;
+
+import java.util.Arrays;
+
+/**
+ * <p> Title: IntObjectMap Class </p>
+ *
+ * <p> Description: A small open-addressing hash map keyed by primitive int values. It is used by
+ * the stores as a primary-key index so a lookup by id is O(1) and never boxes the key into an
+ * Integer. Collisions are resolved with linear probing and removals use backward-shift deletion,
+ * so no tombstones are left behind. </p>
+ *
+ * <p> Values may not be null, a null slot means "empty". This class is not thread-safe on its own,
+ * the owning store is responsible for guarding it. </p>
+ * @author Amairani Caballero
+ * @param <V> The type of the value stored for each key (e.g., Post, Reply)
+ */
+class IntObjectMap<V> {
+
+	/** Initial number of slots, must be a power of two. */
+	private static final int DEFAULT_CAPACITY = 16;
+
+	/** The table grows when it becomes more than this fraction full. */
+	private static final float LOAD_FACTOR = 0.5f;
+
+	/** Keys, parallel to values. */
+	private int[] keys;
+
+	/** Values, a null entry marks an empty slot. */
+	private Object[] values;
+
+	/** Number of keys in the map. */
+	private int size;
+
+	/** Size at which the table is doubled. */
+	private int resizeAt;
+
+	/**
+	 * Creates an empty map.
+	 */
+	IntObjectMap() {
+		allocate(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * @param key key to look up
+	 * @return the value for the key or null if absent
+	 */
+	@SuppressWarnings("unchecked")
+	V get(int key) {
+		int mask = keys.length - 1;
+		int slot = hash(key) & mask;
+		Object v;
+		while ((v = values[slot]) != null) {
+			if (keys[slot] == key) return (V) v;
+			slot = (slot + 1) & mask;
+		}
+		return null;
+	}
+
+	/**
+	 * Adds or replaces the value for a key.
+	 *
+	 * @param key key
+	 * @param value value, must not be null
+	 * @return the previous value or null if the key was absent
+	 */
+	@SuppressWarnings("unchecked")
+	V put(int key, V value) {
+		if (value == null) throw new IllegalArgumentException("IntObjectMap does not accept null values");
+
+		int mask = keys.length - 1;
+		int slot = hash(key) & mask;
+		Object v;
+		while ((v = values[slot]) != null) {
+			if (keys[slot] == key) {
+				values[slot] = value;
+				return (V) v;
+			}
+			slot = (slot + 1) & mask;
+		}
+		keys[slot] = key;
+		values[slot] = value;
+		if (++size > resizeAt) rehash(keys.length << 1);
+		return null;
+	}
+
+	/**
+	 * Removes a key.
+	 *
+	 * @param key key
+	 * @return the removed value or null if the key was absent
+	 */
+	@SuppressWarnings("unchecked")
+	V remove(int key) {
+		int mask = keys.length - 1;
+		int slot = hash(key) & mask;
+		Object v;
+		while ((v = values[slot]) != null) {
+			if (keys[slot] == key) {
+				shiftBack(slot);
+				size--;
+				return (V) v;
+			}
+			slot = (slot + 1) & mask;
+		}
+		return null;
+	}
+
+	/**
+	 * @return number of keys in the map
+	 */
+	int size() {
+		return size;
+	}
+
+	/**
+	 * Removes every entry but keeps the current capacity.
+	 */
+	void clear() {
+		Arrays.fill(values, null);
+		size = 0;
+	}
+
+	// Closes the gap left at slot by moving later entries of the same probe run back into it
+	private void shiftBack(int slot) {
+		int mask = keys.length - 1;
+		int gap = slot;
+		int next = (gap + 1) & mask;
+		while (values[next] != null) {
+			int home = hash(keys[next]) & mask;
+			// The entry at next may fill the gap only if its home slot is not between gap and next
+			if (((next - home) & mask) >= ((next - gap) & mask)) {
+				keys[gap] = keys[next];
+				values[gap] = values[next];
+				gap = next;
+			}
+			next = (next + 1) & mask;
+		}
+		values[gap] = null;
+	}
+
+	private void rehash(int newCapacity) {
+		int[] oldKeys = keys;
+		Object[] oldValues = values;
+		allocate(newCapacity);
+		int mask = newCapacity - 1;
+		for (int i = 0; i < oldValues.length; i++) {
+			if (oldValues[i] == null) continue;
+			int slot = hash(oldKeys[i]) & mask;
+			while (values[slot] != null) slot = (slot + 1) & mask;
+			keys[slot] = oldKeys[i];
+			values[slot] = oldValues[i];
+		}
+	}
+
+	private void allocate(int capacity) {
+		keys = new int[capacity];
+		values = new Object[capacity];
+		resizeAt = (int) (capacity * LOAD_FACTOR);
+	}
+
+	// Ids are sequential, so spread them with a multiplicative (Fibonacci) hash before masking
+	private static int hash(int key) {
+		int h = key * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+}
@@ -0,0 +1,50 @@
+package entityClasses;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <p> Title: InvitationBatchResult </p>
+ *
+ * <p> Description: The outcome of Database.generateInvitationCodes: the invitations that were
+ * created, with their codes, and the email addresses that were left out and why (already invited,
+ * listed twice, invalid). Both are in the order of the requests. Immutable. </p>
+ *
+ * @author Amairani Caballero
+ */
+public final class InvitationBatchResult {
+
+	private final List<InvitationCode> issued;
+
+	private final Map<String, String> skipped;
+
+	/**
+	 * @param issued the invitations created
+	 * @param skipped the email addresses left out, each with the reason
+	 */
+	public InvitationBatchResult(List<InvitationCode> issued, Map<String, String> skipped) {
+		this.issued = List.copyOf(issued);
+		this.skipped = Collections.unmodifiableMap(new LinkedHashMap<>(skipped));
+	}
+
+	/**
+	 * @return the invitations created, in request order (unmodifiable)
+	 */
+	public List<InvitationCode> getIssued() {
+		return issued;
+	}
+
+	/**
+	 * @return the email addresses left out, each with the reason, in request order (unmodifiable)
+	 */
+	public Map<String, String> getSkipped() {
+		return skipped;
+	}
+
+	@Override
+	public String toString() {
+		return "InvitationBatchResult{issued=" + issued.size() + ", skipped=" + skipped.size() + "}";
+	}
+}
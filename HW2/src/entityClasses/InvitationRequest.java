@@ -0,0 +1,36 @@
+package entityClasses;
+
+/**
+ * <p> Title: InvitationRequest </p>
+ *
+ * <p> Description: One invitation to send with Database.generateInvitationCodes: the email
+ * address of the person invited and the role they will play. Immutable. </p>
+ *
+ * @author Amairani Caballero
+ */
+public final class InvitationRequest {
+
+	private final String emailAddress;
+
+	private final String role;
+
+	/**
+	 * @param emailAddress the address the invitation is sent to
+	 * @param role the role the new user will play ("Admin", "Role1" or "Role2")
+	 */
+	public InvitationRequest(String emailAddress, String role) {
+		this.emailAddress = emailAddress;
+		this.role = role;
+	}
+
+	/** @return the address the invitation is sent to */
+	public String getEmailAddress() { return emailAddress; }
+
+	/** @return the role the new user will play */
+	public String getRole() { return role; }
+
+	@Override
+	public String toString() {
+		return emailAddress + " as " + role;
+	}
+}
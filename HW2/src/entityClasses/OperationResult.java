@@ -24,14 +24,23 @@ public class OperationResult<T> {
 	/** Immutable list of errors, empty when the operation succeeds. */
 	private final List<String> errors;
 
+	// Results are immutable, so the successes without a value or with a Boolean are shared
+	private static final OperationResult<?> SUCCESS_NULL = new OperationResult<>(null, Collections.emptyList());
+	private static final OperationResult<Boolean> SUCCESS_TRUE = new OperationResult<>(Boolean.TRUE, Collections.emptyList());
+	private static final OperationResult<Boolean> SUCCESS_FALSE = new OperationResult<>(Boolean.FALSE, Collections.emptyList());
+
 	/**
-	 * Creates a successful result with a value.
+	 * Creates a successful result with a value. A null or Boolean value returns a shared
+	 * instance instead of a new one.
 	 *
 	 * @param value the value to return, may be null if the success concept doesn't need a value
 	 * @param <T> generic type
 	 * @return a success OperationResult
 	 */
+	@SuppressWarnings("unchecked")
 	public static <T> OperationResult<T> success(T value) {
+		if (value == null) return (OperationResult<T>) SUCCESS_NULL;
+		if (value instanceof Boolean) return (OperationResult<T>) ((Boolean) value ? SUCCESS_TRUE : SUCCESS_FALSE);
 		return new OperationResult<>(value, Collections.emptyList());
 	}
 
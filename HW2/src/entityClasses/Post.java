@@ -1,8 +1,5 @@
 package entityClasses;
 
-import java.util.HashSet;
-import java.util.Set;
-
 /**
  * <p> Title: Post Class </p>
  *
@@ -25,20 +22,24 @@ public class Post {
 	private String authorUserName;
 
 	/** Title of the post. */
-	private String title;
+	private volatile String title;
 
 	/** Body of the post. */
-	private String body;
+	private volatile String body;
 
 	/** Deleted flag. When true, the post is deleted but still present. */
-	private boolean deleted;
+	private volatile boolean deleted;
 
 	/**
 	 * Tracks which users have read this post.
-	 * If a username is not in this set, the post is considered unread for that user.
-	 * Set provides O(1) lookups and prevents duplicates.
+	 * If the tracker has no read mark for a user and this post id, the post is unread for that user.
+	 * PostStore shares one tracker between all of its posts, so a read mark costs a bit or a few
+	 * bytes instead of a set entry per post.
 	 */
-	private final Set<String> readers = new HashSet<>();
+	private final ReadTracker readTracker;
+
+	/** Group this post's read marks are counted in, PostStore uses one group per thread. */
+	private final int readGroup;
 
 	/**
 	 * Constructs a Post, called by PostStore.
@@ -50,12 +51,30 @@ public class Post {
 	 * @param body validated body
 	 */
 	public Post(int postId, String threadName, String authorUserName, String title, String body) {
+		this(postId, threadName, authorUserName, title, body, new ReadTracker(), 0);
+	}
+
+	/**
+	 * Constructs a Post whose read marks are kept in a tracker shared with other posts.
+	 *
+	 * @param postId assigned id
+	 * @param threadName thread name (already defaulted by PostStore if needed)
+	 * @param authorUserName author username
+	 * @param title validated title
+	 * @param body validated body
+	 * @param readTracker tracker owned by the PostStore
+	 * @param readGroup group the post's read marks are counted in
+	 */
+	Post(int postId, String threadName, String authorUserName, String title, String body,
+			ReadTracker readTracker, int readGroup) {
 		this.postId = postId;
 		this.threadName = threadName;
 		this.authorUserName = authorUserName;
 		this.title = title;
 		this.body = body;
 		this.deleted = false;
+		this.readTracker = readTracker;
+		this.readGroup = readGroup;
 	}
 
 	// Getters
@@ -87,13 +106,14 @@ public class Post {
 	// Read/unread helpers
 	
 	/**
-	 * Marks this post as read by a specific user.
+	 * Marks this post as read by a specific user. Called by PostStore.markPostRead, which
+	 * holds the store's lock.
 	 *
 	 * @param viewerUserName user who viewed the post
 	 */
-	public void markRead(String viewerUserName) {
+	void markRead(String viewerUserName) {
 		if (viewerUserName == null) return;
-		readers.add(viewerUserName);
+		readTracker.markRead(viewerUserName, postId, readGroup);
 	}
 
 	/**
@@ -102,7 +122,7 @@ public class Post {
 	 */
 	public boolean isUnreadBy(String viewerUserName) {
 		if (viewerUserName == null) return true;
-		return !readers.contains(viewerUserName);
+		return !readTracker.isRead(viewerUserName, postId);
 	}
 
 	// Mutators used by stores
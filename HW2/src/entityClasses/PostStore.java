@@ -2,7 +2,11 @@ package entityClasses;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
  * <p> Title: PostStore Class </p>
@@ -13,6 +17,17 @@ import java.util.List;
  * <p> Thread creation/edit rules: Students do not have authority to create/edit threads.
  * For now, a thread is represented as a simple string label on a post. If the caller supplies
  * a threadName we accept it as a label, but operations to create/delete threads are not supported yet. </p>
+ *
+ * <p> Concurrency: the store is safe to share between threads. Post ids come from an atomic counter,
+ * the collections and indexes are guarded by a read/write lock so lookups, searches and read marks
+ * from many threads run in parallel while creates, edits and deletes are exclusive. Each thread has
+ * its own subset, and {@link #searchPosts(String, String)} returns a private result list. Ids are
+ * taken under the write lock, so the list stays in id order. </p>
+ *
+ * <p> Unread counts: the store knows the number of posts, overall and per thread, and
+ * the ReadTracker keeps how many of those each user has read, bumped on the first read mark.
+ * Deleted posts stay in both counts, as they always have, so
+ * {@link #countUnreadPosts(String)} and {@link #countUnreadPosts(String, String)} do not scan. </p>
  * @author Amairani Caballero
  */
 public class PostStore {
@@ -20,11 +35,26 @@ public class PostStore {
 	/** All posts in the system. */
 	private final List<Post> allPosts = new ArrayList<>();
 
-	/** Subset of posts */
-	private final List<Post> subsetPosts = new ArrayList<>();
+	/** Primary-key index over allPosts, so lookups by id do not scan the list. */
+	private final IntObjectMap<Post> postsById = new IntObjectMap<>();
+
+	/** Thread name to the posts in that thread, in creation order. */
+	private final Map<String, ThreadPosts> postsByThread = new HashMap<>();
+
+	/** Inverted index over post titles and bodies, used by refreshSubsetBySearch. */
+	private final TextSearchIndex searchIndex = new TextSearchIndex();
+
+	/** Read marks of all posts in this store, keyed by username and post id. */
+	private final ReadTracker readTracker = new ReadTracker();
+
+	/** Guards allPosts, postsById, postsByThread and searchIndex. */
+	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+	/** Subset of posts, one per calling thread so concurrent searches do not see each other. */
+	private final ThreadLocal<List<Post>> subsetPosts = ThreadLocal.withInitial(Collections::emptyList);
 
 	/** Auto-increment counter for post ids. */
-	private int nextPostId = 1;
+	private final AtomicInteger nextPostId = new AtomicInteger(1);
 
 	/** Validator used for all title/body rules. */
 	private final DiscussionInputValidator validator = new DiscussionInputValidator();
@@ -33,17 +63,22 @@ public class PostStore {
 	public static final String DEFAULT_THREAD = "General";
 
 	/**
-	 * @return unmodifiable view of all posts
+	 * @return unmodifiable snapshot of all posts
 	 */
 	public List<Post> getAllPosts() {
-		return Collections.unmodifiableList(allPosts);
+		lock.readLock().lock();
+		try {
+			return Collections.unmodifiableList(new ArrayList<>(allPosts));
+		} finally {
+			lock.readLock().unlock();
+		}
 	}
 
 	/**
-	 * @return unmodifiable view of the current subset
+	 * @return unmodifiable view of the subset from this thread's last refresh
 	 */
 	public List<Post> getSubsetPosts() {
-		return Collections.unmodifiableList(subsetPosts);
+		return subsetPosts.get();
 	}
 
 	/**
@@ -56,13 +91,28 @@ public class PostStore {
 	 * @return OperationResult containing created Post or validation errors
 	 */
 	public OperationResult<Post> createPost(String authorUserName, String threadName, String title, String body) {
-		List<String> errors = validator.validatePost(title, body);
-		if (!errors.isEmpty()) return OperationResult.failure(errors);
+		int errors = validator.checkPost(title, body);
+		if (errors != DiscussionInputValidator.VALID) return OperationResult.failure(DiscussionInputValidator.errorMessages(errors));
 
 		String finalThread = normalizeThread(threadName);
 
-		Post created = new Post(nextPostId++, finalThread, authorUserName, title, body);
-		allPosts.add(created);
+		Post created;
+		lock.writeLock().lock();
+		try {
+			ThreadPosts thread = postsByThread.get(finalThread);
+			if (thread == null) {
+				thread = new ThreadPosts(postsByThread.size());
+				postsByThread.put(finalThread, thread);
+			}
+			created = new Post(nextPostId.getAndIncrement(), finalThread, authorUserName, title, body,
+					readTracker, thread.readGroup);
+			allPosts.add(created);
+			postsById.put(created.getPostId(), created);
+			thread.posts.add(created);
+			searchIndex.add(created.getPostId(), created.getTitle(), created.getBody());
+		} finally {
+			lock.writeLock().unlock();
+		}
 		return OperationResult.success(created);
 	}
 
@@ -73,10 +123,12 @@ public class PostStore {
 	 * @return Post or null if not found
 	 */
 	public Post getPostById(int postId) {
-		for (Post p : allPosts) {
-			if (p.getPostId() == postId) return p;
+		lock.readLock().lock();
+		try {
+			return postsById.get(postId);
+		} finally {
+			lock.readLock().unlock();
 		}
-		return null;
 	}
 
 	/**
@@ -87,10 +139,15 @@ public class PostStore {
 	 */
 	public List<Post> getPostsByAuthor(String authorUserName) {
 		List<Post> result = new ArrayList<>();
-		for (Post p : allPosts) {
-			if (authorUserName != null && authorUserName.equals(p.getAuthorUserName())) {
-				result.add(p);
+		lock.readLock().lock();
+		try {
+			for (Post p : allPosts) {
+				if (authorUserName != null && authorUserName.equals(p.getAuthorUserName())) {
+					result.add(p);
+				}
 			}
+		} finally {
+			lock.readLock().unlock();
 		}
 		return result;
 	}
@@ -104,19 +161,28 @@ public class PostStore {
 	 * @return OperationResult with updated Post or errors
 	 */
 	public OperationResult<Post> updatePost(int postId, String newTitle, String newBody) {
-		Post p = getPostById(postId);
-		if (p == null) {
-			return OperationResult.failure(List.of("Post not found."));
-		}
-		if (p.isDeleted()) {
-			return OperationResult.failure(List.of("Cannot edit a deleted post."));
-		}
+		// Validation needs no shared state, so it runs before taking the lock
+		int errors = validator.checkPost(newTitle, newBody);
 
-		List<String> errors = validator.validatePost(newTitle, newBody);
-		if (!errors.isEmpty()) return OperationResult.failure(errors);
+		lock.writeLock().lock();
+		try {
+			Post p = postsById.get(postId);
+			if (p == null) {
+				return OperationResult.failure(List.of("Post not found."));
+			}
+			if (p.isDeleted()) {
+				return OperationResult.failure(List.of("Cannot edit a deleted post."));
+			}
 
-		p.update(newTitle, newBody);
-		return OperationResult.success(p);
+			if (errors != DiscussionInputValidator.VALID) return OperationResult.failure(DiscussionInputValidator.errorMessages(errors));
+
+			searchIndex.remove(postId, p.getTitle(), p.getBody());
+			p.update(newTitle, newBody);
+			searchIndex.add(postId, newTitle, newBody);
+			return OperationResult.success(p);
+		} finally {
+			lock.writeLock().unlock();
+		}
 	}
 
 	/**
@@ -131,14 +197,21 @@ public class PostStore {
 			return OperationResult.failure(List.of("Deletion not confirmed."));
 		}
 
-		Post p = getPostById(postId);
-		if (p == null) {
-			return OperationResult.failure(List.of("Post not found."));
-		}
+		lock.writeLock().lock();
+		try {
+			Post p = postsById.get(postId);
+			if (p == null) {
+				return OperationResult.failure(List.of("Post not found."));
+			}
 
-		// Replace both title/body with deleted message
-		p.deletedPostMessage(DiscussionInputValidator.DELETED_MESSAGE);
-		return OperationResult.success(Boolean.TRUE);
+			// Replace both title/body with deleted message
+			searchIndex.remove(postId, p.getTitle(), p.getBody());
+			p.deletedPostMessage(DiscussionInputValidator.DELETED_MESSAGE);
+			searchIndex.add(postId, p.getTitle(), p.getBody());
+			return OperationResult.success(Boolean.TRUE);
+		} finally {
+			lock.writeLock().unlock();
+		}
 	}
 
 	/**
@@ -149,25 +222,46 @@ public class PostStore {
 	 * @return OperationResult true on success; error if post not found
 	 */
 	public OperationResult<Boolean> markPostRead(int postId, String viewerUserName) {
-		Post p = getPostById(postId);
-		if (p == null) return OperationResult.failure(List.of("Post not found."));
+		// A read mark does not change the store's structure, so it only needs the read lock
+		lock.readLock().lock();
+		try {
+			Post p = postsById.get(postId);
+			if (p == null) return OperationResult.failure(List.of("Post not found."));
 
-		p.markRead(viewerUserName);
-		return OperationResult.success(Boolean.TRUE);
+			p.markRead(viewerUserName);
+			return OperationResult.success(Boolean.TRUE);
+		} finally {
+			lock.readLock().unlock();
+		}
 	}
 
 	/**
 	 * Searches posts by keyword and by thread name (optional).
-	 * This updates the subset list.
+	 * This updates the calling thread's subset list.
+	 *
+	 * @param keyword keyword to search; if null/blank, subset becomes all posts (thread filtered if provided)
+	 * @param threadName thread filter; if null/blank, searches all threads
+	 */
+	public void refreshSubsetBySearch(String keyword, String threadName) {
+		subsetPosts.set(Collections.unmodifiableList(searchPosts(keyword, threadName)));
+	}
+
+	/**
+	 * Searches posts by keyword and by thread name (optional) and returns the matches to the
+	 * caller without touching any subset.
 	 *
 	 * Matching rule: case-insensitive contains() on title OR body.
 	 * Note: deleted posts still match, but their title/body will be the deleted message.
 	 *
-	 * @param keyword keyword to search; if null/blank, subset becomes all posts (thread filtered if provided)
+	 * Keywords of three or more characters are answered from the inverted index, and only the
+	 * candidate posts it returns are checked. Shorter keywords check every post in scope.
+	 *
+	 * @param keyword keyword to search; if null/blank, returns all posts (thread filtered if provided)
 	 * @param threadName thread filter; if null/blank, searches all threads
+	 * @return a new list of matching posts owned by the caller
 	 */
-	public void refreshSubsetBySearch(String keyword, String threadName) {
-		subsetPosts.clear();
+	public List<Post> searchPosts(String keyword, String threadName) {
+		List<Post> result = new ArrayList<>();
 
 		String kw = (keyword == null) ? "" : keyword.trim().toLowerCase();
 		String threadFilter = (threadName == null) ? "" : threadName.trim();
@@ -175,37 +269,81 @@ public class PostStore {
 		boolean filterByThread = !threadFilter.isEmpty();
 		boolean filterByKeyword = !kw.isEmpty();
 
-		for (Post p : allPosts) {
-			if (filterByThread && !threadFilter.equals(p.getThreadName())) {
-				continue;
+		lock.readLock().lock();
+		try {
+			List<Post> scope = allPosts;
+			if (filterByThread) {
+				ThreadPosts thread = postsByThread.get(threadFilter);
+				scope = (thread == null) ? Collections.emptyList() : thread.posts;
 			}
 
 			if (!filterByKeyword) {
-				subsetPosts.add(p);
-				continue;
+				result.addAll(scope);
+				return result;
 			}
 
-			String title = (p.getTitle() == null) ? "" : p.getTitle().toLowerCase();
-			String body = (p.getBody() == null) ? "" : p.getBody().toLowerCase();
+			int[] candidateIds = searchIndex.candidates(kw);
+			if (candidateIds == null) {
+				// Keyword is shorter than an index token
+				for (Post p : scope) {
+					if (matchesKeyword(p, kw)) result.add(p);
+				}
+				return result;
+			}
 
-			if (title.contains(kw) || body.contains(kw)) {
-				subsetPosts.add(p);
+			for (int id : candidateIds) {
+				Post p = postsById.get(id);
+				if (filterByThread && !threadFilter.equals(p.getThreadName())) {
+					continue;
+				}
+				if (matchesKeyword(p, kw)) result.add(p);
 			}
+			return result;
+		} finally {
+			lock.readLock().unlock();
 		}
 	}
 
 	/**
-	 * Counts how many posts are unread for a viewer.
+	 * Counts how many posts are unread for a viewer, deleted posts included.
 	 *
 	 * @param viewerUserName viewer
 	 * @return count
 	 */
 	public int countUnreadPosts(String viewerUserName) {
-		int count = 0;
-		for (Post p : allPosts) {
-			if (p.isUnreadBy(viewerUserName)) count++;
+		lock.readLock().lock();
+		try {
+			// Read marks only exist for posts in this store, so unread is total minus read
+			return allPosts.size() - readTracker.countRead(viewerUserName);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Counts how many posts of one thread are unread for a viewer, deleted posts included.
+	 *
+	 * @param viewerUserName viewer
+	 * @param threadName thread; if null/blank, counts all threads
+	 * @return count
+	 */
+	public int countUnreadPosts(String viewerUserName, String threadName) {
+		String threadFilter = (threadName == null) ? "" : threadName.trim();
+		if (threadFilter.isEmpty()) return countUnreadPosts(viewerUserName);
+
+		lock.readLock().lock();
+		try {
+			ThreadPosts thread = postsByThread.get(threadFilter);
+			if (thread == null) return 0;
+			return thread.posts.size() - readTracker.countRead(viewerUserName, thread.readGroup);
+		} finally {
+			lock.readLock().unlock();
 		}
-		return count;
+	}
+
+	private boolean matchesKeyword(Post p, String kw) {
+		return TextSearchIndex.containsIgnoreCase(p.getTitle(), kw)
+				|| TextSearchIndex.containsIgnoreCase(p.getBody(), kw);
 	}
 
 	private String normalizeThread(String threadName) {
@@ -213,4 +351,20 @@ public class PostStore {
 		String trimmed = threadName.trim();
 		return trimmed.isEmpty() ? DEFAULT_THREAD : trimmed;
 	}
+
+	/**
+	 * Posts of one thread in creation order, plus the group its read marks are counted in.
+	 */
+	private static final class ThreadPosts {
+
+		/** Group id used for this thread's read counters in the ReadTracker. */
+		private final int readGroup;
+
+		/** Every post created in the thread, in creation order. */
+		private final List<Post> posts = new ArrayList<>();
+
+		private ThreadPosts(int readGroup) {
+			this.readGroup = readGroup;
+		}
+	}
 }
\ No newline at end of file
@@ -0,0 +1,109 @@
+package entityClasses;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+/**
+ * <p> Title: PostValidationBenchmark </p>
+ *
+ * <p> Description: Console program that compares two ways of validating a post. The first is the
+ * old way, which built three lists per post and trimmed the title and body to test them for
+ * blankness. The second is DiscussionInputValidator.checkPost, which returns error bits and scans
+ * in place. Both run on valid posts with bodies of a few sizes. The program prints the posts
+ * validated per second and the bytes allocated per post, read from the JVM's per-thread
+ * allocation counter when it has one. Each case is warmed up first and the best of a few timed
+ * rounds is kept. The numbers vary with the machine and JVM, so they are meant for comparison
+ * only. </p>
+ *
+ * @author Amairani Caballero
+ */
+public class PostValidationBenchmark {
+
+	/** Validations per timed round. */
+	static final int VALIDATIONS = 200_000;
+
+	/** Timed rounds per case; the best is reported. */
+	static final int ROUNDS = 5;
+
+	/** Consumes the results so the JIT cannot drop the validations. */
+	private static long sink;
+
+	private static final DiscussionInputValidator VALIDATOR = new DiscussionInputValidator();
+
+	public static void main(String[] args) {
+		System.out.println("*** Post Validation Benchmark ***\n");
+		System.out.printf("%-8s %-16s %-16s %-12s %-12s %-8s%n",
+				"body", "lists+trim", "error bits", "bytes/old", "bytes/new", "speedup");
+
+		compare(20);
+		compare(500);
+		compare(DiscussionInputValidator.BODY_MAX);
+
+		System.out.println("\n(checksum " + sink + ")");
+	}
+
+	private static void compare(int bodyLength) {
+		String title = "  Question about the homework  ";
+		String body = " " + "x".repeat(bodyLength - 2) + " ";
+
+		ToIntFunction<String> old = b -> legacyValidatePost(title, b).size();
+		ToIntFunction<String> bits = b -> VALIDATOR.checkPost(title, b);
+
+		double oldRate = best(old, body);
+		double newRate = best(bits, body);
+		System.out.printf("%-8d %-16s %-16s %-12s %-12s %-8s%n", bodyLength,
+				perSecond(oldRate), perSecond(newRate),
+				bytesPerCall(old, body), bytesPerCall(bits, body),
+				String.format("%.1fx", newRate / oldRate));
+	}
+
+	// The validation as it was: a list per field, a list for the post and a trimmed copy of each
+	private static List<String> legacyValidatePost(String title, String body) {
+		List<String> titleErrors = new ArrayList<>();
+		if (title == null || title.trim().isEmpty()) titleErrors.add(DiscussionInputValidator.ERR_TITLE_EMPTY);
+		else if (title.length() > DiscussionInputValidator.TITLE_MAX) titleErrors.add(DiscussionInputValidator.ERR_TITLE_TOO_LONG);
+
+		List<String> bodyErrors = new ArrayList<>();
+		if (body == null || body.trim().isEmpty()) bodyErrors.add(DiscussionInputValidator.ERR_BODY_EMPTY);
+		else if (body.length() > DiscussionInputValidator.BODY_MAX) bodyErrors.add(DiscussionInputValidator.ERR_BODY_TOO_LONG);
+
+		List<String> errors = new ArrayList<>();
+		errors.addAll(titleErrors);
+		errors.addAll(bodyErrors);
+		return errors;
+	}
+
+	// Returns the best rate of the timed rounds, in validations per second
+	private static double best(ToIntFunction<String> validation, String body) {
+		run(validation, body, VALIDATIONS);					// Warm up
+		double best = 0;
+		for (int r = 0; r < ROUNDS; r++) {
+			long start = System.nanoTime();
+			run(validation, body, VALIDATIONS);
+			long elapsed = System.nanoTime() - start;
+			best = Math.max(best, VALIDATIONS / (elapsed / 1e9));
+		}
+		return best;
+	}
+
+	private static void run(ToIntFunction<String> validation, String body, int times) {
+		for (int i = 0; i < times; i++) sink += validation.applyAsInt(body);
+	}
+
+	// Bytes this thread allocated per validation, or "n/a" if the JVM does not count them
+	private static String bytesPerCall(ToIntFunction<String> validation, String body) {
+		if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean)) return "n/a";
+		com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		long id = Thread.currentThread().threadId();
+		long before = threads.getThreadAllocatedBytes(id);
+		run(validation, body, VALIDATIONS);
+		long allocated = threads.getThreadAllocatedBytes(id) - before;
+		return String.format("%.1f", (double) allocated / VALIDATIONS);
+	}
+
+	private static String perSecond(double rate) {
+		return String.format("%,.0f/s", rate);
+	}
+}
@@ -0,0 +1,52 @@
+package entityClasses;
+
+import java.util.function.Function;
+
+/**
+ * <p> Title: ProfileField </p>
+ *
+ * <p> Description: The account fields a user can change on the update pages, each with its
+ * column in the user table and the UserRecord getter that reads it back. Database.updateProfile
+ * takes a map from these to the new values and saves them all in one UPDATE. </p>
+ *
+ * @author Amairani Caballero
+ */
+public enum ProfileField {
+
+	/** The account password. */
+	PASSWORD("password", UserRecord::getPassword),
+	/** The first name. */
+	FIRST_NAME("firstName", UserRecord::getFirstName),
+	/** The middle name. */
+	MIDDLE_NAME("middleName", UserRecord::getMiddleName),
+	/** The last name. */
+	LAST_NAME("lastName", UserRecord::getLastName),
+	/** The preferred first name. */
+	PREFERRED_FIRST_NAME("preferredFirstName", UserRecord::getPreferredFirstName),
+	/** The email address. */
+	EMAIL_ADDRESS("emailAddress", UserRecord::getEmailAddress);
+
+	private final String column;
+
+	private final Function<UserRecord, String> getter;
+
+	ProfileField(String column, Function<UserRecord, String> getter) {
+		this.column = column;
+		this.getter = getter;
+	}
+
+	/**
+	 * @return the name of this field's column in the user table
+	 */
+	public String getColumn() {
+		return column;
+	}
+
+	/**
+	 * @param record a snapshot of an account
+	 * @return this field's value in that snapshot
+	 */
+	public String valueIn(UserRecord record) {
+		return getter.apply(record);
+	}
+}
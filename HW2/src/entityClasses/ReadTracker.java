@@ -0,0 +1,192 @@
+package entityClasses;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <p> Title: ReadTracker Class </p>
+ *
+ * <p> Description: Records which users have read which items (posts or replies). Each store owns
+ * one tracker that is shared by all of its items, instead of every item holding its own set of
+ * usernames. A username is interned once to a dense int id, and the items that user has read are
+ * kept in one CompactBitmap keyed by item id. One read mark costs between a bit and a few bytes,
+ * where a HashSet entry costs tens of bytes. </p>
+ *
+ * <p> Next to the bitmap, each user has counters of the live items they have read, overall and
+ * per group. A group is whatever the store counts by (a thread for posts, a post for replies).
+ * The counters are updated when an item is first marked read and when the store retires an item
+ * it deleted, so "unread" badges are a subtraction instead of a scan. </p>
+ *
+ * <p> The tracker is safe to use from many threads: interning goes through a ConcurrentHashMap
+ * and each user's state synchronizes on itself. {@link #retire(int, int)} must not run at the same
+ * time as a mark for the same item; the stores ensure this with their write lock. </p>
+ * @author Amairani Caballero
+ */
+class ReadTracker {
+
+	/** Interned username to that user's read state. */
+	private final ConcurrentHashMap<String, UserReads> users = new ConcurrentHashMap<>();
+
+	/** Source of dense user ids. */
+	private final AtomicInteger nextUserId = new AtomicInteger();
+
+	/**
+	 * Records that a user has read an item without touching the live counters, used for items
+	 * that were already retired.
+	 *
+	 * @param userName viewer username, ignored if null
+	 * @param itemId post or reply id
+	 * @return true if this is the first time the user read the item
+	 */
+	boolean markRead(String userName, int itemId) {
+		if (userName == null) return false;
+		return intern(userName).items.add(itemId);
+	}
+
+	/**
+	 * Records that a user has read a live item and counts it the first time.
+	 *
+	 * @param userName viewer username, ignored if null
+	 * @param itemId post or reply id
+	 * @param group group the item is counted in
+	 * @return true if this is the first time the user read the item
+	 */
+	boolean markRead(String userName, int itemId, int group) {
+		if (userName == null) return false;
+		UserReads reads = intern(userName);
+		synchronized (reads) {
+			if (!reads.items.add(itemId)) return false;
+			reads.count(group, 1);
+			return true;
+		}
+	}
+
+	/**
+	 * Takes a deleted item out of the live counters of every user who read it. The read marks
+	 * themselves are kept, so the item still reports as read.
+	 *
+	 * @param itemId post or reply id
+	 * @param group group the item was counted in
+	 */
+	void retire(int itemId, int group) {
+		for (UserReads reads : users.values()) {
+			synchronized (reads) {
+				if (reads.items.contains(itemId)) reads.count(group, -1);
+			}
+		}
+	}
+
+	/**
+	 * @param userName viewer username
+	 * @param itemId post or reply id
+	 * @return true if the user has read the item; always false for a null or unknown user
+	 */
+	boolean isRead(String userName, int itemId) {
+		if (userName == null) return false;
+		UserReads reads = users.get(userName);
+		return reads != null && reads.items.contains(itemId);
+	}
+
+	/**
+	 * @param userName viewer username
+	 * @return number of live items the user has read
+	 */
+	int countRead(String userName) {
+		if (userName == null) return 0;
+		UserReads reads = users.get(userName);
+		if (reads == null) return 0;
+		synchronized (reads) {
+			return reads.liveCount;
+		}
+	}
+
+	/**
+	 * @param userName viewer username
+	 * @param group group to count in
+	 * @return number of live items of that group the user has read
+	 */
+	int countRead(String userName, int group) {
+		if (userName == null) return 0;
+		UserReads reads = users.get(userName);
+		if (reads == null) return 0;
+		synchronized (reads) {
+			Counter counter = reads.liveByGroup.get(group);
+			return (counter == null) ? 0 : counter.value;
+		}
+	}
+
+	/**
+	 * @param userName viewer username
+	 * @return the user's dense id, or -1 if the user has never read anything
+	 */
+	int userId(String userName) {
+		if (userName == null) return -1;
+		UserReads reads = users.get(userName);
+		return (reads == null) ? -1 : reads.userId;
+	}
+
+	/**
+	 * @return number of distinct users that have read at least one item
+	 */
+	int userCount() {
+		return users.size();
+	}
+
+	/**
+	 * @return approximate heap size of the tracker in bytes, excluding the username strings
+	 */
+	long estimatedBytes() {
+		// Map table plus one map node and one UserReads per interned user
+		long bytes = 64 + 8L * Integer.highestOneBit(Math.max(1, users.size()) * 2);
+		for (UserReads reads : users.values()) {
+			bytes += 40 + 24 + reads.items.estimatedBytes();
+		}
+		return bytes;
+	}
+
+	private UserReads intern(String userName) {
+		UserReads reads = users.get(userName);
+		if (reads != null) return reads;
+		return users.computeIfAbsent(userName, u -> new UserReads(nextUserId.getAndIncrement()));
+	}
+
+	/**
+	 * The read state of one user. Counters are guarded by the instance's monitor.
+	 */
+	private static final class UserReads {
+
+		/** Dense id assigned when the username was interned. */
+		private final int userId;
+
+		/** Ids of the items this user has read. */
+		private final CompactBitmap items = new CompactBitmap();
+
+		/** Group to the number of live items of that group this user has read. */
+		private final IntObjectMap<Counter> liveByGroup = new IntObjectMap<>();
+
+		/** Number of live items this user has read. */
+		private int liveCount;
+
+		private UserReads(int userId) {
+			this.userId = userId;
+		}
+
+		private void count(int group, int delta) {
+			liveCount += delta;
+			Counter counter = liveByGroup.get(group);
+			if (counter == null) {
+				counter = new Counter();
+				liveByGroup.put(group, counter);
+			}
+			counter.value += delta;
+		}
+	}
+
+	/**
+	 * A mutable int, so group counters can be updated in place.
+	 */
+	private static final class Counter {
+
+		private int value;
+	}
+}
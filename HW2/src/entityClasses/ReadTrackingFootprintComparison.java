@@ -0,0 +1,105 @@
+package entityClasses;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * <p> Title: ReadTrackingFootprintComparison </p>
+ *
+ * <p> Description: Console program that compares the heap used to remember read marks in two ways.
+ * The first is the old way, where every post holds a concurrent set of usernames. The second is
+ * ReadTracker, with one compressed bitmap of post ids per user. Both are filled with the same
+ * marks for a few sizes of class and read rates. The program prints the heap measured after a
+ * full GC and the bytes per read mark. The numbers vary with the JVM and its flags, so they are
+ * meant for comparison only. </p>
+ *
+ * @author Amairani Caballero
+ */
+public class ReadTrackingFootprintComparison {
+
+	/** Keeps the structure under measurement reachable while the heap is sampled. */
+	private static Object retained;
+
+	public static void main(String[] args) {
+		System.out.println("*** Read Tracking Footprint Comparison ***\n");
+		System.out.printf("%-8s %-7s %-6s %-10s %-16s %-16s %-8s%n",
+				"posts", "users", "read", "marks", "HashSet/post", "ReadTracker", "ratio");
+
+		compare(2_000, 200, 0.10);
+		compare(2_000, 200, 0.90);
+		compare(20_000, 500, 0.05);
+		compare(20_000, 500, 0.50);
+		compare(100_000, 1_000, 0.02);
+	}
+
+	private static void compare(int posts, int users, double readRate) {
+		List<String> userNames = new ArrayList<>();
+		for (int u = 0; u < users; u++) userNames.add("student" + u);
+
+		// Same seed for both runs so both hold exactly the same read marks
+		long before = usedHeap();
+		int marks = fillPerPostSets(posts, userNames, readRate);
+		long setBytes = usedHeap() - before;
+		retained = null;
+
+		before = usedHeap();
+		fillTracker(posts, userNames, readRate);
+		long trackerBytes = usedHeap() - before;
+		retained = null;
+
+		System.out.printf("%-8d %-7d %-6s %-10d %-16s %-16s %-8s%n",
+				posts, users, Math.round(readRate * 100) + "%", marks,
+				perMark(setBytes, marks), perMark(trackerBytes, marks),
+				String.format("%.1fx", (double) setBytes / Math.max(1, trackerBytes)));
+	}
+
+	private static int fillPerPostSets(int posts, List<String> userNames, double readRate) {
+		List<Set<String>> readers = new ArrayList<>(posts);
+		for (int p = 0; p < posts; p++) readers.add(ConcurrentHashMap.newKeySet());
+
+		Random random = new Random(42);
+		int marks = 0;
+		for (String user : userNames) {
+			for (int p = 0; p < posts; p++) {
+				if (random.nextDouble() < readRate) {
+					readers.get(p).add(user);
+					marks++;
+				}
+			}
+		}
+		retained = readers;
+		return marks;
+	}
+
+	private static void fillTracker(int posts, List<String> userNames, double readRate) {
+		ReadTracker tracker = new ReadTracker();
+
+		Random random = new Random(42);
+		for (String user : userNames) {
+			for (int p = 0; p < posts; p++) {
+				if (random.nextDouble() < readRate) tracker.markRead(user, p + 1);
+			}
+		}
+		retained = tracker;
+	}
+
+	private static String perMark(long bytes, int marks) {
+		return String.format("%.2f B/mark", (double) bytes / Math.max(1, marks));
+	}
+
+	private static long usedHeap() {
+		Runtime rt = Runtime.getRuntime();
+		for (int i = 0; i < 3; i++) {
+			System.gc();
+			try {
+				Thread.sleep(50);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		return rt.totalMemory() - rt.freeMemory();
+	}
+}
@@ -1,8 +1,5 @@
 package entityClasses;
 
-import java.util.HashSet;
-import java.util.Set;
-
 /**
  * <p> Title: Reply Class </p>
  *
@@ -23,13 +20,13 @@ public class Reply {
 	private String authorUserName;
 
 	/** Reply body (1-5000 chars, non-blank). */
-	private String body;
+	private volatile String body;
 
 	/** Flag for reply deletion. Unlike post deletion, reply deletion removes the reply from lists. */
-	private boolean deleted;
+	private volatile boolean deleted;
 
-	/** Per-user read tracking. */
-	private final Set<String> readers = new HashSet<>();
+	/** Per-user read tracking, shared with the other replies of the same ReplyStore. */
+	private final ReadTracker readTracker;
 
 	/**
 	 * Constructs a Reply. Intended to be called by ReplyStore.
@@ -40,11 +37,25 @@ public class Reply {
 	 * @param body validated body
 	 */
 	public Reply(int replyId, int postId, String authorUserName, String body) {
+		this(replyId, postId, authorUserName, body, new ReadTracker());
+	}
+
+	/**
+	 * Constructs a Reply whose read marks are kept in a tracker shared with other replies.
+	 *
+	 * @param replyId assigned id
+	 * @param postId post id
+	 * @param authorUserName author
+	 * @param body validated body
+	 * @param readTracker tracker owned by the ReplyStore
+	 */
+	Reply(int replyId, int postId, String authorUserName, String body, ReadTracker readTracker) {
 		this.replyId = replyId;
 		this.postId = postId;
 		this.authorUserName = authorUserName;
 		this.body = body;
 		this.deleted = false;
+		this.readTracker = readTracker;
 	}
 
 	// Getters
@@ -71,14 +82,18 @@ public class Reply {
 
 	// Read/unread
 
-	public void markRead(String viewerUserName) {
+	// Package-private: ReplyStore.markReplyRead calls it under the store's lock, so it never
+	// runs alongside deleteReply retiring the reply
+	void markRead(String viewerUserName) {
 		if (viewerUserName == null) return;
-		readers.add(viewerUserName);
+		// Read marks are counted per post; a deleted reply is no longer counted
+		if (deleted) readTracker.markRead(viewerUserName, replyId);
+		else readTracker.markRead(viewerUserName, replyId, postId);
 	}
 
 	public boolean isUnreadBy(String viewerUserName) {
 		if (viewerUserName == null) return true;
-		return !readers.contains(viewerUserName);
+		return !readTracker.isRead(viewerUserName, replyId);
 	}
 
 	// Mutators used by store
@@ -3,12 +3,24 @@ package entityClasses;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
  * <p> Title: ReplyStore Class </p>
  *
  * <p> Description: Stores all replies and a subset of replies (e.g., search results).
  * Supports CRUD, listing replies by post, and listing unread replies for a viewer. </p>
+ *
+ * <p> Concurrency: like PostStore, this store is safe to share between threads. Reply ids come
+ * from an atomic counter and the collections, indexes and per-post counters are guarded by a
+ * read/write lock. Each thread has its own subset, and {@link #searchReplies(String, Integer)}
+ * returns a private result list. Ids are taken under the write lock, so the list stays in id
+ * order. </p>
+ *
+ * <p> Unread counts: each post keeps its number of non-deleted replies, and the ReadTracker keeps
+ * how many of them each user has read, so {@link #countUnreadRepliesForPost(int, String)} does
+ * not scan the post's replies. </p>
  * @author Amairani Caballero
  */
 public class ReplyStore {
@@ -16,27 +28,47 @@ public class ReplyStore {
 	/** All replies in the system. */
 	private final List<Reply> allReplies = new ArrayList<>();
 
-	/** Subset of replies (e.g., results of last search). */
-	private final List<Reply> subsetReplies = new ArrayList<>();
+	/** Primary-key index over allReplies, so lookups by id do not scan the list. */
+	private final IntObjectMap<Reply> repliesById = new IntObjectMap<>();
+
+	/** Secondary index: post id to the replies of that post, with live counters. */
+	private final IntObjectMap<PostReplies> repliesByPost = new IntObjectMap<>();
+
+	/** Inverted index over the bodies of non-deleted replies, used by refreshSubsetBySearch. */
+	private final TextSearchIndex searchIndex = new TextSearchIndex();
+
+	/** Read marks of all replies in this store, keyed by username and reply id. */
+	private final ReadTracker readTracker = new ReadTracker();
+
+	/** Guards allReplies, repliesById, repliesByPost and searchIndex. */
+	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+	/** Subset of replies (e.g., results of last search), one per calling thread. */
+	private final ThreadLocal<List<Reply>> subsetReplies = ThreadLocal.withInitial(Collections::emptyList);
 
 	/** Auto-increment counter for reply ids. */
-	private int nextReplyId = 1;
+	private final AtomicInteger nextReplyId = new AtomicInteger(1);
 
 	/** Validator for body rules. */
 	private final DiscussionInputValidator validator = new DiscussionInputValidator();
 
 	/**
-	 * @return unmodifiable list of all replies
+	 * @return unmodifiable snapshot of all replies
 	 */
 	public List<Reply> getAllReplies() {
-		return Collections.unmodifiableList(allReplies);
+		lock.readLock().lock();
+		try {
+			return Collections.unmodifiableList(new ArrayList<>(allReplies));
+		} finally {
+			lock.readLock().unlock();
+		}
 	}
 
 	/**
-	 * @return unmodifiable list of subset replies
+	 * @return unmodifiable list of the subset from this thread's last refresh
 	 */
 	public List<Reply> getSubsetReplies() {
-		return Collections.unmodifiableList(subsetReplies);
+		return subsetReplies.get();
 	}
 
 	/**
@@ -51,11 +83,25 @@ public class ReplyStore {
 	 * @return OperationResult containing created Reply or errors
 	 */
 	public OperationResult<Reply> createReply(int postId, String authorUserName, String body) {
-		List<String> errors = validator.validateReply(body);
-		if (!errors.isEmpty()) return OperationResult.failure(errors);
+		int errors = validator.checkReply(body);
+		if (errors != DiscussionInputValidator.VALID) return OperationResult.failure(DiscussionInputValidator.errorMessages(errors));
 
-		Reply created = new Reply(nextReplyId++, postId, authorUserName, body);
-		allReplies.add(created);
+		Reply created;
+		lock.writeLock().lock();
+		try {
+			created = new Reply(nextReplyId.getAndIncrement(), postId, authorUserName, body, readTracker);
+			allReplies.add(created);
+			repliesById.put(created.getReplyId(), created);
+			PostReplies thread = repliesByPost.get(postId);
+			if (thread == null) {
+				thread = new PostReplies();
+				repliesByPost.put(postId, thread);
+			}
+			thread.add(created);
+			searchIndex.add(created.getReplyId(), created.getBody());
+		} finally {
+			lock.writeLock().unlock();
+		}
 		return OperationResult.success(created);
 	}
 
@@ -66,10 +112,12 @@ public class ReplyStore {
 	 * @return Reply or null
 	 */
 	public Reply getReplyById(int replyId) {
-		for (Reply r : allReplies) {
-			if (r.getReplyId() == replyId) return r;
+		lock.readLock().lock();
+		try {
+			return repliesById.get(replyId);
+		} finally {
+			lock.readLock().unlock();
 		}
-		return null;
 	}
 
 	/**
@@ -80,12 +128,20 @@ public class ReplyStore {
 	 */
 	public List<Reply> getRepliesForPost(int postId) {
 		List<Reply> result = new ArrayList<>();
-		for (Reply r : allReplies) {
-			if (!r.isDeleted() && r.getPostId() == postId) {
-				result.add(r);
+		lock.readLock().lock();
+		try {
+			PostReplies thread = repliesByPost.get(postId);
+			if (thread == null) return result;
+
+			for (Reply r : thread.replies) {
+				if (!r.isDeleted()) {
+					result.add(r);
+				}
 			}
+			return result;
+		} finally {
+			lock.readLock().unlock();
 		}
-		return result;
 	}
 
 	/**
@@ -97,12 +153,20 @@ public class ReplyStore {
 	 */
 	public List<Reply> getUnreadRepliesForPost(int postId, String viewerUserName) {
 		List<Reply> result = new ArrayList<>();
-		for (Reply r : allReplies) {
-			if (!r.isDeleted() && r.getPostId() == postId && r.isUnreadBy(viewerUserName)) {
-				result.add(r);
+		lock.readLock().lock();
+		try {
+			PostReplies thread = repliesByPost.get(postId);
+			if (thread == null) return result;
+
+			for (Reply r : thread.replies) {
+				if (!r.isDeleted() && r.isUnreadBy(viewerUserName)) {
+					result.add(r);
+				}
 			}
+			return result;
+		} finally {
+			lock.readLock().unlock();
 		}
-		return result;
 	}
 
 	/**
@@ -113,16 +177,25 @@ public class ReplyStore {
 	 * @return OperationResult with updated Reply or errors
 	 */
 	public OperationResult<Reply> updateReply(int replyId, String newBody) {
-		Reply r = getReplyById(replyId);
-		if (r == null || r.isDeleted()) {
-			return OperationResult.failure(List.of("Reply not found."));
-		}
+		// Validation needs no shared state, so it runs before taking the lock
+		int errors = validator.checkReply(newBody);
+
+		lock.writeLock().lock();
+		try {
+			Reply r = repliesById.get(replyId);
+			if (r == null || r.isDeleted()) {
+				return OperationResult.failure(List.of("Reply not found."));
+			}
 
-		List<String> errors = validator.validateReply(newBody);
-		if (!errors.isEmpty()) return OperationResult.failure(errors);
+			if (errors != DiscussionInputValidator.VALID) return OperationResult.failure(DiscussionInputValidator.errorMessages(errors));
 
-		r.updateBody(newBody);
-		return OperationResult.success(r);
+			searchIndex.remove(replyId, r.getBody());
+			r.updateBody(newBody);
+			searchIndex.add(replyId, newBody);
+			return OperationResult.success(r);
+		} finally {
+			lock.writeLock().unlock();
+		}
 	}
 
 	/**
@@ -137,13 +210,21 @@ public class ReplyStore {
 			return OperationResult.failure(List.of("Deletion not confirmed."));
 		}
 
-		Reply r = getReplyById(replyId);
-		if (r == null || r.isDeleted()) {
-			return OperationResult.failure(List.of("Reply not found."));
-		}
+		lock.writeLock().lock();
+		try {
+			Reply r = repliesById.get(replyId);
+			if (r == null || r.isDeleted()) {
+				return OperationResult.failure(List.of("Reply not found."));
+			}
 
-		r.markDeleted();
-		return OperationResult.success(Boolean.TRUE);
+			r.markDeleted();
+			searchIndex.remove(replyId, r.getBody());
+			repliesByPost.get(r.getPostId()).liveCount--;
+			readTracker.retire(replyId, r.getPostId());
+			return OperationResult.success(Boolean.TRUE);
+		} finally {
+			lock.writeLock().unlock();
+		}
 	}
 
 	/**
@@ -154,42 +235,76 @@ public class ReplyStore {
 	 * @return OperationResult true on success; error if not found
 	 */
 	public OperationResult<Boolean> markReplyRead(int replyId, String viewerUserName) {
-		Reply r = getReplyById(replyId);
-		if (r == null || r.isDeleted()) return OperationResult.failure(List.of("Reply not found."));
+		// A read mark does not change the store's structure, so it only needs the read lock
+		lock.readLock().lock();
+		try {
+			Reply r = repliesById.get(replyId);
+			if (r == null || r.isDeleted()) return OperationResult.failure(List.of("Reply not found."));
 
-		r.markRead(viewerUserName);
-		return OperationResult.success(Boolean.TRUE);
+			r.markRead(viewerUserName);
+			return OperationResult.success(Boolean.TRUE);
+		} finally {
+			lock.readLock().unlock();
+		}
 	}
 
 	/**
-	 * Updates the subset list by searching reply bodies for a keyword, optionally restricted to a post.
+	 * Updates the calling thread's subset list by searching reply bodies for a keyword,
+	 * optionally restricted to a post.
 	 *
 	 * @param keyword keyword; if blank, subset becomes all replies (optionally post-filtered)
 	 * @param postIdFilter if null, search all posts; otherwise only replies for that post id
 	 */
 	public void refreshSubsetBySearch(String keyword, Integer postIdFilter) {
-		subsetReplies.clear();
+		subsetReplies.set(Collections.unmodifiableList(searchReplies(keyword, postIdFilter)));
+	}
+
+	/**
+	 * Searches non-deleted reply bodies for a keyword, optionally restricted to a post, and returns
+	 * the matches to the caller without touching any subset.
+	 *
+	 * Without a post filter, keywords of three or more characters are answered from the inverted
+	 * index. With a post filter, only that post's replies are checked.
+	 *
+	 * @param keyword keyword; if blank, returns all replies (optionally post-filtered)
+	 * @param postIdFilter if null, search all posts; otherwise only replies for that post id
+	 * @return a new list of matching replies owned by the caller
+	 */
+	public List<Reply> searchReplies(String keyword, Integer postIdFilter) {
+		List<Reply> result = new ArrayList<>();
 
 		String kw = (keyword == null) ? "" : keyword.trim().toLowerCase();
 		boolean filterByKeyword = !kw.isEmpty();
 		boolean filterByPost = (postIdFilter != null);
 
-		for (Reply r : allReplies) {
-			if (r.isDeleted()) continue;
-
-			if (filterByPost && r.getPostId() != postIdFilter.intValue()) {
-				continue;
+		lock.readLock().lock();
+		try {
+			List<Reply> scope = allReplies;
+			if (filterByPost) {
+				PostReplies thread = repliesByPost.get(postIdFilter.intValue());
+				scope = (thread == null) ? Collections.emptyList() : thread.replies;
 			}
 
-			if (!filterByKeyword) {
-				subsetReplies.add(r);
-				continue;
+			int[] candidateIds = (filterByKeyword && !filterByPost) ? searchIndex.candidates(kw) : null;
+			if (candidateIds != null) {
+				// The index only holds non-deleted replies
+				for (int id : candidateIds) {
+					Reply r = repliesById.get(id);
+					if (TextSearchIndex.containsIgnoreCase(r.getBody(), kw)) result.add(r);
+				}
+				return result;
 			}
 
-			String body = (r.getBody() == null) ? "" : r.getBody().toLowerCase();
-			if (body.contains(kw)) {
-				subsetReplies.add(r);
+			for (Reply r : scope) {
+				if (r.isDeleted()) continue;
+
+				if (!filterByKeyword || TextSearchIndex.containsIgnoreCase(r.getBody(), kw)) {
+					result.add(r);
+				}
 			}
+			return result;
+		} finally {
+			lock.readLock().unlock();
 		}
 	}
 
@@ -198,7 +313,27 @@ public class ReplyStore {
 	 * @return number of non-deleted replies for that post
 	 */
 	public int countRepliesForPost(int postId) {
-		return getRepliesForPost(postId).size();
+		lock.readLock().lock();
+		try {
+			PostReplies thread = repliesByPost.get(postId);
+			return (thread == null) ? 0 : thread.liveCount;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * @param postId post id
+	 * @return number of replies ever created for that post, including deleted ones
+	 */
+	public int countAllRepliesForPost(int postId) {
+		lock.readLock().lock();
+		try {
+			PostReplies thread = repliesByPost.get(postId);
+			return (thread == null) ? 0 : thread.replies.size();
+		} finally {
+			lock.readLock().unlock();
+		}
 	}
 
 	/**
@@ -207,6 +342,33 @@ public class ReplyStore {
 	 * @return number of unread replies for that post
 	 */
 	public int countUnreadRepliesForPost(int postId, String viewerUserName) {
-		return getUnreadRepliesForPost(postId, viewerUserName).size();
+		lock.readLock().lock();
+		try {
+			PostReplies thread = repliesByPost.get(postId);
+			if (thread == null) return 0;
+
+			// The tracker counts a user's read replies per post id
+			return thread.liveCount - readTracker.countRead(viewerUserName, postId);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Replies of one post in creation order, plus a counter of the ones not deleted.
+	 * The list size is the total reply count, deleted replies stay in it as tombstones.
+	 */
+	private static final class PostReplies {
+
+		/** Every reply created for the post, in creation order. */
+		private final List<Reply> replies = new ArrayList<>();
+
+		/** Number of replies in the list that are not deleted. */
+		private int liveCount;
+
+		private void add(Reply r) {
+			replies.add(r);
+			liveCount++;
+		}
 	}
 }
\ No newline at end of file
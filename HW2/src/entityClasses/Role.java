@@ -0,0 +1,67 @@
+package entityClasses;
+
+/**
+ * <p> Title: Role </p>
+ *
+ * <p> Description: The roles a user can play. Each role has the name the GUI pages use ("Admin",
+ * "Role1", "Role2") and one bit of the roleMask column in the user table, so a set of roles fits in
+ * one int and a role check is a single indexed comparison. </p>
+ *
+ * @author Amairani Caballero
+ */
+public enum Role {
+
+	/** The Admin role. */
+	ADMIN("Admin", 1),
+	/** The first application role (Student). */
+	ROLE1("Role1", 2),
+	/** The second application role (Reviewer). */
+	ROLE2("Role2", 4);
+
+	/** A mask with every role bit set. */
+	public static final int ALL_ROLES = 7;
+
+	private final String name;
+
+	private final int bit;
+
+	Role(String name, int bit) {
+		this.name = name;
+		this.bit = bit;
+	}
+
+	/**
+	 * @return the name the GUI pages use for this role
+	 */
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * @return this role's bit in the roleMask column
+	 */
+	public int getBit() {
+		return bit;
+	}
+
+	/**
+	 * @param mask a roleMask value
+	 * @return true if the mask includes this role
+	 */
+	public boolean isIn(int mask) {
+		return (mask & bit) != 0;
+	}
+
+	/**
+	 * <p> Description: Finds the role with the given GUI name. </p>
+	 *
+	 * @param name "Admin", "Role1" or "Role2"
+	 * @return the matching role, or null if there is none
+	 */
+	public static Role fromName(String name) {
+		for (Role role : values()) {
+			if (role.name.equals(name)) return role;
+		}
+		return null;
+	}
+}
@@ -0,0 +1,66 @@
+package entityClasses;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * <p> Title: RosterValidationBenchmark </p>
+ *
+ * <p> Description: Console program that measures how many accounts per second
+ * RosterValidator.validateAll checks in a 100,000 account roster, with the validation run in
+ * fork-join pools of 1, 2, 4, ... threads up to the number of cores. One account in twenty has a
+ * bad field. Each size is warmed up first and the best of a few timed rounds is kept. The
+ * numbers vary with the machine and JVM, so they are meant for comparison only. </p>
+ *
+ * @author Amairani Caballero
+ */
+public class RosterValidationBenchmark {
+
+	/** Accounts in the roster. */
+	static final int ROSTER_SIZE = 100_000;
+
+	/** Timed rounds per pool size; the best is reported. */
+	static final int ROUNDS = 5;
+
+	public static void main(String[] args) throws Exception {
+		int cores = Runtime.getRuntime().availableProcessors();
+		System.out.println("*** Roster Validation Benchmark ***\n");
+		System.out.println("Roster: " + ROSTER_SIZE + " accounts, cores: " + cores + "\n");
+		System.out.printf("%-8s %-18s %-8s%n", "threads", "accounts/s", "scaling");
+
+		List<User> roster = new ArrayList<>(ROSTER_SIZE);
+		for (int i = 0; i < ROSTER_SIZE; i++) {
+			String password = (i % 20 == 0) ? "short" : "Passw0rd!" + i;
+			roster.add(new User("student" + i, password, "Ann", "Marie", "Lee", "Annie",
+					"student" + i + "@example.com", false, true, false));
+		}
+
+		double single = 0;
+		for (int threads = 1; threads <= cores; threads *= 2) {
+			double rate = best(roster, threads);
+			if (threads == 1) single = rate;
+			System.out.printf("%-8d %-18s %-8s%n", threads, String.format("%,.0f", rate),
+					String.format("%.2fx", rate / single));
+		}
+	}
+
+	// Returns the best rate of the timed rounds, in accounts per second
+	private static double best(List<User> roster, int threads) throws Exception {
+		ForkJoinPool pool = new ForkJoinPool(threads);
+		try {
+			pool.submit(() -> RosterValidator.validateAll(roster)).get();		// Warm up
+			double best = 0;
+			for (int r = 0; r < ROUNDS; r++) {
+				long start = System.nanoTime();
+				RosterValidationReport report = pool.submit(() -> RosterValidator.validateAll(roster)).get();
+				long elapsed = System.nanoTime() - start;
+				if (report.getFailures().size() != ROSTER_SIZE / 20) throw new IllegalStateException(report.toString());
+				best = Math.max(best, ROSTER_SIZE / (elapsed / 1e9));
+			}
+			return best;
+		} finally {
+			pool.shutdown();
+		}
+	}
+}
@@ -0,0 +1,141 @@
+package entityClasses;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * <p> Title: RosterValidationReport </p>
+ *
+ * <p> Description: The outcome of RosterValidator.validateAll: how many accounts were checked and,
+ * for each account with a bad field, its position, its userName, which fields failed and the
+ * ValidationResult of each. Accounts that pass take no space, so the report of a large roster
+ * that is mostly valid stays small. </p>
+ *
+ * @author Amairani Caballero
+ */
+public final class RosterValidationReport {
+
+	private final int recordCount;
+
+	private final List<RecordFailure> failures;
+
+	/**
+	 * @param recordCount number of accounts checked
+	 * @param failures the accounts with a bad field, in roster order
+	 */
+	public RosterValidationReport(int recordCount, List<RecordFailure> failures) {
+		this.recordCount = recordCount;
+		this.failures = List.copyOf(failures);
+	}
+
+	/**
+	 * @return number of accounts checked
+	 */
+	public int getRecordCount() {
+		return recordCount;
+	}
+
+	/**
+	 * @return number of accounts whose fields all passed
+	 */
+	public int getValidCount() {
+		return recordCount - failures.size();
+	}
+
+	/**
+	 * @return the accounts with a bad field, in roster order (unmodifiable)
+	 */
+	public List<RecordFailure> getFailures() {
+		return failures;
+	}
+
+	/**
+	 * @return true if every account passed
+	 */
+	public boolean isAllValid() {
+		return failures.isEmpty();
+	}
+
+	@Override
+	public String toString() {
+		return "RosterValidationReport{records=" + recordCount + ", failed=" + failures.size() + "}";
+	}
+
+	/**
+	 * One account with at least one bad field.
+	 */
+	public static final class RecordFailure {
+
+		private final int index;
+
+		private final String userName;
+
+		/** Bit i is set if field i (in RosterValidator.Field order) failed. */
+		private final int failedFields;
+
+		/** The results of the failed fields only, in field order. */
+		private final ValidationResult[] results;
+
+		/**
+		 * @param index the account's position in the roster, counting from 0
+		 * @param userName the account's userName, may be null
+		 * @param failedFields bit i set if field i failed
+		 * @param results the results of the failed fields, in field order
+		 */
+		RecordFailure(int index, String userName, int failedFields, ValidationResult[] results) {
+			this.index = index;
+			this.userName = userName;
+			this.failedFields = failedFields;
+			this.results = results;
+		}
+
+		/** @return the account's position in the roster, counting from 0 */
+		public int getIndex() { return index; }
+
+		/** @return the account's userName, may be null or invalid */
+		public String getUserName() { return userName; }
+
+		/**
+		 * @param field a field
+		 * @return true if that field failed
+		 */
+		public boolean hasFailed(RosterValidator.Field field) {
+			return (failedFields & (1 << field.ordinal())) != 0;
+		}
+
+		/**
+		 * @return the fields that failed
+		 */
+		public Set<RosterValidator.Field> getFailedFields() {
+			EnumSet<RosterValidator.Field> fields = EnumSet.noneOf(RosterValidator.Field.class);
+			for (RosterValidator.Field field : RosterValidator.Field.values()) {
+				if (hasFailed(field)) fields.add(field);
+			}
+			return fields;
+		}
+
+		/**
+		 * @param field a field
+		 * @return that field's result, ValidationResult.valid() if it passed or was not checked
+		 */
+		public ValidationResult getResult(RosterValidator.Field field) {
+			if (!hasFailed(field)) return ValidationResult.valid();
+			int lowerFields = failedFields & ((1 << field.ordinal()) - 1);
+			return results[Integer.bitCount(lowerFields)];
+		}
+
+		/**
+		 * @return the message of the first failed field, without the trailing line break
+		 */
+		public String getMessage() {
+			return results[0].getMessage().trim();
+		}
+
+		@Override
+		public String toString() {
+			return "Record " + index + (userName == null ? "" : " (" + userName + ")") + ": "
+					+ getFailedFields() + " " + getMessage();
+		}
+	}
+}
@@ -0,0 +1,131 @@
+package entityClasses;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * <p> Title: RosterValidator </p>
+ *
+ * <p> Description: Checks the fields of many accounts at once, e.g. a roster before it is
+ * imported, with the same InputRecognizer rules as the account pages. The userName and password
+ * are required; the email address and the names are checked when they are given. </p>
+ *
+ * <p> The accounts of a roster are independent and InputRecognizer keeps no shared state, so
+ * validateAll splits a large roster across the common fork-join pool with a parallel stream and
+ * its throughput grows with the number of cores. Only accounts with a bad field produce anything,
+ * so a mostly valid roster costs almost no allocation. Run it inside another ForkJoinPool to
+ * choose the number of threads. </p>
+ *
+ * @author Amairani Caballero
+ */
+public final class RosterValidator {
+
+	/** Rosters smaller than this are checked on the caller's thread; splitting would cost more. */
+	static final int PARALLEL_THRESHOLD = 2_000;
+
+	/**
+	 * The account fields that are checked, in the order their results are reported.
+	 */
+	public enum Field {
+		/** The userName, required. */
+		USERNAME(User::getUserName, InputRecognizer::validateUsername, true),
+		/** The password, required. */
+		PASSWORD(User::getPassword, InputRecognizer::validatePassword, true),
+		/** The email address, checked if given. */
+		EMAIL_ADDRESS(User::getEmailAddress, InputRecognizer::validateEmailAddress, false),
+		/** The first name, checked if given. */
+		FIRST_NAME(User::getFirstName, InputRecognizer::validateName, false),
+		/** The middle name, checked if given. */
+		MIDDLE_NAME(User::getMiddleName, InputRecognizer::validateName, false),
+		/** The last name, checked if given. */
+		LAST_NAME(User::getLastName, InputRecognizer::validateName, false),
+		/** The preferred first name, checked if given. */
+		PREFERRED_FIRST_NAME(User::getPreferredFirstName, InputRecognizer::validateName, false);
+
+		private final Function<User, String> getter;
+
+		private final Function<String, ValidationResult> validator;
+
+		private final boolean required;
+
+		Field(Function<User, String> getter, Function<String, ValidationResult> validator, boolean required) {
+			this.getter = getter;
+			this.validator = validator;
+			this.required = required;
+		}
+
+		/**
+		 * @return true if the field must be given
+		 */
+		public boolean isRequired() {
+			return required;
+		}
+	}
+
+	private static final Field[] FIELDS = Field.values();
+
+	private RosterValidator() {
+		// Only static methods
+	}
+
+	/**
+	 * <p> Description: Checks every account of a roster. </p>
+	 *
+	 * @param accounts the accounts, in roster order
+	 * @return the number of accounts checked and the ones with a bad field, in roster order
+	 */
+	public static RosterValidationReport validateAll(Collection<User> accounts) {
+		User[] records = accounts.toArray(new User[0]);
+		IntStream indexes = IntStream.range(0, records.length);
+		if (records.length >= PARALLEL_THRESHOLD) indexes = indexes.parallel();
+		List<RosterValidationReport.RecordFailure> failures = indexes
+				.mapToObj(i -> check(i, records[i]))
+				.filter(Objects::nonNull)
+				.toList();
+		return new RosterValidationReport(records.length, failures);
+	}
+
+	/**
+	 * <p> Description: Checks every account of a roster read as a stream, e.g. parsed lines. The
+	 * stream is collected first so that it can be split evenly. </p>
+	 *
+	 * @param accounts the accounts, in roster order
+	 * @return the number of accounts checked and the ones with a bad field, in roster order
+	 */
+	public static RosterValidationReport validateAll(Stream<User> accounts) {
+		return validateAll(accounts.toList());
+	}
+
+	/**
+	 * <p> Description: Checks one account. </p>
+	 *
+	 * @param index the account's position in the roster, reported with its failure
+	 * @param account the account
+	 * @return null if every field passed, else the failed fields and their results
+	 */
+	public static RosterValidationReport.RecordFailure check(int index, User account) {
+		int failedFields = 0;
+		ValidationResult[] results = null;
+		int failed = 0;
+		for (Field field : FIELDS) {
+			String value = field.getter.apply(account);
+			if (value == null || value.isEmpty()) {
+				if (!field.required) continue;
+				value = "";
+			}
+			ValidationResult result = field.validator.apply(value);
+			if (result.isValid()) continue;
+			if (results == null) results = new ValidationResult[FIELDS.length];
+			results[failed++] = result;
+			failedFields |= 1 << field.ordinal();
+		}
+		if (failedFields == 0) return null;
+		return new RosterValidationReport.RecordFailure(index, account.getUserName(), failedFields,
+				Arrays.copyOf(results, failed));
+	}
+}
@@ -0,0 +1,161 @@
+package entityClasses;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * <p> Title: RosterValidatorTestingAutomation </p>
+ *
+ * <p> Description: Console-based tests for RosterValidator. Builds rosters with bad fields at
+ * known positions and checks that exactly those accounts are reported, with the right fields and
+ * messages, that optional fields are only checked when given, and that the parallel validation
+ * of a 100,000 account roster gives the same report as checking the accounts one by one, in the
+ * common pool, in a pool of four threads and from a stream. Prints PASS/FAIL lines in the same
+ * format as DiscussionConcurrencyTestingAutomation. </p>
+ *
+ * @author Amairani Caballero
+ */
+public class RosterValidatorTestingAutomation {
+
+	/** Counter of the number of passed tests. */
+	static int numPassed = 0;
+
+	/** Counter of the number of failed tests. */
+	static int numFailed = 0;
+
+	/** Accounts in the large roster. */
+	static final int LARGE_ROSTER = 100_000;
+
+	public static void main(String[] args) throws Exception {
+		System.out.println("*** RosterValidator TestingAutomation Begins ***\n");
+
+		System.out.println("---------- SINGLE ACCOUNT TEST CASES ----------\n");
+
+		RosterValidationReport.RecordFailure none = RosterValidator.check(0, account(1));
+		expectBoolean(1, "A valid account is not reported", "student1 with all fields", true,
+				none == null, "failure=" + none);
+
+		User blanks = new User("student2", "Passw0rd!", "", null, "", null, "", false, true, false);
+		RosterValidationReport.RecordFailure optional = RosterValidator.check(0, blanks);
+		expectBoolean(2, "Optional fields are skipped when not given", "no names and no email", true,
+				optional == null, "failure=" + optional);
+
+		User missing = new User(null, "Passw0rd!", "Ann", "", "Lee", "", "", false, true, false);
+		RosterValidationReport.RecordFailure required = RosterValidator.check(7, missing);
+		expectBoolean(3, "A missing userName is reported", "userName null", true,
+				required != null && required.getIndex() == 7
+						&& required.getFailedFields().equals(EnumSet.of(RosterValidator.Field.USERNAME))
+						&& required.getResult(RosterValidator.Field.USERNAME).getCode() == ValidationResult.Code.EMPTY,
+				"failure=" + required);
+
+		User several = new User("1bad", "Passw0rd!", "Ann", "X", "Lee-Smith", "", "ann@@example.com", true, false, false);
+		RosterValidationReport.RecordFailure many = RosterValidator.check(3, several);
+		expectBoolean(4, "Every bad field is reported in field order", "bad userName, email, middle and last name", true,
+				many != null
+						&& many.getFailedFields().equals(EnumSet.of(RosterValidator.Field.USERNAME,
+								RosterValidator.Field.EMAIL_ADDRESS, RosterValidator.Field.MIDDLE_NAME,
+								RosterValidator.Field.LAST_NAME))
+						&& many.getMessage().equals("Username must start with a letter.")
+						&& many.getResult(RosterValidator.Field.LAST_NAME).getIndex() == 3
+						&& many.getResult(RosterValidator.Field.MIDDLE_NAME).getCode() == ValidationResult.Code.TOO_SHORT
+						&& many.getResult(RosterValidator.Field.PASSWORD).isValid(),
+				"failure=" + many);
+
+		System.out.println("---------- LARGE ROSTER TEST CASES ----------\n");
+
+		List<User> roster = new ArrayList<>(LARGE_ROSTER);
+		List<Integer> badIndexes = new ArrayList<>();
+		for (int i = 0; i < LARGE_ROSTER; i++) {
+			if (i % 997 == 0) {
+				roster.add(new User("student" + i, "short", "Ann", "", "Lee", "", "s" + i + "@example.com", false, true, false));
+				badIndexes.add(i);
+			} else {
+				roster.add(account(i));
+			}
+		}
+
+		RosterValidationReport report = RosterValidator.validateAll(roster);
+		List<Integer> reported = new ArrayList<>();
+		boolean passwordsOnly = true;
+		for (RosterValidationReport.RecordFailure f : report.getFailures()) {
+			reported.add(f.getIndex());
+			if (!f.getFailedFields().equals(EnumSet.of(RosterValidator.Field.PASSWORD))
+					|| !f.getUserName().equals("student" + f.getIndex())) passwordsOnly = false;
+		}
+		expectBoolean(5, "Exactly the bad accounts are reported, in roster order",
+				LARGE_ROSTER + " accounts, every 997th with a short password", true,
+				reported.equals(badIndexes) && passwordsOnly
+						&& report.getRecordCount() == LARGE_ROSTER
+						&& report.getValidCount() == LARGE_ROSTER - badIndexes.size(),
+				"report=" + report + ", expected failures=" + badIndexes.size());
+
+		List<String> sequential = new ArrayList<>();
+		for (int i = 0; i < roster.size(); i++) {
+			RosterValidationReport.RecordFailure f = RosterValidator.check(i, roster.get(i));
+			if (f != null) sequential.add(f.toString());
+		}
+		expectBoolean(6, "Parallel report equals checking one by one", "same roster", true,
+				describe(report).equals(sequential), "sequential failures=" + sequential.size());
+
+		ForkJoinPool four = new ForkJoinPool(4);
+		RosterValidationReport inPool = four.submit(() -> RosterValidator.validateAll(roster)).get();
+		four.shutdown();
+		RosterValidationReport fromStream = RosterValidator.validateAll(roster.stream());
+		expectBoolean(7, "Same report in a pool of four threads and from a stream", "same roster", true,
+				describe(inPool).equals(sequential) && describe(fromStream).equals(sequential),
+				"inPool=" + inPool + ", fromStream=" + fromStream);
+
+		RosterValidationReport small = RosterValidator.validateAll(roster.subList(0, 10));
+		expectBoolean(8, "A small roster is checked too", "first 10 accounts", true,
+				small.getRecordCount() == 10 && small.getFailures().size() == 1
+						&& small.getFailures().get(0).getIndex() == 0,
+				"report=" + small);
+
+		// Summary info
+		System.out.println("\n---------- SUMMARY ----------");
+		System.out.println("Passed: " + numPassed);
+		System.out.println("Failed: " + numFailed);
+	}
+
+	// A valid account with every field given
+	private static User account(int i) {
+		return new User("student" + i, "Passw0rd!" + i, "Ann", "Marie", "Lee", "Annie",
+				"student" + i + "@example.com", false, true, false);
+	}
+
+	private static List<String> describe(RosterValidationReport report) {
+		List<String> lines = new ArrayList<>();
+		for (RosterValidationReport.RecordFailure f : report.getFailures()) lines.add(f.toString());
+		return lines;
+	}
+
+	// Output helpers
+	private static void expectBoolean(
+			int testId,
+			String testName,
+			String input,
+			boolean expected,
+			boolean actual,
+			String details) {
+
+		boolean pass = (expected == actual);
+
+		System.out.println("TC" + ((testId < 10) ? ("0" + testId) : String.valueOf(testId)) + " - " + testName);
+		System.out.println("Input:    " + input);
+		System.out.println("Expected: " + expected);
+		System.out.println("Actual:   " + actual);
+		System.out.println("Details:  " + details);
+
+		if (pass) {
+			numPassed++;
+			System.out.println("Result:   PASS");
+		} else {
+			numFailed++;
+			System.out.println("Result:   FAIL");
+		}
+
+		System.out.println();
+	}
+}
@@ -0,0 +1,214 @@
+package entityClasses;
+
+import java.util.Arrays;
+
+/**
+ * <p> Title: TextSearchIndex Class </p>
+ *
+ * <p> Description: An inverted index used by PostStore and ReplyStore to answer keyword searches
+ * without lowercasing and scanning every post or reply. Text is broken into overlapping tokens of
+ * three characters (trigrams) and each token maps to a sorted posting list of the ids that contain
+ * it. A keyword of three or more characters can only appear in ids that contain every trigram of
+ * the keyword, so the candidates are the intersection of those lists. The store then confirms each
+ * candidate with {@link #containsIgnoreCase(String, String)}, which keeps the original
+ * "case-insensitive contains()" semantics exactly, including keywords spanning several words. </p>
+ *
+ * <p> The index is maintained incrementally: the owning store calls {@link #add(int, String...)}
+ * when an item is created and {@link #remove(int, String...)} with the old text before an edit or
+ * deletion. Case is folded one character at a time with Character.toLowerCase, so a match never
+ * allocates. The only difference from String.toLowerCase().contains() is for the rare characters
+ * whose lowercase form is longer than one char (e.g., a dotted capital I). This class is not thread-safe on its own, the owning store is responsible for
+ * guarding it. </p>
+ * @author Amairani Caballero
+ */
+class TextSearchIndex {
+
+	/** Length of an indexed token. Keywords shorter than this cannot use the index. */
+	static final int GRAM_LENGTH = 3;
+
+	/** Returned when a keyword has a trigram that no indexed item contains. */
+	private static final int[] NO_IDS = new int[0];
+
+	/** Trigram key to the sorted ids of the items containing it. */
+	private final IntObjectMap<Postings> postings = new IntObjectMap<>();
+
+	/**
+	 * Indexes the text fields of an item.
+	 *
+	 * @param id item id (post id or reply id)
+	 * @param fields text fields of the item, null fields are ignored
+	 */
+	void add(int id, String... fields) {
+		for (String field : fields) {
+			if (field == null) continue;
+			for (int i = 0; i + GRAM_LENGTH <= field.length(); i++) {
+				int key = gramKey(field, i);
+				Postings list = postings.get(key);
+				if (list == null) {
+					list = new Postings();
+					postings.put(key, list);
+				}
+				list.insert(id);
+			}
+		}
+	}
+
+	/**
+	 * Removes an item from the index. The fields must be the text that was indexed for it.
+	 *
+	 * @param id item id
+	 * @param fields text fields that were passed to add, null fields are ignored
+	 */
+	void remove(int id, String... fields) {
+		for (String field : fields) {
+			if (field == null) continue;
+			for (int i = 0; i + GRAM_LENGTH <= field.length(); i++) {
+				int key = gramKey(field, i);
+				Postings list = postings.get(key);
+				if (list == null) continue;
+				list.delete(id);
+				if (list.size == 0) postings.remove(key);
+			}
+		}
+	}
+
+	/**
+	 * Finds the ids that may contain a keyword. Every id that does contain it is returned, but
+	 * some returned ids may not, so the caller must confirm each one.
+	 *
+	 * @param lowerKeyword trimmed, lowercased keyword
+	 * @return candidate ids in ascending order, or null if the keyword is too short for the index
+	 */
+	int[] candidates(String lowerKeyword) {
+		int gramCount = lowerKeyword.length() - GRAM_LENGTH + 1;
+		if (gramCount <= 0) return null;
+
+		Postings[] lists = new Postings[gramCount];
+		for (int i = 0; i < gramCount; i++) {
+			lists[i] = postings.get(gramKey(lowerKeyword, i));
+			if (lists[i] == null) return NO_IDS;
+		}
+
+		// Intersect starting from the shortest list so the work is bounded by the rarest trigram
+		Arrays.sort(lists, (a, b) -> Integer.compare(a.size, b.size));
+		int[] result = Arrays.copyOf(lists[0].ids, lists[0].size);
+		int count = result.length;
+		for (int l = 1; l < lists.length && count > 0; l++) {
+			Postings other = lists[l];
+			if (other == lists[l - 1]) continue;	// Repeated trigram in the keyword
+			count = (other.size <= count * 8)
+					? intersectByMerge(result, count, other)
+					: intersectBySearch(result, count, other);
+		}
+		return (count == result.length) ? result : Arrays.copyOf(result, count);
+	}
+
+	/**
+	 * Case-insensitive substring test that does not allocate.
+	 *
+	 * @param text text to search, null never matches
+	 * @param lowerKeyword lowercased, non-empty keyword
+	 * @return true if text contains the keyword ignoring case
+	 */
+	static boolean containsIgnoreCase(String text, String lowerKeyword) {
+		if (text == null) return false;
+		int last = text.length() - lowerKeyword.length();
+		char first = lowerKeyword.charAt(0);
+		char firstUpper = Character.toUpperCase(first);
+		for (int i = 0; i <= last; i++) {
+			// Cheap rejection first, folding is only needed for the remaining non-ASCII chars
+			char c = text.charAt(i);
+			if (c != first && c != firstUpper && (c < 128 || Character.toLowerCase(c) != first)) continue;
+			int j = 1;
+			while (j < lowerKeyword.length()
+					&& Character.toLowerCase(text.charAt(i + j)) == lowerKeyword.charAt(j)) {
+				j++;
+			}
+			if (j == lowerKeyword.length()) return true;
+		}
+		return false;
+	}
+
+	/**
+	 * @return number of distinct trigrams currently indexed
+	 */
+	int tokenCount() {
+		return postings.size();
+	}
+
+	// Keeps the ids in result[0..count) that are also in other, for lists of similar length
+	private static int intersectByMerge(int[] result, int count, Postings other) {
+		int kept = 0;
+		int j = 0;
+		for (int i = 0; i < count && j < other.size; i++) {
+			int id = result[i];
+			while (j < other.size && other.ids[j] < id) j++;
+			if (j < other.size && other.ids[j] == id) result[kept++] = id;
+		}
+		return kept;
+	}
+
+	// Keeps the ids in result[0..count) that are also in other, when other is much longer
+	private static int intersectBySearch(int[] result, int count, Postings other) {
+		int kept = 0;
+		int from = 0;
+		for (int i = 0; i < count; i++) {
+			int pos = Arrays.binarySearch(other.ids, from, other.size, result[i]);
+			if (pos >= 0) {
+				result[kept++] = result[i];
+				from = pos + 1;
+			} else {
+				from = -pos - 1;
+			}
+		}
+		return kept;
+	}
+
+	// Folds the case of the three characters at start and packs them into a key. Characters below
+	// 1024 pack exactly into 30 bits; anything else is hashed into a negative key. A hash collision
+	// only adds candidates, which the caller's confirmation step removes.
+	private static int gramKey(String s, int start) {
+		int a = Character.toLowerCase(s.charAt(start));
+		int b = Character.toLowerCase(s.charAt(start + 1));
+		int c = Character.toLowerCase(s.charAt(start + 2));
+		if ((a | b | c) < 1024) return (a << 20) | (b << 10) | c;
+		return ((a * 31 + b) * 31 + c) | 0x80000000;
+	}
+
+	/**
+	 * A growable, sorted array of ids without duplicates.
+	 */
+	private static final class Postings {
+
+		private int[] ids = new int[4];
+
+		private int size;
+
+		private void insert(int id) {
+			// Ids are handed out in increasing order, so appending is the common case
+			if (size == 0 || ids[size - 1] < id) {
+				grow();
+				ids[size++] = id;
+				return;
+			}
+			int pos = Arrays.binarySearch(ids, 0, size, id);
+			if (pos >= 0) return;
+			pos = -pos - 1;
+			grow();
+			System.arraycopy(ids, pos, ids, pos + 1, size - pos);
+			ids[pos] = id;
+			size++;
+		}
+
+		private void delete(int id) {
+			int pos = Arrays.binarySearch(ids, 0, size, id);
+			if (pos < 0) return;
+			System.arraycopy(ids, pos + 1, ids, pos, size - pos - 1);
+			size--;
+		}
+
+		private void grow() {
+			if (size == ids.length) ids = Arrays.copyOf(ids, size << 1);
+		}
+	}
+}
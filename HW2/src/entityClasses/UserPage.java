@@ -0,0 +1,61 @@
+package entityClasses;
+
+import java.util.List;
+
+/**
+ * <p> Title: UserPage </p>
+ *
+ * <p> Description: One page of users from Database.listUsers, in userName order. When there are
+ * more users after this page, {@link #getNextCursor()} gives the cursor to pass back for the next
+ * one. The cursor is the last userName on the page, so a page is found through the userName index
+ * however far into the list it is, and users added or deleted meanwhile do not shift it. </p>
+ *
+ * @author Amairani Caballero
+ */
+public final class UserPage {
+
+	private static final UserPage EMPTY = new UserPage(List.of(), null);
+
+	private final List<UserSummary> users;
+
+	/** The userName to continue after, null on the last page. */
+	private final String nextCursor;
+
+	/**
+	 * @param users the users on this page, in userName order
+	 * @param nextCursor the cursor of the next page, or null if this is the last page
+	 */
+	public UserPage(List<UserSummary> users, String nextCursor) {
+		this.users = List.copyOf(users);
+		this.nextCursor = nextCursor;
+	}
+
+	/**
+	 * @return a page with no users and nothing after it
+	 */
+	public static UserPage empty() {
+		return EMPTY;
+	}
+
+	/**
+	 * @return the users on this page, in userName order (unmodifiable)
+	 */
+	public List<UserSummary> getUsers() {
+		return users;
+	}
+
+	/**
+	 * @return true if there are more users after this page
+	 */
+	public boolean hasMore() {
+		return nextCursor != null;
+	}
+
+	/**
+	 * @return the cursor to pass to Database.listUsers for the next page, or null if this is the
+	 * last page
+	 */
+	public String getNextCursor() {
+		return nextCursor;
+	}
+}
@@ -0,0 +1,119 @@
+package entityClasses;
+
+/**
+ * <p> Title: UserRecord Class </p>
+ *
+ * <p> Description: An immutable snapshot of one row of the user table, returned by
+ * Database.findUser. Unlike the mutable User entity it can be shared between threads and cached
+ * freely, since nothing can change it after the lookup. The getters use the same names as User so
+ * callers read the same way, and {@link #toUser()} gives a User for the GUI pages that still take
+ * one. </p>
+ *
+ * @author Amairani Caballero
+ */
+public final class UserRecord {
+
+	private final String userName;
+	private final String password;
+	private final String firstName;
+	private final String middleName;
+	private final String lastName;
+	private final String preferredFirstName;
+	private final String emailAddress;
+	private final boolean adminRole;
+	private final boolean role1;
+	private final boolean role2;
+
+	/**
+	 * <p> Description: Creates a snapshot of a user's account. </p>
+	 *
+	 * @param userName the account userName
+	 * @param password the account password
+	 * @param firstName the first name
+	 * @param middleName the middle name
+	 * @param lastName the last name
+	 * @param preferredFirstName the preferred first name
+	 * @param emailAddress the email address
+	 * @param adminRole true if the user plays the Admin role
+	 * @param role1 true if the user plays Role1
+	 * @param role2 true if the user plays Role2
+	 */
+	public UserRecord(String userName, String password, String firstName, String middleName,
+			String lastName, String preferredFirstName, String emailAddress, boolean adminRole,
+			boolean role1, boolean role2) {
+		this.userName = userName;
+		this.password = password;
+		this.firstName = firstName;
+		this.middleName = middleName;
+		this.lastName = lastName;
+		this.preferredFirstName = preferredFirstName;
+		this.emailAddress = emailAddress;
+		this.adminRole = adminRole;
+		this.role1 = role1;
+		this.role2 = role2;
+	}
+
+	/** @return the userName */
+	public String getUserName() { return userName; }
+
+	/** @return the password */
+	public String getPassword() { return password; }
+
+	/** @return the first name */
+	public String getFirstName() { return firstName; }
+
+	/** @return the middle name */
+	public String getMiddleName() { return middleName; }
+
+	/** @return the last name */
+	public String getLastName() { return lastName; }
+
+	/** @return the preferred first name */
+	public String getPreferredFirstName() { return preferredFirstName; }
+
+	/** @return the email address */
+	public String getEmailAddress() { return emailAddress; }
+
+	/** @return true if this user plays the Admin role */
+	public boolean getAdminRole() { return adminRole; }
+
+	/** @return true if this user plays Role1 */
+	public boolean getNewRole1() { return role1; }
+
+	/** @return true if this user plays Role2 */
+	public boolean getNewRole2() { return role2; }
+
+	/**
+	 * <p> Description: Returns the number of roles this user plays. </p>
+	 *
+	 * @return the number of roles (0 - 3)
+	 */
+	public int getNumRoles() {
+		int numRoles = 0;
+		if (adminRole) numRoles++;
+		if (role1) numRoles++;
+		if (role2) numRoles++;
+		return numRoles;
+	}
+
+	/**
+	 * <p> Description: Creates a new mutable User with this snapshot's values. </p>
+	 *
+	 * @return a User that the caller owns
+	 */
+	public User toUser() {
+		return new User(userName, password, firstName, middleName, lastName, preferredFirstName,
+				emailAddress, adminRole, role1, role2);
+	}
+
+	@Override
+	public String toString() {
+		// The password is deliberately left out
+		return "UserRecord{userName='" + userName + "'" +
+				", email='" + emailAddress + "'" +
+				", admin=" + adminRole +
+				", role1=" + role1 +
+				", role2=" + role2 +
+				"}";
+	}
+}
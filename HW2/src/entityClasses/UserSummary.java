@@ -0,0 +1,77 @@
+package entityClasses;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p> Title: UserSummary </p>
+ *
+ * <p> Description: The columns of one user that the Admin lists show: the userName, the name, the
+ * email address and the roles. Returned a page at a time by Database.listUsers, so the lists no
+ * longer have to cut the userName back out of a display string. Immutable. </p>
+ *
+ * @author Amairani Caballero
+ */
+public final class UserSummary {
+
+	private final String userName;
+	private final String firstName;
+	private final String lastName;
+	private final String emailAddress;
+	private final int roleMask;
+
+	/**
+	 * @param userName the account userName
+	 * @param firstName the first name
+	 * @param lastName the last name
+	 * @param emailAddress the email address
+	 * @param roleMask the roles, as bits of {@link Role}
+	 */
+	public UserSummary(String userName, String firstName, String lastName, String emailAddress,
+			int roleMask) {
+		this.userName = userName;
+		this.firstName = firstName;
+		this.lastName = lastName;
+		this.emailAddress = emailAddress;
+		this.roleMask = roleMask;
+	}
+
+	/** @return the userName */
+	public String getUserName() { return userName; }
+
+	/** @return the first name */
+	public String getFirstName() { return firstName; }
+
+	/** @return the last name */
+	public String getLastName() { return lastName; }
+
+	/** @return the email address */
+	public String getEmailAddress() { return emailAddress; }
+
+	/** @return the roles, as bits of {@link Role} */
+	public int getRoleMask() { return roleMask; }
+
+	/**
+	 * @param role a role
+	 * @return true if this user plays the role
+	 */
+	public boolean hasRole(Role role) {
+		return role.isIn(roleMask);
+	}
+
+	/**
+	 * @return the names of the roles this user plays, e.g. "Admin, Role1"
+	 */
+	public String getRoleNames() {
+		List<String> names = new ArrayList<>();
+		for (Role role : Role.values()) {
+			if (hasRole(role)) names.add(role.getName());
+		}
+		return String.join(", ", names);
+	}
+
+	@Override
+	public String toString() {
+		return userName;
+	}
+}
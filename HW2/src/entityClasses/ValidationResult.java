@@ -0,0 +1,101 @@
+package entityClasses;
+
+/**
+ * <p> Title: ValidationResult </p>
+ *
+ * <p> Description: The outcome of one InputRecognizer validation: a code saying what kind of
+ * problem was found, the message the GUI shows, and the index of the character where the
+ * recognizer stopped. Each call gets its own result, so validations running on several threads
+ * cannot see each other's answers. Immutable; the valid outcome is a single shared instance. </p>
+ *
+ * @author Amairani Caballero
+ */
+public final class ValidationResult {
+
+	/**
+	 * The kinds of problem the recognizers report.
+	 */
+	public enum Code {
+		/** The input was accepted. */
+		VALID,
+		/** There was no input. */
+		EMPTY,
+		/** The input, or a required part of it, is shorter than allowed. */
+		TOO_SHORT,
+		/** The input, or a part of it, is longer than allowed. */
+		TOO_LONG,
+		/** The first character is not one the input may start with. */
+		INVALID_START,
+		/** A character is not allowed where it appears, or the input ended too early. */
+		INVALID_CHARACTER,
+		/** A separator such as '.', '-' or '_' is not between two alphanumeric characters. */
+		MISPLACED_SEPARATOR
+	}
+
+	private static final ValidationResult VALID = new ValidationResult(Code.VALID, "", -1);
+
+	private final Code code;
+
+	/** The help text, exactly as the static InputRecognizer.check methods return it. */
+	private final String message;
+
+	/** Index of the character where the error was found, -1 when valid. */
+	private final int index;
+
+	private ValidationResult(Code code, String message, int index) {
+		this.code = code;
+		this.message = message;
+		this.index = index;
+	}
+
+	/**
+	 * @return the result for accepted input
+	 */
+	public static ValidationResult valid() {
+		return VALID;
+	}
+
+	/**
+	 * @param code what kind of problem was found, not VALID
+	 * @param message the help text shown to the user
+	 * @param index the index of the character where the error was found
+	 * @return a failed result
+	 */
+	public static ValidationResult invalid(Code code, String message, int index) {
+		if (code == Code.VALID) throw new IllegalArgumentException("An invalid result needs an error code");
+		return new ValidationResult(code, message, index);
+	}
+
+	/**
+	 * @return true if the input was accepted
+	 */
+	public boolean isValid() {
+		return code == Code.VALID;
+	}
+
+	/**
+	 * @return what kind of problem was found, VALID if none
+	 */
+	public Code getCode() {
+		return code;
+	}
+
+	/**
+	 * @return the help text, empty when valid
+	 */
+	public String getMessage() {
+		return message;
+	}
+
+	/**
+	 * @return the index of the character where the error was found, -1 when valid
+	 */
+	public int getIndex() {
+		return index;
+	}
+
+	@Override
+	public String toString() {
+		return isValid() ? "VALID" : code + " at " + index + ": " + message.trim();
+	}
+}
@@ -1,11 +1,16 @@
 package guiAddRemoveRoles;
 
-import database.Database;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import database.AsyncDatabase;
+import entityClasses.Role;
+import entityClasses.UserRecord;
+import guiTools.DatabaseErrors;
 import javafx.collections.FXCollections;
 import javafx.scene.control.ComboBox;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Alert.AlertType;
-import java.util.List;
 
 /*******
  * <p> Title: ControllerAddRemoveRoles Class. </p>
@@ -39,21 +44,47 @@ public class ControllerAddRemoveRoles {
 	public ControllerAddRemoveRoles() {
 	}
 	
-	// Reference for the in-memory database so this package has access
-	private static Database theDatabase = applicationMain.FoundationsMain.database;
+	// Reference for background access to the database so this package has access
+	private static AsyncDatabase theAsyncDatabase = applicationMain.FoundationsMain.asyncDatabase;
+
+	// Snapshot of the selected user's account, null when no user is selected
+	private static UserRecord theSelectedRecord = null;
 
 	/**********
 	 * <p> Method: doSelectUser() </p>
 	 * * <p> Description: This method uses the ComboBox widget, fetches which item in the ComboBox
-	 * was selected (a user in this case), and establishes that user and the current user, setting
-	 * easily accessible values without needing to do a query. </p>
+	 * was selected (a user in this case), and fetches a snapshot of that user's account so the
+	 * role checks below do not need another query. The snapshot is fetched in the background and
+	 * the page is set up when it arrives. </p>
 	 */
 	protected static void doSelectUser() {
-		ViewAddRemoveRoles.theSelectedUser = (String) ViewAddRemoveRoles.combobox_SelectUser.getValue();
-		theDatabase.getUserAccountDetails(ViewAddRemoveRoles.theSelectedUser);
+		String selectedUser = (String) ViewAddRemoveRoles.combobox_SelectUser.getValue();
+		ViewAddRemoveRoles.theSelectedUser = selectedUser;
+		theAsyncDatabase.call(db -> db.findUser(selectedUser))
+			.thenAccept(record -> showSelectedUser(selectedUser, record))
+			.exceptionally(DatabaseErrors::report);
+	}
+
+	// Shows a fresh snapshot of the selected user after a selection or a role change. An answer
+	// that arrives after the admin has already picked someone else is dropped.
+	private static void showSelectedUser(String selectedUser, Optional<UserRecord> record) {
+		if (!selectedUser.equals(ViewAddRemoveRoles.theSelectedUser)) return;
+		theSelectedRecord = record.orElse(null);
 		setupSelectedUser();
 	}
 
+	private static boolean selectedHasAdmin() {
+		return theSelectedRecord != null && theSelectedRecord.getAdminRole();
+	}
+
+	private static boolean selectedHasRole1() {
+		return theSelectedRecord != null && theSelectedRecord.getNewRole1();
+	}
+
+	private static boolean selectedHasRole2() {
+		return theSelectedRecord != null && theSelectedRecord.getNewRole2();
+	}
+
 	/**********
 	 * <p> Method: repaintTheWindow() </p>
 	 * * <p> Description: This method determines the current state of the window and then establishes
@@ -101,8 +132,7 @@ public class ControllerAddRemoveRoles {
 	 * for the selected user. It updates the ComboBox selections based on the user's current roles.</p>
 	 */
 	protected static void setupSelectedUser() {
-		// The database was already updated with the selected user's details in doSelectUser()
-		// Now fetch those values from the database
+		// The selected user's details were fetched in doSelectUser() or after the last role change
 		
 		ViewAddRemoveRoles.addList.clear();
 		ViewAddRemoveRoles.addList.add("<Select a role>");
@@ -111,39 +141,39 @@ public class ControllerAddRemoveRoles {
 		ViewAddRemoveRoles.removeList.add("<Select a role>");
 		
 		// Build the list of roles to add based on current database state
-		if (!theDatabase.getCurrentAdminRole()) {
+		if (!selectedHasAdmin()) {
 			ViewAddRemoveRoles.addList.add("Admin");
 		}
-		if (!theDatabase.getCurrentNewRole1()) {
+		if (!selectedHasRole1()) {
 			ViewAddRemoveRoles.addList.add("Role1");
 		}
-		if (!theDatabase.getCurrentNewRole2()) {
+		if (!selectedHasRole2()) {
 			ViewAddRemoveRoles.addList.add("Role2");
 		}
 		
 		// Build the list of roles to remove based on current database state
-		if (theDatabase.getCurrentAdminRole()) {
+		if (selectedHasAdmin()) {
 			ViewAddRemoveRoles.removeList.add("Admin");
 		}
-		if (theDatabase.getCurrentNewRole1()) {
+		if (selectedHasRole1()) {
 			ViewAddRemoveRoles.removeList.add("Role1");
 		}
-		if (theDatabase.getCurrentNewRole2()) {
+		if (selectedHasRole2()) {
 			ViewAddRemoveRoles.removeList.add("Role2");
 		}
 		
 		// Update the current roles label
 		StringBuilder currentRoles = new StringBuilder("This user's current roles: ");
 		int roleCount = 0;
-		if (theDatabase.getCurrentAdminRole()) {
+		if (selectedHasAdmin()) {
 			currentRoles.append("Admin ");
 			roleCount++;
 		}
-		if (theDatabase.getCurrentNewRole1()) {
+		if (selectedHasRole1()) {
 			currentRoles.append("Role1 ");
 			roleCount++;
 		}
-		if (theDatabase.getCurrentNewRole2()) {
+		if (selectedHasRole2()) {
 			currentRoles.append("Role2");
 			roleCount++;
 		}
@@ -176,10 +206,8 @@ public class ControllerAddRemoveRoles {
 		// If the selection is the list header (e.g., "<Select a role>") don't do anything
 		if (ViewAddRemoveRoles.theAddRole.compareTo("<Select a role>") != 0) {
 			// If an actual role was selected, update the database entry for that user for the role
-			if (theDatabase.updateUserRole(ViewAddRemoveRoles.theSelectedUser, ViewAddRemoveRoles.theAddRole, "true")) {
-				ViewAddRemoveRoles.combobox_SelectRoleToAdd = new ComboBox<String>();
-				setupSelectedUser();
-			}
+			updateRole(ViewAddRemoveRoles.theSelectedUser, ViewAddRemoveRoles.theAddRole, "true", 
+					() -> ViewAddRemoveRoles.combobox_SelectRoleToAdd = new ComboBox<String>());
 		}
 	}
 
@@ -205,26 +233,54 @@ public class ControllerAddRemoveRoles {
 				return;
 			}
 			
-			// Validation 2: Ensure at least one admin remains in the system
-			if (ViewAddRemoveRoles.theRemoveRole.equals("Admin") && !isAnotherAdminExists(ViewAddRemoveRoles.theSelectedUser)) {
-				showLastAdminAlert();
-				return;
-			}
-			
-			// Validation 3: Check if removing this role would leave user with no roles
+			// Validation 2: Check if removing this role would leave user with no roles
 			if (wouldRemoveAllRoles()) {
 				showRemoveAllRolesAlert();
 				return;
 			}
 			
-			// All validations passed, proceed with removal
-			if (theDatabase.updateUserRole(ViewAddRemoveRoles.theSelectedUser, ViewAddRemoveRoles.theRemoveRole, "false")) {
-				ViewAddRemoveRoles.combobox_SelectRoleToRemove = new ComboBox<String>();
-				setupSelectedUser();
-			}
+			// Validation 3: Ensure at least one admin remains in the system. This one needs the
+			// database, so the removal continues when the answer arrives.
+			String selectedUser = ViewAddRemoveRoles.theSelectedUser;
+			String removeRole = ViewAddRemoveRoles.theRemoveRole;
+			CompletableFuture<Boolean> allowed = removeRole.equals("Admin")
+					? isAnotherAdminExists(selectedUser)
+					: CompletableFuture.completedFuture(true);
+			allowed.thenAccept(ok -> {
+				if (!ok) {
+					showLastAdminAlert();
+					return;
+				}
+				// All validations passed, proceed with removal
+				updateRole(selectedUser, removeRole, "false", 
+						() -> ViewAddRemoveRoles.combobox_SelectRoleToRemove = new ComboBox<String>());
+			}).exceptionally(DatabaseErrors::report);
 		}
 	}
 
+	/**********
+	 * <p> Method: updateRole() </p>
+	 * * <p> Description: This private helper method sets one role of a user in the background,
+	 * fetches the new snapshot of the account in the same background call, and then refreshes
+	 * the page on the JavaFX thread. </p>
+	 * * @param selectedUsername The username of the user being modified
+	 * @param role The role being added or removed
+	 * @param value "true" to add the role, "false" to remove it
+	 * @param resetComboBox What to reset on the page once the role has changed
+	 */
+	private static void updateRole(String selectedUsername, String role, String value, Runnable resetComboBox) {
+		// The answer is the new snapshot, or null if the role could not be updated
+		theAsyncDatabase.call(db -> db.updateUserRole(selectedUsername, role, value)
+					? db.findUser(selectedUsername)
+					: null)
+			.thenAccept(record -> {
+				if (record == null) return;
+				resetComboBox.run();
+				showSelectedUser(selectedUsername, record);
+			})
+			.exceptionally(DatabaseErrors::report);
+	}
+
 	/**********
 	 * <p> Method: isAdminRemovingOwnAdminRole() </p>
 	 * * <p> Description: This private helper method checks if the admin being modified is trying to
@@ -254,24 +310,12 @@ public class ControllerAddRemoveRoles {
 	 * * <p> Description: This private helper method checks if there is at least one other admin
 	 * in the system besides the one being modified. </p>
 	 * * @param selectedUsername The username of the user whose admin role is being removed
-	 * @return true if another admin exists, false if this would be the last admin
+	 * @return a future completed with true if another admin exists, false if this would be the
+	 * last admin
 	 */
-	private static boolean isAnotherAdminExists(String selectedUsername) {
-		List<String> allUsers = theDatabase.getUserList();
-		
-		for (String username : allUsers) {
-			// Skip the user being modified
-			if (username.equals(selectedUsername)) {
-				continue;
-			}
-			
-			// Get the user details and check if they have admin role
-			theDatabase.getUserAccountDetails(username);
-			if (theDatabase.getCurrentAdminRole()) {
-				return true; // Found another admin
-			}
-		}
-		return false; // No other admin exists
+	private static CompletableFuture<Boolean> isAnotherAdminExists(String selectedUsername) {
+		// One indexed query, however many users there are
+		return theAsyncDatabase.call(db -> db.hasOtherUserWithRole(Role.ADMIN, selectedUsername));
 	}
 
 	/**********
@@ -282,12 +326,12 @@ public class ControllerAddRemoveRoles {
 	 * * @return true if removing this role would result in zero roles, false otherwise
 	 */
 	private static boolean wouldRemoveAllRoles() {
-		// Count current roles from the database state
+		// Count current roles from the selected user's snapshot
 		int currentRoleCount = 0;
 		
-		if (theDatabase.getCurrentAdminRole()) currentRoleCount++;
-		if (theDatabase.getCurrentNewRole1()) currentRoleCount++;
-		if (theDatabase.getCurrentNewRole2()) currentRoleCount++;
+		if (selectedHasAdmin()) currentRoleCount++;
+		if (selectedHasRole1()) currentRoleCount++;
+		if (selectedHasRole2()) currentRoleCount++;
 		
 		// If removing one role would leave 0 roles, return true
 		return currentRoleCount == 1;
@@ -16,8 +16,10 @@ import javafx.scene.control.Alert;
 import javafx.scene.control.Alert.AlertType;
 import javafx.scene.text.Font;
 import javafx.stage.Stage;
+import database.AsyncDatabase;
 import database.Database;
 import entityClasses.User;
+import guiTools.DatabaseErrors;
 
 /**
  * Title: GUIAddRemoveRolesPage Class.
@@ -96,8 +98,8 @@ public class ViewAddRemoveRoles {
 	// Used to determine if instantiation of the class is needed
 	private static ViewAddRemoveRoles theView; 
 	
-	// Reference for the in-memory database so this package has access
-	private static Database theDatabase = applicationMain.FoundationsMain.database;
+	// Reference for background access to the database so this package has access
+	private static AsyncDatabase theAsyncDatabase = applicationMain.FoundationsMain.asyncDatabase;
 	protected static Stage theStage; // The Stage that JavaFX has established for us
 	protected static Pane theRootPane; // The Pane that holds all the GUI widgets
 	protected static User theUser; // The current user of the application
@@ -214,12 +216,17 @@ public class ViewAddRemoveRoles {
 
 		setupLabelUI(label_SelectUser, "Arial", 20, 300, Pos.BASELINE_LEFT, 20, 130);
 		setupComboBoxUI(combobox_SelectUser, "Dialog", 16, 250, 280, 125);
-		List<String> userList = theDatabase.getUserList();
-		
-		System.out.println("*** DEBUG ***: User list from database: " + userList);
-
-		combobox_SelectUser.setItems(FXCollections.observableArrayList(userList));
+		// Only the placeholder is listed until the userNames arrive from the database
+		combobox_SelectUser.setItems(FXCollections.observableArrayList("<Select a User>"));
 		combobox_SelectUser.getSelectionModel().select(0);
+		theAsyncDatabase.call(Database::getUserList)
+			.thenAccept(userList -> {
+				System.out.println("*** DEBUG ***: User list from database: " + userList);
+				if (userList == null) return;
+				combobox_SelectUser.setItems(FXCollections.observableArrayList(userList));
+				combobox_SelectUser.getSelectionModel().select(0);
+			})
+			.exceptionally(DatabaseErrors::report);
 		combobox_SelectUser.getSelectionModel().selectedItemProperty()
 				.addListener((@SuppressWarnings("unused") ObservableValue<? extends String> observable,
 						@SuppressWarnings("unused") String oldvalue,
@@ -341,17 +348,21 @@ public class ViewAddRemoveRoles {
 
 	/**
 	 * Clears the "Select Role to Add" combobox, populates it with available user roles, 
-	 * and then shows the combobox to the user.
+	 * and then shows the combobox to the user once they have been fetched in the background.
 	 */
 	public static void showcombobox_SelectRoleToAdd() {
 		System.out.println("\nshowComboBox_sselkjsl\n");
 		combobox_SelectRoleToAdd.getItems().clear();
 		
-		for (String user : theDatabase.getAllUsers()) {
-			String sub = user.substring(user.indexOf(" "), user.indexOf("("));
-			combobox_SelectRoleToAdd.getItems().add(sub);
-		}
-
-		combobox_SelectRoleToAdd.show();
+		theAsyncDatabase.call(Database::getAllUsers)
+			.thenAccept(users -> {
+				if (users == null) return;
+				for (String user : users) {
+					String sub = user.substring(user.indexOf(" "), user.indexOf("("));
+					combobox_SelectRoleToAdd.getItems().add(sub);
+				}
+				combobox_SelectRoleToAdd.show();
+			})
+			.exceptionally(DatabaseErrors::report);
 	}
 }
\ No newline at end of file
@@ -1,12 +1,19 @@
 package guiAdminHome;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
+import database.AsyncDatabase;
 import database.Database;
 import entityClasses.InputRecognizer;
+import entityClasses.InvitationBatchResult;
+import entityClasses.InvitationCode;
+import entityClasses.InvitationRequest;
+import guiTools.DatabaseErrors;
 import javafx.scene.control.Alert.AlertType;
 import javafx.scene.control.ButtonType;
-import java.util.List;
 
 /*******
  * <p> Title: GUIAdminHomePage Class. </p>
@@ -49,8 +56,10 @@ public class ControllerAdminHome {
 	public ControllerAdminHome() {
 	}
 	
-	// Reference for the in-memory database so this package has access
-	private static Database theDatabase = applicationMain.FoundationsMain.database;
+	// Reference for background access to the database so this package has access. Handlers
+	// never wait on a query; they attach what to do with the answer, which runs on the JavaFX
+	// thread once the query is done.
+	private static AsyncDatabase theAsyncDatabase = applicationMain.FoundationsMain.asyncDatabase;
 
 	/**********
 	 * <p> 
@@ -63,34 +72,113 @@ public class ControllerAdminHome {
 	protected static void performInvitation () {
 		// Verify that the email address is valid - If not alert the user and return
 		String emailAddress = ViewAdminHome.text_InvitationEmailAddress.getText();
-		if (invalidEmailAddress(emailAddress)) {
+		
+		// Several addresses (e.g. a class list pasted in) are invited together as one batch
+		String[] addresses = emailAddress.trim().split("[,;\\s]+");
+		if (addresses.length > 1) {
+			performBatchInvitation(addresses);
 			return;
 		}
 		
-		// Check to ensure that we are not sending a second message with a new invitation code to
-		// the same email address.  
-		if (theDatabase.emailaddressHasBeenUsed(emailAddress)) {
-			ViewAdminHome.alertEmailError.setHeaderText("Invite Error");
-			ViewAdminHome.alertEmailError.setContentText(
-					"An invitation has already been sent to this email address.");
-			ViewAdminHome.alertEmailError.showAndWait();
+		if (invalidEmailAddress(emailAddress)) {
 			return;
 		}
 		
-		// Inform the user that the invitation has been sent and display the invitation code
+		// Check to ensure that we are not sending a second message with a new invitation code to
+		// the same email address, and create the invitation if not, in one background call. The
+		// answer is the new code, "" if the address was already invited, or null if the code
+		// could not be stored.
 		String theSelectedRole = (String) ViewAdminHome.combobox_SelectRole.getValue();
-		String invitationCode = theDatabase.generateInvitationCode(emailAddress,
-				theSelectedRole);
-		String msg = "Code: " + invitationCode + " for role " + theSelectedRole + 
-				" was sent to: " + emailAddress;
-		System.out.println(msg);
-		ViewAdminHome.alertEmailSent.setContentText(msg);
+		theAsyncDatabase.call(db -> db.emailaddressHasBeenUsed(emailAddress)
+					? ""
+					: db.generateInvitationCode(emailAddress, theSelectedRole))
+			.thenAccept(invitationCode -> {
+				if (invitationCode != null && invitationCode.isEmpty()) {
+					ViewAdminHome.alertEmailError.setHeaderText("Invite Error");
+					ViewAdminHome.alertEmailError.setContentText(
+							"An invitation has already been sent to this email address.");
+					ViewAdminHome.alertEmailError.showAndWait();
+					return;
+				}
+				if (invitationCode == null) {
+					ViewAdminHome.alertEmailError.setHeaderText("Invite Error");
+					ViewAdminHome.alertEmailError.setContentText(
+							"The invitation could not be created. Try again.");
+					ViewAdminHome.alertEmailError.showAndWait();
+					return;
+				}
+				
+				// Inform the user that the invitation has been sent and display the invitation code
+				String msg = "Code: " + invitationCode + " for role " + theSelectedRole + 
+						" was sent to: " + emailAddress;
+				System.out.println(msg);
+				ViewAdminHome.alertEmailSent.setContentText(msg);
+				ViewAdminHome.alertEmailSent.showAndWait();
+				
+				// Update the Admin Home pages status
+				ViewAdminHome.text_InvitationEmailAddress.setText("");
+				showNumberOfInvitations();
+			})
+			.exceptionally(DatabaseErrors::report);
+	}
+	
+	/**********
+	 * <p> Method: performBatchInvitation() </p>
+	 * 
+	 * <p> Description: Invites every address at once with the selected role, then tells the admin
+	 * how many invitations were sent and which addresses were left out and why. </p>
+	 * 
+	 * @param addresses the email addresses typed or pasted into the email address field
+	 */
+	private static void performBatchInvitation(String[] addresses) {
+		String theSelectedRole = ViewAdminHome.combobox_SelectRole.getValue();
+		List<InvitationRequest> requests = new ArrayList<>();
+		for (String address : addresses) {
+			requests.add(new InvitationRequest(address, theSelectedRole));
+		}
+		theAsyncDatabase.call(db -> db.generateInvitationCodes(requests))
+			.thenAccept(result -> showBatchInvitationResult(theSelectedRole, result))
+			.exceptionally(DatabaseErrors::report);
+	}
+	
+	/**********
+	 * <p> Method: showBatchInvitationResult() </p>
+	 * 
+	 * <p> Description: Tells the admin how many invitations were sent and which addresses were
+	 * left out and why. </p>
+	 * 
+	 * @param theSelectedRole the role the addresses were invited to
+	 * @param result what the batch invitation did
+	 */
+	private static void showBatchInvitationResult(String theSelectedRole, InvitationBatchResult result) {
+		for (InvitationCode invite : result.getIssued()) {
+			System.out.println("Code: " + invite.getCode() + " for role " + theSelectedRole + 
+					" was sent to: " + invite.getEmail());
+		}
+		StringBuilder msg = new StringBuilder(result.getIssued().size() + 
+				" invitations for role " + theSelectedRole + " were sent.");
+		if (!result.getSkipped().isEmpty()) {
+			msg.append("\n\nNot sent:");
+			for (Map.Entry<String, String> skipped : result.getSkipped().entrySet()) {
+				msg.append("\n").append(skipped.getKey()).append(": ").append(skipped.getValue());
+			}
+		}
+		ViewAdminHome.alertEmailSent.setContentText(msg.toString());
 		ViewAdminHome.alertEmailSent.showAndWait();
 		
 		// Update the Admin Home pages status
 		ViewAdminHome.text_InvitationEmailAddress.setText("");
-		ViewAdminHome.label_NumberOfInvitations.setText("Number of outstanding invitations: " + 
-				theDatabase.getNumberOfInvitations());
+		showNumberOfInvitations();
+	}
+	
+	/**********
+	 * <p> Method: showNumberOfInvitations() </p>
+	 * 
+	 * <p> Description: Counts the outstanding invitations in the background and shows the count
+	 * on the Admin Home page when it arrives. </p>
+	 */
+	private static void showNumberOfInvitations() {
+		ViewAdminHome.updateOutstandingInvitationsCount();
 	}
 	
 	/**********
@@ -104,30 +192,48 @@ public class ControllerAdminHome {
 	protected static void manageInvitations () {
 		System.out.println("*** manageInvitations() function called");
 
-		theDatabase.clearInvalidInviteCodes();
-
-		// Get number of invites from database
-		int num = theDatabase.getNumberOfInvitations();
-		
-
-		
-
+		// Get number of unexpired invites from database, then continue when the answer arrives
+		theAsyncDatabase.call(Database::getNumberOfInvitations)
+			.thenAccept(ControllerAdminHome::manageInvitations)
+			.exceptionally(DatabaseErrors::report);
+	}
+	
+	/**********
+	 * <p> Method: manageInvitations(int) </p>
+	 * 
+	 * <p> Description: The rest of manageInvitations, on the JavaFX thread once the number of
+	 * unexpired invitations is known. </p>
+	 * 
+	 * @param num the number of unexpired invitations
+	 */
+	private static void manageInvitations(int num) {
 		if (num <= 0) {
 			System.out.println("Failed to find InviteCodes");
 			showInviteCodeAlert("No InviteCodes found", "There are no InviteCodes to delete.",
 					AlertType.INFORMATION);
 			ViewAdminHome.showInviteCodeAlert();
-			ViewAdminHome.updateOutstandingInvitationsCount();
+			showNumberOfInvitations();
 			return;
 		}
 
 		
 
-		// Show dialog to select an invite to delete
+		// Show dialog to select an invite to delete, once the invite codes have been fetched
 		ViewAdminHome.manageInvitationsDialog.setHeaderText("Delete Invitations:");
-		Optional<String> result = ViewAdminHome.showManageInviteCodesDialog();
-		
-
+		ViewAdminHome.showManageInviteCodesDialog()
+			.thenAccept(ControllerAdminHome::deleteInvitation)
+			.exceptionally(DatabaseErrors::report);
+	}
+	
+	/**********
+	 * <p> Method: deleteInvitation() </p>
+	 * 
+	 * <p> Description: The rest of manageInvitations, once the Admin has picked an invitation
+	 * in the dialog. </p>
+	 * 
+	 * @param result the dialog line of the selected invitation, empty if the dialog was cancelled
+	 */
+	private static void deleteInvitation(Optional<String> result) {
 		if (!result.isPresent()) {
 			return;
 		}
@@ -148,10 +254,16 @@ public class ControllerAdminHome {
 			
 
 		// Proceed with deletion
-		theDatabase.removeInvitationAfterUse(code);
-		System.out.println("Invitation successfully removed");
+		String selectedCode = code;
+		theAsyncDatabase.run(db -> db.removeInvitationAfterUse(selectedCode))
+			.thenRun(() -> {
+				System.out.println("Invitation successfully removed");
+				showNumberOfInvitations();
+			})
+			.exceptionally(DatabaseErrors::report);
+		} else {
+			showNumberOfInvitations();
 		}
-		ViewAdminHome.updateOutstandingInvitationsCount();
 
 	}
 	
@@ -166,7 +278,20 @@ public class ControllerAdminHome {
 	 *  </p>
 	 */
 	protected static void setOnetimePassword () {
-		Optional<String> tmp_passUser = ViewAdminHome.showChoiceDialog_UserOTP();
+		ViewAdminHome.showChoiceDialog_UserOTP()
+			.thenAccept(ControllerAdminHome::setOnetimePassword)
+			.exceptionally(DatabaseErrors::report);
+	}
+	
+	/**********
+	 * <p> Method: setOnetimePassword(Optional) </p>
+	 * 
+	 * <p> Description: The rest of setOnetimePassword, once the Admin has picked a user in the
+	 * dialog. </p>
+	 * 
+	 * @param tmp_passUser the selected userName, empty if the dialog was cancelled
+	 */
+	private static void setOnetimePassword(Optional<String> tmp_passUser) {
 		String isValidUser = "temp";
 		try {
 			isValidUser = InputRecognizer.checkUsername(tmp_passUser.get());			
@@ -183,9 +308,12 @@ public class ControllerAdminHome {
 
 			
 			if(isValidPass.isEmpty()) {
-				String otp = theDatabase.generateOTP(tmp_pass.get(), username);
+				String password = tmp_pass.get();
 				//ViewAdminHome.label_testArea.setText("Temporary password for: [" + theDatabase.getCurrentUsername() + "] is: " + otp);
-				System.out.print("Temporary password for: [" + username + "] is: " + otp);
+				theAsyncDatabase.call(db -> db.generateOTP(password, username))
+					.thenAccept(otp -> 
+						System.out.print("Temporary password for: [" + username + "] is: " + otp))
+					.exceptionally(DatabaseErrors::report);
 			} else{
 				System.out.print("Username Error: " + isValidUser);
 				System.out.print("Password Error: " + isValidPass);
@@ -208,16 +336,22 @@ public class ControllerAdminHome {
 	protected static void deleteUser() {
 		System.out.println("*** deleteUser() function called");
 
-		// Get list of users from database
-		List<String> userList = theDatabase.getUserList();
-		
-
-		// Remove the "<Select a User>" placeholder
-		if (userList != null && userList.size() > 1) {
-			userList.remove(0);
-		}
-
-		if (userList == null || userList.isEmpty()) {
+		// Check that there are users, without loading them all, then continue when the answer arrives
+		theAsyncDatabase.call(Database::getNumberOfUsers)
+			.thenAccept(ControllerAdminHome::deleteUser)
+			.exceptionally(DatabaseErrors::report);
+	}
+	
+	/**********
+	 * <p> Method: deleteUser(int) </p>
+	 * 
+	 * <p> Description: The rest of deleteUser, on the JavaFX thread once the number of users is
+	 * known. </p>
+	 * 
+	 * @param numberOfUsers the number of users in the system
+	 */
+	private static void deleteUser(int numberOfUsers) {
+		if (numberOfUsers == 0) {
 			showDeleteAlert("No users found", "There are no users to delete",
 					AlertType.INFORMATION);
 			return;
@@ -225,11 +359,22 @@ public class ControllerAdminHome {
 
 		
 
-		// Show dialog to select a user to delete
+		// Show dialog to select a user to delete, a page of users at a time
 		ViewAdminHome.deleteChoiceDialog.setHeaderText("Select a user:");
-		Optional<String> result = ViewAdminHome.showDeleteChoiceDialog();
-		
-
+		ViewAdminHome.showDeleteChoiceDialog()
+			.thenAccept(ControllerAdminHome::confirmDeleteUser)
+			.exceptionally(DatabaseErrors::report);
+	}
+	
+	/**********
+	 * <p> Method: confirmDeleteUser() </p>
+	 * 
+	 * <p> Description: The rest of deleteUser, once the Admin has picked a user in the dialog:
+	 * asks for confirmation and deletes the user. </p>
+	 * 
+	 * @param result the selected userName, empty if the dialog was cancelled
+	 */
+	private static void confirmDeleteUser(Optional<String> result) {
 		if (!result.isPresent()) {
 			return;
 		}
@@ -257,33 +402,43 @@ public class ControllerAdminHome {
 
 		if (confirmation.isPresent() && confirmation.get() == ButtonType.YES) {
 		
-			// Proceed with deletion
-			if (theDatabase.deleteUserByUsername(selectedUsername)) {
-				System.out.println("*** INFO ***: User " + selectedUsername + " successfully deleted");
-
-				// Show success message
-				showDeleteAlert("User Deleted Successfully", 
-						"The user " + selectedUsername + " has been removed from the system.", 
-						AlertType.INFORMATION);
+			// Proceed with deletion; the answer is the new number of users, or -1 if it failed
+			theAsyncDatabase.call(db -> db.deleteUserByUsername(selectedUsername) ? db.getNumberOfUsers() : -1)
+				.thenAccept(numberOfUsersLeft -> showDeleteResult(selectedUsername, numberOfUsersLeft))
+				.exceptionally(DatabaseErrors::report);
+		} else {
+			// User clicked "No" or cancelled
+			System.out.println("*** INFO ***: User deletion cancelled");
+		}
+	}
+	
+	/**********
+	 * <p> Method: showDeleteResult() </p>
+	 * 
+	 * <p> Description: Tells the admin whether the user was deleted. </p>
+	 * 
+	 * @param selectedUsername the user that was to be deleted
+	 * @param numberOfUsersLeft the number of users after the deletion, or -1 if it failed
+	 */
+	private static void showDeleteResult(String selectedUsername, int numberOfUsersLeft) {
+		if (numberOfUsersLeft >= 0) {
+			System.out.println("*** INFO ***: User " + selectedUsername + " successfully deleted");
 
-				// Update the user count
-				ViewAdminHome.label_NumberOfUsers.setText("Number of Users: " + 
-						(theDatabase.getUserList().size() - 1));
+			// Show success message
+			showDeleteAlert("User Deleted Successfully", 
+					"The user " + selectedUsername + " has been removed from the system.", 
+					AlertType.INFORMATION);
 
-			} else {
+			// Update the user count
+			ViewAdminHome.label_NumberOfUsers.setText("Number of Users: " + numberOfUsersLeft);
 
-				System.out.println("*** ERROR ***: Failed to delete user " + selectedUsername);
-				showDeleteAlert("Deletion Failed", 
-					"An error occurred while deleting user: " + selectedUsername, 
-					AlertType.ERROR);
-			}
 		} else {
-			// User clicked "No" or cancelled
-			System.out.println("*** INFO ***: User deletion cancelled");
 
+			System.out.println("*** ERROR ***: Failed to delete user " + selectedUsername);
+			showDeleteAlert("Deletion Failed", 
+				"An error occurred while deleting user: " + selectedUsername, 
+				AlertType.ERROR);
 		}
-
-				
 	}
 
 	/**********
@@ -317,8 +472,6 @@ public class ControllerAdminHome {
 	protected static void listUsers() {
 		
 		ViewAdminHome.displayUserList();
-		
-		System.out.print(theDatabase.getAllUsers());
 	}
 	
 	/**********
@@ -7,6 +7,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 import javafx.collections.FXCollections;
 import javafx.geometry.Pos;
@@ -21,15 +22,20 @@ import javafx.scene.control.Label;
 import javafx.scene.control.TextField;
 import javafx.scene.control.TextInputDialog;
 import javafx.scene.control.Alert.AlertType;
+import javafx.scene.layout.HBox;
 import javafx.scene.layout.Pane;
 import javafx.scene.layout.VBox;
 import javafx.scene.shape.Line;
 import javafx.scene.text.Font;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
+import database.AsyncDatabase;
 import database.Database;
 import entityClasses.InvitationCode;
 import entityClasses.User;
+import entityClasses.UserPage;
+import entityClasses.UserSummary;
+import guiTools.DatabaseErrors;
 import guiUserUpdate.ViewUserUpdate;
 
 /**
@@ -144,8 +150,9 @@ public class ViewAdminHome {
 	// These attributes are used to configure the page and populate it with this user's information
 	private static ViewAdminHome theView;		// Used to determine if instantiation of the class is needed
 
-	// Reference for the in-memory database so this package has access
-	private static Database theDatabase = applicationMain.FoundationsMain.database;
+	// Reference for background access to the database so this package has access. The page never
+	// waits on a query; the widgets are filled in on the JavaFX thread when the answer arrives.
+	private static AsyncDatabase theAsyncDatabase = applicationMain.FoundationsMain.asyncDatabase;
 	
 	/**
 	 * The Stage that JavaFX has established for the Admin Home scene.
@@ -162,6 +169,15 @@ public class ViewAdminHome {
 	protected static Button button_BackButton = null;
 	protected static VBox userListPane = null;
 	
+	// The user list and the user choice dialogs fetch the users a page at a time
+	private static final int USER_LIST_PAGE_SIZE = 10;
+	private static final int USER_CHOICE_PAGE_SIZE = 200;
+	private static final String MORE_USERS = "More users...";	// Not a valid userName
+	protected static Button button_PreviousUsers = null;
+	protected static Button button_NextUsers = null;
+	private static List<String> userListCursors = new ArrayList<>();	// Cursor of each page shown
+	private static String nextUserListCursor = null;
+	
 	protected static Alert deleteAlert;
 	protected static Alert inviteCodeAlert;
 	protected static Alert deleteInviteConfirm;
@@ -194,7 +210,6 @@ public class ViewAdminHome {
 		
 		// Populate the dynamic aspects of the GUI with the data from the user and the current
 		// state of the system.
-		theDatabase.getUserAccountDetails(user.getUserName());		// Fetch this user's data
 		applicationMain.FoundationsMain.activeHomePage = theRole;	// Set this as the active Home UserUpdate page
 
 		// Set the role for potential users to the default (No role selected)
@@ -261,6 +276,19 @@ public class ViewAdminHome {
 		});
 		button_BackButton.setFont(Font.font("Dialog", 16));
 		button_BackButton.setMinWidth(100);
+		
+		button_PreviousUsers = new Button("Previous");
+		button_PreviousUsers.setOnAction((_)-> {
+			userListCursors.remove(userListCursors.size() - 1);
+			showUserListPage().exceptionally(DatabaseErrors::report);
+		});
+		button_PreviousUsers.setFont(Font.font("Dialog", 16));
+		button_NextUsers = new Button("Next");
+		button_NextUsers.setOnAction((_)-> {
+			userListCursors.add(nextUserListCursor);
+			showUserListPage().exceptionally(DatabaseErrors::report);
+		});
+		button_NextUsers.setFont(Font.font("Dialog", 16));
 		userListStage.setScene(userListScene);
 		userListStage.sizeToScene();
 		userListStage.setWidth(350);
@@ -315,12 +343,12 @@ public class ViewAdminHome {
 			
 		// GUI Area 2
 		setupLabelUI(label_NumberOfInvitations, "Arial", 20, 200, Pos.BASELINE_LEFT, 20, 105);
-		label_NumberOfInvitations.setText("Number of outstanding invitations: " + 
-				theDatabase.getNumberOfInvitations());
+		updateOutstandingInvitationsCount();
 	
 		setupLabelUI(label_NumberOfUsers, "Arial", 20, 200, Pos.BASELINE_LEFT, 20, 135);
-		label_NumberOfUsers.setText("Number of users: " + 
-				theDatabase.getNumberOfUsers());
+		theAsyncDatabase.call(Database::getNumberOfUsers)
+			.thenAccept(num -> label_NumberOfUsers.setText("Number of users: " + num))
+			.exceptionally(DatabaseErrors::report);
 	
 		// GUI Area 3
 		setupLabelUI(label_Invitations, "Arial", 20, width, Pos.BASELINE_LEFT, 20, 175);
@@ -470,20 +498,51 @@ public class ViewAdminHome {
 	}
 	
 	/**
-	 * Clears the contents and then re-populates the userListPane in ViewAdminHome. 
-	 * When finished it shows the userListStage.
+	 * Clears the contents and then re-populates the userListPane in ViewAdminHome with the first
+	 * page of users. When the page has arrived it shows the userListStage.
 	 */	
 	protected static void displayUserList() {	
-		//center the list
+		userListCursors.clear();
+		userListCursors.add(null);		// The first page starts before every userName
+		showUserListPage()
+			.thenRun(userListStage::show)
+			.exceptionally(DatabaseErrors::report);
+	}
+	
+	/**
+	 * Fetches the page of users that starts at the last cursor in userListCursors, fetching only
+	 * that page from the database, and fills the userListPane with it when it arrives. The
+	 * Previous and Next buttons are disabled until then.
+	 * @return a future completed once the page is shown
+	 */
+	private static CompletableFuture<Void> showUserListPage() {
+		String cursor = userListCursors.get(userListCursors.size() - 1);
+		button_PreviousUsers.setDisable(true);
+		button_NextUsers.setDisable(true);
+		return theAsyncDatabase.call(db -> db.listUsers(cursor, USER_LIST_PAGE_SIZE, null, null))
+			.thenAccept(ViewAdminHome::fillUserListPane);
+	}
+	
+	/**
+	 * Fills the userListPane with a page of users.
+	 * @param page the users to show
+	 */
+	private static void fillUserListPane(UserPage page) {
+		nextUserListCursor = page.getNextCursor();
+		
 		userListPane.getChildren().clear();
-		for(String user : theDatabase.getAllUsers()) {
-			Label label_User = new Label(user);  
+		for(UserSummary user : page.getUsers()) {
+			Label label_User = new Label(String.format("User: %s (%s %s), Email: %s\nRoles: %s",
+					user.getUserName(), user.getFirstName(), user.getLastName(),
+					user.getEmailAddress(), user.getRoleNames()));
 			label_User.setFont(Font.font("Dialog", 16));
 			userListPane.getChildren().add(label_User);
 		}
-		userListPane.getChildren().add(button_BackButton);
-
-		userListStage.show();
+		button_PreviousUsers.setDisable(userListCursors.size() == 1);
+		button_NextUsers.setDisable(!page.hasMore());
+		userListPane.getChildren().add(new HBox(10, button_PreviousUsers, button_NextUsers,
+				button_BackButton));
+		userListStage.sizeToScene();
 	}
 
 	/**
@@ -505,46 +564,65 @@ public class ViewAdminHome {
 	/**
 	 * Clears the ChoiceDialog contents of ChoiceDialog_UserOTP and adds
 	 * them back to account for any changes in database.
-	 * @return Optional String with the selected formatted dialog box output.
+	 * @return a future completed with the selected userName.
 	 */
-	public static Optional<String> showChoiceDialog_UserOTP() {
-		ChoiceDialog_UserOTP.getItems().clear();
-		
-		for(String user : theDatabase.getAllUsers()) {   
-			String sub = user.substring(user.indexOf(" "), user.indexOf("("));
-			ChoiceDialog_UserOTP.getItems().add(sub);
-		}
-
-		Optional<String> result = ChoiceDialog_UserOTP.showAndWait();
-		return result;
+	public static CompletableFuture<Optional<String>> showChoiceDialog_UserOTP() {
+		return showUserChoiceDialog(ChoiceDialog_UserOTP, null);
 	}
 
 	/**
 	 * Clears the ChoiceDialog contents of deleteChoiceDialog and adds
 	 * them back to account for any changes in database.
-	 * @return Optional String with the selected formatted dialog box output.
+	 * @return a future completed with the selected userName.
 	 */
-	public static Optional<String> showDeleteChoiceDialog() {
-
-		deleteChoiceDialog.getItems().clear();
-		
-		for(String user : theDatabase.getAllUsers()) { 
-			String sub = user.substring(user.indexOf(" "), user.indexOf("("));
-			deleteChoiceDialog.getItems().add(sub);
-		}
-		
-		Optional<String> result = deleteChoiceDialog.showAndWait();
-		return result;
+	public static CompletableFuture<Optional<String>> showDeleteChoiceDialog() {
+		return showUserChoiceDialog(deleteChoiceDialog, null);
+	}
+	
+	/**
+	 * Shows a ChoiceDialog of userNames a page at a time, each page fetched in the background.
+	 * When there are more users than fit on a page, the last choice is MORE_USERS, which shows the
+	 * dialog again with the next page.
+	 * @param dialog the dialog to fill and show
+	 * @param cursor where the page starts, null for the first page
+	 * @return a future completed with the selected userName, empty if the dialog was cancelled.
+	 */
+	private static CompletableFuture<Optional<String>> showUserChoiceDialog(ChoiceDialog<String> dialog,
+			String cursor) {
+		return theAsyncDatabase.call(db -> db.listUsers(cursor, USER_CHOICE_PAGE_SIZE, null, null))
+			.thenCompose(page -> {
+				dialog.getItems().clear();
+				for(UserSummary user : page.getUsers()) {
+					dialog.getItems().add(user.getUserName());
+				}
+				if (page.hasMore()) dialog.getItems().add(MORE_USERS);
+				
+				Optional<String> result = dialog.showAndWait();
+				if (result.isEmpty() || !result.get().equals(MORE_USERS)) {
+					return CompletableFuture.completedFuture(result);
+				}
+				return showUserChoiceDialog(dialog, page.getNextCursor());
+			});
+	}
+	
+	/**
+	 * Creates the strings that are displayed in the drop down menu for ManageInvites, from the
+	 * invite codes fetched in the background.
+	 * @return a future completed with the selected formatted dialog box output.
+	 */
+	public static CompletableFuture<Optional<String>> showManageInviteCodesDialog() {
+		return theAsyncDatabase.call(Database::getAllInvitationCodes)
+			.thenApply(ViewAdminHome::showManageInviteCodesDialog);
 	}
 	
 	/**
-	 * Creates the strings that are displayed in the drop down menu for ManageInvites.
+	 * Fills the ManageInvites drop down menu with the given invite codes and shows it.
+	 * @param inviteCodes the outstanding invite codes
 	 * @return Optional String with the selected formatted dialog box output.
 	 */
-	public static Optional<String> showManageInviteCodesDialog() {
+	private static Optional<String> showManageInviteCodesDialog(Map<String, InvitationCode> inviteCodes) {
 
 		manageInvitationsDialog.getItems().clear();
-		Map<String, InvitationCode> inviteCodes = theDatabase.getAllInvitationCodes();
 		
 		DateTimeFormatter formatter =
 				DateTimeFormatter.ofPattern("MM/dd/yyyy HH:mm")
@@ -563,10 +641,13 @@ public class ViewAdminHome {
 	}
 	
 	/**
-	 * Helper method to update the "Outstanding Invites" count at the top of the main page.
+	 * Helper method to update the "Outstanding Invites" count at the top of the main page. The
+	 * count is fetched in the background and shown when it arrives.
 	 */
 	public static void updateOutstandingInvitationsCount() {
-		label_NumberOfInvitations.setText("Number of outstanding invitations: " + 
-		theDatabase.getNumberOfInvitations());
+		theAsyncDatabase.call(Database::getNumberOfInvitations)
+			.thenAccept(num -> label_NumberOfInvitations.setText(
+					"Number of outstanding invitations: " + num))
+			.exceptionally(DatabaseErrors::report);
 	}
 }
\ No newline at end of file
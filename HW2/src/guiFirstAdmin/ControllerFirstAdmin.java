@@ -1,7 +1,10 @@
 package guiFirstAdmin;
 
 import java.sql.SQLException;
-import database.Database;
+import java.util.concurrent.CompletionException;
+
+import database.AsyncDatabase;
+import guiTools.DatabaseErrors;
 import entityClasses.User;
 import javafx.stage.Stage;
 import entityClasses.InputRecognizer;
@@ -43,7 +46,8 @@ public class ControllerFirstAdmin {
 	private static String adminUsername = "";
 	private static String adminPassword1 = "";
 	private static String adminPassword2 = "";		
-	protected static Database theDatabase = applicationMain.FoundationsMain.database;		
+	// Reference for background access to the database so this package has access
+	private static AsyncDatabase theAsyncDatabase = applicationMain.FoundationsMain.asyncDatabase;
 
 	/*-********************************************************************************************
 
@@ -138,19 +142,30 @@ public class ControllerFirstAdmin {
 		// Create the passwords and proceed to the user home page
     	User user = new User(adminUsername, adminPassword1, "", "", "", "", "", true, false, 
     			false);
-        try {
-        	// Create a new User object with admin role and register in the database
-        	theDatabase.register(user);
-        	}
-        catch (SQLException e) {
-            System.err.println("*** ERROR *** Database error trying to register a user: " + 
-            		e.getMessage());
-            e.printStackTrace();
-            System.exit(0);
-        }
-        
-        // User was established in the database, so navigate to the User Update Page
-    	guiUserUpdate.ViewUserUpdateFIRST.displayUserUpdate(ViewFirstAdmin.theStage, user);
+    	
+    	// Register the user in the background and continue on the JavaFX thread when it is done.
+    	// The button is disabled until then so the account is not submitted twice.
+    	ViewFirstAdmin.button_AdminSetup.setDisable(true);
+    	theAsyncDatabase.run(db -> {
+    		try {
+    			// Create a new User object with admin role and register in the database
+    			db.register(user);
+    		} catch (SQLException e) {
+    			throw new CompletionException(e);
+    		}
+    	}).whenComplete((_, e) -> {
+    		ViewFirstAdmin.button_AdminSetup.setDisable(false);
+    		if (e != null) {
+    			Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+    			System.err.println("*** ERROR *** Database error trying to register a user: " + 
+    					cause.getMessage());
+    			cause.printStackTrace();
+    			System.exit(0);
+    		}
+    		
+    		// User was established in the database, so navigate to the User Update Page
+    		guiUserUpdate.ViewUserUpdateFIRST.displayUserUpdate(ViewFirstAdmin.theStage, user);
+    	}).exceptionally(DatabaseErrors::report);
 		
 	}
 	
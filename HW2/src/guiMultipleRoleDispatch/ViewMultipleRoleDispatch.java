@@ -12,7 +12,6 @@ import javafx.scene.layout.Pane;
 import javafx.scene.shape.Line;
 import javafx.scene.text.Font;
 import javafx.stage.Stage;
-import database.Database;
 import entityClasses.User;
 
 /**
@@ -62,9 +61,6 @@ public class ViewMultipleRoleDispatch {
 	private static ViewMultipleRoleDispatch theView;	// Used to determine if instantiation of
 														// the class is needed
 
-	// Reference for the in-memory database so this package has access
-	private static Database theDatabase = applicationMain.FoundationsMain.database;
-
 	protected static Stage theStage;			// The Stage that JavaFX has established for us
 	private static Pane theRootPane;			// The Pane that holds all the GUI widgets 
 	protected static User theUser;				// The current user of the application
@@ -90,8 +86,8 @@ public class ViewMultipleRoleDispatch {
 		
 		if (theView == null) theView = new ViewMultipleRoleDispatch();
 
+		// The user's roles were read by the same query that logged them in, so no query is needed
 		List<String> list = new ArrayList<String>();	// Create a new list empty list
-		theDatabase.getUserAccountDetails(theUser.getUserName());
 		
 		label_UserDetails.setText("User: " + theUser.getUserName() + "   Select which role");
 		setupLabelUI(label_UserDetails, "Arial", 20, width, Pos.CENTER, 0, 50);
@@ -102,9 +98,9 @@ public class ViewMultipleRoleDispatch {
 		System.out.println("*** Getting multiple role details for user: " + theUser.getUserName());
 		list = new ArrayList<String>();
 		list.add("<Select a role>");
-		if (theDatabase.getCurrentAdminRole()) list.add("Admin");
-		if (theDatabase.getCurrentNewRole1()) list.add("Role1");
-		if (theDatabase.getCurrentNewRole2()) list.add("Role2");
+		if (theUser.getAdminRole()) list.add("Admin");
+		if (theUser.getNewRole1()) list.add("Role1");
+		if (theUser.getNewRole2()) list.add("Role2");
 		combobox_SelectRole.setItems(FXCollections.observableArrayList(list));
 
 		// Populate the dynamic aspects of the GUI with the data from the user and the current
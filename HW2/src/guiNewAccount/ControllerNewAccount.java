@@ -1,11 +1,13 @@
 package guiNewAccount;
 
 import java.sql.SQLException;
+import java.util.concurrent.CompletionException;
 
-import database.Database;
+import database.AsyncDatabase;
 import entityClasses.User;
 import guiAdminHome.ViewAdminHome;
 import entityClasses.InputRecognizer;
+import guiTools.DatabaseErrors;
 
 /*******
  * <p> Title: ControllerNewAccount Class. </p>
@@ -48,8 +50,8 @@ public class ControllerNewAccount {
 	}
 	
 	
-	// Reference for the in-memory database so this package has access
-	private static Database theDatabase = applicationMain.FoundationsMain.database;
+	// Reference for background access to the database so this package has access
+	private static AsyncDatabase theAsyncDatabase = applicationMain.FoundationsMain.asyncDatabase;
 	
 	/**********
 	 * <p> Method: public doCreateUser() </p>
@@ -96,72 +98,80 @@ public class ControllerNewAccount {
 			return;
 		}
 		
-		//Checks the InviteCode 
-		boolean validInvite = theDatabase.validateInviteCode(ViewNewAccount.theInvitationCode, ViewNewAccount.emailAddress, ViewNewAccount.theRole);
-		if(!validInvite) {
-			ViewNewAccount.alertInvitationCodeIsInvalid.setContentText("Invitation code is invalid, expired, or already used.");
-			ViewNewAccount.alertInvitationCodeIsInvalid.showAndWait();
-			return;
-		}
-
-		// Make sure the two passwords are the same.	
+		// Make sure the two passwords are the same before the invitation is used up
 		if (ViewNewAccount.text_Password1.getText().
-				compareTo(ViewNewAccount.text_Password2.getText()) == 0)
+				compareTo(ViewNewAccount.text_Password2.getText()) != 0)
 		{
-			
-			// The passwords match so we will set up the role and the User object base on the 
-			// information provided in the invitation
-			if (ViewNewAccount.theRole.compareTo("Admin") == 0) {
-				roleCode = 1;
-				user = new User(username, password, "", "", "", "", "", true, false, false);
-			} else if (ViewNewAccount.theRole.compareTo("Role1") == 0) {
-				roleCode = 2;
-				user = new User(username, password, "", "", "", "", "", false, true, false);
-			} else if (ViewNewAccount.theRole.compareTo("Role2") == 0) {
-				roleCode = 3;
-				user = new User(username, password, "", "", "", "", "", false, false, true);
-			} else {
-				System.out.println(
-						"**** Trying to create a New Account for a role that does not exist!");
-				System.exit(0);
-			}
-			
-			
-			// Unlike the FirstAdmin, we know the email address, so set that into the user as well.
-        	user.setEmailAddress(ViewNewAccount.emailAddress);
-        	
-        	// Inform the system about which role will be played
-			applicationMain.FoundationsMain.activeHomePage = roleCode;
-			
-        	// Create the account based on user and proceed to the user account update page
-            try {
-            	// Create a new User object with the pre-set role and register in the database
-            	theDatabase.register(user);
-            } catch (SQLException e) {
-                System.err.println("*** ERROR *** Database error: " + e.getMessage());
-                e.printStackTrace();
-                System.exit(0);
-            }
-            
-            // The account has been set, so remove the invitation from the system
-            theDatabase.removeInvitationAfterUse(
-            		ViewNewAccount.theInvitationCode);
-            ViewAdminHome.label_NumberOfInvitations.setText("Number of outstanding invitations: " + 
-    				theDatabase.getNumberOfInvitations());
-            
-            // Set the database so it has this user and the current user
-            theDatabase.getUserAccountDetails(username);
-
-            // Navigate to the Welcome Login Page
-            guiUserUpdate.ViewUserUpdateFIRST.displayUserUpdate(ViewNewAccount.theStage, user);
-		}
-		else {
 			// The two passwords are NOT the same, so clear the passwords, explain the passwords
 			// must be the same, and clear the message as soon as the first character is typed.
 			ViewNewAccount.text_Password1.setText("");
 			ViewNewAccount.text_Password2.setText("");
 			ViewNewAccount.alertUsernamePasswordError.showAndWait();
+			return;
+		}
+		
+		// The passwords match so we will set up the role and the User object base on the 
+		// information provided in the invitation
+		if (ViewNewAccount.theRole.compareTo("Admin") == 0) {
+			roleCode = 1;
+			user = new User(username, password, "", "", "", "", "", true, false, false);
+		} else if (ViewNewAccount.theRole.compareTo("Role1") == 0) {
+			roleCode = 2;
+			user = new User(username, password, "", "", "", "", "", false, true, false);
+		} else if (ViewNewAccount.theRole.compareTo("Role2") == 0) {
+			roleCode = 3;
+			user = new User(username, password, "", "", "", "", "", false, false, true);
+		} else {
+			System.out.println(
+					"**** Trying to create a New Account for a role that does not exist!");
+			System.exit(0);
 		}
+		
+		// Unlike the FirstAdmin, we know the email address, so set that into the user as well.
+		user.setEmailAddress(ViewNewAccount.emailAddress);
+		
+		// Redeem the invitation, create the account and remove the invitation in the background,
+		// then continue on the JavaFX thread with the outcome. The answer is the new number of
+		// outstanding invitations, or null if the invitation could not be redeemed. The button is
+		// disabled until then so the same account is not submitted twice.
+		final User newUser = user;
+		final int newRoleCode = roleCode;
+		final String invitationCode = ViewNewAccount.theInvitationCode;
+		final String emailAddress = ViewNewAccount.emailAddress;
+		final String role = ViewNewAccount.theRole;
+		ViewNewAccount.button_UserSetup.setDisable(true);
+		theAsyncDatabase.call(db -> {
+			if (!db.validateInviteCode(invitationCode, emailAddress, role)) return null;
+			try {
+				// Create a new User object with the pre-set role and register in the database
+				db.register(newUser);
+			} catch (SQLException e) {
+				throw new CompletionException(e);
+			}
+			// The account has been set, so remove the invitation from the system
+			db.removeInvitationAfterUse(invitationCode);
+			return db.getNumberOfInvitations();
+		}).whenComplete((numberOfInvitations, e) -> {
+			ViewNewAccount.button_UserSetup.setDisable(false);
+			if (e != null) {
+				System.err.println("*** ERROR *** Database error: " + e.getMessage());
+				e.printStackTrace();
+				System.exit(0);
+			}
+			if (numberOfInvitations == null) {
+				ViewNewAccount.alertInvitationCodeIsInvalid.setContentText("Invitation code is invalid, expired, or already used.");
+				ViewNewAccount.alertInvitationCodeIsInvalid.showAndWait();
+				return;
+			}
+			
+			// Inform the system about which role will be played
+			applicationMain.FoundationsMain.activeHomePage = newRoleCode;
+			ViewAdminHome.label_NumberOfInvitations.setText("Number of outstanding invitations: " + 
+					numberOfInvitations);
+			
+			// Navigate to the Welcome Login Page
+			guiUserUpdate.ViewUserUpdateFIRST.displayUserUpdate(ViewNewAccount.theStage, newUser);
+		}).exceptionally(DatabaseErrors::report);
 	}
 	
 	/**********
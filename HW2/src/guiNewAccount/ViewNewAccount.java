@@ -12,8 +12,9 @@ import javafx.scene.control.Alert.AlertType;
 import javafx.scene.layout.Pane;
 import javafx.scene.text.Font;
 import javafx.stage.Stage;
-import database.Database;
+import database.AsyncDatabase;
 import entityClasses.User;
+import guiTools.DatabaseErrors;
 
 /*******
  * <p> Title: ViewNewAccount Class. </p>
@@ -71,8 +72,8 @@ public class ViewNewAccount {
 	// These attributes are used to configure the page and populate it with this user's information
 	private static ViewNewAccount theView;		// Is instantiation of the class needed?
 
-	// Reference for the in-memory database so this package has access
-	private static Database theDatabase = applicationMain.FoundationsMain.database;		
+	// Reference for background access to the database so this package has access
+	private static AsyncDatabase theAsyncDatabase = applicationMain.FoundationsMain.asyncDatabase;
 
 	protected static Stage theStage;			// The Stage that JavaFX has established for us
 	private static Pane theRootPane;			// The Pane that holds all the GUI widgets 
@@ -130,17 +131,30 @@ public class ViewNewAccount {
 		text_Password1.setText("");	// appear for a new user
 		text_Password2.setText("");
 		
-		// Fetch the role for this user
-		theRole = theDatabase.getRoleGivenAnInvitationCode(theInvitationCode);
-		
-		if (theRole.length() == 0) {// If there is an issue with the invitation code, display a
-			alertInvitationCodeIsInvalid.showAndWait();	// dialog box saying that are when it it
-			return;					// acknowledged, return so the proper code can be entered
-		}
-		
-		// Get the email address associated with the invitation code
-		emailAddress = theDatabase.getEmailAddressUsingCode(theInvitationCode);
-		
+		// Fetch the role for this user and the email address associated with the invitation code
+		// in the background; the page is shown once they arrive. The answer is {role, email}.
+		theAsyncDatabase.call(db -> {
+			String role = db.getRoleGivenAnInvitationCode(ic);
+			String email = role.length() == 0 ? null : db.getEmailAddressUsingCode(ic);
+			return new String[] {role, email};
+		}).thenAccept(answer -> {
+			theRole = answer[0];
+			if (theRole.length() == 0) {// If there is an issue with the invitation code, display a
+				alertInvitationCodeIsInvalid.showAndWait();	// dialog box saying that are when it it
+				return;					// acknowledged, return so the proper code can be entered
+			}
+			emailAddress = answer[1];
+			showNewAccount();
+		}).exceptionally(DatabaseErrors::report);
+	}
+	
+	/**********
+	 * <p> Method: showNewAccount() </p>
+	 * 
+	 * <p> Description: The rest of displayNewAccount, once the invitation's role and email
+	 * address are known. </p>
+	 */
+	private static void showNewAccount() {
     	// Place all of the established GUI elements into the pane
     	theRootPane.getChildren().clear();
     	theRootPane.getChildren().addAll(label_NewUserCreation, label_NewUserLine, text_Username,
@@ -0,0 +1,46 @@
+package guiTools;
+
+import java.util.concurrent.CompletionException;
+
+import javafx.scene.control.Alert;
+import javafx.scene.control.Alert.AlertType;
+
+/*******
+ * <p> Title: DatabaseErrors Class. </p>
+ *
+ * <p> Description: The failure stage shared by the controllers' background database calls. A
+ * controller ends each chain with {@code .exceptionally(DatabaseErrors::report)}, so a call that
+ * fails, or a follow-up stage that throws, is printed to the log and shown to the user instead of
+ * being dropped with the future. The stage runs on the JavaFX Application Thread, like the rest
+ * of the chain. </p>
+ *
+ * @author Amairani Caballero
+ */
+public final class DatabaseErrors {
+
+	private DatabaseErrors() {
+	}
+
+	/**********
+	 * <p> Method: report() </p>
+	 *
+	 * <p> Description: Prints the error with its stack trace and tells the user that the request
+	 * did not go through. </p>
+	 *
+	 * @param <T> the type of the future the stage is attached to
+	 * @param e what the call or the stage before threw
+	 * @return null, so the chain ends normally
+	 */
+	public static <T> T report(Throwable e) {
+		Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+		System.err.println("*** ERROR *** Database error: " + cause.getMessage());
+		cause.printStackTrace();
+
+		Alert alert = new Alert(AlertType.ERROR);
+		alert.setTitle("Database Error");
+		alert.setHeaderText("The request could not be completed.");
+		alert.setContentText("The database did not answer as expected. Try again.");
+		alert.showAndWait();
+		return null;
+	}
+}
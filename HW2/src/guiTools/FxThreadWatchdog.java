@@ -0,0 +1,102 @@
+package guiTools;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import javafx.application.Platform;
+
+/*******
+ * <p> Title: FxThreadWatchdog Class. </p>
+ *
+ * <p> Description: Reports when the JavaFX Application Thread stops answering. A daemon thread
+ * posts a small heartbeat with Platform.runLater; if the heartbeat has not run after the
+ * threshold, the FX thread is busy with something else (usually a handler waiting on the
+ * database), so the watchdog prints a warning with the FX thread's stack, showing where it is
+ * stuck. When the heartbeat finally runs, it prints how long the stall lasted. Each stall is
+ * reported once. </p>
+ *
+ * @author Amairani Caballero
+ */
+public final class FxThreadWatchdog implements AutoCloseable {
+
+	private final long thresholdNanos;
+
+	private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+		Thread thread = new Thread(r, "fx-watchdog");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	// Written by the heartbeat on the FX thread and read by the watchdog thread
+	private volatile Thread fxThread;
+	private volatile boolean heartbeatPending = false;
+	private volatile long heartbeatPostedAt;
+	private volatile boolean stallReported = false;
+
+	private FxThreadWatchdog(long thresholdMillis) {
+		this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+	}
+
+	/**********
+	 * <p> Method: start() </p>
+	 *
+	 * <p> Description: Starts watching the JavaFX Application Thread. </p>
+	 *
+	 * @param thresholdMillis	how long the FX thread may be busy before a stall is reported
+	 * @return the running watchdog
+	 */
+	public static FxThreadWatchdog start(long thresholdMillis) {
+		if (thresholdMillis < 1) throw new IllegalArgumentException("thresholdMillis must be at least 1");
+		FxThreadWatchdog watchdog = new FxThreadWatchdog(thresholdMillis);
+		long period = Math.max(thresholdMillis / 4, 10);
+		watchdog.scheduler.scheduleAtFixedRate(watchdog::check, period, period, TimeUnit.MILLISECONDS);
+		return watchdog;
+	}
+
+	/*
+	 * Runs on the watchdog thread: posts a heartbeat if none is waiting, else checks how long the
+	 * waiting one has waited.
+	 */
+	private void check() {
+		long now = System.nanoTime();
+		if (!heartbeatPending) {
+			heartbeatPending = true;
+			heartbeatPostedAt = now;
+			Platform.runLater(this::heartbeat);
+			return;
+		}
+		if (stallReported || now - heartbeatPostedAt < thresholdNanos) return;
+
+		stallReported = true;
+		System.out.println("*** WARNING ***: The JavaFX Application Thread has not responded for "
+				+ TimeUnit.NANOSECONDS.toMillis(now - heartbeatPostedAt) + " ms");
+		Thread thread = fxThread;
+		if (thread != null) {
+			for (StackTraceElement frame : thread.getStackTrace()) System.out.println("\tat " + frame);
+		}
+	}
+
+	/*
+	 * Runs on the FX thread.
+	 */
+	private void heartbeat() {
+		fxThread = Thread.currentThread();
+		if (stallReported) {
+			System.out.println("*** INFO ***: The JavaFX Application Thread responded again after "
+					+ TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - heartbeatPostedAt) + " ms");
+			stallReported = false;
+		}
+		heartbeatPending = false;
+	}
+
+	/**********
+	 * <p> Method: close() </p>
+	 *
+	 * <p> Description: Stops watching. </p>
+	 */
+	@Override
+	public void close() {
+		scheduler.shutdownNow();
+	}
+}
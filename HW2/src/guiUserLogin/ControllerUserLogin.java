@@ -1,10 +1,13 @@
 package guiUserLogin;
 
-import database.Database;
+import database.AsyncDatabase;
+import entityClasses.AuthenticationResult;
 import entityClasses.User;
+import entityClasses.UserRecord;
 import guiAdminHome.ViewAdminHome;
 import guiRole1.ViewRole1Home;
 import guiRole2.ViewRole2Home;
+import guiTools.DatabaseErrors;
 import javafx.stage.Stage;
 
 /*******
@@ -49,8 +52,8 @@ public class ControllerUserLogin {
 	public ControllerUserLogin() {
 	}
 
-	// Reference for the in-memory database so this package has access
-	private static Database theDatabase = applicationMain.FoundationsMain.database;
+	// Reference for background access to the database so this package has access
+	private static AsyncDatabase theAsyncDatabase = applicationMain.FoundationsMain.asyncDatabase;
 
 	private static Stage theStage;	
 	
@@ -69,59 +72,61 @@ public class ControllerUserLogin {
 		theStage = ts;
 		String username = ViewUserLogin.text_Username.getText();
 		String password = ViewUserLogin.text_Password.getText();
-    	boolean loginResult = false;
     	
-		// Fetch the user and verify the username
-     	if (theDatabase.getUserAccountDetails(username) == false) {
-     		// Don't provide too much information.  Don't say the username is invalid or the
-     		// password is invalid.  Just say the pair is invalid.
+		// Verify the username/password pair, and fetch the account and its roles, in one query.
+		// The query runs in the background and the answer comes back on the JavaFX thread, so the
+		// window stays responsive; the button is disabled until then so the login is not sent twice.
+		ViewUserLogin.button_Login.setDisable(true);
+		theAsyncDatabase.call(db -> db.authenticate(username, password))
+			.exceptionally(_ -> AuthenticationResult.unavailable())
+			.thenAccept(auth -> {
+				ViewUserLogin.button_Login.setDisable(false);
+				finishLogin(auth);
+			})
+			.exceptionally(DatabaseErrors::report);
+	}
+	
+	/**********
+	 * <p> Method: finishLogin() </p>
+	 * 
+	 * <p> Description: Called on the JavaFX thread with the answer from the database. It reports
+	 * a failed login, or takes the user to the home page of their role.</p>
+	 * 
+	 */
+	private static void finishLogin(AuthenticationResult auth) {
+		if (auth.getStatus() == AuthenticationResult.Status.UNAVAILABLE) {
     		ViewUserLogin.alertUsernamePasswordError.setContentText(
-    				"Incorrect username/password. Try again!");
+    				"The database is not available right now. Try again!");
     		ViewUserLogin.alertUsernamePasswordError.showAndWait();
     		return;
-    	}
-		// System.out.println("*** Username is valid");
-		
-		// Check to see that the login password matches the account password
-    	String actualPassword = theDatabase.getCurrentPassword();
-    	
-    	if (password.compareTo(actualPassword) != 0) {
+		}
+     	if (!auth.isAuthenticated()) {
+     		// Don't provide too much information.  Don't say the username is invalid or the
+     		// password is invalid.  Just say the pair is invalid.
     		ViewUserLogin.alertUsernamePasswordError.setContentText(
     				"Incorrect username/password. Try again!");
     		ViewUserLogin.alertUsernamePasswordError.showAndWait();
     		return;
     	}
-		// System.out.println("*** Password is valid for this user");
+		// System.out.println("*** Username and password are valid");
 		
 		// Establish this user's details
-    	User user = new User(username, password, theDatabase.getCurrentFirstName(), 
-    			theDatabase.getCurrentMiddleName(), theDatabase.getCurrentLastName(), 
-    			theDatabase.getCurrentPreferredFirstName(), theDatabase.getCurrentEmailAddress(), 
-    			theDatabase.getCurrentAdminRole(), 
-    			theDatabase.getCurrentNewRole1(), theDatabase.getCurrentNewRole2());
+		UserRecord record = auth.getUser();
+    	User user = record.toUser();
     	
     	// See which home page dispatch to use
-		int numberOfRoles = theDatabase.getNumberOfRoles(user);		
+		int numberOfRoles = record.getNumRoles();
 		// System.out.println("*** The number of roles: "+ numberOfRoles);
 		if (numberOfRoles == 1) {
 			// Single Account Home Page - The user has no choice here
 			
 			// Admin role
 			if (user.getAdminRole()) {
-				loginResult = theDatabase.loginAdmin(user);
-				if (loginResult) {
-					guiAdminHome.ViewAdminHome.displayAdminHome(theStage, user);
-				}
+				guiAdminHome.ViewAdminHome.displayAdminHome(theStage, user);
 			} else if (user.getNewRole1()) {
-				loginResult = theDatabase.loginRole1(user);
-				if (loginResult) {
-					guiRole1.ViewRole1Home.displayRole1Home(theStage, user);
-				}
+				guiRole1.ViewRole1Home.displayRole1Home(theStage, user);
 			} else if (user.getNewRole2()) {
-				loginResult = theDatabase.loginRole2(user);
-				if (loginResult) {
-					guiRole2.ViewRole2Home.displayRole2Home(theStage, user);
-				}
+				guiRole2.ViewRole2Home.displayRole2Home(theStage, user);
 				// Other roles
 			} else {
 				System.out.println("***** UserLogin goToUserHome request has an invalid role");
@@ -133,10 +138,10 @@ public class ControllerUserLogin {
 				displayMultipleRoleDispatch(theStage, user);
 		}
 		
-		ViewAdminHome.label_UserDetails.setText("User: " + theDatabase.getCurrentUsername());
-		ViewRole1Home.label_UserDetails.setText("User: " + theDatabase.getCurrentUsername());
-		ViewRole2Home.label_UserDetails.setText("User: " + theDatabase.getCurrentUsername());
-		ViewAdminHome.label_NumberOfUsers.setText("Number of users: " + theDatabase.getNumberOfUsers());
+		ViewAdminHome.label_UserDetails.setText("User: " + record.getUserName());
+		ViewRole1Home.label_UserDetails.setText("User: " + record.getUserName());
+		ViewRole2Home.label_UserDetails.setText("User: " + record.getUserName());
+		ViewAdminHome.label_NumberOfUsers.setText("Number of users: " + auth.getNumberOfUsers());
 	}
 	
 		
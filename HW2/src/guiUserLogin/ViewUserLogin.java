@@ -46,7 +46,8 @@ public class ViewUserLogin {
 	/** Password field to capture the user's password securely. */
 	protected static PasswordField text_Password = new PasswordField();
 	
-	private static Button button_Login = new Button("Log In");	
+	/** Button to log in; disabled while the login is being checked. */
+	protected static Button button_Login = new Button("Log In");	
 
 	private static Label label_AccountSetupInsrtuctions = new Label("No account? "+	
 			"Enter your invitation code and click on the Account Setup button");
@@ -1,8 +1,10 @@
 package guiUserUpdate;
 
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
-import database.Database;
+import database.AsyncDatabase;
 import javafx.geometry.Pos;
 import javafx.scene.Scene;
 import javafx.scene.control.Button;
@@ -12,7 +14,9 @@ import javafx.scene.layout.Pane;
 import javafx.scene.text.Font;
 import javafx.stage.Stage;
 import entityClasses.User;
+import entityClasses.ProfileField;
 import guiAdminHome.ViewAdminHome;
+import guiTools.DatabaseErrors;
 import entityClasses.InputRecognizer;
 import javafx.event.ActionEvent;
 import javafx.scene.control.ButtonType;
@@ -104,7 +108,7 @@ public class ViewUserUpdate {
 	private static ViewUserUpdate theView;	// Used to determine if instantiation of the class is needed
 
 	// This enables access to the application's database
-	private static Database theDatabase = applicationMain.FoundationsMain.database;
+	private static AsyncDatabase theAsyncDatabase = applicationMain.FoundationsMain.asyncDatabase;
 
 	private static Stage theStage;				// The Stage that JavaFX has established for us	
 	private static Pane theRootPane;			// The Pane that holds all the GUI widgets
@@ -300,14 +304,14 @@ public class ViewUserUpdate {
 		button_UpdatePassword.setOnAction((_) -> {
 			dialogUpdatePassword.getEditor().setText("");
 			result = dialogUpdatePassword.showAndWait();
-			result.ifPresent(_ -> theDatabase.updatePassword(theUser.getUserName(), result.get()));
-			theDatabase.getUserAccountDetails(theUser.getUserName());
-			String newPass = theDatabase.getCurrentPassword();
-			theUser.setPassword(newPass);
-			if (newPass == null || newPass.length() < 1) label_CurrentPassword.setText("<none>");
-			else label_CurrentPassword.setText(newPass);
+			saveField(ProfileField.PASSWORD, result).thenAccept(saved -> {
+				String newPass = saved.orElse(theUser.getPassword());
+				theUser.setPassword(newPass);
+				if (newPass == null || newPass.length() < 1) label_CurrentPassword.setText("<none>");
+				else label_CurrentPassword.setText(newPass);
 
-			guiUserLogin.ViewUserLogin.displayUserLogin(ViewAdminHome.theStage);
+				guiUserLogin.ViewUserLogin.displayUserLogin(ViewAdminHome.theStage);
+			}).exceptionally(DatabaseErrors::report);
 		});
 		
 		// First Name
@@ -317,12 +321,12 @@ public class ViewUserUpdate {
 		button_UpdateFirstName.setOnAction((_) -> {
 			dialogUpdateFirstName.getEditor().setText("");
 			result = dialogUpdateFirstName.showAndWait();
-			result.ifPresent(_ -> theDatabase.updateFirstName(theUser.getUserName(), result.get()));
-			theDatabase.getUserAccountDetails(theUser.getUserName());
-			String newName = theDatabase.getCurrentFirstName();
-			theUser.setFirstName(newName);
-			if (newName == null || newName.length() < 1) label_CurrentFirstName.setText("<none>");
-			else label_CurrentFirstName.setText(newName);
+			saveField(ProfileField.FIRST_NAME, result).thenAccept(saved -> {
+				String newName = saved.orElse(theUser.getFirstName());
+				theUser.setFirstName(newName);
+				if (newName == null || newName.length() < 1) label_CurrentFirstName.setText("<none>");
+				else label_CurrentFirstName.setText(newName);
+			}).exceptionally(DatabaseErrors::report);
 		});
 		
 		// Middle Name
@@ -332,12 +336,12 @@ public class ViewUserUpdate {
 		button_UpdateMiddleName.setOnAction((_) -> {
 			dialogUpdateMiddleName.getEditor().setText("");
 			result = dialogUpdateMiddleName.showAndWait();
-			result.ifPresent(_ -> theDatabase.updateMiddleName(theUser.getUserName(), result.get()));
-			theDatabase.getUserAccountDetails(theUser.getUserName());
-			String newName = theDatabase.getCurrentMiddleName();
-			theUser.setMiddleName(newName);
-			if (newName == null || newName.length() < 1) label_CurrentMiddleName.setText("<none>");
-			else label_CurrentMiddleName.setText(newName);
+			saveField(ProfileField.MIDDLE_NAME, result).thenAccept(saved -> {
+				String newName = saved.orElse(theUser.getMiddleName());
+				theUser.setMiddleName(newName);
+				if (newName == null || newName.length() < 1) label_CurrentMiddleName.setText("<none>");
+				else label_CurrentMiddleName.setText(newName);
+			}).exceptionally(DatabaseErrors::report);
 		});
 		
 		// Last Name
@@ -347,12 +351,12 @@ public class ViewUserUpdate {
 		button_UpdateLastName.setOnAction((_) -> {
 			dialogUpdateLastName.getEditor().setText("");
 			result = dialogUpdateLastName.showAndWait();
-			result.ifPresent(_ -> theDatabase.updateLastName(theUser.getUserName(), result.get()));
-			theDatabase.getUserAccountDetails(theUser.getUserName());
-			String newName = theDatabase.getCurrentLastName();
-			theUser.setLastName(newName);
-			if (newName == null || newName.length() < 1) label_CurrentLastName.setText("<none>");
-			else label_CurrentLastName.setText(newName);
+			saveField(ProfileField.LAST_NAME, result).thenAccept(saved -> {
+				String newName = saved.orElse(theUser.getLastName());
+				theUser.setLastName(newName);
+				if (newName == null || newName.length() < 1) label_CurrentLastName.setText("<none>");
+				else label_CurrentLastName.setText(newName);
+			}).exceptionally(DatabaseErrors::report);
 		});
 		
 		// Preferred First Name
@@ -362,12 +366,12 @@ public class ViewUserUpdate {
 		button_UpdatePreferredFirstName.setOnAction((_) -> {
 			dialogUpdatePreferredFirstName.getEditor().setText("");
 			result = dialogUpdatePreferredFirstName.showAndWait();
-			result.ifPresent(_ -> theDatabase.updatePreferredFirstName(theUser.getUserName(), result.get()));
-			theDatabase.getUserAccountDetails(theUser.getUserName());
-			String newName = theDatabase.getCurrentPreferredFirstName();
-			theUser.setPreferredFirstName(newName);
-			if (newName == null || newName.length() < 1) label_CurrentPreferredFirstName.setText("<none>");
-			else label_CurrentPreferredFirstName.setText(newName);
+			saveField(ProfileField.PREFERRED_FIRST_NAME, result).thenAccept(saved -> {
+				String newName = saved.orElse(theUser.getPreferredFirstName());
+				theUser.setPreferredFirstName(newName);
+				if (newName == null || newName.length() < 1) label_CurrentPreferredFirstName.setText("<none>");
+				else label_CurrentPreferredFirstName.setText(newName);
+			}).exceptionally(DatabaseErrors::report);
 		});
 		
 		// Email Address
@@ -377,14 +381,14 @@ public class ViewUserUpdate {
 		button_UpdateEmailAddress.setOnAction((_) -> {
 			dialogUpdateEmailAddresss.getEditor().setText("");
 			result = dialogUpdateEmailAddresss.showAndWait();
-			result.ifPresent(_ -> theDatabase.updateEmailAddress(theUser.getUserName(), result.get()));
-			theDatabase.getUserAccountDetails(theUser.getUserName());
-			String newEmail = theDatabase.getCurrentEmailAddress();
-			theUser.setEmailAddress(newEmail);
-			if (newEmail == null || newEmail.length() < 1) label_CurrentEmailAddress.setText("<none>");
-			else {
-				label_CurrentEmailAddress.setText(newEmail);
-			} 
+			saveField(ProfileField.EMAIL_ADDRESS, result).thenAccept(saved -> {
+				String newEmail = saved.orElse(theUser.getEmailAddress());
+				theUser.setEmailAddress(newEmail);
+				if (newEmail == null || newEmail.length() < 1) label_CurrentEmailAddress.setText("<none>");
+				else {
+					label_CurrentEmailAddress.setText(newEmail);
+				}
+			}).exceptionally(DatabaseErrors::report);
 		});
 		
 		// Set up the button to proceed to this user's home page
@@ -443,6 +447,20 @@ public class ViewUserUpdate {
 	Helper methods to reduce code length
 	**********************************************************************************************/
 	
+	/**
+	 * Private local method to save one changed field in the background. The update returns the
+	 * row as saved, so the page shows what is in the database without reading the account again.
+	 * * @param field The field that changed
+	 * @param value The new value typed by the user, empty if the dialog was cancelled
+	 * @return a future completed with the value now stored, or empty if nothing was saved
+	 */
+	private static CompletableFuture<Optional<String>> saveField(ProfileField field, Optional<String> value) {
+		if (value.isEmpty()) return CompletableFuture.completedFuture(Optional.empty());
+		String userName = theUser.getUserName();
+		return theAsyncDatabase.call(db -> db.updateProfile(userName, Map.of(field, value.get()))
+				.map(field::valueIn));
+	}
+	
 	/**
 	 * Private local method to initialize the standard fields for a label.
 	 * * @param l  The Label object to be initialized
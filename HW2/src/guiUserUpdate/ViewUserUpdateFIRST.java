@@ -1,9 +1,11 @@
 package guiUserUpdate;
 
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
 
-import database.Database;
+import database.AsyncDatabase;
 import javafx.event.ActionEvent;
 import javafx.geometry.Pos;
 import javafx.scene.Scene;
@@ -18,6 +20,8 @@ import javafx.scene.text.Font;
 import javafx.stage.Stage;
 import entityClasses.InputRecognizer;
 import entityClasses.User;
+import entityClasses.ProfileField;
+import guiTools.DatabaseErrors;
 
 /*******
  * <p> Title: ViewUserUpdate Class. </p>
@@ -115,8 +119,8 @@ public class ViewUserUpdateFIRST {
 	private static ViewUserUpdateFIRST theView;	// Used to determine if instantiation of the class
 											// is needed
 
-	// This enables access to the application's database
-	private static Database theDatabase = applicationMain.FoundationsMain.database;
+	// This enables background access to the application's database
+	private static AsyncDatabase theAsyncDatabase = applicationMain.FoundationsMain.asyncDatabase;
 
 	private static Stage theStage;				// The Stage that JavaFX has established for us	
 	private static Pane theRootPane;			// The Pane that holds all the GUI widgets
@@ -331,12 +335,12 @@ public class ViewUserUpdateFIRST {
         button_UpdatePassword.setOnAction((_) -> {
         	dialogUpdatePassword.getEditor().setText("");
         	result = dialogUpdatePassword.showAndWait();
-	    	result.ifPresent(_ -> theDatabase.updatePassword(theUser.getUserName(), result.get()));
-	    	theDatabase.getUserAccountDetails(theUser.getUserName());
-	     	String newPass = theDatabase.getCurrentPassword();
-	       	theUser.setPassword(newPass);
-	    	if (newPass == null || newPass.length() < 1)label_CurrentPassword.setText("<none>");
-	    	else label_CurrentPassword.setText(newPass);
+	    	saveField(ProfileField.PASSWORD, result).thenAccept(saved -> {
+	    		String newPass = saved.orElse(theUser.getPassword());
+	    		theUser.setPassword(newPass);
+	    		if (newPass == null || newPass.length() < 1)label_CurrentPassword.setText("<none>");
+	    		else label_CurrentPassword.setText(newPass);
+	    	}).exceptionally(DatabaseErrors::report);
 	     	});
         
         
@@ -347,12 +351,12 @@ public class ViewUserUpdateFIRST {
         button_UpdateFirstName.setOnAction((_) -> {
         	dialogUpdateFirstName.getEditor().setText("");
         	result = dialogUpdateFirstName.showAndWait();
-        	result.ifPresent(_ -> theDatabase.updateFirstName(theUser.getUserName(), result.get()));
-        	theDatabase.getUserAccountDetails(theUser.getUserName());
-         	String newName = theDatabase.getCurrentFirstName();
-           	theUser.setFirstName(newName);
-        	if (newName == null || newName.length() < 1)label_CurrentFirstName.setText("<none>");
-        	else label_CurrentFirstName.setText(newName);
+        	saveField(ProfileField.FIRST_NAME, result).thenAccept(saved -> {
+        		String newName = saved.orElse(theUser.getFirstName());
+        		theUser.setFirstName(newName);
+        		if (newName == null || newName.length() < 1)label_CurrentFirstName.setText("<none>");
+        		else label_CurrentFirstName.setText(newName);
+        	}).exceptionally(DatabaseErrors::report);
          	});
         
                
@@ -363,12 +367,12 @@ public class ViewUserUpdateFIRST {
         button_UpdateMiddleName.setOnAction((_) -> {
         	dialogUpdateMiddleName.getEditor().setText("");
         	result = dialogUpdateMiddleName.showAndWait();
-    		result.ifPresent(_ -> theDatabase.updateMiddleName(theUser.getUserName(), result.get()));
-    		theDatabase.getUserAccountDetails(theUser.getUserName());
-    		String newName = theDatabase.getCurrentMiddleName();
-           	theUser.setMiddleName(newName);
-        	if (newName == null || newName.length() < 1)label_CurrentMiddleName.setText("<none>");
-        	else label_CurrentMiddleName.setText(newName);
+    		saveField(ProfileField.MIDDLE_NAME, result).thenAccept(saved -> {
+    			String newName = saved.orElse(theUser.getMiddleName());
+    			theUser.setMiddleName(newName);
+    			if (newName == null || newName.length() < 1)label_CurrentMiddleName.setText("<none>");
+    			else label_CurrentMiddleName.setText(newName);
+    		}).exceptionally(DatabaseErrors::report);
     		});
         
         // Last Name
@@ -378,12 +382,12 @@ public class ViewUserUpdateFIRST {
         button_UpdateLastName.setOnAction((_) -> {
         	dialogUpdateLastName.getEditor().setText("");
         	result = dialogUpdateLastName.showAndWait();
-    		result.ifPresent(_ -> theDatabase.updateLastName(theUser.getUserName(), result.get()));
-    		theDatabase.getUserAccountDetails(theUser.getUserName());
-    		String newName = theDatabase.getCurrentLastName();
-           	theUser.setLastName(newName);
-      	if (newName == null || newName.length() < 1)label_CurrentLastName.setText("<none>");
-        	else label_CurrentLastName.setText(newName);
+    		saveField(ProfileField.LAST_NAME, result).thenAccept(saved -> {
+    			String newName = saved.orElse(theUser.getLastName());
+    			theUser.setLastName(newName);
+    			if (newName == null || newName.length() < 1)label_CurrentLastName.setText("<none>");
+    			else label_CurrentLastName.setText(newName);
+    		}).exceptionally(DatabaseErrors::report);
     		});
         
         
@@ -397,13 +401,12 @@ public class ViewUserUpdateFIRST {
         	{
         	dialogUpdatePreferredFirstName.getEditor().setText("");
         	result = dialogUpdatePreferredFirstName.showAndWait();
-    		result.ifPresent(_ -> 
-    		theDatabase.updatePreferredFirstName(theUser.getUserName(), result.get()));
-    		theDatabase.getUserAccountDetails(theUser.getUserName());
-    		String newName = theDatabase.getCurrentPreferredFirstName();
-           	theUser.setPreferredFirstName(newName);
-         	if (newName == null || newName.length() < 1)label_CurrentPreferredFirstName.setText("<none>");
-        	else label_CurrentPreferredFirstName.setText(newName);
+    		saveField(ProfileField.PREFERRED_FIRST_NAME, result).thenAccept(saved -> {
+    			String newName = saved.orElse(theUser.getPreferredFirstName());
+    			theUser.setPreferredFirstName(newName);
+    			if (newName == null || newName.length() < 1)label_CurrentPreferredFirstName.setText("<none>");
+    			else label_CurrentPreferredFirstName.setText(newName);
+    		}).exceptionally(DatabaseErrors::report);
      		});
         
         
@@ -414,14 +417,14 @@ public class ViewUserUpdateFIRST {
         button_UpdateEmailAddress.setOnAction((_) -> {
         	dialogUpdateEmailAddresss.getEditor().setText("");
         	result = dialogUpdateEmailAddresss.showAndWait();
-    		result.ifPresent(_ -> theDatabase.updateEmailAddress(theUser.getUserName(), result.get()));
-    		theDatabase.getUserAccountDetails(theUser.getUserName());
-    		String newEmail = theDatabase.getCurrentEmailAddress();
-           	theUser.setEmailAddress(newEmail);
-        	if (newEmail == null || newEmail.length() < 1)label_CurrentEmailAddress.setText("<none>");
-        	else {
-				label_CurrentEmailAddress.setText(newEmail);
-			} 
+    		saveField(ProfileField.EMAIL_ADDRESS, result).thenAccept(saved -> {
+    			String newEmail = saved.orElse(theUser.getEmailAddress());
+    			theUser.setEmailAddress(newEmail);
+    			if (newEmail == null || newEmail.length() < 1)label_CurrentEmailAddress.setText("<none>");
+    			else {
+    				label_CurrentEmailAddress.setText(newEmail);
+    			}
+    		}).exceptionally(DatabaseErrors::report);
  			});
        
 ;        
@@ -491,6 +494,22 @@ public class ViewUserUpdateFIRST {
 	}
 	
 	
+	/**********
+	 * Private local method to save one changed field in the background. The update returns the
+	 * row as saved, so the page shows what is in the database without reading the account again.
+	 * 
+	 * @param field		The field that changed
+	 * @param value		The new value typed by the user, empty if the dialog was cancelled
+	 * @return a future completed with the value now stored, or empty if nothing was saved
+	 */
+	private static CompletableFuture<Optional<String>> saveField(ProfileField field, Optional<String> value) {
+		if (value.isEmpty()) return CompletableFuture.completedFuture(Optional.empty());
+		String userName = theUser.getUserName();
+		return theAsyncDatabase.call(db -> db.updateProfile(userName, Map.of(field, value.get()))
+				.map(field::valueIn));
+	}
+	
+	
 	/**********
 	 * Private local method to initialize the standard fields for a label
 	 * 
@@ -5,6 +5,7 @@
 module FoundationsF25 {
 	requires javafx.controls;
 	requires java.sql;
+	requires java.management;
 	
 	opens applicationMain to javafx.graphics, javafx.fxml;
 }